@@ -4,37 +4,55 @@ import com.tiny.bank.api.model.response.AccountBalanceResponse;
 import com.tiny.bank.api.model.response.ErrorResponse;
 import com.tiny.bank.api.model.response.GenericResponse;
 import com.tiny.bank.api.model.response.SuccessResponse;
+import com.tiny.bank.api.ratelimit.RateLimited;
+import com.tiny.bank.api.stream.BalanceStreamer;
 import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.BalanceSheet;
+import com.tiny.bank.domain.account.Hold;
 import com.tiny.bank.domain.usecase.OperationStatus;
 import com.tiny.bank.domain.usecase.account.AccountBalanceViewer;
 import com.tiny.bank.domain.usecase.account.AccountCreator;
+import com.tiny.bank.domain.usecase.account.AccountHoldProcessor;
 import com.tiny.bank.domain.user.User;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @RestController
+@RateLimited
 @Validated
 @RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE)
 public class AccountController {
 
     private final AccountBalanceViewer balanceViewer;
     private final AccountCreator accountCreator;
+    private final AccountHoldProcessor holdProcessor;
+    private final BalanceStreamer balanceStreamer;
 
-    public AccountController(final AccountBalanceViewer balanceViewer, final AccountCreator accountCreator) {
+    public AccountController(final AccountBalanceViewer balanceViewer,
+                             final AccountCreator accountCreator,
+                             final AccountHoldProcessor holdProcessor,
+                             final BalanceStreamer balanceStreamer) {
         this.balanceViewer = balanceViewer;
         this.accountCreator = accountCreator;
+        this.holdProcessor = holdProcessor;
+        this.balanceStreamer = balanceStreamer;
     }
 
     @PostMapping("/users/{userId}/accounts")
@@ -57,16 +75,61 @@ public class AccountController {
         return ResponseEntity.ok().body(new AccountBalanceResponse(account.getBalance(), account.getAccountId().toString(), userId));
     }
 
+    @GetMapping(value = "/users/{userId}/accounts/{accountId}/balance/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBalance(@PathVariable final String userId,
+                                    @PathVariable final String accountId) {
+
+        final Account account = balanceViewer.view(userId, UUID.fromString(accountId));
+
+        return balanceStreamer.stream(userId, account);
+    }
+
     @GetMapping("/users/{userId}/accounts/balance")
     @ResponseStatus(HttpStatus.OK)
     public ResponseEntity<Set<AccountBalanceResponse>> getBalance(@PathVariable final String userId) {
 
-        final Set<Account> accounts = balanceViewer.viewAllAccounts(userId);
+        final BalanceSheet balanceSheet = balanceViewer.viewBalanceSheet(userId);
 
-        return ResponseEntity.ok().body(accounts.stream()
-                .map(account -> new AccountBalanceResponse(account.getBalance(), account.getAccountId().toString(), userId))
+        return ResponseEntity.ok().body(balanceSheet.balances().stream()
+                .map(balance -> new AccountBalanceResponse(balance.balance(), balance.accountId().toString(), userId))
                 .collect(Collectors.toSet())
         );
     }
 
+    @PostMapping("/users/{userId}/accounts/{accountId}/holds")
+    public ResponseEntity<Hold> reserve(@PathVariable final String userId,
+                                        @PathVariable final String accountId,
+                                        @RequestParam final Double amount,
+                                        @RequestParam final Duration ttl) {
+
+        final Hold hold = holdProcessor.reserve(userId, UUID.fromString(accountId), BigDecimal.valueOf(amount), ttl);
+
+        return ResponseEntity.ok().body(hold);
+    }
+
+    @PostMapping("/users/{userId}/accounts/{accountId}/holds/{holdId}/capture")
+    public ResponseEntity<AccountBalanceResponse> capture(@PathVariable final String userId,
+                                                          @PathVariable final String accountId,
+                                                          @PathVariable final String holdId,
+                                                          @RequestParam(required = false) final Double amount) {
+
+        final BigDecimal balance = holdProcessor.capture(userId,
+                UUID.fromString(accountId),
+                UUID.fromString(holdId),
+                amount == null ? null : BigDecimal.valueOf(amount));
+
+        return ResponseEntity.ok().body(new AccountBalanceResponse(balance, accountId, userId));
+    }
+
+    @DeleteMapping("/users/{userId}/accounts/{accountId}/holds/{holdId}")
+    public ResponseEntity<Void> release(@PathVariable final String userId,
+                                        @PathVariable final String accountId,
+                                        @PathVariable final String holdId) {
+        if (!holdProcessor.release(userId, UUID.fromString(accountId), UUID.fromString(holdId))) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok().build();
+    }
+
 }
@@ -0,0 +1,28 @@
+package com.tiny.bank.api.controller;
+
+import com.tiny.bank.api.stream.EventStreamer;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@Validated
+public class EventController {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final EventStreamer eventStreamer;
+
+    public EventController(final EventStreamer eventStreamer) {
+        this.eventStreamer = eventStreamer;
+    }
+
+    @GetMapping(value = "/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(name = LAST_EVENT_ID, required = false) final Long lastEventId) {
+        return eventStreamer.stream(lastEventId);
+    }
+
+}
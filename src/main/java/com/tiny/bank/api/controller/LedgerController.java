@@ -0,0 +1,45 @@
+package com.tiny.bank.api.controller;
+
+import com.tiny.bank.ledger.LedgerExportJob;
+import com.tiny.bank.ledger.LedgerExportSummary;
+import com.tiny.bank.ledger.LedgerExporter;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@Validated
+@RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+public class LedgerController {
+
+    private static final String GZIP_VALUE = "application/gzip";
+
+    private final LedgerExporter ledgerExporter;
+    private final LedgerExportJob ledgerExportJob;
+
+    public LedgerController(final LedgerExporter ledgerExporter, final LedgerExportJob ledgerExportJob) {
+        this.ledgerExporter = ledgerExporter;
+        this.ledgerExportJob = ledgerExportJob;
+    }
+
+    @PostMapping("/ledger/exports")
+    public ResponseEntity<LedgerExportSummary> exportLedger() {
+        return ResponseEntity.ok().body(ledgerExportJob.run());
+    }
+
+    @GetMapping(value = "/ledger/export", produces = GZIP_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamLedger() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(GZIP_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("ledger.ndjson.gz").build().toString())
+                .body(ledgerExporter::export);
+    }
+
+}
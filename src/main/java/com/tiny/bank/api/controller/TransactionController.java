@@ -1,20 +1,31 @@
 package com.tiny.bank.api.controller;
 
+import com.tiny.bank.api.model.request.ScheduledTransactionRequest;
 import com.tiny.bank.api.model.request.TransactionRequest;
 import com.tiny.bank.api.model.response.ErrorResponse;
 import com.tiny.bank.api.model.response.GenericResponse;
 import com.tiny.bank.api.model.response.SuccessResponse;
 import com.tiny.bank.api.model.response.TransactionRecordResponse;
+import com.tiny.bank.api.ratelimit.RateLimited;
+import com.tiny.bank.domain.exception.OverloadedException;
+import com.tiny.bank.domain.transaction.ScheduledTransfer;
 import com.tiny.bank.domain.transaction.Transaction;
 import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionSearchCriteria;
 import com.tiny.bank.domain.usecase.OperationStatus;
 import com.tiny.bank.domain.usecase.transaction.TransactionHistoryViewer;
 import com.tiny.bank.domain.usecase.transaction.TransactionProcessor;
+import com.tiny.bank.domain.usecase.transaction.TransactionSearcher;
+import com.tiny.bank.domain.usecase.transaction.TransferScheduler;
 import com.tiny.bank.domain.usecase.user.UserDepositProcessor;
 import com.tiny.bank.domain.usecase.user.UserWithdrawalProcessor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -24,11 +35,13 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
+@RateLimited
 @Validated
 @RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE)
 public class TransactionController {
@@ -37,15 +50,21 @@ public class TransactionController {
     private final UserWithdrawalProcessor userWithdrawalProcessor;
     private final TransactionHistoryViewer transactionHistoryViewer;
     private final TransactionProcessor transactionProcessor;
+    private final TransactionSearcher transactionSearcher;
+    private final TransferScheduler transferScheduler;
 
     public TransactionController(final UserDepositProcessor depositProcessor,
                                  final UserWithdrawalProcessor userWithdrawalProcessor,
                                  final TransactionHistoryViewer transactionHistoryViewer,
-                                 final TransactionProcessor transactionProcessor) {
+                                 final TransactionProcessor transactionProcessor,
+                                 final TransactionSearcher transactionSearcher,
+                                 final TransferScheduler transferScheduler) {
         this.depositProcessor = depositProcessor;
         this.userWithdrawalProcessor = userWithdrawalProcessor;
         this.transactionHistoryViewer = transactionHistoryViewer;
         this.transactionProcessor = transactionProcessor;
+        this.transactionSearcher = transactionSearcher;
+        this.transferScheduler = transferScheduler;
     }
 
     @PostMapping("users/{userId}/accounts/{accountId}/deposit")
@@ -80,21 +99,41 @@ public class TransactionController {
 
     @GetMapping("users/{userId}/accounts/{accountId}/transactions")
     public ResponseEntity<TransactionRecordResponse> accountTransactionHistory(@PathVariable final String userId,
-                                                                               @PathVariable final String accountId) {
-        final Set<TransactionRecord> transactionRecords = transactionHistoryViewer.view(userId, UUID.fromString(accountId));
+                                                                               @PathVariable final String accountId,
+                                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime from,
+                                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime to) {
+        final Set<TransactionRecord> transactionRecords = from == null && to == null
+                ? transactionHistoryViewer.view(userId, UUID.fromString(accountId))
+                : transactionHistoryViewer.viewRange(userId, UUID.fromString(accountId), from, to);
 
         return ResponseEntity.ok().body(new TransactionRecordResponse(transactionRecords));
     }
 
     @GetMapping("users/{userId}/transactions")
-    public ResponseEntity<Set<TransactionRecordResponse>> accountTransactionHistory(@PathVariable final String userId) {
+    public ResponseEntity<List<TransactionRecordResponse>> accountTransactionHistory(@PathVariable final String userId) {
         return ResponseEntity.ok().body(transactionHistoryViewer.viewAllUserTransactions(userId)
                 .stream()
                 .map(TransactionRecordResponse::new)
-                .collect(Collectors.toSet())
+                .toList()
         );
     }
 
+    @GetMapping("users/{userId}/transactions/search")
+    public ResponseEntity<TransactionRecordResponse> searchTransactions(@PathVariable final String userId,
+                                                                        @RequestParam(required = false) final String counterparty,
+                                                                        @RequestParam(required = false) final Double min,
+                                                                        @RequestParam(required = false) final Double max,
+                                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime from,
+                                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime to) {
+        final TransactionSearchCriteria criteria = new TransactionSearchCriteria(counterparty == null ? null : UUID.fromString(counterparty),
+                min == null ? null : BigDecimal.valueOf(min),
+                max == null ? null : BigDecimal.valueOf(max),
+                from,
+                to);
+
+        return ResponseEntity.ok().body(new TransactionRecordResponse(transactionSearcher.search(userId, criteria)));
+    }
+
     @PostMapping("transaction")
     public ResponseEntity<Void> processTransaction(@RequestBody final TransactionRequest body) {
         final Transaction transaction = new Transaction(BigDecimal.valueOf(body.amount()),
@@ -103,7 +142,51 @@ public class TransactionController {
                 body.recipientId(),
                 UUID.fromString(body.recipientAccountId()));
 
-        transactionProcessor.process(transaction);
+        try {
+            transactionProcessor.process(transaction);
+        } catch (OverloadedException e) {
+            //Rejected before taking any account lock, the client can safely retry
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("transaction/batch")
+    public ResponseEntity<List<GenericResponse>> processTransactions(@RequestBody final List<TransactionRequest> body) {
+        final List<Transaction> transactions = body.stream()
+                .map(request -> new Transaction(BigDecimal.valueOf(request.amount()),
+                        request.senderId(),
+                        UUID.fromString(request.senderAccountId()),
+                        request.recipientId(),
+                        UUID.fromString(request.recipientAccountId())))
+                .toList();
+
+        return ResponseEntity.ok().body(transactionProcessor.processNetted(transactions)
+                .stream()
+                .<GenericResponse>map(status -> status.isFailure()
+                        ? new ErrorResponse(status.errorMessage())
+                        : new SuccessResponse("Operation successful"))
+                .toList()
+        );
+    }
+
+    @PostMapping("transaction/scheduled")
+    public ResponseEntity<ScheduledTransfer> scheduleTransaction(@RequestBody final ScheduledTransactionRequest body) {
+        final Transaction transaction = new Transaction(BigDecimal.valueOf(body.amount()),
+                body.senderId(),
+                UUID.fromString(body.senderAccountId()),
+                body.recipientId(),
+                UUID.fromString(body.recipientAccountId()));
+
+        return ResponseEntity.ok().body(transferScheduler.schedule(transaction, body.executeAt(), body.recurrence()));
+    }
+
+    @DeleteMapping("transaction/scheduled/{id}")
+    public ResponseEntity<Void> cancelScheduledTransaction(@PathVariable final String id) {
+        if (!transferScheduler.cancel(UUID.fromString(id))) {
+            return ResponseEntity.notFound().build();
+        }
 
         return ResponseEntity.ok().build();
     }
@@ -0,0 +1,13 @@
+package com.tiny.bank.api.model.request;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+
+public record ScheduledTransactionRequest(String senderId,
+                                          String senderAccountId,
+                                          String recipientId,
+                                          String recipientAccountId,
+                                          Double amount,
+                                          LocalDateTime executeAt,
+                                          Period recurrence) {
+}
@@ -0,0 +1,68 @@
+package com.tiny.bank.api.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiny.bank.api.model.response.ErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests to {@link RateLimited} controllers with {@code 429 Too Many Requests} once their client, or the
+ * user of their {@code userId} path variable, runs out of tokens. Runs before the handler, so a rejected request never
+ * reaches the repository.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitInterceptor.class);
+
+    private static final String USER_ID = "userId";
+
+    private final RateLimiter userLimiter;
+    private final RateLimiter clientLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitInterceptor(final RateLimiter userLimiter, final RateLimiter clientLimiter, final ObjectMapper objectMapper) {
+        this.userLimiter = userLimiter;
+        this.clientLimiter = clientLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod method) || !method.getBeanType().isAnnotationPresent(RateLimited.class)) {
+            return true;
+        }
+
+        //The address of the connection, forwarding headers are set by the client and can't be trusted here
+        long waitNanos = clientLimiter.tryAcquire(request.getRemoteAddr());
+
+        if (waitNanos == 0 && request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                && variables.get(USER_ID) instanceof String userId) {
+            waitNanos = userLimiter.tryAcquire(userId);
+        }
+
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        LOGGER.warn("operation=rateLimit, message=Request rejected, client={}, uri={}", request.getRemoteAddr(), request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("Too many requests"));
+
+        return false;
+    }
+}
@@ -0,0 +1,74 @@
+package com.tiny.bank.api.ratelimit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per key, such as a user or a client address.
+ *
+ * <p>
+ * A bucket holds up to {@code burst} tokens and refills at {@code rate} tokens per second. It is kept as a single
+ * {@link AtomicLong}, the time at which it will be full again, and a token is taken with one compare-and-set, so
+ * requests of the same key never lock. Buckets live in a bounded map evicting the least recently used ones; a bucket
+ * is only dropped once it has been idle long enough to be full again, unless the map overflows, in which case an
+ * evicted key simply starts over with a full bucket.
+ * </p>
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param rate      the tokens added per second.
+     * @param burst     the capacity of a bucket.
+     * @param maxKeys   the maximum number of buckets kept.
+     * @param nanoClock the time source, in nanoseconds.
+     */
+    public RateLimiter(final double rate, final int burst, final long maxKeys, final LongSupplier nanoClock) {
+        Objects.requireNonNull(nanoClock, "nanoClock shouldn't be null");
+
+        if (rate <= 0 || burst < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException(String.format("Invalid rate=%s, burst=%s or maxKeys=%s", rate, burst, maxKeys));
+        }
+
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000 / rate));
+        this.burstNanos = Math.multiplyExact(intervalNanos, burst);
+        this.nanoClock = nanoClock;
+        this.buckets = CacheBuilder.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+    }
+
+    /**
+     * Takes a token from the bucket of a key.
+     *
+     * @param key the key.
+     * @return zero if a token was taken, otherwise the nanoseconds until the bucket has a token again.
+     */
+    public long tryAcquire(final String key) {
+        final AtomicLong full = buckets.asMap().computeIfAbsent(key, ignored -> new AtomicLong(Long.MIN_VALUE));
+        final long now = nanoClock.getAsLong();
+
+        while (true) {
+            final long current = full.get();
+            final long next = Math.max(current, now) + intervalNanos;
+
+            if (next - now > burstNanos) {
+                return next - now - burstNanos;
+            }
+
+            if (full.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.tiny.bank.api.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiny.bank.api.model.response.ErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Rejects every request that could change the state with {@code 405 Method Not Allowed}, as a replica only applies
+ * the changes of its primary. Runs before the handler, so a rejected request never reaches the repository.
+ */
+public class ReadOnlyInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> READ_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+    private static final String ALLOW = String.join(", ", READ_METHODS.stream().sorted().toList());
+
+    private final ObjectMapper objectMapper;
+
+    public ReadOnlyInterceptor(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) throws IOException {
+        if (READ_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+
+        response.setStatus(HttpStatus.METHOD_NOT_ALLOWED.value());
+        response.setHeader(HttpHeaders.ALLOW, ALLOW);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("Read-only replica, send writes to the primary"));
+
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package com.tiny.bank.api.stream;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.tiny.bank.api.model.response.AccountBalanceResponse;
+import com.tiny.bank.domain.account.Account;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Streams the balance of an account as server-sent events, fed by the balance observers of the account.
+ *
+ * <p>
+ * The current balance is sent as soon as the stream opens, then every change, coalesced to at most one event per
+ * interval so a burst of operations costs a client a single event with the resulting balance. Each event is named
+ * {@code balance} and carries an {@link AccountBalanceResponse}. Sends run on virtual threads, so a slow client only
+ * delays its own stream; a failed send ends the stream.
+ * </p>
+ */
+public class BalanceStreamer implements Closeable {
+
+    static final String BALANCE = "balance";
+
+    private final Duration interval;
+    private final Duration timeout;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("balance-stream-scheduler-%d")
+            .setDaemon(true)
+            .build());
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+            .name("balance-stream-sender-", 0)
+            .factory());
+
+    /**
+     * @param interval the minimum time between two events of a stream.
+     * @param timeout  how long a stream stays open before the client has to reconnect.
+     */
+    public BalanceStreamer(final Duration interval, final Duration timeout) {
+        this.interval = Objects.requireNonNull(interval, "interval shouldn't be null");
+        this.timeout = Objects.requireNonNull(timeout, "timeout shouldn't be null");
+    }
+
+    /**
+     * Opens a stream of the balance of an account.
+     *
+     * @param userId  the credit card number of the owner, echoed in the events.
+     * @param account the account.
+     * @return the stream.
+     */
+    public SseEmitter stream(final String userId, final Account account) {
+        final BalanceStream stream = new BalanceStream(userId, account);
+
+        stream.emitter.onCompletion(stream::stop);
+        stream.emitter.onTimeout(stream::stop);
+        stream.emitter.onError(error -> stream.stop());
+
+        //Told about the current balance first, which opens the stream
+        account.observeBalance(stream.observer);
+        return stream.emitter;
+    }
+
+    /**
+     * Stops sending, open streams receive no more events.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    private final class BalanceStream {
+
+        private final String userId;
+        private final Account account;
+        private final SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        private final CoalescingBalanceObserver observer;
+
+        private BalanceStream(final String userId, final Account account) {
+            this.userId = userId;
+            this.account = account;
+            this.observer = new CoalescingBalanceObserver(interval, scheduler, sender, this::send);
+        }
+
+        private void send(final BigDecimal balance) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(BALANCE)
+                        .data(new AccountBalanceResponse(balance, account.getAccountId().toString(), userId),
+                                MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                stop();
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void stop() {
+            account.stopObservingBalance(observer);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.tiny.bank.api.stream;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.BalanceObserver;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * {@link BalanceObserver} handing the balance of an account to a sink at most once per interval.
+ *
+ * <p>
+ * A change after a quiet interval is sent right away; the changes of a burst only record the latest balance and
+ * schedule a single send at the end of the interval, so the sink always ends up with the current balance. A balance
+ * equal to the last one sent is not sent again. The observer itself only runs a few atomic operations under the
+ * account lock, sends run on the executor, one at a time.
+ * </p>
+ */
+final class CoalescingBalanceObserver implements BalanceObserver {
+
+    private final long intervalNanos;
+    private final ScheduledExecutorService scheduler;
+    private final Executor sender;
+    private final Consumer<BigDecimal> sink;
+
+    private final AtomicReference<BigDecimal> latest = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * When the last send started, in {@link System#nanoTime()} units.
+     */
+    private volatile long lastSend;
+
+    /**
+     * The last balance sent, guarded by this observer.
+     */
+    private BigDecimal sent;
+
+    /**
+     * @param interval  the minimum time between two sends.
+     * @param scheduler schedules the sends of a burst.
+     * @param sender    runs the sends.
+     * @param sink      receives the balances.
+     */
+    CoalescingBalanceObserver(final Duration interval,
+                              final ScheduledExecutorService scheduler,
+                              final Executor sender,
+                              final Consumer<BigDecimal> sink) {
+        this.intervalNanos = interval.toNanos();
+        this.scheduler = scheduler;
+        this.sender = sender;
+        this.sink = sink;
+        this.lastSend = System.nanoTime() - intervalNanos;
+    }
+
+    @Override
+    public void balanceChanged(final Account account, final BigDecimal balance) {
+        latest.set(balance);
+
+        if (scheduled.compareAndSet(false, true)) {
+            final long delay = lastSend + intervalNanos - System.nanoTime();
+
+            try {
+                if (delay <= 0) {
+                    sender.execute(this::send);
+                } else {
+                    scheduler.schedule(() -> sender.execute(this::send), delay, TimeUnit.NANOSECONDS);
+                }
+            } catch (RejectedExecutionException e) {
+                //Shutting down, the change must not fail because nobody can be told about it any more
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private synchronized void send() {
+        //Set before the balance is read, so a change from now on schedules another send one interval later
+        lastSend = System.nanoTime();
+        scheduled.set(false);
+
+        final BigDecimal balance = latest.get();
+
+        if (sent == null || sent.compareTo(balance) != 0) {
+            sent = balance;
+            sink.accept(balance);
+        }
+    }
+}
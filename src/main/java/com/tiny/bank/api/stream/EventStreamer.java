@@ -0,0 +1,75 @@
+package com.tiny.bank.api.stream;
+
+import com.tiny.bank.domain.event.EventBus;
+import com.tiny.bank.domain.event.EventSubscriber;
+import com.tiny.bank.domain.event.LedgerEvent;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Streams the events of an {@link EventBus} as server-sent events, one subscription per stream.
+ *
+ * <p>
+ * Each event carries its sequence number as id, its type as name and the event as JSON data. A client reconnecting
+ * with the id of the last event it received resumes right after it, for as long as the bus still keeps the events
+ * it missed; a {@code missed} event with the number of lost events is sent otherwise. A slow client only delays its
+ * own stream.
+ * </p>
+ */
+public class EventStreamer {
+
+    static final String MISSED = "missed";
+
+    private final EventBus eventBus;
+    private final Duration timeout;
+
+    /**
+     * @param eventBus the bus to stream.
+     * @param timeout  how long a stream stays open before the client has to reconnect.
+     */
+    public EventStreamer(final EventBus eventBus, final Duration timeout) {
+        this.eventBus = Objects.requireNonNull(eventBus, "eventBus shouldn't be null");
+        this.timeout = Objects.requireNonNull(timeout, "timeout shouldn't be null");
+    }
+
+    /**
+     * Opens a stream.
+     *
+     * @param lastEventId the id of the last event the client received, {@code null} to stream from now on.
+     * @return the stream.
+     */
+    public SseEmitter stream(final Long lastEventId) {
+        final SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        final EventSubscriber subscriber = new EmittingSubscriber(emitter);
+        final EventBus.Subscription subscription = lastEventId == null
+                ? eventBus.subscribe(subscriber)
+                : eventBus.subscribe(subscriber, lastEventId + 1);
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return emitter;
+    }
+
+    private record EmittingSubscriber(SseEmitter emitter) implements EventSubscriber {
+
+        @Override
+        public void onEvent(final long sequence, final LedgerEvent event, final boolean endOfBatch) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(sequence))
+                    .name(event.type())
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void onMissed(final long count) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .name(MISSED)
+                    .data(count));
+        }
+    }
+}
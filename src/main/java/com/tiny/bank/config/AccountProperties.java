@@ -0,0 +1,19 @@
+package com.tiny.bank.config;
+
+import com.tiny.bank.domain.account.RecordMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Account settings.
+ *
+ * @param recordMode how accounts append transaction records to their history, synchronous by default.
+ */
+@ConfigurationProperties(prefix = "tiny-bank.accounts")
+public record AccountProperties(RecordMode recordMode) {
+
+    public AccountProperties {
+        if (recordMode == null) {
+            recordMode = RecordMode.SYNCHRONOUS;
+        }
+    }
+}
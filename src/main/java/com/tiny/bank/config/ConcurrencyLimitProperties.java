@@ -0,0 +1,34 @@
+package com.tiny.bank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Adaptive concurrency limit of transfers.
+ *
+ * @param enabled      whether transfers are concurrency limited, {@code false} by default: the limit reads any
+ *                     latency rise, such as a GC pause, as overload and rejects transfers.
+ * @param initialLimit transfers executing at once before any latency is observed, 20 by default.
+ * @param minLimit     lowest limit, 1 by default.
+ * @param maxLimit     highest limit, 200 by default.
+ */
+@ConfigurationProperties(prefix = "tiny-bank.transfers.concurrency-limit")
+public record ConcurrencyLimitProperties(Boolean enabled, Integer initialLimit, Integer minLimit, Integer maxLimit) {
+
+    public ConcurrencyLimitProperties {
+        if (enabled == null) {
+            enabled = false;
+        }
+
+        if (initialLimit == null) {
+            initialLimit = 20;
+        }
+
+        if (minLimit == null) {
+            minLimit = 1;
+        }
+
+        if (maxLimit == null) {
+            maxLimit = 200;
+        }
+    }
+}
@@ -1,17 +1,32 @@
 package com.tiny.bank.config;
 
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.transaction.TransactionArchive;
+import com.tiny.bank.domain.transaction.TransactionType;
+import com.tiny.bank.domain.usecase.ConcurrencyLimiter;
+import com.tiny.bank.domain.usecase.GradientConcurrencyLimiter;
+import com.tiny.bank.domain.usecase.OperationCheck;
 import com.tiny.bank.domain.usecase.account.AccountBalanceViewer;
 import com.tiny.bank.domain.usecase.account.AccountCreator;
+import com.tiny.bank.domain.usecase.account.AccountHoldProcessor;
 import com.tiny.bank.domain.usecase.transaction.TransactionHistoryViewer;
 import com.tiny.bank.domain.usecase.transaction.TransactionProcessor;
+import com.tiny.bank.domain.usecase.transaction.TransactionSearcher;
+import com.tiny.bank.domain.usecase.transaction.TransferScheduler;
 import com.tiny.bank.domain.usecase.user.UserCreator;
 import com.tiny.bank.domain.usecase.user.UserDeactivationProcessor;
 import com.tiny.bank.domain.usecase.user.UserDepositProcessor;
 import com.tiny.bank.domain.usecase.user.UserWithdrawalProcessor;
+import com.tiny.bank.domain.velocity.VelocityCheck;
+import com.tiny.bank.domain.velocity.VelocityRule;
 import com.tiny.bank.repository.UserRepository;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class DomainConfig {
 
@@ -26,23 +41,69 @@ public class DomainConfig {
     }
 
     @Bean
-    UserDepositProcessor userDepositProcessor(final UserRepository repository) {
-        return new UserDepositProcessor(repository);
+    OperationCheck operationCheck(final VelocityProperties properties) {
+        final List<VelocityRule> rules = new ArrayList<>();
+
+        if (properties.maxWithdrawals() != null) {
+            rules.add(new VelocityRule.MaxOperations(TransactionType.OUTBOUND, properties.maxWithdrawals()));
+        }
+
+        if (properties.maxWithdrawnAmount() != null) {
+            rules.add(VelocityRule.MaxAmount.of(TransactionType.OUTBOUND, properties.maxWithdrawnAmount()));
+        }
+
+        if (properties.maxDeposits() != null) {
+            rules.add(new VelocityRule.MaxOperations(TransactionType.INBOUND, properties.maxDeposits()));
+        }
+
+        if (properties.maxDepositedAmount() != null) {
+            rules.add(VelocityRule.MaxAmount.of(TransactionType.INBOUND, properties.maxDepositedAmount()));
+        }
+
+        if (properties.maxNewCounterparties() != null) {
+            rules.add(new VelocityRule.NewCounterparties(properties.maxNewCounterparties()));
+        }
+
+        //Without rules there is nothing to count
+        return rules.isEmpty()
+                ? OperationCheck.NONE
+                : new VelocityCheck(rules, properties.window(), properties.buckets(), Clock.systemUTC());
+    }
+
+    @Bean
+    UserDepositProcessor userDepositProcessor(final UserRepository repository, final OperationCheck operationCheck) {
+        return new UserDepositProcessor(repository, operationCheck);
     }
 
     @Bean
-    UserWithdrawalProcessor userWithdrawalProcessor(final UserRepository repository) {
-        return new UserWithdrawalProcessor(repository);
+    UserWithdrawalProcessor userWithdrawalProcessor(final UserRepository repository, final OperationCheck operationCheck) {
+        return new UserWithdrawalProcessor(repository, operationCheck);
     }
 
     @Bean
-    TransactionProcessor transactionProcessor(final UserRepository repository) {
-        return new TransactionProcessor(repository);
+    TransactionProcessor transactionProcessor(final UserRepository repository,
+                                              final OperationCheck operationCheck,
+                                              final ConcurrencyLimitProperties properties) {
+        final ConcurrencyLimiter concurrencyLimiter = properties.enabled()
+                ? new GradientConcurrencyLimiter(properties.initialLimit(), properties.minLimit(), properties.maxLimit())
+                : ConcurrencyLimiter.NONE;
+
+        return new TransactionProcessor(repository, operationCheck, concurrencyLimiter);
+    }
+
+    @Bean
+    TransferScheduler transferScheduler(final TransactionProcessor transactionProcessor, final TransferProperties properties) {
+        return new TransferScheduler(transactionProcessor, properties.tick(), properties.batchSize());
+    }
+
+    @Bean
+    TransactionHistoryViewer transactionHistoryViewer(final UserRepository repository, final TransactionArchive archive) {
+        return new TransactionHistoryViewer(repository, archive);
     }
 
     @Bean
-    TransactionHistoryViewer transactionHistoryViewer(final UserRepository repository) {
-        return new TransactionHistoryViewer(repository);
+    TransactionSearcher transactionSearcher(final UserRepository repository, final TransactionArchive archive) {
+        return new TransactionSearcher(repository, archive);
     }
 
     @Bean
@@ -51,8 +112,13 @@ public class DomainConfig {
     }
 
     @Bean
-    AccountCreator accountCreator(final UserRepository repository) {
-        return new AccountCreator(repository);
+    AccountCreator accountCreator(final UserRepository repository, final AccountFactory accountFactory) {
+        return new AccountCreator(repository, accountFactory);
+    }
+
+    @Bean
+    AccountHoldProcessor accountHoldProcessor(final UserRepository repository, final HoldProperties properties) {
+        return new AccountHoldProcessor(repository, properties.tick());
     }
 
 }
@@ -0,0 +1,50 @@
+package com.tiny.bank.config;
+
+import com.tiny.bank.api.stream.BalanceStreamer;
+import com.tiny.bank.api.stream.EventStreamer;
+import com.tiny.bank.domain.event.BalanceChangePublisher;
+import com.tiny.bank.domain.event.EventBus;
+import com.tiny.bank.domain.event.TransactionRecordPublisher;
+import com.tiny.bank.ledger.RotatingEventLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EventConfig {
+
+    @Bean
+    EventBus eventBus(final EventProperties properties) {
+        return new EventBus(properties.capacity());
+    }
+
+    @Bean
+    BalanceChangePublisher balanceChangePublisher(final EventBus eventBus) {
+        return new BalanceChangePublisher(eventBus);
+    }
+
+    @Bean
+    TransactionRecordPublisher transactionRecordPublisher(final EventBus eventBus) {
+        return new TransactionRecordPublisher(eventBus);
+    }
+
+    @Bean
+    EventStreamer eventStreamer(final EventBus eventBus, final EventProperties properties) {
+        return new EventStreamer(eventBus, properties.streamTimeout());
+    }
+
+    @Bean
+    BalanceStreamer balanceStreamer(final EventProperties properties) {
+        return new BalanceStreamer(properties.balanceStreamInterval(), properties.streamTimeout());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tiny-bank.events", name = "log-enabled", matchIfMissing = true)
+    EventBus.Subscription eventLogSubscription(final EventBus eventBus, final EventProperties properties) {
+        //The log is closed by the subscription thread once the subscription ends, it is never shared
+        return eventBus.subscribe(new RotatingEventLog(properties.logDirectory(),
+                properties.logFileSize().toBytes(),
+                properties.logFiles()));
+    }
+
+}
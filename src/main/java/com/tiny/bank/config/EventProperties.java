@@ -0,0 +1,58 @@
+package com.tiny.bank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Event bus and event stream settings.
+ *
+ * @param capacity              the number of events kept for subscribers, a power of two, 65536 by default.
+ * @param logEnabled            whether events are appended to the event log, {@code true} by default.
+ * @param logDirectory          the directory of the event log, in the temporary directory by default.
+ * @param logFileSize           the size an event log file is rotated at, 64MB by default.
+ * @param logFiles              the number of event log files kept, 8 by default.
+ * @param streamTimeout         how long an event or balance stream stays open, 30 minutes by default.
+ * @param balanceStreamInterval the minimum time between two events of a balance stream, 250ms by default.
+ */
+@ConfigurationProperties(prefix = "tiny-bank.events")
+public record EventProperties(Integer capacity,
+                              Boolean logEnabled,
+                              Path logDirectory,
+                              DataSize logFileSize,
+                              Integer logFiles,
+                              Duration streamTimeout,
+                              Duration balanceStreamInterval) {
+
+    public EventProperties {
+        if (capacity == null) {
+            capacity = 65_536;
+        }
+
+        if (logEnabled == null) {
+            logEnabled = true;
+        }
+
+        if (logDirectory == null) {
+            logDirectory = Path.of(System.getProperty("java.io.tmpdir"), "tiny-bank", "events");
+        }
+
+        if (logFileSize == null) {
+            logFileSize = DataSize.ofMegabytes(64);
+        }
+
+        if (logFiles == null) {
+            logFiles = 8;
+        }
+
+        if (streamTimeout == null) {
+            streamTimeout = Duration.ofMinutes(30);
+        }
+
+        if (balanceStreamInterval == null) {
+            balanceStreamInterval = Duration.ofMillis(250);
+        }
+    }
+}
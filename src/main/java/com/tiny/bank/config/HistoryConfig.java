@@ -0,0 +1,30 @@
+package com.tiny.bank.config;
+
+import com.tiny.bank.domain.transaction.TransactionArchive;
+import com.tiny.bank.ledger.HistoryArchiveJob;
+import com.tiny.bank.ledger.LedgerSegmentArchive;
+import com.tiny.bank.repository.UserRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HistoryConfig {
+
+    @Bean
+    TransactionArchive transactionArchive(final HistoryProperties properties) {
+        //Without retention nothing is ever archived, so history reads skip the cold tier altogether
+        if (!properties.retention().isEnabled()) {
+            return TransactionArchive.NONE;
+        }
+
+        return new LedgerSegmentArchive(properties.archiveDirectory(), properties.maxSegments());
+    }
+
+    @Bean
+    HistoryArchiveJob historyArchiveJob(final UserRepository repository,
+                                        final HistoryProperties properties,
+                                        final TransactionArchive archive) {
+        return new HistoryArchiveJob(repository, properties.retention(), archive);
+    }
+
+}
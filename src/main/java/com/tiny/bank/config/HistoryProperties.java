@@ -0,0 +1,36 @@
+package com.tiny.bank.config;
+
+import com.tiny.bank.domain.account.HistoryRetention;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Transaction history retention and archiving settings.
+ *
+ * @param hotRecords       maximum number of records an account keeps on heap, unbounded when not set.
+ * @param hotAge           maximum age of the records an account keeps on heap, unbounded when not set.
+ * @param archiveDirectory directory where archived records are stored.
+ * @param maxSegments      number of archive segments of an account before they are compacted into one.
+ */
+@ConfigurationProperties(prefix = "tiny-bank.history")
+public record HistoryProperties(Integer hotRecords,
+                                Duration hotAge,
+                                Path archiveDirectory,
+                                Integer maxSegments) {
+
+    public HistoryProperties {
+        if (archiveDirectory == null) {
+            archiveDirectory = Path.of(System.getProperty("java.io.tmpdir"), "tiny-bank", "history");
+        }
+
+        if (maxSegments == null) {
+            maxSegments = 8;
+        }
+    }
+
+    public HistoryRetention retention() {
+        return new HistoryRetention(hotRecords, hotAge);
+    }
+}
@@ -0,0 +1,27 @@
+package com.tiny.bank.config;
+
+import com.tiny.bank.domain.usecase.account.AccountHoldProcessor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.LocalDateTime;
+
+@Configuration
+public class HoldConfig implements SchedulingConfigurer {
+
+    private final AccountHoldProcessor accountHoldProcessor;
+    private final HoldProperties properties;
+
+    public HoldConfig(final AccountHoldProcessor accountHoldProcessor, final HoldProperties properties) {
+        this.accountHoldProcessor = accountHoldProcessor;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar registrar) {
+        //Expired holds stop reducing the available balance at most one tick late
+        registrar.addFixedDelayTask(() -> accountHoldProcessor.releaseExpired(LocalDateTime.now()), properties.tick());
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.tiny.bank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Account hold settings.
+ *
+ * @param tick resolution of hold expiry and interval between sweeps, 1 second by default.
+ */
+@ConfigurationProperties(prefix = "tiny-bank.holds")
+public record HoldProperties(Duration tick) {
+
+    public HoldProperties {
+        if (tick == null) {
+            tick = Duration.ofSeconds(1);
+        }
+    }
+}
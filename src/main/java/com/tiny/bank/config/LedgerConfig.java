@@ -0,0 +1,27 @@
+package com.tiny.bank.config;
+
+import com.tiny.bank.domain.transaction.TransactionArchive;
+import com.tiny.bank.ledger.LedgerExportJob;
+import com.tiny.bank.ledger.LedgerExporter;
+import com.tiny.bank.repository.UserRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class LedgerConfig {
+
+    @Bean
+    LedgerExporter ledgerExporter(final UserRepository repository,
+                                  final TransactionArchive archive,
+                                  final LedgerProperties properties) {
+        return new LedgerExporter(repository, archive, properties.exportPartitions());
+    }
+
+    @Bean
+    LedgerExportJob ledgerExportJob(final LedgerExporter exporter, final LedgerProperties properties) {
+        return new LedgerExportJob(exporter, properties.exportDirectory());
+    }
+
+}
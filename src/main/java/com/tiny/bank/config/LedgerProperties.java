@@ -0,0 +1,35 @@
+package com.tiny.bank.config;
+
+import com.tiny.bank.ledger.LedgerFormat;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Ledger migration and reconciliation settings.
+ *
+ * @param importPath       ledger file loaded into the repository at startup, if any.
+ * @param importFormat     format of the ledger file, inferred from its extension when not set.
+ * @param exportDirectory  directory where ledger export jobs write their files.
+ * @param exportPartitions number of files, and writer threads, of a ledger export job.
+ */
+@ConfigurationProperties(prefix = "tiny-bank.ledger")
+public record LedgerProperties(Path importPath,
+                               LedgerFormat importFormat,
+                               Path exportDirectory,
+                               Integer exportPartitions) {
+
+    public LedgerProperties {
+        if (exportDirectory == null) {
+            exportDirectory = Path.of(System.getProperty("java.io.tmpdir"), "tiny-bank", "exports");
+        }
+
+        if (exportPartitions == null) {
+            exportPartitions = Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    public LedgerFormat resolvedImportFormat() {
+        return importFormat != null ? importFormat : LedgerFormat.fromPath(importPath);
+    }
+}
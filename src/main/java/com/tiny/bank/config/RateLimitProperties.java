@@ -0,0 +1,49 @@
+package com.tiny.bank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Rate limiting settings of the account and transaction endpoints.
+ *
+ * @param enabled     whether requests are rate limited, {@code false} by default: clients behind a shared address,
+ *                    such as a NAT or a proxy, share the client bucket.
+ * @param userRate    requests per second allowed per user, 50 by default.
+ * @param userBurst   requests a user may send at once, 100 by default.
+ * @param clientRate  requests per second allowed per client address, 200 by default.
+ * @param clientBurst requests a client address may send at once, 400 by default.
+ * @param maxKeys     maximum number of users and of clients tracked, 100000 by default.
+ */
+@ConfigurationProperties(prefix = "tiny-bank.rate-limit")
+public record RateLimitProperties(Boolean enabled,
+                                  Double userRate,
+                                  Integer userBurst,
+                                  Double clientRate,
+                                  Integer clientBurst,
+                                  Long maxKeys) {
+
+    public RateLimitProperties {
+        if (enabled == null) {
+            enabled = false;
+        }
+
+        if (userRate == null) {
+            userRate = 50.0;
+        }
+
+        if (userBurst == null) {
+            userBurst = 100;
+        }
+
+        if (clientRate == null) {
+            clientRate = 200.0;
+        }
+
+        if (clientBurst == null) {
+            clientBurst = 400;
+        }
+
+        if (maxKeys == null) {
+            maxKeys = 100_000L;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.tiny.bank.config;
+
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.event.EventBus;
+import com.tiny.bank.replication.JournalReplica;
+import com.tiny.bank.replication.JournalServer;
+import com.tiny.bank.repository.UserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ReplicationConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tiny-bank.replication", name = "role", havingValue = "primary")
+    JournalServer journalServer(final EventBus eventBus,
+                                final UserRepository repository,
+                                final ReplicationProperties properties) {
+        return new JournalServer(properties.socket(), eventBus, repository).start();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tiny-bank.replication", name = "role", havingValue = "replica")
+    JournalReplica journalReplica(final UserRepository repository,
+                                  final AccountFactory accountFactory,
+                                  final ReplicationProperties properties) {
+        return new JournalReplica(properties.socket(), repository, accountFactory, properties.reconnectDelay()).start();
+    }
+
+}
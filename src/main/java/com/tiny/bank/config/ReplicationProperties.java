@@ -0,0 +1,53 @@
+package com.tiny.bank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Replication settings.
+ *
+ * @param role           the part this process plays in replication, none by default.
+ * @param socket         the Unix domain socket the primary serves its journal on, in the temporary directory by
+ *                       default.
+ * @param reconnectDelay the time a replica waits before reconnecting to the primary, 1 second by default.
+ */
+@ConfigurationProperties(prefix = "tiny-bank.replication")
+public record ReplicationProperties(Role role,
+                                    Path socket,
+                                    Duration reconnectDelay) {
+
+    public ReplicationProperties {
+        if (role == null) {
+            role = Role.NONE;
+        }
+
+        if (socket == null) {
+            socket = Path.of(System.getProperty("java.io.tmpdir"), "tiny-bank", "journal.sock");
+        }
+
+        if (reconnectDelay == null) {
+            reconnectDelay = Duration.ofSeconds(1);
+        }
+    }
+
+    public enum Role {
+
+        /**
+         * Neither serves nor follows a journal.
+         */
+        NONE,
+
+        /**
+         * Serves its journal to replicas through a {@link com.tiny.bank.replication.JournalServer}.
+         */
+        PRIMARY,
+
+        /**
+         * Follows the journal of a primary through a {@link com.tiny.bank.replication.JournalReplica}, and only serves
+         * reads.
+         */
+        REPLICA
+    }
+}
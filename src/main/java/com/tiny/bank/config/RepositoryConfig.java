@@ -1,5 +1,16 @@
 package com.tiny.bank.config;
 
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.event.BalanceChangePublisher;
+import com.tiny.bank.domain.event.EventBus;
+import com.tiny.bank.domain.event.TransactionRecordPublisher;
+import com.tiny.bank.ledger.LedgerImporter;
+import com.tiny.bank.repository.CachedUserRepository;
+import com.tiny.bank.repository.ConcurrentMapUserRepository;
+import com.tiny.bank.repository.EventPublishingUserRepository;
+import com.tiny.bank.repository.KeyValueUserRepository;
+import com.tiny.bank.repository.MappedUserRepository;
+import com.tiny.bank.repository.OpenAddressingUserRepository;
 import com.tiny.bank.repository.UserRepository;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,8 +19,32 @@ import org.springframework.context.annotation.Configuration;
 public class RepositoryConfig {
 
     @Bean
-    UserRepository userRepository() {
-        return new UserRepository();
+    AccountFactory accountFactory(final AccountProperties accountProperties,
+                                  final BalanceChangePublisher balanceChangePublisher,
+                                  final TransactionRecordPublisher transactionRecordPublisher) {
+        return new AccountFactory(accountProperties.recordMode(), balanceChangePublisher, transactionRecordPublisher);
+    }
+
+    @Bean
+    UserRepository userRepository(final LedgerProperties ledgerProperties,
+                                  final RepositoryProperties repositoryProperties,
+                                  final AccountFactory accountFactory,
+                                  final EventBus eventBus) {
+        final UserRepository repository = switch (repositoryProperties.backend()) {
+            case CONCURRENT_MAP -> new ConcurrentMapUserRepository();
+            case OPEN_ADDRESSING -> new OpenAddressingUserRepository(repositoryProperties.expectedUsers());
+            case MAPPED -> new MappedUserRepository(repositoryProperties.mappedFile(), accountFactory);
+            case KEY_VALUE -> new CachedUserRepository(new KeyValueUserRepository(repositoryProperties.keyValueFile(), accountFactory),
+                    repositoryProperties.cacheSize());
+        };
+
+        //Importing while the bean is created guarantees the ledger is fully loaded before any request is served
+        if (ledgerProperties.importPath() != null) {
+            new LedgerImporter(repository, accountFactory).importLedger(ledgerProperties.importPath(), ledgerProperties.resolvedImportFormat());
+        }
+
+        //Imported users are the starting point, only the changes made from now on are published
+        return new EventPublishingUserRepository(repository, eventBus);
     }
 
 }
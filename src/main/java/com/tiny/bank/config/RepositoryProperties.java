@@ -0,0 +1,70 @@
+package com.tiny.bank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * User repository settings.
+ *
+ * @param backend       how users are indexed by credit card number, a concurrent map by default.
+ * @param expectedUsers the number of users the open-addressing table is sized for up front, 0 by default.
+ * @param mappedFile    the balance table file of the mapped backend, in the temporary directory by default.
+ * @param keyValueFile  the store file of the key-value backend, in the temporary directory by default.
+ * @param cacheSize     the number of users the key-value backend keeps in memory, 100000 by default.
+ */
+@ConfigurationProperties(prefix = "tiny-bank.repository")
+public record RepositoryProperties(Backend backend,
+                                   Integer expectedUsers,
+                                   Path mappedFile,
+                                   Path keyValueFile,
+                                   Integer cacheSize) {
+
+    public RepositoryProperties {
+        if (backend == null) {
+            backend = Backend.CONCURRENT_MAP;
+        }
+
+        if (expectedUsers == null) {
+            expectedUsers = 0;
+        }
+
+        if (mappedFile == null) {
+            mappedFile = Path.of(System.getProperty("java.io.tmpdir"), "tiny-bank", "balances.tbl");
+        }
+
+        if (keyValueFile == null) {
+            keyValueFile = Path.of(System.getProperty("java.io.tmpdir"), "tiny-bank", "users.mv");
+        }
+
+        if (cacheSize == null) {
+            cacheSize = 100_000;
+        }
+    }
+
+    public enum Backend {
+
+        /**
+         * {@link com.tiny.bank.repository.ConcurrentMapUserRepository}, a {@link java.util.concurrent.ConcurrentHashMap}.
+         */
+        CONCURRENT_MAP,
+
+        /**
+         * {@link com.tiny.bank.repository.OpenAddressingUserRepository}, a compact open-addressing table for large
+         * user bases.
+         */
+        OPEN_ADDRESSING,
+
+        /**
+         * {@link com.tiny.bank.repository.MappedUserRepository}, users and balances kept in a memory-mapped file and
+         * restored from it at startup.
+         */
+        MAPPED,
+
+        /**
+         * {@link com.tiny.bank.repository.KeyValueUserRepository}, users kept in an embedded key-value store behind a
+         * {@link com.tiny.bank.repository.CachedUserRepository} holding the most recently used ones.
+         */
+        KEY_VALUE
+    }
+}
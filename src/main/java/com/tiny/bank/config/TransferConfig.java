@@ -0,0 +1,27 @@
+package com.tiny.bank.config;
+
+import com.tiny.bank.domain.usecase.transaction.TransferScheduler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.LocalDateTime;
+
+@Configuration
+public class TransferConfig implements SchedulingConfigurer {
+
+    private final TransferScheduler transferScheduler;
+    private final TransferProperties properties;
+
+    public TransferConfig(final TransferScheduler transferScheduler, final TransferProperties properties) {
+        this.transferScheduler = transferScheduler;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar registrar) {
+        //Every run executes what came due since the previous one, so the interval is the resolution of the schedule
+        registrar.addFixedDelayTask(() -> transferScheduler.runDue(LocalDateTime.now()), properties.tick());
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.tiny.bank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Scheduled transfer settings.
+ *
+ * @param tick      resolution of the transfer schedule and interval between runs, 1 second by default.
+ * @param batchSize number of due transfers processed at once, 256 by default.
+ */
+@ConfigurationProperties(prefix = "tiny-bank.transfers")
+public record TransferProperties(Duration tick, Integer batchSize) {
+
+    public TransferProperties {
+        if (tick == null) {
+            tick = Duration.ofSeconds(1);
+        }
+
+        if (batchSize == null) {
+            batchSize = 256;
+        }
+    }
+}
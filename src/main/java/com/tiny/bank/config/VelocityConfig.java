@@ -0,0 +1,29 @@
+package com.tiny.bank.config;
+
+import com.tiny.bank.domain.usecase.OperationCheck;
+import com.tiny.bank.domain.velocity.VelocityCheck;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+public class VelocityConfig implements SchedulingConfigurer {
+
+    private final OperationCheck operationCheck;
+    private final VelocityProperties properties;
+
+    public VelocityConfig(final OperationCheck operationCheck, final VelocityProperties properties) {
+        this.operationCheck = operationCheck;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar registrar) {
+        //An account idle for a whole window has nothing left to count, it is dropped at most two windows after its last
+        //operation
+        if (operationCheck instanceof VelocityCheck velocityCheck) {
+            registrar.addFixedDelayTask(velocityCheck::evictIdle, properties.window());
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.tiny.bank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Velocity rule settings, a rule without a limit is disabled, as all are by default.
+ *
+ * @param window                sliding window of the rules, 1 hour by default.
+ * @param buckets               number of steps the window slides by, 60 by default.
+ * @param maxWithdrawals        maximum number of withdrawals and transfers out of an account per window.
+ * @param maxWithdrawnAmount    maximum amount withdrawn and transferred out of an account per window.
+ * @param maxDeposits           maximum number of deposits and transfers into an account per window.
+ * @param maxDepositedAmount    maximum amount deposited and transferred into an account per window.
+ * @param maxNewCounterparties  maximum number of accounts an account transfers to per window without having done so
+ *                              earlier in the window.
+ */
+@ConfigurationProperties(prefix = "tiny-bank.velocity")
+public record VelocityProperties(Duration window,
+                                 Integer buckets,
+                                 Long maxWithdrawals,
+                                 BigDecimal maxWithdrawnAmount,
+                                 Long maxDeposits,
+                                 BigDecimal maxDepositedAmount,
+                                 Long maxNewCounterparties) {
+
+    public VelocityProperties {
+        if (window == null) {
+            window = Duration.ofHours(1);
+        }
+
+        if (buckets == null) {
+            buckets = 60;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.tiny.bank.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiny.bank.api.ratelimit.RateLimitInterceptor;
+import com.tiny.bank.api.replication.ReadOnlyInterceptor;
+import com.tiny.bank.api.ratelimit.RateLimiter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RateLimitProperties properties;
+    private final ReplicationProperties replicationProperties;
+    private final ObjectMapper objectMapper;
+
+    public WebConfig(final RateLimitProperties properties,
+                     final ReplicationProperties replicationProperties,
+                     final ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.replicationProperties = replicationProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        //Registered first, writes sent to a replica are rejected before they use any rate limit tokens
+        if (replicationProperties.role() == ReplicationProperties.Role.REPLICA) {
+            registry.addInterceptor(new ReadOnlyInterceptor(objectMapper));
+        }
+
+        if (!properties.enabled()) {
+            return;
+        }
+
+        registry.addInterceptor(new RateLimitInterceptor(
+                new RateLimiter(properties.userRate(), properties.userBurst(), properties.maxKeys(), System::nanoTime),
+                new RateLimiter(properties.clientRate(), properties.clientBurst(), properties.maxKeys(), System::nanoTime),
+                objectMapper));
+    }
+
+}
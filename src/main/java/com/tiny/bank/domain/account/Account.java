@@ -1,59 +1,210 @@
 package com.tiny.bank.domain.account;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableSet;
 import com.tiny.bank.domain.exception.InsufficientFundsException;
-import com.tiny.bank.domain.transaction.InboundTransactionRecord;
-import com.tiny.bank.domain.transaction.OutboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionArchive;
 import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionSearchCriteria;
+import com.tiny.bank.domain.transaction.TransactionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Represents a mutable thread-safe bank account.
  *
  * <p>
  * Provides functionality for deposits, withdrawals, and transfers while ensuring
- * data integrity in concurrent environments using a {@link ReentrantReadWriteLock}.
+ * data integrity in concurrent environments using a {@link StampedLock}.
+ * </p>
+ *
+ * <p>
+ * Balance reads are optimistic and never block writers: the balance is read without locking and only falls back to
+ * the read lock if a write happened in the meantime. The lock is not reentrant, so it is only acquired at the public
+ * entry points and the private operations expect the caller to hold it.
+ * </p>
+ *
+ * <p>
+ * In {@link RecordMode#ASYNCHRONOUS} mode the critical section only updates balances and assigns a sequence number;
+ * records are built and appended to the history off the lock. History reads drain the pending records first, so
+ * they always include every completed operation.
+ * </p>
+ *
+ * <p>
+ * Authorization holds reserve part of the balance: the reserved amount cannot be withdrawn nor transferred, but only
+ * leaves the balance, and the history, once the hold is captured.
+ * </p>
+ *
+ * <p>
+ * The history is kept in date order: record dates are assigned under the write lock and never go back, a record
+ * dated before the newest one of either account is moved forward to it.
+ * </p>
+ *
+ * <p>
+ * Most accounts of a large bank are dormant, so an account only allocates what it uses: the search index on its first
+ * record, the hold map while it has pending holds, and the pending record queue only in asynchronous mode.
  * </p>
  */
 public class Account {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Account.class);
 
-    private final ReentrantReadWriteLock reentrantReadWriteLock = new ReentrantReadWriteLock(true);
-    private final UUID accountId;
-    private final Set<TransactionRecord> transactions;
+    /**
+     * Order in which operations spanning several accounts acquire their write locks, so they never deadlock.
+     */
+    static final Comparator<Account> LOCK_ORDER = Comparator.comparingInt(Account::hashCode)
+            .thenComparing(Account::getAccountId);
+
+    private static final VarHandle INDEX;
+    private static final VarHandle DRAIN_SCHEDULED;
+    private static final VarHandle ARCHIVING;
+
+    static {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            INDEX = lookup.findVarHandle(Account.class, "index", TransactionIndex.class);
+            DRAIN_SCHEDULED = lookup.findVarHandle(Account.class, "drainScheduled", boolean.class);
+            ARCHIVING = lookup.findVarHandle(Account.class, "archiving", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final StampedLock stampedLock = new StampedLock();
+
+    /**
+     * The account id, kept as its two halves rather than a {@link UUID} object.
+     */
+    private final long idMostSignificantBits;
+    private final long idLeastSignificantBits;
+    private final TransactionHistory transactions = new TransactionHistory();
+
+    /**
+     * Created by the first appended record, {@code null} while the history is empty.
+     */
+    private volatile TransactionIndex index;
+
+    /**
+     * Holds the record mode and the observers shared by the accounts of a repository.
+     */
+    private final AccountFactory factory;
+
+    /**
+     * Only allocated in {@link RecordMode#ASYNCHRONOUS} mode, {@code null} otherwise.
+     */
+    private final Queue<PendingRecord> pendingRecords;
+    private final ReentrantLock drainLock;
+
+    private volatile boolean drainScheduled;
+
+    /**
+     * Set while {@link #archiveHistory} runs, two overlapping runs would archive the same expired records twice.
+     */
+    private volatile boolean archiving;
 
     private volatile BigDecimal balance;
 
+    /**
+     * Sum of the amounts of {@link #holds}, never greater than the balance.
+     */
+    private volatile BigDecimal held = BigDecimal.ZERO;
+
+    /**
+     * Pending authorization holds, guarded by the lock, {@code null} while there is none.
+     */
+    private Map<UUID, Hold> holds;
+
+    /**
+     * Sequence number of the last operation published through {@link #publish}, guarded by the write lock.
+     */
+    private long sequence;
+
+    /**
+     * Date of the newest record of the account, published or restored, guarded by the write lock.
+     */
+    private LocalDateTime lastRecordDate = LocalDateTime.MIN;
+
+    /**
+     * Told about every balance change, guarded by the write lock.
+     */
+    private BalanceObserver balanceObserver = BalanceObserver.NONE;
+
     public Account() {
-        this.accountId = UUID.randomUUID();
-        this.transactions = Set.of();
+        final UUID accountId = UUID.randomUUID();
+
+        this.idMostSignificantBits = accountId.getMostSignificantBits();
+        this.idLeastSignificantBits = accountId.getLeastSignificantBits();
+        this.factory = AccountFactory.DEFAULT;
+        this.pendingRecords = null;
+        this.drainLock = null;
     }
 
     /**
-     * Constructs an {@code Account} with the specified parameters.
+     * Constructs an {@code Account} with the specified parameters and the {@link AccountFactory#DEFAULT} settings.
      *
      * @param accountId    the unique identifier of the account
-     * @param transactions the set of transactions associated with the account
+     * @param transactions the initial transactions of the account
      * @param balance      the initial balance of the account
      */
     public Account(final UUID accountId, final Set<TransactionRecord> transactions, final BigDecimal balance) {
+        this(accountId, transactions, balance, AccountFactory.DEFAULT);
+    }
+
+    /**
+     * Constructs an {@code Account} with the specified parameters, see {@link AccountFactory#createAccount}.
+     *
+     * @param accountId    the unique identifier of the account
+     * @param transactions the initial transactions of the account
+     * @param balance      the initial balance of the account
+     * @param factory      the factory holding the record mode and the observers of the account
+     */
+    Account(final UUID accountId,
+            final Set<TransactionRecord> transactions,
+            final BigDecimal balance,
+            final AccountFactory factory) {
         Objects.requireNonNull(accountId, "accountId shouldn't be null");
         Objects.requireNonNull(transactions, "transactions shouldn't be null");
         Objects.requireNonNull(balance, "balance shouldn't be null");
+        Objects.requireNonNull(factory, "factory shouldn't be null");
 
-        this.accountId = accountId;
-        this.transactions = transactions;
+        this.idMostSignificantBits = accountId.getMostSignificantBits();
+        this.idLeastSignificantBits = accountId.getLeastSignificantBits();
         this.balance = balance;
+        this.factory = factory;
+        this.pendingRecords = factory.recordMode() == RecordMode.ASYNCHRONOUS ? new ConcurrentLinkedQueue<>() : null;
+        this.drainLock = factory.recordMode() == RecordMode.ASYNCHRONOUS ? new ReentrantLock() : null;
+
+        restoreTransactions(transactions);
+    }
+
+    /**
+     * Reads an account from JSON, the id being stored as two longs there is no field for Jackson to set.
+     */
+    @JsonCreator
+    static Account fromJson(@JsonProperty("accountId") final UUID accountId, @JsonProperty("balance") final BigDecimal balance) {
+        return new Account(accountId == null ? UUID.randomUUID() : accountId,
+                Set.of(),
+                balance == null ? BigDecimal.ZERO : balance);
     }
 
     /**
@@ -81,16 +232,74 @@ public class Account {
      * @return the account's UUID.
      */
     public UUID getAccountId() {
-        return accountId;
+        return new UUID(idMostSignificantBits, idLeastSignificantBits);
+    }
+
+    /**
+     * Adds an observer of the balance, called after the observers already added. The observer is first told about
+     * the current balance, so it never misses a change.
+     *
+     * @param observer the observer of every balance change from now on.
+     */
+    public void observeBalance(final BalanceObserver observer) {
+        Objects.requireNonNull(observer, "observer shouldn't be null");
+
+        final long stamp = stampedLock.writeLock();
+
+        try {
+            balanceObserver = BalanceObserverChain.add(balanceObserver, observer);
+            observer.balanceChanged(this, balance);
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes an observer of the balance, which is not told about any change from now on.
+     *
+     * @param observer the observer added by {@link #observeBalance}.
+     */
+    public void stopObservingBalance(final BalanceObserver observer) {
+        Objects.requireNonNull(observer, "observer shouldn't be null");
+
+        final long stamp = stampedLock.writeLock();
+
+        try {
+            balanceObserver = BalanceObserverChain.remove(balanceObserver, observer);
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
     }
 
     /**
-     * Returns an immutable view of the account's transaction records.
+     * Returns an immutable view of the account's hot transaction records, archived records are not included.
+     *
+     * <p>
+     * The view shares its memory with the account history and is not affected by later operations; it is iterated
+     * oldest first.
+     * </p>
      *
      * @return a {@link Set} of {@link TransactionRecord}
      */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     public Set<TransactionRecord> getTransactions() {
-        return ImmutableSet.copyOf(transactions);
+        drainIfAsynchronous();
+
+        return TransactionHistory.asSet(transactions.records());
+    }
+
+    /**
+     * Returns an immutable view of the account's hot transaction records dated within a range, archived records are
+     * not included.
+     *
+     * @param from the inclusive lower bound, {@code null} for no bound.
+     * @param to   the inclusive upper bound, {@code null} for no bound.
+     * @return a {@link Set} of {@link TransactionRecord}, iterated oldest first.
+     */
+    public Set<TransactionRecord> getTransactions(final LocalDateTime from, final LocalDateTime to) {
+        drainIfAsynchronous();
+
+        return TransactionHistory.asSet(transactions.range(from, to));
     }
 
     /**
@@ -99,13 +308,242 @@ public class Account {
      * @return the account's balance.
      */
     public BigDecimal getBalance() {
-        final ReentrantReadWriteLock.ReadLock readLock = reentrantReadWriteLock.readLock();
+        final long optimisticStamp = stampedLock.tryOptimisticRead();
+        final BigDecimal optimisticBalance = balance;
+
+        if (stampedLock.validate(optimisticStamp)) {
+            return optimisticBalance;
+        }
+
+        final long stamp = stampedLock.readLock();
 
         try {
-            readLock.lock();
             return balance;
         } finally {
-            readLock.unlock();
+            stampedLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Sets the balance to one computed elsewhere, such as the balance of the same account replicated from another
+     * process, without recording any transaction. Observers of the account are told about it, the balance observer
+     * of its factory is not: the change was already observed where it happened.
+     *
+     * @param balance the balance of the account.
+     */
+    public void restoreBalance(final BigDecimal balance) {
+        Objects.requireNonNull(balance, "balance shouldn't be null");
+
+        final long stamp = stampedLock.writeLock();
+
+        try {
+            this.balance = balance;
+            balanceObserver.balanceChanged(this, balance);
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the balance of the account that is not reserved by an authorization hold.
+     *
+     * @return the account's available balance.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public BigDecimal getAvailableBalance() {
+        final long optimisticStamp = stampedLock.tryOptimisticRead();
+        final BigDecimal optimisticBalance = balance;
+        final BigDecimal optimisticHeld = held;
+
+        if (stampedLock.validate(optimisticStamp)) {
+            return optimisticBalance.subtract(optimisticHeld);
+        }
+
+        final long stamp = stampedLock.readLock();
+
+        try {
+            return balance.subtract(held);
+        } finally {
+            stampedLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Reserves an amount of the available balance until the hold is captured, released or expires. The balance and
+     * the history are left untouched.
+     *
+     * @param amount    the amount to reserve.
+     * @param expiresAt the date the hold expires at.
+     * @return the {@link Hold}.
+     * @throws InsufficientFundsException if the available balance is lower than the amount.
+     * @throws IllegalArgumentException   if the amount is negative or zero.
+     */
+    public Hold reserve(final BigDecimal amount, final LocalDateTime expiresAt) {
+        validateWithdrawal(amount);
+        Objects.requireNonNull(expiresAt, "expiresAt shouldn't be null");
+
+        final Hold hold = new Hold(UUID.randomUUID(), getAccountId(), amount, expiresAt);
+
+        final long stamp = stampedLock.writeLock();
+
+        try {
+            checkAvailable(amount);
+
+            if (holds == null) {
+                holds = new HashMap<>();
+            }
+
+            holds.put(hold.id(), hold);
+            held = held.add(amount);
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+
+        return hold;
+    }
+
+    /**
+     * Withdraws a reserved amount and ends its hold, any part of the hold that is not captured becomes available
+     * again.
+     *
+     * @param holdId the hold to capture.
+     * @param amount the amount to withdraw, at most the reserved amount, {@code null} for the whole hold.
+     * @return the account balance after the withdrawal.
+     * @throws IllegalArgumentException if the hold is not pending or expired, or the amount is not within the hold.
+     */
+    public BigDecimal capture(final UUID holdId, final BigDecimal amount) {
+        Objects.requireNonNull(holdId, "holdId shouldn't be null");
+
+        if (amount != null && amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("The amount being captured is lower or equal to 0");
+        }
+
+        final UUID transactionId = UUID.randomUUID();
+        final LocalDateTime transactionDate = LocalDateTime.now();
+        final BigDecimal balance;
+
+        final long stamp = stampedLock.writeLock();
+
+        try {
+            final Hold hold = holds == null ? null : holds.get(holdId);
+
+            if (hold == null) {
+                throw new IllegalArgumentException(String.format("Hold with id=%s not found for account=%s", holdId, getAccountId()));
+            }
+
+            //Not swept yet, but an expired hold no longer authorizes the withdrawal
+            if (hold.isExpired(transactionDate)) {
+                removeHold(hold);
+
+                throw new IllegalArgumentException(String.format("Hold with id=%s expired at %s", holdId, hold.expiresAt()));
+            }
+
+            final BigDecimal captured = amount == null ? hold.amount() : amount;
+
+            if (captured.compareTo(hold.amount()) > 0) {
+                throw new IllegalArgumentException(String.format("Captured amount=%s exceeds hold amount=%s", captured, hold.amount()));
+            }
+
+            removeHold(hold);
+            balance = withdraw(captured);
+
+            publish(TransactionType.OUTBOUND, transactionId, captured, balance, recordDate(transactionDate), null);
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+
+        scheduleDrain();
+
+        return balance;
+    }
+
+    /**
+     * Ends a hold without withdrawing anything, the reserved amount becomes available again.
+     *
+     * @param holdId the hold to release.
+     * @return {@code true} if the hold was pending, {@code false} if it was already captured or released.
+     */
+    public boolean release(final UUID holdId) {
+        Objects.requireNonNull(holdId, "holdId shouldn't be null");
+
+        final long stamp = stampedLock.writeLock();
+
+        try {
+            final Hold hold = holds == null ? null : holds.get(holdId);
+
+            if (hold == null) {
+                return false;
+            }
+
+            removeHold(hold);
+
+            return true;
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns whether the account has pending authorization holds, without locking.
+     *
+     * @return {@code true} if some of the balance is reserved.
+     */
+    public boolean hasHolds() {
+        return held.signum() > 0;
+    }
+
+    /**
+     * Returns whether the account has hot transaction records, pending ones included. Taken under the read lock, so
+     * an operation is either done and counted, or not started and its records are not.
+     *
+     * @return {@code true} if some records are kept on heap.
+     */
+    public boolean hasHistory() {
+        final long stamp = stampedLock.readLock();
+
+        try {
+            return (pendingRecords != null && !pendingRecords.isEmpty()) || !transactions.records().isEmpty();
+        } finally {
+            stampedLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the pending holds of the account.
+     *
+     * @return an immutable {@link Set} of {@link Hold}.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Set<Hold> getHolds() {
+        final long stamp = stampedLock.readLock();
+
+        try {
+            return holds == null ? Set.of() : Set.copyOf(holds.values());
+        } finally {
+            stampedLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the balance and transaction records of the account as of a single point in time.
+     *
+     * <p>
+     * Both are read under the account read lock, and every operation records its transactions while holding the
+     * write lock, so the balance always reflects exactly the returned records plus those already archived.
+     * </p>
+     *
+     * @return an {@link AccountSnapshot} of the account.
+     */
+    public AccountSnapshot snapshot() {
+        final long stamp = stampedLock.readLock();
+
+        try {
+            //No operation can be published while the read lock is held, so the drained history matches the balance
+            drainIfAsynchronous();
+
+            return new AccountSnapshot(getAccountId(), balance, TransactionHistory.asSet(transactions.records()));
+        } finally {
+            stampedLock.unlockRead(stamp);
         }
     }
 
@@ -118,13 +556,9 @@ public class Account {
      * @throws IllegalArgumentException   if the amount is negative or zero.
      */
     public BigDecimal bankWithdrawal(final BigDecimal amount) {
-        final BigDecimal balance = withdraw(amount);
+        validateWithdrawal(amount);
 
-        OutboundTransactionRecord record = OutboundTransactionRecord.createPersonalOutboundTransaction(amount, balance, accountId);
-
-        transactions.add(record);
-
-        return balance;
+        return publishPersonalOperation(TransactionType.OUTBOUND, amount);
     }
 
     /**
@@ -135,13 +569,9 @@ public class Account {
      * @throws IllegalArgumentException if the amount is negative or zero.
      */
     public BigDecimal bankDeposit(final BigDecimal amount) {
-        final BigDecimal balance = deposit(amount);
+        validateDeposit(amount);
 
-        final InboundTransactionRecord record = InboundTransactionRecord.createPersonalInboundTransaction(amount, balance, accountId);
-
-        transactions.add(record);
-
-        return balance;
+        return publishPersonalOperation(TransactionType.INBOUND, amount);
     }
 
     /**
@@ -164,112 +594,412 @@ public class Account {
             throw new IllegalArgumentException("The amount being deposited is lower or equal to 0");
         }
 
-        final Account first = this.hashCode() < recipient.hashCode() ? this : recipient;
+        final Account first = LOCK_ORDER.compare(this, recipient) < 0 ? this : recipient;
         final Account second = first == this ? recipient : this;
 
-        try {
-            first.reentrantReadWriteLock.writeLock().lock();
-            second.reentrantReadWriteLock.writeLock().lock();
+        validateWithdrawal(amount);
+
+        publishTransfer(amount, recipient, first, second);
+    }
+
+    /**
+     * Searches the hot transaction records through the account indexes.
+     *
+     * @param criteria the search filter.
+     * @return an immutable {@link Set} of the matching {@link TransactionRecord}.
+     */
+    public Set<TransactionRecord> search(final TransactionSearchCriteria criteria) {
+        Objects.requireNonNull(criteria, "criteria shouldn't be null");
+
+        drainIfAsynchronous();
+
+        final TransactionIndex current = index;
 
-            this.withdraw(amount);
-            recipient.deposit(amount);
+        //Without an index the account never had a record
+        return current == null
+                ? ImmutableSet.of()
+                : current.search(criteria, transactions).collect(ImmutableSet.toImmutableSet());
+    }
+
+    /**
+     * Adds historical records to the account without changing its balance, such as records loaded from a ledger
+     * before the account is in use.
+     *
+     * @param records the records to add, in any order.
+     * @throws IllegalArgumentException if a record is older than the newest record of the account.
+     */
+    public void restoreTransactions(final Collection<TransactionRecord> records) {
+        Objects.requireNonNull(records, "records shouldn't be null");
+
+        final List<TransactionRecord> sorted = records.stream()
+                .sorted(Comparator.comparing(TransactionRecord::date))
+                .toList();
+
+        if (sorted.isEmpty()) {
+            return;
+        }
+
+        final long stamp = stampedLock.writeLock();
+
+        try {
+            if (sorted.getFirst().date().isBefore(lastRecordDate)) {
+                throw new IllegalArgumentException(String.format("Restored records of account=%s are older than its history", getAccountId()));
+            }
 
-            //Could be cleaner
-            Set<TransactionRecord> transactionRecords = createTransactionRecord(amount, recipient);
+            //Pending records are older than the restored ones, they go first to keep the history in date order
+            drainIfAsynchronous();
 
-            transactions.addAll(transactionRecords.stream().filter(x -> x instanceof OutboundTransactionRecord).toList());
-            recipient.transactions.addAll(transactionRecords.stream().filter(x -> x instanceof InboundTransactionRecord).toList());
+            sorted.forEach(this::append);
+            lastRecordDate = sorted.getLast().date();
         } finally {
-            first.reentrantReadWriteLock.writeLock().unlock();
-            second.reentrantReadWriteLock.writeLock().unlock();
+            stampedLock.unlockWrite(stamp);
         }
     }
 
-    private BigDecimal withdraw(BigDecimal amount) {
-        Objects.requireNonNull(amount, "Amount shouldn't be null");
+    /**
+     * Moves the records falling outside the retention from the hot history to the archive.
+     *
+     * <p>
+     * Records are removed from the heap only once the archive has stored them, so a concurrent history read may see
+     * a record in both tiers but never in neither. No account lock is held while archiving; only the oldest records
+     * are evicted, while operations append after the newest. A run finding another one in progress on the account
+     * returns at once, so a record is handed to the archive once.
+     * </p>
+     *
+     * @param retention the retention of the hot history.
+     * @param archive   the archive receiving evicted records.
+     * @param now       the current date.
+     * @return the number of archived records, 0 if another run is in progress.
+     * @throws java.io.UncheckedIOException if the archive cannot store the records, the history is left untouched.
+     */
+    public int archiveHistory(final HistoryRetention retention, final TransactionArchive archive, final LocalDateTime now) {
+        Objects.requireNonNull(retention, "retention shouldn't be null");
+        Objects.requireNonNull(archive, "archive shouldn't be null");
 
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("The amount being withdrawn is lower or equal to 0");
+        if (!ARCHIVING.compareAndSet(this, false, true)) {
+            return 0;
         }
 
-        final ReentrantReadWriteLock.WriteLock writeLock = reentrantReadWriteLock.writeLock();
+        try {
+            drainIfAsynchronous();
+
+            final List<TransactionRecord> expired = retention.expired(transactions.records(), now);
+
+            if (expired.isEmpty()) {
+                return 0;
+            }
+
+            archive.append(getAccountId(), expired);
 
-        if (balance.subtract(amount).compareTo(BigDecimal.ZERO) < 0 && !reentrantReadWriteLock.isWriteLocked()) {
-            LOGGER.error("operation=withdraw, message=Insufficient funds to process transaction, balance={}, amount={}",
-                    balance, amount);
-            throw new InsufficientFundsException(String.format("Current balance=%s is insufficient to process the transaction", balance));
+            transactions.evict(expired);
+            expired.forEach(index::remove);
+
+            return expired.size();
+        } finally {
+            archiving = false;
         }
+    }
+
+    /**
+     * Appends every pending record to the history. Only one thread drains an account at a time, which keeps the
+     * pending queue single-consumer and the history in sequence order.
+     */
+    void drainPendingRecords() {
+        drainLock.lock();
 
         try {
-            writeLock.lock();
+            //Cleared before polling, a record published after this point schedules a new drain
+            drainScheduled = false;
 
-            if (balance.subtract(amount).compareTo(BigDecimal.ZERO) < 0) {
-                LOGGER.error("operation=withdraw, message=Insufficient funds to process transaction, balance={}, amount={}",
-                        balance, amount);
-                throw new InsufficientFundsException(String.format("Current balance=%s is insufficient to process the transaction", balance));
+            PendingRecord pending;
+
+            while ((pending = pendingRecords.poll()) != null) {
+                appendNew(pending.toRecord(this));
             }
+        } finally {
+            drainLock.unlock();
+        }
+    }
 
-            balance = balance.subtract(amount);
-            return balance;
+    static String transferDescription(final Account sender, final Account recipient) {
+        return String.format("Transaction from account %s to account %s", sender.getAccountId(), recipient.getAccountId());
+    }
+
+    /**
+     * Returns a stamp for an optimistic read of the account, zero if the account is currently being written.
+     */
+    long tryOptimisticRead() {
+        return stampedLock.tryOptimisticRead();
+    }
+
+    /**
+     * Returns whether the account was not written since the given optimistic read stamp was issued.
+     */
+    boolean validate(final long stamp) {
+        return stampedLock.validate(stamp);
+    }
+
+    /**
+     * Returns the balance without any locking, only meaningful when validated against an optimistic read stamp.
+     */
+    BigDecimal unlockedBalance() {
+        return balance;
+    }
+
+    /**
+     * Acquires the write lock, for operations spanning several accounts.
+     */
+    long writeLock() {
+        return stampedLock.writeLock();
+    }
+
+    void unlockWrite(final long stamp) {
+        stampedLock.unlockWrite(stamp);
+    }
+
+    /**
+     * Returns the balance not reserved by holds, the caller must hold the write lock.
+     */
+    BigDecimal lockedAvailableBalance() {
+        return balance.subtract(held);
+    }
+
+    /**
+     * Returns the date of a new record of the account, the caller must hold the write lock.
+     */
+    LocalDateTime lockedRecordDate(final LocalDateTime date) {
+        return recordDate(date);
+    }
+
+    /**
+     * Records the legs of a netted batch and moves the balance once by their net, the caller must hold the write lock
+     * and have checked that the net does not overdraw the account. Credits are recorded before debits, so no recorded
+     * balance is lower than the final one.
+     *
+     * @param credits the transfers into the account.
+     * @param debits  the transfers out of the account.
+     * @param date    the date of the batch, not older than the newest record of the account.
+     */
+    void settle(final List<TransferNetting.Leg> credits, final List<TransferNetting.Leg> debits, final LocalDateTime date) {
+        BigDecimal running = balance;
+
+        for (final TransferNetting.Leg credit : credits) {
+            running = running.add(credit.amount());
+            publish(TransactionType.INBOUND, credit.transactionId(), credit.amount(), running, date, credit.counterparty());
+        }
+
+        for (final TransferNetting.Leg debit : debits) {
+            running = running.subtract(debit.amount());
+            publish(TransactionType.OUTBOUND, debit.transactionId(), debit.amount(), running, date, debit.counterparty());
+        }
+
+        balance = running;
+        balanceChanged(running);
+    }
+
+    private BigDecimal publishPersonalOperation(final TransactionType direction, final BigDecimal amount) {
+        final UUID transactionId = UUID.randomUUID();
+        final LocalDateTime transactionDate = LocalDateTime.now();
+        final BigDecimal balance;
+
+        final long stamp = stampedLock.writeLock();
+
+        try {
+            balance = direction == TransactionType.INBOUND ? deposit(amount) : withdraw(amount);
+
+            publish(direction, transactionId, amount, balance, recordDate(transactionDate), null);
         } finally {
-            writeLock.unlock();
+            stampedLock.unlockWrite(stamp);
         }
+
+        scheduleDrain();
+
+        return balance;
     }
 
-    private BigDecimal deposit(final BigDecimal amount) {
+    private void publishTransfer(final BigDecimal amount, final Account recipient, final Account first, final Account second) {
+        final UUID transactionId = UUID.randomUUID();
+        final LocalDateTime transactionDate = LocalDateTime.now();
+
+        //Both accounts stay write locked until both balances are updated, so no reader can observe half of the transfer
+        final long firstStamp = first.stampedLock.writeLock();
+        final long secondStamp = second.stampedLock.writeLock();
+
+        try {
+            final BigDecimal senderBalance = this.withdraw(amount);
+            final BigDecimal recipientBalance = recipient.deposit(amount);
+
+            //Both records share the date, which must not precede the history of either account
+            final LocalDateTime date = recipient.recordDate(this.recordDate(transactionDate));
+
+            this.publish(TransactionType.OUTBOUND, transactionId, amount, senderBalance, date, recipient);
+            recipient.publish(TransactionType.INBOUND, transactionId, amount, recipientBalance, date, this);
+        } finally {
+            second.stampedLock.unlockWrite(secondStamp);
+            first.stampedLock.unlockWrite(firstStamp);
+        }
+
+        this.scheduleDrain();
+        recipient.scheduleDrain();
+    }
+
+    /**
+     * Records an operation, the caller must hold the write lock. {@link RecordMode#SYNCHRONOUS} accounts append the
+     * record right away, even as a side of a transfer with an asynchronous account.
+     */
+    private void publish(final TransactionType direction,
+                         final UUID transactionId,
+                         final BigDecimal amount,
+                         final BigDecimal balance,
+                         final LocalDateTime transactionDate,
+                         final Account counterparty) {
+        final PendingRecord pending = new PendingRecord(++sequence, direction, transactionId, amount, balance,
+                transactionDate, counterparty);
+
+        lastRecordDate = transactionDate;
+
+        if (factory.recordMode() == RecordMode.SYNCHRONOUS) {
+            appendNew(pending.toRecord(this));
+        } else {
+            pendingRecords.offer(pending);
+        }
+    }
+
+    /**
+     * Appends the record of an operation of the account and tells the record observer of its factory about it.
+     */
+    private void appendNew(final TransactionRecord record) {
+        append(record);
+        factory.recordObserver().recordAppended(this, record);
+    }
+
+    private void append(final TransactionRecord record) {
+        TransactionIndex current = index;
+
+        if (current == null) {
+            current = new TransactionIndex();
+
+            //Restored records may be appended under the write lock while a drain appends under the drain lock
+            final TransactionIndex existing = (TransactionIndex) INDEX.compareAndExchange(this, null, current);
+
+            if (existing != null) {
+                current = existing;
+            }
+        }
+
+        transactions.append(record);
+        current.add(record);
+    }
+
+    /**
+     * Returns the date of a new record of the account, the caller must hold the write lock.
+     *
+     * @param date the date the operation started at.
+     * @return the given date, or the date of the newest record if it is later.
+     */
+    private LocalDateTime recordDate(final LocalDateTime date) {
+        return date.isBefore(lastRecordDate) ? lastRecordDate : date;
+    }
+
+    void scheduleDrain() {
+        if (factory.recordMode() == RecordMode.ASYNCHRONOUS && DRAIN_SCHEDULED.compareAndSet(this, false, true)) {
+            RecordDrainer.schedule(this);
+        }
+    }
+
+    private void drainIfAsynchronous() {
+        if (factory.recordMode() == RecordMode.ASYNCHRONOUS) {
+            drainPendingRecords();
+        }
+    }
+
+    private void validateWithdrawal(final BigDecimal amount) {
         Objects.requireNonNull(amount, "Amount shouldn't be null");
 
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("The amount being deposited is lower or equal to 0");
+            throw new IllegalArgumentException("The amount being withdrawn is lower or equal to 0");
         }
 
-        final ReentrantReadWriteLock.WriteLock writeLock = reentrantReadWriteLock.writeLock();
+        if (!stampedLock.isWriteLocked()) {
+            checkAvailable(amount);
+        }
+    }
 
-        try {
-            writeLock.lock();
+    private void validateDeposit(final BigDecimal amount) {
+        Objects.requireNonNull(amount, "Amount shouldn't be null");
 
-            balance = balance.add(amount);
-            return balance;
-        } finally {
-            writeLock.unlock();
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("The amount being deposited is lower or equal to 0");
         }
     }
 
-    private Set<TransactionRecord> createTransactionRecord(final BigDecimal amount, final Account recipient) {
-        final String description = String.format("Transaction from account %s to account %s", this.accountId, recipient.accountId);
+    /**
+     * Withdraws the amount, the caller must hold the write lock.
+     */
+    private BigDecimal withdraw(final BigDecimal amount) {
+        checkAvailable(amount);
 
-        final LocalDateTime transactionDate = LocalDateTime.now();
-        final UUID transactionID = UUID.randomUUID();
+        balance = balance.subtract(amount);
+        balanceChanged(balance);
+        return balance;
+    }
+
+    /**
+     * Fails if the amount exceeds the balance not reserved by holds, exact only while holding the lock.
+     */
+    private void checkAvailable(final BigDecimal amount) {
+        final BigDecimal available = balance.subtract(held);
+
+        if (available.subtract(amount).compareTo(BigDecimal.ZERO) < 0) {
+            LOGGER.error("operation=withdraw, message=Insufficient funds to process transaction, balance={}, available={}, amount={}",
+                    balance, available, amount);
+            throw new InsufficientFundsException(String.format("Current balance=%s is insufficient to process the transaction", available));
+        }
+    }
+
+    /**
+     * Ends a hold, the caller must hold the write lock.
+     */
+    private void removeHold(final Hold hold) {
+        holds.remove(hold.id());
+        held = held.subtract(hold.amount());
 
-        final TransactionRecord inboundRecord = new InboundTransactionRecord(transactionID,
-                amount,
-                recipient.balance,
-                transactionDate,
-                description,
-                this,
-                this.accountId);
+        if (holds.isEmpty()) {
+            holds = null;
+        }
+    }
 
-        final TransactionRecord outboundRecord = new OutboundTransactionRecord(transactionID,
-                amount,
-                this.balance,
-                transactionDate,
-                description,
-                recipient,
-                this.accountId);
+    /**
+     * Tells the observers about a balance change, the caller must hold the write lock.
+     */
+    private void balanceChanged(final BigDecimal balance) {
+        balanceObserver.balanceChanged(this, balance);
+        factory.balanceObserver().balanceChanged(this, balance);
+    }
 
-        return Set.of(inboundRecord, outboundRecord);
+    /**
+     * Deposits the amount, the caller must hold the write lock.
+     */
+    private BigDecimal deposit(final BigDecimal amount) {
+        balance = balance.add(amount);
+        balanceChanged(balance);
+        return balance;
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Account account)) return false;
-        return Objects.equals(accountId, account.accountId);
+        return idMostSignificantBits == account.idMostSignificantBits
+                && idLeastSignificantBits == account.idLeastSignificantBits;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(accountId);
+        //Same value as Objects.hash(getAccountId())
+        final long bits = idMostSignificantBits ^ idLeastSignificantBits;
+
+        return 31 + ((int) (bits >> 32) ^ (int) bits);
     }
 
 }
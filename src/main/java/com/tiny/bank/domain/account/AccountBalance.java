@@ -0,0 +1,13 @@
+package com.tiny.bank.domain.account;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Balance of a single account within a {@link BalanceSheet}.
+ *
+ * @param accountId the unique identifier of the account.
+ * @param balance   the balance of the account.
+ */
+public record AccountBalance(UUID accountId, BigDecimal balance) {
+}
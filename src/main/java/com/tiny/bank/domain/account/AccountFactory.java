@@ -0,0 +1,58 @@
+package com.tiny.bank.domain.account;
+
+import com.tiny.bank.domain.transaction.TransactionRecord;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the accounts of a repository, with the settings they share.
+ *
+ * <p>
+ * Every account keeps a reference to the factory that created it rather than copies of its settings, so the settings
+ * cost a single field per account. Each repository, importer and replica is given the factory of the accounts it
+ * creates; {@link #DEFAULT} is meant for standalone accounts and tests.
+ * </p>
+ *
+ * @param recordMode      how the accounts append transaction records to their history.
+ * @param balanceObserver told about every balance change of the accounts, after the observers of the account.
+ * @param recordObserver  told about every new record of the accounts.
+ */
+public record AccountFactory(RecordMode recordMode, BalanceObserver balanceObserver, RecordObserver recordObserver) {
+
+    /**
+     * Synchronous accounts, observed by no one.
+     */
+    public static final AccountFactory DEFAULT = new AccountFactory(RecordMode.SYNCHRONOUS, BalanceObserver.NONE,
+            RecordObserver.NONE);
+
+    public AccountFactory {
+        Objects.requireNonNull(recordMode, "recordMode shouldn't be null");
+        Objects.requireNonNull(balanceObserver, "balanceObserver shouldn't be null");
+        Objects.requireNonNull(recordObserver, "recordObserver shouldn't be null");
+    }
+
+    /**
+     * Creates a new account with a unique identifier and an initial balance of {@link BigDecimal#ZERO}.
+     *
+     * @return a new {@code Account} instance.
+     */
+    public Account createAccount() {
+        return createAccount(UUID.randomUUID(), ConcurrentHashMap.newKeySet(), BigDecimal.ZERO);
+    }
+
+    /**
+     * Creates an account with the specified parameters.
+     *
+     * @param accountId    the unique identifier of the account
+     * @param transactions the initial transactions of the account
+     * @param balance      the initial balance of the account
+     * @return a new {@code Account} instance.
+     */
+    public Account createAccount(final UUID accountId, final Set<TransactionRecord> transactions, final BigDecimal balance) {
+        return new Account(accountId, transactions, balance, this);
+    }
+}
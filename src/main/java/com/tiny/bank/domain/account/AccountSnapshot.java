@@ -0,0 +1,17 @@
+package com.tiny.bank.domain.account;
+
+import com.tiny.bank.domain.transaction.TransactionRecord;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable point-in-time copy of an {@link Account}.
+ *
+ * @param accountId    the unique identifier of the account.
+ * @param balance      the balance of the account at the time of the snapshot.
+ * @param transactions the transaction records that led to that balance.
+ */
+public record AccountSnapshot(UUID accountId, BigDecimal balance, Set<TransactionRecord> transactions) {
+}
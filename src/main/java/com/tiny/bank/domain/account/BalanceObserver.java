@@ -0,0 +1,24 @@
+package com.tiny.bank.domain.account;
+
+import java.math.BigDecimal;
+
+/**
+ * Receives every balance change of an {@link Account}.
+ *
+ * <p>
+ * Observers are called under the account write lock, right after the balance changed and in the order of the
+ * changes, so they must be fast and must not call back into the account.
+ * </p>
+ */
+@FunctionalInterface
+public interface BalanceObserver {
+
+    BalanceObserver NONE = (account, balance) -> {
+    };
+
+    /**
+     * @param account the account whose balance changed.
+     * @param balance the new balance.
+     */
+    void balanceChanged(Account account, BigDecimal balance);
+}
@@ -0,0 +1,67 @@
+package com.tiny.bank.domain.account;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * The observers of an account, called in the order they were added. Immutable, adding or removing an observer
+ * returns a new chain.
+ */
+final class BalanceObserverChain implements BalanceObserver {
+
+    private final BalanceObserver[] observers;
+
+    private BalanceObserverChain(final BalanceObserver[] observers) {
+        this.observers = observers;
+    }
+
+    /**
+     * @return the observers, then the added one.
+     */
+    static BalanceObserver add(final BalanceObserver observers, final BalanceObserver observer) {
+        if (observers == NONE) {
+            return observer;
+        }
+
+        final BalanceObserver[] current = observers instanceof BalanceObserverChain chain
+                ? chain.observers
+                : new BalanceObserver[]{observers};
+        final BalanceObserver[] added = Arrays.copyOf(current, current.length + 1);
+
+        added[current.length] = observer;
+        return new BalanceObserverChain(added);
+    }
+
+    /**
+     * @return the observers without the first occurrence of the removed one, the same observers if it is not among
+     * them.
+     */
+    static BalanceObserver remove(final BalanceObserver observers, final BalanceObserver observer) {
+        if (observers == observer) {
+            return NONE;
+        }
+
+        if (!(observers instanceof BalanceObserverChain chain)) {
+            return observers;
+        }
+
+        for (int i = 0; i < chain.observers.length; i++) {
+            if (chain.observers[i] == observer) {
+                final BalanceObserver[] removed = new BalanceObserver[chain.observers.length - 1];
+
+                System.arraycopy(chain.observers, 0, removed, 0, i);
+                System.arraycopy(chain.observers, i + 1, removed, i, removed.length - i);
+                return removed.length == 1 ? removed[0] : new BalanceObserverChain(removed);
+            }
+        }
+
+        return observers;
+    }
+
+    @Override
+    public void balanceChanged(final Account account, final BigDecimal balance) {
+        for (final BalanceObserver observer : observers) {
+            observer.balanceChanged(account, balance);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.tiny.bank.domain.account;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Consistent view of the balances of several accounts, as they all were at a single point in time.
+ *
+ * <p>
+ * Built with optimistic, lock-free reads: an optimistic read stamp of every account is taken together with its
+ * balance and validated once all balances have been collected, so a transfer between two accounts of the sheet is
+ * either fully visible or not visible at all. If any account was being written, or changed in the meantime, the read
+ * is retried after a back-off, first spinning then parking for a doubling time of at most a millisecond.
+ * </p>
+ *
+ * <p>
+ * Readers never take a lock, so they never stall writers. The price is on the reader: a sheet only completes once no
+ * account of it is written during one attempt, so in the worst case, an account written again before every retry
+ * delays the sheet for as long as that stream of writes lasts.
+ * </p>
+ *
+ * @param balances the balance of every account.
+ */
+public record BalanceSheet(List<AccountBalance> balances) {
+
+    private static final int SPINS = 8;
+    private static final long MAXIMUM_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    public BalanceSheet {
+        Objects.requireNonNull(balances, "balances shouldn't be null");
+
+        balances = List.copyOf(balances);
+    }
+
+    /**
+     * Reads a consistent balance sheet of the given accounts.
+     *
+     * @param accounts the accounts to read.
+     * @return the {@link BalanceSheet} of the accounts.
+     */
+    public static BalanceSheet of(final Collection<Account> accounts) {
+        Objects.requireNonNull(accounts, "accounts shouldn't be null");
+
+        final Account[] snapshot = accounts.toArray(Account[]::new);
+        final long[] stamps = new long[snapshot.length];
+        final BigDecimal[] balances = new BigDecimal[snapshot.length];
+
+        for (int attempt = 0; !tryRead(snapshot, stamps, balances); attempt++) {
+            backOff(attempt);
+        }
+
+        final List<AccountBalance> result = new ArrayList<>(snapshot.length);
+
+        for (int i = 0; i < snapshot.length; i++) {
+            result.add(new AccountBalance(snapshot[i].getAccountId(), balances[i]));
+        }
+
+        return new BalanceSheet(result);
+    }
+
+    /**
+     * Returns the sum of all balances of the sheet.
+     *
+     * @return the total balance.
+     */
+    public BigDecimal total() {
+        return balances.stream()
+                .map(AccountBalance::balance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static boolean tryRead(final Account[] accounts, final long[] stamps, final BigDecimal[] balances) {
+        for (int i = 0; i < accounts.length; i++) {
+            final long stamp = accounts[i].tryOptimisticRead();
+
+            if (stamp == 0) {
+                return false;
+            }
+
+            stamps[i] = stamp;
+            balances[i] = accounts[i].unlockedBalance();
+        }
+
+        for (int i = 0; i < accounts.length; i++) {
+            if (!accounts[i].validate(stamps[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void backOff(final int attempt) {
+        if (attempt < SPINS) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(Math.min(MAXIMUM_PARK_NANOS, 1_000L << Math.min(attempt - SPINS, 10)));
+        }
+    }
+}
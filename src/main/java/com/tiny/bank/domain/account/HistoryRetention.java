@@ -0,0 +1,65 @@
+package com.tiny.bank.domain.account;
+
+import com.tiny.bank.domain.transaction.TransactionRecord;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bounds the transaction history an account keeps on heap.
+ *
+ * <p>
+ * A record stays hot while it is one of the newest {@code maxRecords} records and is younger than {@code maxAge};
+ * either bound can be left unset. Older records are archived.
+ * </p>
+ *
+ * @param maxRecords the maximum number of hot records, {@code null} for no limit.
+ * @param maxAge     the maximum age of hot records, {@code null} for no limit.
+ */
+public record HistoryRetention(Integer maxRecords, Duration maxAge) {
+
+    public HistoryRetention {
+        if (maxRecords != null && maxRecords < 0) {
+            throw new IllegalArgumentException("maxRecords shouldn't be negative");
+        }
+
+        if (maxAge != null && maxAge.isNegative()) {
+            throw new IllegalArgumentException("maxAge shouldn't be negative");
+        }
+    }
+
+    /**
+     * Returns whether the retention bounds the history at all.
+     *
+     * @return {@code true} if at least one bound is set.
+     */
+    public boolean isEnabled() {
+        return maxRecords != null || maxAge != null;
+    }
+
+    /**
+     * Selects the records that should leave the hot history.
+     *
+     * @param history the hot records, oldest first.
+     * @param now     the current date.
+     * @return the records to archive, a head of {@code history}.
+     */
+    public List<TransactionRecord> expired(final List<TransactionRecord> history, final LocalDateTime now) {
+        if (!isEnabled()) {
+            return List.of();
+        }
+
+        int expired = maxRecords == null ? 0 : Math.max(0, history.size() - maxRecords);
+
+        if (maxAge != null) {
+            final LocalDateTime threshold = now.minus(maxAge);
+
+            while (expired < history.size() && history.get(expired).date().isBefore(threshold)) {
+                expired++;
+            }
+        }
+
+        return history.subList(0, expired);
+    }
+}
@@ -0,0 +1,20 @@
+package com.tiny.bank.domain.account;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An authorization hold, an amount reserved on an account until it is captured, released or expires.
+ *
+ * @param id        the unique identifier of the hold.
+ * @param accountId the account the amount is reserved on.
+ * @param amount    the reserved amount.
+ * @param expiresAt the date the hold is released at unless captured before.
+ */
+public record Hold(UUID id, UUID accountId, BigDecimal amount, LocalDateTime expiresAt) {
+
+    public boolean isExpired(final LocalDateTime now) {
+        return !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,50 @@
+package com.tiny.bank.domain.account;
+
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.OutboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Operation applied to an account whose {@link TransactionRecord} has not been built yet.
+ *
+ * @param sequence                the sequence number of the operation on the account.
+ * @param direction               the direction of the operation for the account.
+ * @param id                      the transaction identifier, shared by both sides of a transfer.
+ * @param amount                  the amount of the operation.
+ * @param balanceAfterTransaction the account balance once the operation was applied.
+ * @param date                    the date of the operation.
+ * @param counterparty            the other account of a transfer, {@code null} for personal operations.
+ */
+record PendingRecord(long sequence,
+                     TransactionType direction,
+                     UUID id,
+                     BigDecimal amount,
+                     BigDecimal balanceAfterTransaction,
+                     LocalDateTime date,
+                     Account counterparty) {
+
+    TransactionRecord toRecord(final Account owner) {
+        final UUID accountId = owner.getAccountId();
+
+        if (counterparty == null) {
+            return switch (direction) {
+                case INBOUND -> InboundTransactionRecord.createPersonalInboundTransaction(id, amount,
+                        balanceAfterTransaction, date, accountId);
+                case OUTBOUND -> OutboundTransactionRecord.createPersonalOutboundTransaction(id, amount,
+                        balanceAfterTransaction, date, accountId);
+            };
+        }
+
+        return switch (direction) {
+            case INBOUND -> new InboundTransactionRecord(id, amount, balanceAfterTransaction, date,
+                    Account.transferDescription(counterparty, owner), counterparty, accountId);
+            case OUTBOUND -> new OutboundTransactionRecord(id, amount, balanceAfterTransaction, date,
+                    Account.transferDescription(owner, counterparty), counterparty, accountId);
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.tiny.bank.domain.account;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Background appender of the pending records of {@link RecordMode#ASYNCHRONOUS} accounts.
+ *
+ * <p>
+ * A single daemon thread is the regular consumer of every account queue. Each account is scheduled at most once
+ * until it is drained, so a burst of operations on a hot account results in a single drain.
+ * </p>
+ */
+final class RecordDrainer {
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("account-record-drainer-%d")
+            .setDaemon(true)
+            .build());
+
+    private RecordDrainer() {
+    }
+
+    static void schedule(final Account account) {
+        EXECUTOR.execute(account::drainPendingRecords);
+    }
+}
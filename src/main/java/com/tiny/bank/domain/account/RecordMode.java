@@ -0,0 +1,18 @@
+package com.tiny.bank.domain.account;
+
+/**
+ * How an account appends transaction records to its history.
+ */
+public enum RecordMode {
+
+    /**
+     * Records are built and appended to the history while the account lock is held.
+     */
+    SYNCHRONOUS,
+
+    /**
+     * Only the balance update and a sequence number are assigned while the account lock is held. Records are
+     * published to a per-account queue and appended to the history asynchronously, or by the next history read.
+     */
+    ASYNCHRONOUS
+}
@@ -0,0 +1,25 @@
+package com.tiny.bank.domain.account;
+
+import com.tiny.bank.domain.transaction.TransactionRecord;
+
+/**
+ * Receives every new transaction record of an {@link Account}, restored records aside.
+ *
+ * <p>
+ * Observers are called as the record is appended to the history: under the account write lock in
+ * {@link RecordMode#SYNCHRONOUS} mode, by the thread draining the account in {@link RecordMode#ASYNCHRONOUS} mode.
+ * Either way the records of an account are observed in history order, and observers must be fast.
+ * </p>
+ */
+@FunctionalInterface
+public interface RecordObserver {
+
+    RecordObserver NONE = (account, record) -> {
+    };
+
+    /**
+     * @param account the account the record was appended to.
+     * @param record  the new record.
+     */
+    void recordAppended(Account account, TransactionRecord record);
+}
@@ -0,0 +1,273 @@
+package com.tiny.bank.domain.account;
+
+import com.tiny.bank.domain.transaction.TransactionRecord;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Append-only transaction history of an account, in date order.
+ *
+ * <p>
+ * Records are stored in fixed-size chunks whose filled slots are never rewritten, and the bounds of the history are
+ * published as a single immutable {@link State}. Readers take no lock and copy nothing: every read is a view over the
+ * state it found, so it sees the history as of that moment whatever is appended or evicted afterwards, and shares its
+ * chunks with the history and every other reader. Records must be appended in date order, which lets date range and
+ * tail reads binary search the history instead of scanning it.
+ * </p>
+ *
+ * <p>
+ * Archiving evicts the oldest records by moving the start of the history forward; a chunk is released once all its
+ * records are evicted, so up to {@value #CHUNK_SIZE} evicted records may stay reachable.
+ * </p>
+ */
+final class TransactionHistory {
+
+    static final int CHUNK_SIZE = 256;
+
+    private static final TransactionRecord[][] NO_CHUNKS = new TransactionRecord[0][];
+
+    /**
+     * Shared by every empty history, states are immutable.
+     */
+    private static final State EMPTY = new State(NO_CHUNKS, 0, 0, 0);
+
+    private volatile State state = EMPTY;
+
+    /**
+     * Appends a record, writers are serialized on the history.
+     *
+     * @param record the record to append.
+     * @throws IllegalArgumentException if the record is older than the last record of the history.
+     */
+    synchronized void append(final TransactionRecord record) {
+        final State current = state;
+
+        if (current.start < current.end && record.date().isBefore(current.get(current.end - 1).date())) {
+            throw new IllegalArgumentException(String.format("Record=%s is older than the account history", record.id()));
+        }
+
+        TransactionRecord[][] chunks = current.chunks;
+        final int slot = (int) (current.end % CHUNK_SIZE);
+
+        if (slot == 0) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = new TransactionRecord[CHUNK_SIZE];
+        }
+
+        //Written before the new end is published, readers never see an empty slot
+        chunks[chunks.length - 1][slot] = record;
+
+        state = new State(chunks, current.firstChunk, current.start, current.end + 1);
+    }
+
+    /**
+     * Evicts the records of the history up to the end of the given head, usually its expired records.
+     *
+     * <p>
+     * Evicting a head that was already evicted, even partially, only evicts what is left of it.
+     * </p>
+     *
+     * @param head a view of the oldest records, taken from this history.
+     * @throws IllegalArgumentException if the view was not taken from this history.
+     */
+    synchronized void evict(final Collection<TransactionRecord> head) {
+        final Records records = switch (head) {
+            case Records list -> list;
+            case RecordSet set -> set.records;
+            default -> throw new IllegalArgumentException("Only records read from the history can be evicted");
+        };
+
+        final State current = state;
+
+        if (records.to <= current.start) {
+            return;
+        }
+
+        final long firstChunk = records.to / CHUNK_SIZE;
+        final TransactionRecord[][] chunks = Arrays.copyOfRange(current.chunks,
+                (int) (firstChunk - current.firstChunk),
+                current.chunks.length);
+
+        state = new State(chunks, firstChunk, records.to, current.end);
+    }
+
+    /**
+     * Returns every record, oldest first.
+     *
+     * @return an immutable {@link List} of {@link TransactionRecord}.
+     */
+    List<TransactionRecord> records() {
+        final State current = state;
+
+        return new Records(current, current.start, current.end);
+    }
+
+    /**
+     * Returns the records dated within a range, oldest first.
+     *
+     * @param from the inclusive lower bound, {@code null} for no bound.
+     * @param to   the inclusive upper bound, {@code null} for no bound.
+     * @return an immutable {@link List} of {@link TransactionRecord}.
+     */
+    List<TransactionRecord> range(final LocalDateTime from, final LocalDateTime to) {
+        final State current = state;
+
+        final long first = from == null ? current.start : current.firstAfter(current.start, current.end, from, false);
+        final long last = to == null ? current.end : current.firstAfter(first, current.end, to, true);
+
+        return new Records(current, first, Math.max(first, last));
+    }
+
+    /**
+     * Returns the newest records, oldest first.
+     *
+     * @param count the maximum number of records.
+     * @return an immutable {@link List} of {@link TransactionRecord}.
+     */
+    List<TransactionRecord> tail(final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count shouldn't be negative");
+        }
+
+        final State current = state;
+
+        return new Records(current, Math.max(current.start, current.end - count), current.end);
+    }
+
+    /**
+     * Returns the records read from this history as a {@link Set}, iterated oldest first and still sharing the
+     * history chunks.
+     *
+     * @param records records returned by {@link #records()}, {@link #range} or {@link #tail}.
+     * @return an immutable {@link Set} of {@link TransactionRecord}.
+     * @throws IllegalArgumentException if the records were not read from a history.
+     */
+    static Set<TransactionRecord> asSet(final List<TransactionRecord> records) {
+        if (!(records instanceof Records view)) {
+            throw new IllegalArgumentException("Only records read from the history can be viewed as a set");
+        }
+
+        return new RecordSet(view);
+    }
+
+    /**
+     * Published bounds of the history, positions count every record ever appended.
+     *
+     * @param chunks     the chunks holding the records from {@code firstChunk} on.
+     * @param firstChunk the position of the first chunk, in chunks.
+     * @param start      the position of the oldest record.
+     * @param end        the position after the newest record.
+     */
+    private record State(TransactionRecord[][] chunks, long firstChunk, long start, long end) {
+
+        TransactionRecord get(final long position) {
+            return chunks[(int) (position / CHUNK_SIZE - firstChunk)][(int) (position % CHUNK_SIZE)];
+        }
+
+        /**
+         * Returns the position of the first record between {@code low} and {@code high} dated after the given date,
+         * or on it unless {@code inclusive}.
+         */
+        long firstAfter(long low, long high, final LocalDateTime date, final boolean inclusive) {
+            while (low < high) {
+                final long middle = (low + high) >>> 1;
+                final int comparison = get(middle).date().compareTo(date);
+
+                if (comparison < 0 || (inclusive && comparison == 0)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+    }
+
+    /**
+     * Immutable view of the records between two positions of a {@link State}.
+     */
+    private static final class Records extends AbstractList<TransactionRecord> implements RandomAccess {
+
+        private final State state;
+        private final long from;
+        private final long to;
+
+        Records(final State state, final long from, final long to) {
+            this.state = state;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public TransactionRecord get(final int index) {
+            Objects.checkIndex(index, size());
+
+            return state.get(from + index);
+        }
+
+        @Override
+        public int size() {
+            return (int) (to - from);
+        }
+
+        @Override
+        public List<TransactionRecord> subList(final int fromIndex, final int toIndex) {
+            Objects.checkFromToIndex(fromIndex, toIndex, size());
+
+            return new Records(state, from + fromIndex, from + toIndex);
+        }
+
+        /**
+         * Looks a record up among the records sharing its date, which are adjacent in the history.
+         */
+        boolean containsRecord(final TransactionRecord record) {
+            final LocalDateTime date = record.date();
+            final long last = state.firstAfter(from, to, date, true);
+
+            for (long position = state.firstAfter(from, last, date, false); position < last; position++) {
+                if (state.get(position).equals(record)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * {@link Set} view of {@link Records}, every record of a history is distinct.
+     */
+    private static final class RecordSet extends AbstractSet<TransactionRecord> {
+
+        private final Records records;
+
+        RecordSet(final Records records) {
+            this.records = records;
+        }
+
+        @Override
+        public Iterator<TransactionRecord> iterator() {
+            return records.iterator();
+        }
+
+        @Override
+        public int size() {
+            return records.size();
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return o instanceof TransactionRecord record && records.containsRecord(record);
+        }
+    }
+}
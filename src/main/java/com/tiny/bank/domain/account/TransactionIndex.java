@@ -0,0 +1,101 @@
+package com.tiny.bank.domain.account;
+
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionSearchCriteria;
+
+import java.math.BigDecimal;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Inverted indexes over the hot transaction records of an account, by counterparty account and amount.
+ *
+ * <p>
+ * Maintained as records are appended to and evicted from the history, so a search only visits the records of the
+ * most selective index instead of the whole history. Date ranges need no index, the history is in date order. Updates
+ * are serialized on the index, which only contends with archiving; searches take no lock and are weakly consistent,
+ * like the history itself.
+ * </p>
+ */
+final class TransactionIndex {
+
+    private final ConcurrentMap<UUID, Set<TransactionRecord>> byCounterparty = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<BigDecimal, Set<TransactionRecord>> byAmount = new ConcurrentSkipListMap<>();
+
+    synchronized void add(final TransactionRecord record) {
+        final UUID counterparty = record.counterpartyAccountId();
+
+        if (counterparty != null) {
+            add(byCounterparty, counterparty, record);
+        }
+
+        add(byAmount, record.amount(), record);
+    }
+
+    synchronized void remove(final TransactionRecord record) {
+        final UUID counterparty = record.counterpartyAccountId();
+
+        if (counterparty != null) {
+            remove(byCounterparty, counterparty, record);
+        }
+
+        remove(byAmount, record.amount(), record);
+    }
+
+    /**
+     * Returns the records matching the criteria.
+     *
+     * @param criteria the search filter.
+     * @param history  the hot history, read when the criteria use a date range or no indexed attribute.
+     * @return a stream of the matching records.
+     */
+    Stream<TransactionRecord> search(final TransactionSearchCriteria criteria, final TransactionHistory history) {
+        final Stream<TransactionRecord> candidates;
+
+        //Counterparty postings are usually the smallest, then a date range, then an amount range
+        if (criteria.counterparty() != null) {
+            candidates = byCounterparty.getOrDefault(criteria.counterparty(), Set.of()).stream();
+        } else if (criteria.hasDateRange()) {
+            candidates = history.range(criteria.from(), criteria.to()).stream();
+        } else if (criteria.hasAmountRange()) {
+            candidates = range(byAmount, criteria.min(), criteria.max());
+        } else {
+            candidates = history.records().stream();
+        }
+
+        return candidates.filter(criteria::matches);
+    }
+
+    private static <K> Stream<TransactionRecord> range(final ConcurrentSkipListMap<K, Set<TransactionRecord>> index,
+                                                       final K from,
+                                                       final K to) {
+        final NavigableMap<K, Set<TransactionRecord>> range;
+
+        if (from == null) {
+            range = index.headMap(to, true);
+        } else if (to == null) {
+            range = index.tailMap(from, true);
+        } else {
+            range = index.subMap(from, true, to, true);
+        }
+
+        return range.values().stream().flatMap(Set::stream);
+    }
+
+    private static <K> void add(final ConcurrentMap<K, Set<TransactionRecord>> index, final K key, final TransactionRecord record) {
+        index.computeIfAbsent(key, ignored -> ConcurrentHashMap.newKeySet()).add(record);
+    }
+
+    private static <K> void remove(final ConcurrentMap<K, Set<TransactionRecord>> index, final K key, final TransactionRecord record) {
+        final Set<TransactionRecord> postings = index.get(key);
+
+        if (postings != null && postings.remove(record) && postings.isEmpty()) {
+            index.remove(key, postings);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.tiny.bank.domain.account;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Settles a batch of transfers by net position instead of one transfer at a time.
+ *
+ * <p>
+ * Every account of the batch is write locked once, in {@link Account#LOCK_ORDER}, and its balance moves once by the
+ * sum of its credits minus its debits, so back-and-forth transfers between the same accounts cost one lock
+ * acquisition per account rather than two per transfer. Every accepted transfer is still recorded on both accounts,
+ * under a single date shared by the batch.
+ * </p>
+ *
+ * <p>
+ * A transfer is only rejected if the batch would leave its sender overdrawn: an account may spend what it receives
+ * within the same batch. While an account's available balance plus its net position is negative, its latest accepted
+ * transfer out is rejected, which may in turn overdraw the recipient of that transfer. Rejected transfers the batch
+ * can still afford are then accepted again, in submission order.
+ * </p>
+ */
+public final class TransferNetting {
+
+    private TransferNetting() {
+    }
+
+    /**
+     * A transfer of a batch.
+     *
+     * @param sender    the account the amount is withdrawn from.
+     * @param recipient the account the amount is deposited into.
+     * @param amount    the amount transferred.
+     */
+    public record Transfer(Account sender, Account recipient, BigDecimal amount) {
+
+        public Transfer {
+            Objects.requireNonNull(sender, "sender shouldn't be null");
+            Objects.requireNonNull(recipient, "recipient shouldn't be null");
+            Objects.requireNonNull(amount, "Amount shouldn't be null");
+
+            if (sender.equals(recipient)) {
+                throw new IllegalArgumentException("Attempting to transfer within the same account");
+            }
+
+            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("The amount being transferred is lower or equal to 0");
+            }
+        }
+    }
+
+    /**
+     * One side of an accepted transfer, as recorded on an account.
+     */
+    record Leg(UUID transactionId, BigDecimal amount, Account counterparty) {
+    }
+
+    /**
+     * Settles the transfers of a batch.
+     *
+     * @param transfers the transfers, in submission order.
+     * @return the indexes of the accepted transfers.
+     */
+    public static BitSet settle(final List<Transfer> transfers) {
+        Objects.requireNonNull(transfers, "transfers shouldn't be null");
+
+        final Map<Account, Position> positions = new HashMap<>();
+
+        for (final Transfer transfer : transfers) {
+            positions.computeIfAbsent(transfer.sender(), Position::new);
+            positions.computeIfAbsent(transfer.recipient(), Position::new);
+        }
+
+        final List<Position> ordered = positions.values().stream()
+                .sorted((left, right) -> Account.LOCK_ORDER.compare(left.account, right.account))
+                .toList();
+
+        //Generated ahead of the lock, UUID generation draws from a shared random source
+        final UUID[] transactionIds = new UUID[transfers.size()];
+
+        for (int i = 0; i < transactionIds.length; i++) {
+            transactionIds[i] = UUID.randomUUID();
+        }
+
+        final BitSet accepted = new BitSet(transfers.size());
+        int locked = 0;
+
+        try {
+            for (; locked < ordered.size(); locked++) {
+                final Position position = ordered.get(locked);
+
+                position.stamp = position.account.writeLock();
+            }
+
+            LocalDateTime date = LocalDateTime.now();
+
+            for (final Position position : ordered) {
+                position.available = position.account.lockedAvailableBalance();
+                date = position.account.lockedRecordDate(date);
+            }
+
+            accept(transfers, positions, accepted);
+
+            for (int i = accepted.nextSetBit(0); i >= 0; i = accepted.nextSetBit(i + 1)) {
+                final Transfer transfer = transfers.get(i);
+
+                positions.get(transfer.sender()).debits.add(new Leg(transactionIds[i], transfer.amount(), transfer.recipient()));
+                positions.get(transfer.recipient()).credits.add(new Leg(transactionIds[i], transfer.amount(), transfer.sender()));
+            }
+
+            for (final Position position : ordered) {
+                position.account.settle(position.credits, position.debits, date);
+            }
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                ordered.get(i).account.unlockWrite(ordered.get(i).stamp);
+            }
+        }
+
+        ordered.forEach(position -> position.account.scheduleDrain());
+
+        return accepted;
+    }
+
+    /**
+     * Accepts every transfer, then rejects transfers out of overdrawn accounts until none is overdrawn. An overdrawn
+     * account always has an accepted transfer out left, since its available balance is never negative. Accepting a
+     * rejected transfer again only raises the position of its recipient, so it never overdraws another account.
+     */
+    private static void accept(final List<Transfer> transfers, final Map<Account, Position> positions, final BitSet accepted) {
+        for (int i = 0; i < transfers.size(); i++) {
+            final Transfer transfer = transfers.get(i);
+            final Position sender = positions.get(transfer.sender());
+
+            sender.net = sender.net.subtract(transfer.amount());
+            sender.outgoing.addLast(i);
+            positions.get(transfer.recipient()).net = positions.get(transfer.recipient()).net.add(transfer.amount());
+        }
+
+        accepted.set(0, transfers.size());
+
+        final Deque<Position> overdrawn = new ArrayDeque<>();
+
+        positions.values().stream()
+                .filter(Position::isOverdrawn)
+                .forEach(overdrawn::add);
+
+        while (!overdrawn.isEmpty()) {
+            final Position sender = overdrawn.poll();
+
+            while (sender.isOverdrawn()) {
+                final int rejected = sender.outgoing.removeLast();
+                final Transfer transfer = transfers.get(rejected);
+                final Position recipient = positions.get(transfer.recipient());
+                final boolean recipientOverdrawn = recipient.isOverdrawn();
+
+                accepted.clear(rejected);
+                sender.net = sender.net.add(transfer.amount());
+                recipient.net = recipient.net.subtract(transfer.amount());
+
+                if (!recipientOverdrawn && recipient.isOverdrawn()) {
+                    overdrawn.add(recipient);
+                }
+            }
+        }
+
+        boolean readmitted = accepted.cardinality() < transfers.size();
+
+        while (readmitted) {
+            readmitted = false;
+
+            for (int i = accepted.nextClearBit(0); i < transfers.size(); i = accepted.nextClearBit(i + 1)) {
+                final Transfer transfer = transfers.get(i);
+                final Position sender = positions.get(transfer.sender());
+
+                if (sender.available.add(sender.net).compareTo(transfer.amount()) >= 0) {
+                    final Position recipient = positions.get(transfer.recipient());
+
+                    accepted.set(i);
+                    sender.net = sender.net.subtract(transfer.amount());
+                    recipient.net = recipient.net.add(transfer.amount());
+                    readmitted = true;
+                }
+            }
+        }
+    }
+
+    private static final class Position {
+
+        private final Account account;
+        private final Deque<Integer> outgoing = new ArrayDeque<>();
+        private final List<Leg> credits = new ArrayList<>();
+        private final List<Leg> debits = new ArrayList<>();
+
+        private long stamp;
+        private BigDecimal available;
+        private BigDecimal net = BigDecimal.ZERO;
+
+        private Position(final Account account) {
+            this.account = account;
+        }
+
+        private boolean isOverdrawn() {
+            return available.add(net).compareTo(BigDecimal.ZERO) < 0;
+        }
+    }
+}
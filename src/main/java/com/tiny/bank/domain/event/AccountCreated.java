@@ -0,0 +1,16 @@
+package com.tiny.bank.domain.event;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An account was added to a user.
+ *
+ * @param ccNumber  the credit card number of the owner.
+ * @param accountId the UUID of the account.
+ * @param balance   the balance of the account when it was added.
+ * @param time      when the account was added.
+ */
+public record AccountCreated(String ccNumber, UUID accountId, BigDecimal balance, Instant time) implements LedgerEvent {
+}
@@ -0,0 +1,35 @@
+package com.tiny.bank.domain.event;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.account.BalanceObserver;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Publishes the balance changes of the accounts of an {@link AccountFactory} on an {@link EventBus}, as its balance
+ * observer.
+ *
+ * <p>
+ * Changes are published under the account write lock, so the changes of an account are published in order, and the
+ * two legs of a transfer in the order they were applied.
+ * </p>
+ */
+public class BalanceChangePublisher implements BalanceObserver {
+
+    private final EventBus eventBus;
+
+    /**
+     * @param eventBus the bus to publish on.
+     */
+    public BalanceChangePublisher(final EventBus eventBus) {
+        this.eventBus = Objects.requireNonNull(eventBus, "eventBus shouldn't be null");
+    }
+
+    @Override
+    public void balanceChanged(final Account account, final BigDecimal balance) {
+        eventBus.publish(new BalanceChanged(account.getAccountId(), balance, Instant.now()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.tiny.bank.domain.event;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The balance of an account changed.
+ *
+ * @param accountId the UUID of the account.
+ * @param balance   the new balance.
+ * @param time      when the balance changed.
+ */
+public record BalanceChanged(UUID accountId, BigDecimal balance, Instant time) implements LedgerEvent {
+}
@@ -0,0 +1,254 @@
+package com.tiny.bank.domain.event;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process bus publishing {@link LedgerEvent}s to subscribers through a ring buffer, in the manner of a disruptor.
+ *
+ * <p>
+ * Publishers claim the next sequence number with a single atomic increment and store the event in the slot of that
+ * sequence with a release write; they never wait, so events can be published under account locks. The ring does not
+ * wait for subscribers either: a subscriber falling behind by more than the capacity loses the overwritten events and
+ * is told how many it missed. Each slot holds its sequence along with the event, so an overwritten slot is never
+ * mistaken for the one a subscriber waits for.
+ * </p>
+ *
+ * <p>
+ * Every subscription reads the ring on its own daemon thread, with its own position. An idle subscriber spins
+ * briefly, then yields, then parks for up to {@value #MAX_PARK_MILLIS} ms at a time, so it costs next to nothing
+ * while nothing is published and sees a new event at most that late.
+ * </p>
+ */
+public class EventBus implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventBus.class);
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Slot[].class);
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_PARK_MILLIS = 10;
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("event-subscriber-%d")
+            .setDaemon(true)
+            .build();
+
+    private final Slot[] slots;
+    private final int mask;
+
+    /**
+     * The sequence number of the next published event.
+     */
+    private final AtomicLong next = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * @param capacity the number of events kept for subscribers, a power of two.
+     */
+    public EventBus(final int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity should be a power of two greater than 1");
+        }
+
+        this.slots = new Slot[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Publishes an event, without ever blocking.
+     *
+     * @param event the event.
+     * @return the sequence number of the event.
+     */
+    public long publish(final LedgerEvent event) {
+        Objects.requireNonNull(event, "event shouldn't be null");
+
+        final long sequence = next.getAndIncrement();
+
+        SLOTS.setRelease(slots, (int) sequence & mask, new Slot(sequence, event));
+        return sequence;
+    }
+
+    /**
+     * @return the sequence number the next published event will have.
+     */
+    public long nextSequence() {
+        return next.get();
+    }
+
+    /**
+     * @return the number of events kept for subscribers.
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Subscribes to the events published from now on.
+     *
+     * @param subscriber the subscriber.
+     * @return the subscription, to close once the subscriber is no longer interested.
+     */
+    public Subscription subscribe(final EventSubscriber subscriber) {
+        return subscribe(subscriber, next.get());
+    }
+
+    /**
+     * Subscribes to the events starting at a sequence number, possibly already published. Events no longer kept are
+     * reported as missed.
+     *
+     * @param subscriber the subscriber.
+     * @param sequence   the sequence number of the first event to deliver.
+     * @return the subscription, to close once the subscriber is no longer interested.
+     */
+    public Subscription subscribe(final EventSubscriber subscriber, final long sequence) {
+        Objects.requireNonNull(subscriber, "subscriber shouldn't be null");
+
+        if (closed) {
+            throw new IllegalStateException("The event bus is closed");
+        }
+
+        final Subscription subscription = new Subscription(subscriber, Math.max(0, Math.min(sequence, next.get())));
+
+        subscription.thread.start();
+        return subscription;
+    }
+
+    /**
+     * Stops delivering events, every subscription ends once it returns from the event being delivered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    private Slot slot(final long sequence) {
+        return (Slot) SLOTS.getAcquire(slots, (int) sequence & mask);
+    }
+
+    private record Slot(long sequence, LedgerEvent event) {
+    }
+
+    /**
+     * Delivery of the events to a subscriber.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final EventSubscriber subscriber;
+        private final Thread thread;
+
+        /**
+         * The sequence number of the next event to deliver, only written by the subscription thread.
+         */
+        private volatile long position;
+        private volatile boolean active = true;
+
+        private Subscription(final EventSubscriber subscriber, final long position) {
+            this.subscriber = subscriber;
+            this.position = position;
+            this.thread = THREAD_FACTORY.newThread(this::run);
+        }
+
+        /**
+         * @return the sequence number of the next event to deliver.
+         */
+        public long position() {
+            return position;
+        }
+
+        /**
+         * @return whether events are still delivered.
+         */
+        public boolean isActive() {
+            return active && thread.isAlive();
+        }
+
+        /**
+         * Stops delivering events, waiting for the event being delivered unless called by the subscriber itself.
+         */
+        @Override
+        public void close() {
+            active = false;
+            LockSupport.unpark(thread);
+
+            if (Thread.currentThread() != thread) {
+                try {
+                    thread.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void run() {
+            long sequence = position;
+            Slot slot = slot(sequence);
+            int idle = 0;
+
+            try {
+                while (active && !closed) {
+                    if (slot == null || slot.sequence() < sequence) {
+                        idle(idle++);
+                        slot = slot(sequence);
+                        continue;
+                    }
+
+                    if (slot.sequence() > sequence) {
+                        //Lapped: the slot was reused, only the last capacity of claimed events may still be kept
+                        final long resumed = Math.max(slot.sequence() - mask, next.get() - slots.length);
+
+                        subscriber.onMissed(resumed - sequence);
+                        sequence = resumed;
+                        position = sequence;
+                        slot = slot(sequence);
+                        continue;
+                    }
+
+                    final Slot following = slot(sequence + 1);
+
+                    subscriber.onEvent(sequence, slot.event(), following == null || following.sequence() != sequence + 1);
+                    position = ++sequence;
+                    slot = following;
+                    idle = 0;
+                }
+            } catch (Exception e) {
+                LOGGER.warn("operation=deliverEvent, message=Subscription ended by its subscriber, sequence={}", sequence, e);
+            } finally {
+                active = false;
+                closeSubscriber();
+            }
+        }
+
+        private void closeSubscriber() {
+            try {
+                subscriber.onClose();
+            } catch (Exception e) {
+                LOGGER.error("operation=closeSubscriber, message=Unable to close the subscriber", e);
+            }
+        }
+
+        private void idle(final int idle) {
+            if (idle < SPINS) {
+                Thread.onSpinWait();
+            } else if (idle < SPINS + YIELDS) {
+                Thread.yield();
+            } else {
+                final int parks = Math.min(idle - SPINS - YIELDS, 30);
+
+                LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << parks, TimeUnit.MILLISECONDS.toNanos(MAX_PARK_MILLIS)));
+            }
+        }
+    }
+}
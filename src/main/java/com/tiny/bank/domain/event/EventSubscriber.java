@@ -0,0 +1,35 @@
+package com.tiny.bank.domain.event;
+
+/**
+ * Consumes the events of an {@link EventBus} on the thread of its subscription, in publication order.
+ */
+@FunctionalInterface
+public interface EventSubscriber {
+
+    /**
+     * Handles an event. Throwing ends the subscription.
+     *
+     * @param sequence   the sequence number of the event, one more than the previous one unless events were missed.
+     * @param event      the event.
+     * @param endOfBatch whether no other event is available yet, the right time to flush buffered output.
+     * @throws Exception if the event cannot be handled.
+     */
+    void onEvent(long sequence, LedgerEvent event, boolean endOfBatch) throws Exception;
+
+    /**
+     * Called when the subscriber fell behind by more than the capacity of the bus, before the next delivered event.
+     *
+     * @param count the number of events overwritten before they were delivered.
+     * @throws Exception if the gap cannot be handled.
+     */
+    default void onMissed(final long count) throws Exception {
+    }
+
+    /**
+     * Called once the subscription ended, however it ended, on the thread of the subscription.
+     *
+     * @throws Exception if the subscriber fails to release its resources.
+     */
+    default void onClose() throws Exception {
+    }
+}
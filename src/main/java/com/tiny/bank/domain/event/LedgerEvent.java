@@ -0,0 +1,28 @@
+package com.tiny.bank.domain.event;
+
+import java.time.Instant;
+
+/**
+ * A change of a balance, a history, a user or an account, as published on the {@link EventBus}.
+ */
+public sealed interface LedgerEvent permits BalanceChanged, TransactionRecorded, UserCreated, AccountCreated,
+        UserDeactivated {
+
+    /**
+     * @return when the change happened.
+     */
+    Instant time();
+
+    /**
+     * @return the name of the kind of event, as found in the event log and in server-sent events.
+     */
+    default String type() {
+        return switch (this) {
+            case BalanceChanged ignored -> "balance-changed";
+            case TransactionRecorded ignored -> "transaction-recorded";
+            case UserCreated ignored -> "user-created";
+            case AccountCreated ignored -> "account-created";
+            case UserDeactivated ignored -> "user-deactivated";
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.tiny.bank.domain.event;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.account.RecordObserver;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Publishes the new transaction records of the accounts of an {@link AccountFactory} on an {@link EventBus}, as its
+ * record observer.
+ */
+public class TransactionRecordPublisher implements RecordObserver {
+
+    private final EventBus eventBus;
+
+    /**
+     * @param eventBus the bus to publish on.
+     */
+    public TransactionRecordPublisher(final EventBus eventBus) {
+        this.eventBus = Objects.requireNonNull(eventBus, "eventBus shouldn't be null");
+    }
+
+    @Override
+    public void recordAppended(final Account account, final TransactionRecord record) {
+        eventBus.publish(TransactionRecorded.of(record, Instant.now()));
+    }
+}
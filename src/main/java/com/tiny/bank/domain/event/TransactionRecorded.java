@@ -0,0 +1,50 @@
+package com.tiny.bank.domain.event;
+
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.OutboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A transaction record was appended to the history of an account.
+ *
+ * @param accountId               the UUID of the account.
+ * @param transactionId           the transaction identifier, shared by both sides of a transfer.
+ * @param direction               the direction of the transaction for the account.
+ * @param amount                  the amount of the transaction.
+ * @param balanceAfterTransaction the account balance once the transaction was applied.
+ * @param date                    the date of the record.
+ * @param description             the description of the record.
+ * @param counterpartyAccountId   the account on the other side of a transfer, {@code null} for personal operations.
+ * @param time                    when the record was appended.
+ */
+public record TransactionRecorded(UUID accountId,
+                                  UUID transactionId,
+                                  TransactionType direction,
+                                  BigDecimal amount,
+                                  BigDecimal balanceAfterTransaction,
+                                  LocalDateTime date,
+                                  String description,
+                                  UUID counterpartyAccountId,
+                                  Instant time) implements LedgerEvent {
+
+    /**
+     * @param record the appended record.
+     * @param time   when it was appended.
+     * @return the event of the record.
+     */
+    public static TransactionRecorded of(final TransactionRecord record, final Instant time) {
+        final TransactionType direction = switch (record) {
+            case InboundTransactionRecord ignored -> TransactionType.INBOUND;
+            case OutboundTransactionRecord ignored -> TransactionType.OUTBOUND;
+        };
+
+        return new TransactionRecorded(record.accountId(), record.id(), direction, record.amount(),
+                record.balanceAfterTransaction(), record.date(), record.description(), record.counterpartyAccountId(), time);
+    }
+}
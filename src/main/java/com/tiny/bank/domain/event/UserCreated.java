@@ -0,0 +1,18 @@
+package com.tiny.bank.domain.event;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A user was added, followed by an {@link AccountCreated} event for each account it was added with.
+ *
+ * @param ccNumber  the credit card number of the user.
+ * @param userId    the UUID of the user.
+ * @param name      the name of the user.
+ * @param birthdate the birthdate of the user.
+ * @param time      when the user was added.
+ */
+public record UserCreated(String ccNumber, UUID userId, String name, LocalDate birthdate, Instant time)
+        implements LedgerEvent {
+}
@@ -0,0 +1,12 @@
+package com.tiny.bank.domain.event;
+
+import java.time.Instant;
+
+/**
+ * A user was deactivated.
+ *
+ * @param ccNumber the credit card number of the user.
+ * @param time     when the user was deactivated.
+ */
+public record UserDeactivated(String ccNumber, Instant time) implements LedgerEvent {
+}
@@ -0,0 +1,15 @@
+package com.tiny.bank.domain.exception;
+
+public class OperationRejectedException extends RuntimeException {
+    public OperationRejectedException() {
+        super();
+    }
+
+    public OperationRejectedException(String message) {
+        super(message);
+    }
+
+    public OperationRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
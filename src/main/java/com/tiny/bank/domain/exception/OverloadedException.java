@@ -0,0 +1,15 @@
+package com.tiny.bank.domain.exception;
+
+public class OverloadedException extends RuntimeException {
+    public OverloadedException() {
+        super();
+    }
+
+    public OverloadedException(String message) {
+        super(message);
+    }
+
+    public OverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
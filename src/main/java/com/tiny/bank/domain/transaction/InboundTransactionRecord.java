@@ -1,5 +1,6 @@
 package com.tiny.bank.domain.transaction;
 
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
 import com.google.common.base.MoreObjects;
 import com.tiny.bank.domain.account.Account;
 
@@ -12,18 +13,27 @@ public record InboundTransactionRecord(UUID id,
                                        BigDecimal balanceAfterTransaction,
                                        LocalDateTime date,
                                        String description,
-                                       Account provider,
+                                       //Only the identifier, the counterparty history refers back to this record
+                                       @JsonIncludeProperties("accountId") Account provider,
                                        UUID accountId) implements TransactionRecord {
 
     public static InboundTransactionRecord createPersonalInboundTransaction(final BigDecimal amount,
                                                                             final BigDecimal finalBalance,
                                                                             final UUID accountId) {
+        return createPersonalInboundTransaction(UUID.randomUUID(), amount, finalBalance, LocalDateTime.now(), accountId);
+    }
+
+    public static InboundTransactionRecord createPersonalInboundTransaction(final UUID id,
+                                                                            final BigDecimal amount,
+                                                                            final BigDecimal finalBalance,
+                                                                            final LocalDateTime date,
+                                                                            final UUID accountId) {
         final String description = String.format("Bank personal deposit, amount=%s, balance=%s", amount, finalBalance);
 
-        return new InboundTransactionRecord(UUID.randomUUID(),
+        return new InboundTransactionRecord(id,
                 amount,
                 finalBalance,
-                LocalDateTime.now(),
+                date,
                 description,
                 null,
                 accountId);
@@ -1,5 +1,6 @@
 package com.tiny.bank.domain.transaction;
 
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
 import com.google.common.base.MoreObjects;
 import com.tiny.bank.domain.account.Account;
 
@@ -12,18 +13,27 @@ public record OutboundTransactionRecord(UUID id,
                                         BigDecimal balanceAfterTransaction,
                                         LocalDateTime date,
                                         String description,
-                                        Account recipient,
+                                        //Only the identifier, the counterparty history refers back to this record
+                                        @JsonIncludeProperties("accountId") Account recipient,
                                         UUID accountId) implements TransactionRecord {
 
     public static OutboundTransactionRecord createPersonalOutboundTransaction(final BigDecimal amount,
                                                                               final BigDecimal finalBalance,
                                                                               final UUID accountId) {
+        return createPersonalOutboundTransaction(UUID.randomUUID(), amount, finalBalance, LocalDateTime.now(), accountId);
+    }
+
+    public static OutboundTransactionRecord createPersonalOutboundTransaction(final UUID id,
+                                                                              final BigDecimal amount,
+                                                                              final BigDecimal finalBalance,
+                                                                              final LocalDateTime date,
+                                                                              final UUID accountId) {
         final String description = String.format("Bank personal withdraw, amount=%s, balance=%s", amount, finalBalance);
 
-        return new OutboundTransactionRecord(UUID.randomUUID(),
+        return new OutboundTransactionRecord(id,
                 amount,
                 finalBalance,
-                LocalDateTime.now(),
+                date,
                 description,
                 null,
                 accountId);
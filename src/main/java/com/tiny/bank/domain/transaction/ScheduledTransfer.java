@@ -0,0 +1,81 @@
+package com.tiny.bank.domain.transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A future-dated transfer, or a standing order repeating a transfer every {@code recurrence}.
+ *
+ * @param id          the unique identifier of the scheduled transfer, shared by all its occurrences.
+ * @param transaction the transfer to execute.
+ * @param start       the date of the first execution.
+ * @param recurrence  the period between executions, {@code null} for a single execution.
+ * @param occurrence  the number of executions before this one.
+ */
+public record ScheduledTransfer(UUID id,
+                                Transaction transaction,
+                                LocalDateTime start,
+                                Period recurrence,
+                                int occurrence) {
+
+    public ScheduledTransfer {
+        Objects.requireNonNull(id, "id shouldn't be null");
+        Objects.requireNonNull(transaction, "transaction shouldn't be null");
+        Objects.requireNonNull(start, "start shouldn't be null");
+
+        if (transaction.amount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("The amount being transferred is lower or equal to 0");
+        }
+
+        if (recurrence != null && (recurrence.isZero() || recurrence.isNegative())) {
+            throw new IllegalArgumentException("recurrence should be positive");
+        }
+
+        if (occurrence < 0 || (recurrence == null && occurrence > 0)) {
+            throw new IllegalArgumentException(String.format("Invalid occurrence=%s", occurrence));
+        }
+    }
+
+    /**
+     * Creates the first occurrence of a scheduled transfer.
+     *
+     * @param transaction the transfer to execute.
+     * @param start       the date of the first execution.
+     * @param recurrence  the period between executions, {@code null} for a single execution.
+     * @return a new {@code ScheduledTransfer}.
+     */
+    public static ScheduledTransfer schedule(final Transaction transaction, final LocalDateTime start, final Period recurrence) {
+        return new ScheduledTransfer(UUID.randomUUID(), transaction, start, recurrence, 0);
+    }
+
+    /**
+     * Returns the date of this execution. Dates are computed from the start, so a standing order set on the 31st
+     * runs on the last day of shorter months and back on the 31st afterwards.
+     *
+     * @return the execution date.
+     */
+    public LocalDateTime executeAt() {
+        return recurrence == null ? start : start.plus(recurrence.multipliedBy(occurrence));
+    }
+
+    public boolean isRecurring() {
+        return recurrence != null;
+    }
+
+    /**
+     * Returns the following occurrence of a standing order.
+     *
+     * @return the next {@code ScheduledTransfer}.
+     * @throws IllegalStateException if the transfer is not recurring.
+     */
+    public ScheduledTransfer next() {
+        if (!isRecurring()) {
+            throw new IllegalStateException(String.format("Scheduled transfer=%s is not recurring", id));
+        }
+
+        return new ScheduledTransfer(id, transaction, start, recurrence, occurrence + 1);
+    }
+}
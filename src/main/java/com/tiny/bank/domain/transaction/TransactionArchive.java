@@ -0,0 +1,72 @@
+package com.tiny.bank.domain.transaction;
+
+import com.tiny.bank.domain.account.Account;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cold tier of the account transaction histories, holding the records evicted from the heap by a
+ * {@link com.tiny.bank.domain.account.HistoryRetention}.
+ */
+public interface TransactionArchive {
+
+    /**
+     * Archive used when no cold tier is configured, it holds no record.
+     */
+    TransactionArchive NONE = new TransactionArchive() {
+        @Override
+        public void append(final UUID accountId, final Collection<TransactionRecord> records) {
+            throw new UnsupportedOperationException("No transaction archive configured");
+        }
+
+        @Override
+        public Set<TransactionRecord> read(final UUID accountId, final Function<UUID, Account> counterparties) {
+            return Set.of();
+        }
+    };
+
+    /**
+     * Durably stores records of an account. Once this returns, the records may be removed from the hot history.
+     *
+     * @param accountId the account owning the records.
+     * @param records   the records to archive.
+     * @throws java.io.UncheckedIOException if the records cannot be stored.
+     */
+    void append(UUID accountId, Collection<TransactionRecord> records);
+
+    /**
+     * Reads every archived record of an account.
+     *
+     * @param accountId      the account owning the records.
+     * @param counterparties resolves the counterparty account of transfer records, may return {@code null}.
+     * @return the archived records.
+     * @throws java.io.UncheckedIOException if the archive cannot be read.
+     */
+    Set<TransactionRecord> read(UUID accountId, Function<UUID, Account> counterparties);
+
+    /**
+     * Reads the archived records of an account dated within a range. Implementations may skip the storage known to
+     * hold no record of the range.
+     *
+     * @param accountId      the account owning the records.
+     * @param from           the inclusive lower bound, {@code null} for no bound.
+     * @param to             the inclusive upper bound, {@code null} for no bound.
+     * @param counterparties resolves the counterparty account of transfer records, may return {@code null}.
+     * @return the archived records dated within the range.
+     * @throws java.io.UncheckedIOException if the archive cannot be read.
+     */
+    default Set<TransactionRecord> read(final UUID accountId,
+                                        final LocalDateTime from,
+                                        final LocalDateTime to,
+                                        final Function<UUID, Account> counterparties) {
+        return read(accountId, counterparties)
+                .stream()
+                .filter(record -> (from == null || !record.date().isBefore(from)) && (to == null || !record.date().isAfter(to)))
+                .collect(Collectors.toSet());
+    }
+}
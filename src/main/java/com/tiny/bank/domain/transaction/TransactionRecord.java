@@ -1,5 +1,7 @@
 package com.tiny.bank.domain.transaction;
 
+import com.tiny.bank.domain.account.Account;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -17,4 +19,18 @@ public sealed interface TransactionRecord permits InboundTransactionRecord, Outb
     String description();
 
     UUID accountId();
+
+    /**
+     * Returns the identifier of the account on the other side of a transfer.
+     *
+     * @return the counterparty account UUID, {@code null} for personal deposits and withdrawals.
+     */
+    default UUID counterpartyAccountId() {
+        final Account counterparty = switch (this) {
+            case InboundTransactionRecord inbound -> inbound.provider();
+            case OutboundTransactionRecord outbound -> outbound.recipient();
+        };
+
+        return counterparty == null ? null : counterparty.getAccountId();
+    }
 }
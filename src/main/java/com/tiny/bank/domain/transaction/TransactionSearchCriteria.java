@@ -0,0 +1,47 @@
+package com.tiny.bank.domain.transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filter of a transaction search, every bound is optional and inclusive.
+ *
+ * @param counterparty the account on the other side of a transfer.
+ * @param min          the minimum amount.
+ * @param max          the maximum amount.
+ * @param from         the earliest transaction date.
+ * @param to           the latest transaction date.
+ */
+public record TransactionSearchCriteria(UUID counterparty,
+                                        BigDecimal min,
+                                        BigDecimal max,
+                                        LocalDateTime from,
+                                        LocalDateTime to) {
+
+    public TransactionSearchCriteria {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new IllegalArgumentException("min shouldn't be greater than max");
+        }
+
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from shouldn't be after to");
+        }
+    }
+
+    public boolean hasAmountRange() {
+        return min != null || max != null;
+    }
+
+    public boolean hasDateRange() {
+        return from != null || to != null;
+    }
+
+    public boolean matches(final TransactionRecord record) {
+        return (counterparty == null || counterparty.equals(record.counterpartyAccountId()))
+                && (min == null || record.amount().compareTo(min) >= 0)
+                && (max == null || record.amount().compareTo(max) <= 0)
+                && (from == null || !record.date().isBefore(from))
+                && (to == null || !record.date().isAfter(to));
+    }
+}
@@ -0,0 +1,36 @@
+package com.tiny.bank.domain.usecase;
+
+import com.tiny.bank.domain.transaction.Transaction;
+import com.tiny.bank.domain.transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * An operation on one account, as seen by an {@link OperationCheck}. A transfer is one operation on each account.
+ *
+ * @param accountId    the account.
+ * @param direction    whether money enters or leaves the account.
+ * @param amount       the amount of the operation.
+ * @param counterparty the other account of a transfer, {@code null} for deposits and withdrawals.
+ */
+public record AccountOperation(UUID accountId, TransactionType direction, BigDecimal amount, UUID counterparty) {
+
+    public static AccountOperation deposit(final UUID accountId, final BigDecimal amount) {
+        return new AccountOperation(accountId, TransactionType.INBOUND, amount, null);
+    }
+
+    public static AccountOperation withdrawal(final UUID accountId, final BigDecimal amount) {
+        return new AccountOperation(accountId, TransactionType.OUTBOUND, amount, null);
+    }
+
+    public static AccountOperation transferOut(final Transaction transaction) {
+        return new AccountOperation(transaction.providerAccountId(), TransactionType.OUTBOUND, transaction.amount(),
+                transaction.recipientAccountId());
+    }
+
+    public static AccountOperation transferIn(final Transaction transaction) {
+        return new AccountOperation(transaction.recipientAccountId(), TransactionType.INBOUND, transaction.amount(),
+                transaction.providerAccountId());
+    }
+}
@@ -0,0 +1,35 @@
+package com.tiny.bank.domain.usecase;
+
+/**
+ * Bounds the number of operations executing at once, rejecting the excess instead of queueing it.
+ */
+public interface ConcurrencyLimiter {
+
+    /**
+     * Never rejects.
+     */
+    ConcurrencyLimiter NONE = new ConcurrencyLimiter() {
+        @Override
+        public boolean tryAcquire() {
+            return true;
+        }
+
+        @Override
+        public void release(final long latencyNanos) {
+        }
+    };
+
+    /**
+     * Admits an operation if the limit allows it.
+     *
+     * @return {@code true} if the operation may execute, it must then call {@link #release}.
+     */
+    boolean tryAcquire();
+
+    /**
+     * Ends an admitted operation.
+     *
+     * @param latencyNanos how long the operation took.
+     */
+    void release(long latencyNanos);
+}
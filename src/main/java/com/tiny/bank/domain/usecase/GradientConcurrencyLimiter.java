@@ -0,0 +1,115 @@
+package com.tiny.bank.domain.usecase;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit adapting to the observed latency, after the gradient algorithm of TCP Vegas style limiters.
+ *
+ * <p>
+ * Two moving averages of the latency are kept: a long one, the latency without contention, and a short one, the
+ * current latency. While the limit is in use, it grows by its square root as long as the current latency stays
+ * within {@code 1.5} times the long one, and shrinks down to half otherwise, so when operations start queueing on
+ * hot accounts the excess is rejected right away instead of waiting on their locks. Admission is a single
+ * compare-and-set; only latency samples are synchronized.
+ * </p>
+ */
+public class GradientConcurrencyLimiter implements ConcurrencyLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GradientConcurrencyLimiter.class);
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final int LONG_WINDOW = 600;
+    private static final int SHORT_WINDOW = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    /**
+     * Guarded by {@code this}.
+     */
+    private double estimatedLimit;
+    private double longLatency;
+    private double shortLatency;
+
+    /**
+     * @param initialLimit the limit before any latency is observed.
+     * @param minLimit     the lowest limit.
+     * @param maxLimit     the highest limit.
+     */
+    public GradientConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format("Invalid limits initial=%s, min=%s, max=%s", initialLimit, minLimit, maxLimit));
+        }
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        int current;
+
+        do {
+            current = inFlight.get();
+
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        return true;
+    }
+
+    @Override
+    public void release(final long latencyNanos) {
+        onSample(latencyNanos, inFlight.getAndDecrement());
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    private synchronized void onSample(final long latencyNanos, final int inFlightAtRelease) {
+        final double latency = Math.max(1, latencyNanos);
+
+        if (longLatency == 0) {
+            longLatency = latency;
+            shortLatency = latency;
+        } else {
+            longLatency += (latency - longLatency) / LONG_WINDOW;
+            shortLatency += (latency - shortLatency) / SHORT_WINDOW;
+        }
+
+        //Latency went back to normal after a long overload, let the baseline catch up
+        if (longLatency / shortLatency > 2) {
+            longLatency *= 0.95;
+        }
+
+        //Far below the limit, latency says nothing about how much more load would fit
+        if (inFlightAtRelease < estimatedLimit / 2) {
+            return;
+        }
+
+        final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * longLatency / shortLatency));
+        final double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+
+        final int newLimit = (int) estimatedLimit;
+
+        if (newLimit != limit) {
+            LOGGER.debug("operation=adaptConcurrencyLimit, limit={}, newLimit={}, gradient={}", limit, newLimit, gradient);
+            limit = newLimit;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.tiny.bank.domain.usecase;
+
+import com.tiny.bank.domain.exception.OperationRejectedException;
+
+/**
+ * Pre-check stage of the deposit, withdrawal and transfer processors.
+ *
+ * <p>
+ * Processors {@linkplain #reserve reserve} every account operation before executing it, and cancel the reservation if
+ * the operation fails after all, so failed operations are never counted. Checking and recording are one step, so each
+ * operation is checked against every operation reserved before it, concurrent ones included.
+ * </p>
+ */
+public interface OperationCheck {
+
+    /**
+     * Accepts every operation.
+     */
+    OperationCheck NONE = operation -> Reservation.NONE;
+
+    /**
+     * Checks an operation and records it at once.
+     *
+     * @param operation the operation about to be executed.
+     * @return the reservation, to cancel if the operation is not executed after all.
+     * @throws OperationRejectedException if the operation is rejected.
+     */
+    Reservation reserve(AccountOperation operation);
+
+    /**
+     * An operation recorded before it was executed.
+     */
+    @FunctionalInterface
+    interface Reservation {
+
+        Reservation NONE = () -> {
+        };
+
+        /**
+         * Takes the operation back, as it was not executed.
+         */
+        void cancel();
+    }
+}
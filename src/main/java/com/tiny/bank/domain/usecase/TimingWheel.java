@@ -0,0 +1,133 @@
+package com.tiny.bank.domain.usecase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel of tasks due at a given tick.
+ *
+ * <p>
+ * Every level has {@value #SLOTS} slots, each slot of a level spanning a whole turn of the level below. A task is
+ * stored on the highest level where its tick differs from the current tick, in the slot of its digit on that level,
+ * and moves down a level every time the wheel reaches that slot, until it is due. Adding a task and advancing the
+ * wheel by one tick are O(1) whatever the number of tasks or how far ahead they are due.
+ * </p>
+ *
+ * <p>
+ * Not thread-safe, the owner serializes access.
+ * </p>
+ *
+ * @param <T> the type of task.
+ */
+public final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+
+    private final List<List<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final List<T> due = new ArrayList<>();
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param currentTick the tick the wheel starts at.
+     */
+    public TimingWheel(final long currentTick) {
+        this.currentTick = currentTick;
+
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(null);
+        }
+    }
+
+    /**
+     * Adds a task, a task due at or before the current tick is returned by the next {@link #advance}.
+     *
+     * @param tick the tick the task is due at.
+     * @param task the task.
+     */
+    public void add(final long tick, final T task) {
+        if (tick <= currentTick) {
+            due.add(task);
+            return;
+        }
+
+        final int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(tick ^ currentTick)) / SLOT_BITS;
+        final int index = level * SLOTS + digit(tick, level);
+
+        List<Entry<T>> slot = slots.get(index);
+
+        if (slot == null) {
+            slot = new ArrayList<>();
+            slots.set(index, slot);
+        }
+
+        slot.add(new Entry<>(tick, task));
+        size++;
+    }
+
+    /**
+     * Moves the wheel forward.
+     *
+     * @param tick the new current tick, ignored if not after the current one.
+     * @return the tasks due up to that tick, in no particular order.
+     */
+    public List<T> advance(final long tick) {
+        while (currentTick < tick) {
+            if (size == 0) {
+                //Nothing to cascade, the empty ticks can be skipped at once
+                currentTick = tick;
+                break;
+            }
+
+            currentTick++;
+
+            //Slots of upper levels reached by this tick hold tasks due within the turn of the level below
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (level * SLOT_BITS)) - 1)) == 0) {
+                    cascade(level * SLOTS + digit(currentTick, level));
+                }
+            }
+
+            cascade(digit(currentTick, 0));
+        }
+
+        final List<T> result = List.copyOf(due);
+        due.clear();
+
+        return result;
+    }
+
+    /**
+     * Returns the number of tasks in the wheel.
+     *
+     * @return the number of tasks, due ones included.
+     */
+    public int size() {
+        return size + due.size();
+    }
+
+    private void cascade(final int index) {
+        final List<Entry<T>> slot = slots.get(index);
+
+        if (slot == null || slot.isEmpty()) {
+            return;
+        }
+
+        slots.set(index, null);
+        size -= slot.size();
+
+        for (final Entry<T> entry : slot) {
+            add(entry.tick(), entry.task());
+        }
+    }
+
+    private static int digit(final long tick, final int level) {
+        return (int) ((tick >>> (level * SLOT_BITS)) & (SLOTS - 1));
+    }
+
+    private record Entry<T>(long tick, T task) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.tiny.bank.domain.usecase.account;
 
 import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.BalanceSheet;
 import com.tiny.bank.domain.exception.UserNotAvailableException;
 import com.tiny.bank.domain.user.User;
 import com.tiny.bank.repository.UserRepository;
@@ -34,4 +35,12 @@ public class AccountBalanceViewer {
                 .orElseThrow(() -> new UserNotAvailableException(ccNumber));
     }
 
+    public BalanceSheet viewBalanceSheet(final String ccNumber) {
+        Objects.requireNonNull(ccNumber, "ccNumber shouldn't be null");
+
+        return repository.getUser(ccNumber)
+                .map(user -> BalanceSheet.of(user.accounts()))
+                .orElseThrow(() -> new UserNotAvailableException(ccNumber));
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.tiny.bank.domain.usecase.account;
 
+import com.tiny.bank.domain.account.AccountFactory;
 import com.tiny.bank.domain.exception.UserNotAvailableException;
 import com.tiny.bank.domain.usecase.OperationStatus;
 import com.tiny.bank.domain.user.User;
@@ -10,16 +11,22 @@ import java.util.Objects;
 public class AccountCreator {
 
     private final UserRepository repository;
+    private final AccountFactory accountFactory;
 
     public AccountCreator(final UserRepository repository) {
+        this(repository, AccountFactory.DEFAULT);
+    }
+
+    public AccountCreator(final UserRepository repository, final AccountFactory accountFactory) {
         this.repository = repository;
+        this.accountFactory = Objects.requireNonNull(accountFactory, "accountFactory shouldn't be null");
     }
 
     public User create(final String ccNumber) {
         Objects.requireNonNull(ccNumber, "ccNumber shouldn't be null");
 
         //Trick to get advantage of ConcurrentMap compute operation atomicity, leaks a bit of logic to the repository...
-        return repository.updateUser(ccNumber, User::createAccount)
+        return repository.updateUser(ccNumber, user -> User.createAccount(user, accountFactory))
                 .orElseThrow(() -> new UserNotAvailableException(ccNumber));
     }
 }
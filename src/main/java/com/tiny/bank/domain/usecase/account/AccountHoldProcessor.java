@@ -0,0 +1,166 @@
+package com.tiny.bank.domain.usecase.account;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.Hold;
+import com.tiny.bank.domain.exception.UserInactiveException;
+import com.tiny.bank.domain.exception.UserNotAvailableException;
+import com.tiny.bank.domain.usecase.TimingWheel;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Reserves, captures and releases authorization holds on user accounts, and releases holds once they expire.
+ *
+ * <p>
+ * Expiry dates wait in a {@link TimingWheel} with a resolution of one {@code tick}, so {@link #releaseExpired} only
+ * visits the holds that are due instead of every account. A hold captured or released before expiring is skipped.
+ * </p>
+ */
+public class AccountHoldProcessor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccountHoldProcessor.class);
+
+    private final UserRepository repository;
+    private final long tickMillis;
+    private final TimingWheel<ExpiringHold> expirations;
+
+    /**
+     * @param repository the users owning the accounts.
+     * @param tick       the resolution of hold expiry.
+     */
+    public AccountHoldProcessor(final UserRepository repository, final Duration tick) {
+        Objects.requireNonNull(tick, "tick shouldn't be null");
+
+        if (tick.toMillis() < 1) {
+            throw new IllegalArgumentException("tick should be at least 1ms");
+        }
+
+        this.repository = repository;
+        this.tickMillis = tick.toMillis();
+        this.expirations = new TimingWheel<>(tick(LocalDateTime.now()));
+    }
+
+    /**
+     * Reserves an amount on a user account.
+     *
+     * @param ccNumber  the user owning the account.
+     * @param accountId the account.
+     * @param amount    the amount to reserve.
+     * @param ttl       how long the hold lasts unless captured or released.
+     * @return the {@link Hold}.
+     * @throws UserNotAvailableException if the user does not exist.
+     * @throws UserInactiveException     if the user is inactive.
+     */
+    public Hold reserve(final String ccNumber, final UUID accountId, final BigDecimal amount, final Duration ttl) {
+        Objects.requireNonNull(ttl, "ttl shouldn't be null");
+
+        if (ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl should be positive");
+        }
+
+        final Account account = findActiveAccount(ccNumber, accountId);
+        final Hold hold = account.reserve(amount, LocalDateTime.now().plus(ttl));
+
+        synchronized (expirations) {
+            expirations.add(tick(hold.expiresAt()), new ExpiringHold(account, hold));
+        }
+
+        return hold;
+    }
+
+    /**
+     * Captures a hold of a user account.
+     *
+     * @param ccNumber  the user owning the account.
+     * @param accountId the account.
+     * @param holdId    the hold.
+     * @param amount    the amount to withdraw, {@code null} for the whole hold.
+     * @return the account balance after the withdrawal.
+     * @throws UserNotAvailableException if the user does not exist.
+     * @throws UserInactiveException     if the user is inactive.
+     */
+    public BigDecimal capture(final String ccNumber, final UUID accountId, final UUID holdId, final BigDecimal amount) {
+        return findActiveAccount(ccNumber, accountId).capture(holdId, amount);
+    }
+
+    /**
+     * Releases a hold of a user account, allowed for inactive users too.
+     *
+     * @param ccNumber  the user owning the account.
+     * @param accountId the account.
+     * @param holdId    the hold.
+     * @return {@code true} if the hold was pending.
+     * @throws UserNotAvailableException if the user does not exist.
+     */
+    public boolean release(final String ccNumber, final UUID accountId, final UUID holdId) {
+        Objects.requireNonNull(ccNumber, "ccNumber shouldn't be null");
+        Objects.requireNonNull(accountId, "accountId shouldn't be null");
+
+        return repository.getUser(ccNumber)
+                .orElseThrow(() -> new UserNotAvailableException(ccNumber))
+                .findAccount(accountId)
+                .release(holdId);
+    }
+
+    /**
+     * Releases every hold expired at the given date.
+     *
+     * @param now the current date.
+     * @return the number of released holds.
+     */
+    public int releaseExpired(final LocalDateTime now) {
+        final List<ExpiringHold> due;
+
+        synchronized (expirations) {
+            due = expirations.advance(tick(now));
+        }
+
+        int released = 0;
+
+        for (final ExpiringHold expiring : due) {
+            if (expiring.account().release(expiring.hold().id())) {
+                released++;
+            }
+        }
+
+        if (released > 0) {
+            LOGGER.info("operation=releaseExpiredHolds, released={}", released);
+        }
+
+        return released;
+    }
+
+    private Account findActiveAccount(final String ccNumber, final UUID accountId) {
+        Objects.requireNonNull(ccNumber, "ccNumber shouldn't be null");
+        Objects.requireNonNull(accountId, "accountId shouldn't be null");
+
+        final User user = repository.getUser(ccNumber)
+                .orElseThrow(() -> new UserNotAvailableException(ccNumber));
+
+        if (user.isUserDeactivated()) {
+            throw new UserInactiveException(ccNumber);
+        }
+
+        return user.findAccount(accountId);
+    }
+
+    /**
+     * Rounded up, a hold never expires before its date.
+     */
+    private long tick(final LocalDateTime date) {
+        return Math.ceilDiv(date.toInstant(ZoneOffset.UTC).toEpochMilli(), tickMillis);
+    }
+
+    private record ExpiringHold(Account account, Hold hold) {
+    }
+}
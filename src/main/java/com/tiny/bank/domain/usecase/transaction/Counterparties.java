@@ -0,0 +1,30 @@
+package com.tiny.bank.domain.usecase.transaction;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.repository.UserRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Resolves the counterparties of archived records, each account looked up at most once per resolver.
+ *
+ * <p>
+ * {@link UserRepository#findAccount(UUID)} may scan every user, a resolver is meant to live for a single read and
+ * remembers misses as well, closed or unknown counterparties being the common case on old records.
+ * </p>
+ */
+final class Counterparties {
+
+    private Counterparties() {
+    }
+
+    static Function<UUID, Account> memoized(final UserRepository repository) {
+        final Map<UUID, Optional<Account>> resolved = new HashMap<>();
+
+        return accountId -> resolved.computeIfAbsent(accountId, repository::findAccount).orElse(null);
+    }
+}
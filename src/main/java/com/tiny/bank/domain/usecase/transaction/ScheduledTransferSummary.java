@@ -0,0 +1,10 @@
+package com.tiny.bank.domain.usecase.transaction;
+
+/**
+ * Totals of a {@link TransferScheduler#runDue} run.
+ *
+ * @param executed the number of transfers executed.
+ * @param failed   the number of transfers that failed.
+ */
+public record ScheduledTransferSummary(int executed, int failed) {
+}
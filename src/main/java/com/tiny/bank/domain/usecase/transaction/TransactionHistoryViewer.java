@@ -1,21 +1,36 @@
 package com.tiny.bank.domain.usecase.transaction;
 
+import com.google.common.collect.ImmutableSet;
 import com.tiny.bank.domain.account.Account;
 import com.tiny.bank.domain.exception.UserNotAvailableException;
+import com.tiny.bank.domain.transaction.TransactionArchive;
 import com.tiny.bank.domain.transaction.TransactionRecord;
 import com.tiny.bank.domain.user.User;
 import com.tiny.bank.repository.UserRepository;
 
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
+/**
+ * Reads account transaction histories, merging the records kept on heap with those moved to the
+ * {@link TransactionArchive}.
+ */
 public class TransactionHistoryViewer {
     private final UserRepository repository;
+    private final TransactionArchive archive;
 
     public TransactionHistoryViewer(final UserRepository repository) {
+        this(repository, TransactionArchive.NONE);
+    }
+
+    public TransactionHistoryViewer(final UserRepository repository, final TransactionArchive archive) {
         this.repository = repository;
+        this.archive = archive;
     }
 
     public Set<TransactionRecord> view(final String ccNumber, final UUID accountId) {
@@ -25,19 +40,95 @@ public class TransactionHistoryViewer {
         final User user = repository.getUser(ccNumber)
                 .orElseThrow(() -> new UserNotAvailableException(ccNumber));
 
-        return user.findAccount(accountId).getTransactions();
+        return history(user.findAccount(accountId), counterparties());
     }
 
-    public Set<Set<TransactionRecord>> viewAllUserTransactions(final String ccNumber) {
+    /**
+     * Returns the records of an account dated within a range.
+     *
+     * @param ccNumber  the user owning the account.
+     * @param accountId the account.
+     * @param from      the inclusive lower bound, {@code null} for no bound.
+     * @param to        the inclusive upper bound, {@code null} for no bound.
+     * @return an immutable {@link Set} of {@link TransactionRecord}, iterated oldest first.
+     * @throws UserNotAvailableException if the user does not exist.
+     */
+    public Set<TransactionRecord> viewRange(final String ccNumber,
+                                            final UUID accountId,
+                                            final LocalDateTime from,
+                                            final LocalDateTime to) {
         Objects.requireNonNull(ccNumber, "ccNumber shouldn't be null");
+        Objects.requireNonNull(accountId, "accountId shouldn't be null");
 
         final User user = repository.getUser(ccNumber)
                 .orElseThrow(() -> new UserNotAvailableException(ccNumber));
 
+        final Account account = user.findAccount(accountId);
+        final Set<TransactionRecord> hot = account.getTransactions(from, to);
+
+        if (archive == TransactionArchive.NONE) {
+            return hot;
+        }
+
+        //Archived records are older than every hot record, only the hot tier is kept in date order on heap
+        final List<TransactionRecord> archived = archive.read(accountId, from, to, counterparties())
+                .stream()
+                .sorted(Comparator.comparing(TransactionRecord::date))
+                .toList();
+
+        if (archived.isEmpty()) {
+            return hot;
+        }
+
+        return ImmutableSet.<TransactionRecord>builder()
+                .addAll(archived)
+                .addAll(hot)
+                .build();
+    }
+
+    /**
+     * Returns the records of every account of a user, one set per account.
+     *
+     * @param ccNumber the user.
+     * @return an immutable {@link List} of the account histories.
+     * @throws UserNotAvailableException if the user does not exist.
+     */
+    public List<Set<TransactionRecord>> viewAllUserTransactions(final String ccNumber) {
+        Objects.requireNonNull(ccNumber, "ccNumber shouldn't be null");
+
+        final User user = repository.getUser(ccNumber)
+                .orElseThrow(() -> new UserNotAvailableException(ccNumber));
+
+        final Function<UUID, Account> counterparties = counterparties();
+
         return user.accounts()
                 .stream()
-                .map(Account::getTransactions)
-                .collect(Collectors.toSet());
+                .map(account -> history(account, counterparties))
+                .toList();
+    }
+
+    private Set<TransactionRecord> history(final Account account, final Function<UUID, Account> counterparties) {
+        if (archive == TransactionArchive.NONE) {
+            return account.getTransactions();
+        }
+
+        //The hot tier is read first: records are archived before being evicted, so one archived in between is
+        //found in the archive, at worst on both tiers
+        final Set<TransactionRecord> hot = account.getTransactions();
+        final Set<TransactionRecord> archived = archive.read(account.getAccountId(), counterparties);
+
+        if (archived.isEmpty()) {
+            return hot;
+        }
+
+        return ImmutableSet.<TransactionRecord>builder()
+                .addAll(archived)
+                .addAll(hot)
+                .build();
+    }
+
+    private Function<UUID, Account> counterparties() {
+        return Counterparties.memoized(repository);
     }
 
 }
@@ -1,47 +1,221 @@
 package com.tiny.bank.domain.usecase.transaction;
 
 import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.TransferNetting;
+import com.tiny.bank.domain.exception.OverloadedException;
+import com.tiny.bank.domain.exception.UserInactiveException;
 import com.tiny.bank.domain.exception.UserNotAvailableException;
 import com.tiny.bank.domain.transaction.Transaction;
+import com.tiny.bank.domain.usecase.AccountOperation;
+import com.tiny.bank.domain.usecase.ConcurrencyLimiter;
+import com.tiny.bank.domain.usecase.OperationCheck;
+import com.tiny.bank.domain.usecase.OperationStatus;
 import com.tiny.bank.domain.user.User;
 import com.tiny.bank.repository.UserRepository;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 
 public class TransactionProcessor {
     private final UserRepository repository;
+    private final OperationCheck operationCheck;
+    private final ConcurrencyLimiter concurrencyLimiter;
 
     public TransactionProcessor(final UserRepository repository) {
+        this(repository, OperationCheck.NONE);
+    }
+
+    public TransactionProcessor(final UserRepository repository, final OperationCheck operationCheck) {
+        this(repository, operationCheck, ConcurrencyLimiter.NONE);
+    }
+
+    public TransactionProcessor(final UserRepository repository,
+                                final OperationCheck operationCheck,
+                                final ConcurrencyLimiter concurrencyLimiter) {
         this.repository = repository;
+        this.operationCheck = Objects.requireNonNull(operationCheck, "operationCheck shouldn't be null");
+        this.concurrencyLimiter = Objects.requireNonNull(concurrencyLimiter, "concurrencyLimiter shouldn't be null");
     }
 
+    /**
+     * Processes a transaction.
+     *
+     * @param transaction the transaction to process.
+     * @throws OverloadedException if too many transactions are already being processed.
+     */
     public void process(final Transaction transaction) {
         Objects.requireNonNull(transaction, "transaction shouldn't be null");
 
-        if (transaction.isTransactionBetweenUserAccounts()) {
-            processTransactionFromSameUser(transaction);
-        } else {
-            processTransactionBetweenUsers(transaction);
+        if (!concurrencyLimiter.tryAcquire()) {
+            throw new OverloadedException("Too many transactions are being processed, try again later");
+        }
+
+        final long start = System.nanoTime();
+
+        try {
+            process(transaction, repository::getUser);
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Processes a batch of transactions one after the other, a failed transaction does not stop the batch. Users are
+     * looked up once per batch.
+     *
+     * @param transactions the transactions to process.
+     * @return the status of every transaction, in the same order.
+     */
+    public List<OperationStatus> processAll(final List<Transaction> transactions) {
+        Objects.requireNonNull(transactions, "transactions shouldn't be null");
+
+        final Map<String, Optional<User>> users = new HashMap<>();
+        final List<OperationStatus> statuses = new ArrayList<>(transactions.size());
+
+        for (final Transaction transaction : transactions) {
+            try {
+                process(transaction, ccNumber -> users.computeIfAbsent(ccNumber, repository::getUser));
+                statuses.add(OperationStatus.success());
+            } catch (RuntimeException e) {
+                statuses.add(OperationStatus.failure(String.valueOf(e.getMessage())));
+            }
+        }
+
+        return statuses;
+    }
+
+    /**
+     * Processes a batch of transactions as one netting window: each account is locked once and moves by its net
+     * position, see {@link TransferNetting}. A transaction is rejected if its users or accounts are not found, if the
+     * operation check rejects it given the transactions of the batch before it, or if the batch would overdraw its
+     * sender. Transactions rejected by the netting still count towards the checks of the rest of their batch, as the
+     * netting only settles once every transaction is checked.
+     *
+     * @param transactions the transactions to process.
+     * @return the status of every transaction, in the same order.
+     */
+    public List<OperationStatus> processNetted(final List<Transaction> transactions) {
+        Objects.requireNonNull(transactions, "transactions shouldn't be null");
+
+        final Map<String, Optional<User>> users = new HashMap<>();
+        final OperationStatus[] statuses = new OperationStatus[transactions.size()];
+        final List<TransferNetting.Transfer> transfers = new ArrayList<>(transactions.size());
+        final List<Reserved> reserved = new ArrayList<>(transactions.size());
+        final List<Integer> positions = new ArrayList<>(transactions.size());
+
+        for (int i = 0; i < transactions.size(); i++) {
+            try {
+                final TransferNetting.Transfer transfer = resolve(transactions.get(i), ccNumber -> users.computeIfAbsent(ccNumber, repository::getUser));
+
+                reserved.add(reserve(transactions.get(i)));
+                transfers.add(transfer);
+                positions.add(i);
+            } catch (RuntimeException e) {
+                statuses[i] = OperationStatus.failure(String.valueOf(e.getMessage()));
+            }
+        }
+
+        final BitSet accepted = TransferNetting.settle(transfers);
+
+        for (int i = 0; i < transfers.size(); i++) {
+            if (!accepted.get(i)) {
+                reserved.get(i).cancel();
+            }
+
+            statuses[positions.get(i)] = accepted.get(i)
+                    ? OperationStatus.success()
+                    : OperationStatus.failure("Insufficient funds to process the transaction after netting");
+        }
+
+        return Arrays.asList(statuses);
+    }
+
+    private void process(final Transaction transaction, final Function<String, Optional<User>> users) {
+        final Reserved reserved = reserve(transaction);
+
+        try {
+            if (transaction.isTransactionBetweenUserAccounts()) {
+                processTransactionFromSameUser(transaction, users);
+            } else {
+                processTransactionBetweenUsers(transaction, users);
+            }
+        } catch (RuntimeException e) {
+            reserved.cancel();
+            throw e;
         }
     }
 
-    private void processTransactionFromSameUser(final Transaction transaction) {
-        final User user = repository.getUser(transaction.providerId())
+    private void processTransactionFromSameUser(final Transaction transaction, final Function<String, Optional<User>> users) {
+        final User user = users.apply(transaction.providerId())
                 .orElseThrow(() -> new UserNotAvailableException(transaction.providerId()));
 
         user.transferBetweenAccounts(transaction.amount(), transaction.providerAccountId(), transaction.recipientAccountId());
     }
 
-    private void processTransactionBetweenUsers(final Transaction transaction) {
-        final Account provider = repository.getUser(transaction.providerId())
+    private void processTransactionBetweenUsers(final Transaction transaction, final Function<String, Optional<User>> users) {
+        final Account provider = users.apply(transaction.providerId())
                 .orElseThrow(() -> new UserNotAvailableException(transaction.providerId()))
                 .findAccount(transaction.providerAccountId());
 
 
-        final Account recipient = repository.getUser(transaction.recipientId())
+        final Account recipient = users.apply(transaction.recipientId())
                 .orElseThrow(() -> new UserNotAvailableException(transaction.recipientId()))
                 .findAccount(transaction.recipientAccountId());
 
         provider.transferTo(transaction.amount(), recipient);
     }
+
+    /**
+     * Reserves both operations of a transaction, so any transaction checked afterwards, concurrent or of the same
+     * netted batch, is checked against them.
+     */
+    private Reserved reserve(final Transaction transaction) {
+        final OperationCheck.Reservation debit = operationCheck.reserve(AccountOperation.transferOut(transaction));
+
+        try {
+            return new Reserved(debit, operationCheck.reserve(AccountOperation.transferIn(transaction)));
+        } catch (RuntimeException e) {
+            debit.cancel();
+            throw e;
+        }
+    }
+
+    /**
+     * Looks up the accounts of a transaction, with the same user checks as {@link #process(Transaction)}.
+     */
+    private TransferNetting.Transfer resolve(final Transaction transaction, final Function<String, Optional<User>> users) {
+        final User provider = users.apply(transaction.providerId())
+                .orElseThrow(() -> new UserNotAvailableException(transaction.providerId()));
+
+        if (transaction.isTransactionBetweenUserAccounts()) {
+            if (provider.isUserDeactivated()) {
+                throw new UserInactiveException(provider.ccNumber());
+            }
+
+            return new TransferNetting.Transfer(provider.findAccount(transaction.providerAccountId()),
+                    provider.findAccount(transaction.recipientAccountId()),
+                    transaction.amount());
+        }
+
+        final Account recipient = users.apply(transaction.recipientId())
+                .orElseThrow(() -> new UserNotAvailableException(transaction.recipientId()))
+                .findAccount(transaction.recipientAccountId());
+
+        return new TransferNetting.Transfer(provider.findAccount(transaction.providerAccountId()), recipient, transaction.amount());
+    }
+
+    private record Reserved(OperationCheck.Reservation debit, OperationCheck.Reservation credit) {
+
+        private void cancel() {
+            debit.cancel();
+            credit.cancel();
+        }
+    }
 }
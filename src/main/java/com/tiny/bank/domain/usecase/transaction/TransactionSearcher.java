@@ -0,0 +1,58 @@
+package com.tiny.bank.domain.usecase.transaction;
+
+import com.google.common.collect.ImmutableSet;
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.exception.UserNotAvailableException;
+import com.tiny.bank.domain.transaction.TransactionArchive;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionSearchCriteria;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.repository.UserRepository;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Searches the transaction records of every account of a user.
+ *
+ * <p>
+ * Hot records are looked up through the account indexes; archived records, when an archive is configured, are
+ * scanned and filtered.
+ * </p>
+ */
+public class TransactionSearcher {
+    private final UserRepository repository;
+    private final TransactionArchive archive;
+
+    public TransactionSearcher(final UserRepository repository, final TransactionArchive archive) {
+        this.repository = repository;
+        this.archive = archive;
+    }
+
+    public Set<TransactionRecord> search(final String ccNumber, final TransactionSearchCriteria criteria) {
+        Objects.requireNonNull(ccNumber, "ccNumber shouldn't be null");
+        Objects.requireNonNull(criteria, "criteria shouldn't be null");
+
+        final User user = repository.getUser(ccNumber)
+                .orElseThrow(() -> new UserNotAvailableException(ccNumber));
+
+        final ImmutableSet.Builder<TransactionRecord> result = ImmutableSet.builder();
+        final Function<UUID, Account> counterparties = Counterparties.memoized(repository);
+
+        for (final Account account : user.accounts()) {
+            //Hot tier first, a record archived in between is then found in the archive
+            result.addAll(account.search(criteria));
+
+            if (archive != TransactionArchive.NONE) {
+                archive.read(account.getAccountId(), criteria.from(), criteria.to(), counterparties)
+                        .stream()
+                        .filter(criteria::matches)
+                        .forEach(result::add);
+            }
+        }
+
+        return result.build();
+    }
+}
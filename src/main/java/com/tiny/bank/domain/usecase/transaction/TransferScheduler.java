@@ -0,0 +1,175 @@
+package com.tiny.bank.domain.usecase.transaction;
+
+import com.tiny.bank.domain.transaction.ScheduledTransfer;
+import com.tiny.bank.domain.transaction.Transaction;
+import com.tiny.bank.domain.usecase.OperationStatus;
+import com.tiny.bank.domain.usecase.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Holds future-dated transfers and standing orders, and executes them through the {@link TransactionProcessor} once
+ * they are due.
+ *
+ * <p>
+ * Transfers wait in a {@link TimingWheel} with a resolution of one {@code tick}, so scheduling and finding what is due
+ * cost the same with a handful or millions of transfers. Due transfers are executed in batches of {@code batchSize};
+ * a transfer that fails, for instance for insufficient funds, is logged and not retried, and a standing order still
+ * moves on to its next occurrence. Overdue occurrences, when {@link #runDue} was not called for several periods of a
+ * standing order, run one per call.
+ * </p>
+ *
+ * <p>
+ * Schedules are only kept in memory: they do not survive a restart and have to be scheduled again.
+ * </p>
+ */
+public class TransferScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransferScheduler.class);
+
+    private final TransactionProcessor processor;
+    private final long tickMillis;
+    private final int batchSize;
+
+    private final TimingWheel<ScheduledTransfer> wheel;
+
+    /**
+     * Pending occurrence of every scheduled transfer, an entry of the wheel is only executed while it is the pending
+     * occurrence, so a cancelled transfer is simply dropped when it comes due.
+     */
+    private final Map<UUID, ScheduledTransfer> scheduled = new HashMap<>();
+
+    /**
+     * @param processor the processor executing due transfers.
+     * @param tick      the resolution of the schedule.
+     * @param batchSize the number of transfers handed to the processor at once.
+     */
+    public TransferScheduler(final TransactionProcessor processor, final Duration tick, final int batchSize) {
+        Objects.requireNonNull(processor, "processor shouldn't be null");
+        Objects.requireNonNull(tick, "tick shouldn't be null");
+
+        if (tick.toMillis() < 1) {
+            throw new IllegalArgumentException("tick should be at least 1ms");
+        }
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize should be greater than 0");
+        }
+
+        this.processor = processor;
+        this.tickMillis = tick.toMillis();
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(tick(LocalDateTime.now()));
+    }
+
+    /**
+     * Schedules a transfer.
+     *
+     * @param transaction the transfer to execute.
+     * @param executeAt   the date of the first execution, executed on the next run if already past.
+     * @param recurrence  the period between executions, {@code null} for a single execution.
+     * @return the {@link ScheduledTransfer}.
+     * @throws IllegalArgumentException if the amount or the recurrence is not positive.
+     */
+    public synchronized ScheduledTransfer schedule(final Transaction transaction,
+                                                   final LocalDateTime executeAt,
+                                                   final Period recurrence) {
+        final ScheduledTransfer transfer = ScheduledTransfer.schedule(transaction, executeAt, recurrence);
+
+        enqueue(transfer);
+
+        return transfer;
+    }
+
+    /**
+     * Cancels a scheduled transfer, or every remaining occurrence of a standing order.
+     *
+     * @param id the scheduled transfer.
+     * @return {@code true} if the transfer was pending.
+     */
+    public synchronized boolean cancel(final UUID id) {
+        return scheduled.remove(id) != null;
+    }
+
+    /**
+     * Returns the pending occurrence of a scheduled transfer.
+     *
+     * @param id the scheduled transfer.
+     * @return the {@link ScheduledTransfer}, empty if executed or cancelled.
+     */
+    public synchronized Optional<ScheduledTransfer> find(final UUID id) {
+        return Optional.ofNullable(scheduled.get(id));
+    }
+
+    /**
+     * Executes every transfer due at the given date.
+     *
+     * @param now the current date.
+     * @return the totals of executed transfers.
+     */
+    public ScheduledTransferSummary runDue(final LocalDateTime now) {
+        final List<ScheduledTransfer> due = new ArrayList<>();
+
+        synchronized (this) {
+            for (final ScheduledTransfer transfer : wheel.advance(tick(now))) {
+                if (scheduled.get(transfer.id()) != transfer) {
+                    continue;
+                }
+
+                if (transfer.isRecurring()) {
+                    enqueue(transfer.next());
+                } else {
+                    scheduled.remove(transfer.id());
+                }
+
+                due.add(transfer);
+            }
+        }
+
+        int failed = 0;
+
+        //Executed off the scheduler lock, scheduling is never blocked behind account locks
+        for (int from = 0; from < due.size(); from += batchSize) {
+            final List<ScheduledTransfer> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            final List<OperationStatus> statuses = processor.processNetted(batch.stream().map(ScheduledTransfer::transaction).toList());
+
+            for (int i = 0; i < statuses.size(); i++) {
+                if (statuses.get(i).isFailure()) {
+                    failed++;
+                    LOGGER.error("operation=runScheduledTransfer, id={}, occurrence={}, message={}",
+                            batch.get(i).id(), batch.get(i).occurrence(), statuses.get(i).errorMessage());
+                }
+            }
+        }
+
+        if (!due.isEmpty()) {
+            LOGGER.info("operation=runScheduledTransfers, executed={}, failed={}", due.size() - failed, failed);
+        }
+
+        return new ScheduledTransferSummary(due.size() - failed, failed);
+    }
+
+    private void enqueue(final ScheduledTransfer transfer) {
+        scheduled.put(transfer.id(), transfer);
+        wheel.add(tick(transfer.executeAt()), transfer);
+    }
+
+    /**
+     * Rounded up, a transfer never runs before its date.
+     */
+    private long tick(final LocalDateTime date) {
+        return Math.ceilDiv(date.toInstant(ZoneOffset.UTC).toEpochMilli(), tickMillis);
+    }
+}
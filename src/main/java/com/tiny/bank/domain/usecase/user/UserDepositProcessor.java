@@ -1,5 +1,8 @@
 package com.tiny.bank.domain.usecase.user;
 
+import com.tiny.bank.domain.exception.OperationRejectedException;
+import com.tiny.bank.domain.usecase.AccountOperation;
+import com.tiny.bank.domain.usecase.OperationCheck;
 import com.tiny.bank.domain.usecase.OperationStatus;
 import com.tiny.bank.repository.UserRepository;
 
@@ -9,9 +12,15 @@ import java.util.UUID;
 
 public class UserDepositProcessor {
     private final UserRepository repository;
+    private final OperationCheck operationCheck;
 
     public UserDepositProcessor(final UserRepository repository) {
+        this(repository, OperationCheck.NONE);
+    }
+
+    public UserDepositProcessor(final UserRepository repository, final OperationCheck operationCheck) {
         this.repository = repository;
+        this.operationCheck = Objects.requireNonNull(operationCheck, "operationCheck shouldn't be null");
     }
 
     public OperationStatus process(final String ccNumber, final UUID accountId, final BigDecimal amount) {
@@ -19,13 +28,32 @@ public class UserDepositProcessor {
         Objects.requireNonNull(accountId, "accountId shouldn't be null");
         Objects.requireNonNull(amount, "amount shouldn't be null");
 
-        //Since the account object is subject to the concept of mutability, there is no need to update the state of the map
-        return repository.getUser(ccNumber)
-                .map((user) -> {
-                    user.deposit(accountId, amount);
-                    return OperationStatus.success();
-                })
-                .orElse(OperationStatus.failure(String.format("User with ccNumber=%s doesn't exist", ccNumber)));
+        final OperationCheck.Reservation reservation;
+
+        try {
+            reservation = operationCheck.reserve(AccountOperation.deposit(accountId, amount));
+        } catch (OperationRejectedException e) {
+            return OperationStatus.failure(e.getMessage());
+        }
+
+        try {
+            //Since the account object is subject to the concept of mutability, there is no need to update the state of the map
+            final OperationStatus status = repository.getUser(ccNumber)
+                    .map((user) -> {
+                        user.deposit(accountId, amount);
+                        return OperationStatus.success();
+                    })
+                    .orElse(OperationStatus.failure(String.format("User with ccNumber=%s doesn't exist", ccNumber)));
+
+            if (status.isFailure()) {
+                reservation.cancel();
+            }
+
+            return status;
+        } catch (RuntimeException e) {
+            reservation.cancel();
+            throw e;
+        }
     }
 
 }
@@ -3,6 +3,7 @@ package com.tiny.bank.domain.user;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountFactory;
 import com.tiny.bank.domain.exception.UserInactiveException;
 
 import java.math.BigDecimal;
@@ -77,12 +78,24 @@ public record User(UUID uuid, String name, String ccNumber, LocalDate birthdate,
      * @throws UserInactiveException if the user is in an inactive state.
      */
     public static User createAccount(final User user) {
+        return createAccount(user, AccountFactory.DEFAULT);
+    }
+
+    /**
+     * Adds a new account to the user's list of accounts.
+     *
+     * @param user    the {@link User} to which a new account will be added.
+     * @param factory the factory creating the account.
+     * @return a new {@link User} instance with the updated account set.
+     * @throws UserInactiveException if the user is in an inactive state.
+     */
+    public static User createAccount(final User user, final AccountFactory factory) {
         if (user.isUserDeactivated()) {
             throw new UserInactiveException(user.ccNumber);
         }
 
         final Set<Account> accounts = new HashSet<>(user.accounts);
-        accounts.add(Account.createAccount());
+        accounts.add(factory.createAccount());
 
         return new User(user.uuid, user.name, user.ccNumber, user.birthdate, accounts, user.state);
     }
@@ -0,0 +1,164 @@
+package com.tiny.bank.domain.velocity;
+
+import com.tiny.bank.domain.transaction.TransactionType;
+import com.tiny.bank.domain.usecase.AccountOperation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recent operations of an account, over the sliding window of its {@link VelocityCheck}. Reads are lock-free, while
+ * recording, cancelling and eviction are serialized on the activity by its {@link VelocityCheck}.
+ */
+public final class AccountActivity {
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final int buckets;
+    private final long bucketMillis;
+
+    private final SlidingWindowCounter inbound;
+    private final SlidingWindowCounter outbound;
+    private final SlidingWindowCounter newCounterparties;
+
+    /**
+     * Epoch of the bucket the account last transferred to each account in, only within the window: older entries are
+     * dropped by {@link #idle}.
+     */
+    private final Map<UUID, Long> counterparties = new ConcurrentHashMap<>();
+
+    /**
+     * Set once the activity is evicted, an operation then records into a new activity of the account.
+     */
+    private boolean evicted;
+
+    AccountActivity(final int buckets, final long bucketMillis) {
+        this.buckets = buckets;
+        this.bucketMillis = bucketMillis;
+        this.inbound = new SlidingWindowCounter(buckets, bucketMillis);
+        this.outbound = new SlidingWindowCounter(buckets, bucketMillis);
+        this.newCounterparties = new SlidingWindowCounter(buckets, bucketMillis);
+    }
+
+    /**
+     * Returns the number of operations in the given direction within the window.
+     */
+    public long operations(final TransactionType direction, final long now) {
+        return counter(direction).count(now);
+    }
+
+    /**
+     * Returns the amount moved in the given direction within the window.
+     */
+    public BigDecimal amount(final TransactionType direction, final long now) {
+        return BigDecimal.valueOf(amountCents(direction, now), 2);
+    }
+
+    /**
+     * Returns whether the account transferred to the given account within the window.
+     */
+    public boolean knows(final UUID counterparty, final long now) {
+        final Long seen = counterparties.get(counterparty);
+
+        return seen != null && inWindow(seen, now);
+    }
+
+    /**
+     * Returns the number of accounts first transferred to within the window.
+     */
+    public long newCounterparties(final long now) {
+        return newCounterparties.count(now);
+    }
+
+    long amountCents(final TransactionType direction, final long now) {
+        return counter(direction).sum(now);
+    }
+
+    /**
+     * @return the recorded operation, to {@linkplain #cancel cancel} it.
+     */
+    Recorded record(final AccountOperation operation, final long now) {
+        final long epoch = counter(operation.direction()).add(now, cents(operation.amount()));
+
+        if (operation.direction() != TransactionType.OUTBOUND || operation.counterparty() == null) {
+            return new Recorded(operation, epoch, Recorded.KNOWN_COUNTERPARTY, NEVER, NEVER);
+        }
+
+        final long seen = now / bucketMillis;
+        final Long previous = counterparties.put(operation.counterparty(), seen);
+        final long previousSeen = previous == null ? NEVER : previous;
+
+        if (previous != null && inWindow(previous, now)) {
+            return new Recorded(operation, epoch, Recorded.KNOWN_COUNTERPARTY, seen, previousSeen);
+        }
+
+        return new Recorded(operation, epoch, newCounterparties.add(now, 0), seen, previousSeen);
+    }
+
+    /**
+     * Takes a recorded operation back, as if it had never been recorded.
+     */
+    void cancel(final Recorded recorded) {
+        final AccountOperation operation = recorded.operation();
+
+        counter(operation.direction()).remove(recorded.epoch(), cents(operation.amount()));
+
+        if (recorded.seen() != NEVER) {
+            //Left alone if a later operation saw the counterparty again
+            if (recorded.previousSeen() == NEVER) {
+                counterparties.remove(operation.counterparty(), recorded.seen());
+            } else {
+                counterparties.replace(operation.counterparty(), recorded.seen(), recorded.previousSeen());
+            }
+        }
+
+        if (recorded.counterpartyEpoch() != Recorded.KNOWN_COUNTERPARTY) {
+            newCounterparties.remove(recorded.counterpartyEpoch(), 0);
+        }
+    }
+
+    /**
+     * Drops the counterparties last seen before the window, and returns whether nothing is left within it.
+     */
+    boolean idle(final long now) {
+        counterparties.values().removeIf(seen -> !inWindow(seen, now));
+
+        return counterparties.isEmpty() && inbound.count(now) == 0 && outbound.count(now) == 0;
+    }
+
+    boolean isEvicted() {
+        return evicted;
+    }
+
+    void evict() {
+        evicted = true;
+    }
+
+    /**
+     * Rounded up, so sub-cent amounts never slip under an amount limit.
+     */
+    static long cents(final BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.UP).longValueExact();
+    }
+
+    private boolean inWindow(final long epoch, final long now) {
+        return epoch > now / bucketMillis - buckets;
+    }
+
+    private SlidingWindowCounter counter(final TransactionType direction) {
+        return direction == TransactionType.INBOUND ? inbound : outbound;
+    }
+
+    /**
+     * An operation recorded in the bucket of {@code epoch}, and a new counterparty recorded in the bucket of
+     * {@code counterpartyEpoch} unless it is {@link #KNOWN_COUNTERPARTY}. {@code seen} is the epoch the counterparty
+     * was marked as seen in, and {@code previousSeen} the one it replaced.
+     */
+    record Recorded(AccountOperation operation, long epoch, long counterpartyEpoch, long seen, long previousSeen) {
+
+        static final long KNOWN_COUNTERPARTY = -1;
+    }
+}
@@ -0,0 +1,112 @@
+package com.tiny.bank.domain.velocity;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free count and sum of the events of a sliding time window.
+ *
+ * <p>
+ * The window is a ring of {@code buckets} buckets of {@code bucketMillis} each. An event lands in the bucket of its
+ * time, replacing the bucket through a compare-and-set, and a bucket left from a previous turn of the ring is started
+ * over by the first event of its new turn. Reads add up the buckets of the last turn, so the window slides one bucket
+ * at a time.
+ * </p>
+ */
+final class SlidingWindowCounter {
+
+    /**
+     * Immutable, so a bucket is read and replaced as a whole.
+     */
+    private record Bucket(long epoch, long count, long sum) {
+    }
+
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final long bucketMillis;
+
+    SlidingWindowCounter(final int buckets, final long bucketMillis) {
+        this.buckets = new AtomicReferenceArray<>(buckets);
+        this.bucketMillis = bucketMillis;
+    }
+
+    /**
+     * Adds an event.
+     *
+     * @param now   the time of the event, in milliseconds.
+     * @param value the value added to the sum.
+     * @return the epoch of the bucket the event landed in.
+     */
+    long add(final long now, final long value) {
+        final long epoch = now / bucketMillis;
+        final int index = (int) (epoch % buckets.length());
+
+        Bucket current;
+        Bucket next;
+
+        do {
+            current = buckets.get(index);
+
+            //An event older than the bucket, from a thread that read the clock earlier, joins the newer bucket
+            next = current != null && current.epoch() >= epoch
+                    ? new Bucket(current.epoch(), current.count() + 1, current.sum() + value)
+                    : new Bucket(epoch, 1, value);
+        } while (!buckets.compareAndSet(index, current, next));
+
+        return next.epoch();
+    }
+
+    /**
+     * Removes an event, unless its bucket was already started over and the event left the window with it.
+     *
+     * @param epoch the epoch of the bucket the event landed in, as returned by {@link #add}.
+     * @param value the value the event added to the sum.
+     */
+    void remove(final long epoch, final long value) {
+        final int index = (int) (epoch % buckets.length());
+
+        Bucket current;
+
+        do {
+            current = buckets.get(index);
+
+            if (current == null || current.epoch() != epoch) {
+                return;
+            }
+        } while (!buckets.compareAndSet(index, current, new Bucket(epoch, current.count() - 1, current.sum() - value)));
+    }
+
+    /**
+     * Returns the number of events of the window ending at the given time.
+     */
+    long count(final long now) {
+        final long oldest = now / bucketMillis - buckets.length();
+        long count = 0;
+
+        for (int i = 0; i < buckets.length(); i++) {
+            final Bucket bucket = buckets.get(i);
+
+            if (bucket != null && bucket.epoch() > oldest) {
+                count += bucket.count();
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the sum of the event values of the window ending at the given time.
+     */
+    long sum(final long now) {
+        final long oldest = now / bucketMillis - buckets.length();
+        long sum = 0;
+
+        for (int i = 0; i < buckets.length(); i++) {
+            final Bucket bucket = buckets.get(i);
+
+            if (bucket != null && bucket.epoch() > oldest) {
+                sum += bucket.sum();
+            }
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,137 @@
+package com.tiny.bank.domain.velocity;
+
+import com.tiny.bank.domain.exception.OperationRejectedException;
+import com.tiny.bank.domain.usecase.AccountOperation;
+import com.tiny.bank.domain.usecase.OperationCheck;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rejects operations breaking a {@link VelocityRule}, such as too many withdrawals or too large an amount sent from an
+ * account within a sliding window.
+ *
+ * <p>
+ * The window is split in {@code buckets} buckets and slides one bucket at a time. The activity of every account is
+ * kept in lock-free ring counters, read without locking. An operation is checked and recorded in one step under the
+ * monitor of its account activity, so concurrent operations on one account are checked one after the other and never
+ * overshoot a limit, while operations on other accounts never wait.
+ * </p>
+ *
+ * <p>
+ * Only accounts with operations within the window keep an activity: {@link #evictIdle} drops the others, and the
+ * counterparties an account has not transferred to within the window.
+ * </p>
+ */
+public class VelocityCheck implements OperationCheck {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VelocityCheck.class);
+
+    private final List<VelocityRule> rules;
+    private final Clock clock;
+    private final int buckets;
+    private final long bucketMillis;
+
+    /**
+     * Activity of every account with a recorded operation within the window, or since the last {@link #evictIdle}.
+     */
+    private final Map<UUID, AccountActivity> activities = new ConcurrentHashMap<>();
+
+    /**
+     * @param rules   the rules every operation must keep to.
+     * @param window  the duration of the sliding window.
+     * @param buckets the number of steps the window slides by.
+     * @param clock   the time source of the window.
+     */
+    public VelocityCheck(final List<VelocityRule> rules, final Duration window, final int buckets, final Clock clock) {
+        Objects.requireNonNull(rules, "rules shouldn't be null");
+        Objects.requireNonNull(window, "window shouldn't be null");
+        Objects.requireNonNull(clock, "clock shouldn't be null");
+
+        if (buckets < 1 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException(String.format("Invalid window=%s with buckets=%s", window, buckets));
+        }
+
+        this.rules = List.copyOf(rules);
+        this.clock = clock;
+        this.buckets = buckets;
+        this.bucketMillis = window.toMillis() / buckets;
+    }
+
+    @Override
+    public Reservation reserve(final AccountOperation operation) {
+        while (true) {
+            final AccountActivity activity = activity(operation);
+
+            //Reservations of an account are serialized, so each one is checked against the ones before it
+            synchronized (activity) {
+                //Evicted after being looked up, the next lookup finds or creates the current activity
+                if (activity.isEvicted()) {
+                    continue;
+                }
+
+                check(operation, activity);
+                final AccountActivity.Recorded recorded = activity.record(operation, clock.millis());
+
+                return () -> {
+                    synchronized (activity) {
+                        activity.cancel(recorded);
+                    }
+                };
+            }
+        }
+    }
+
+    /**
+     * Drops the activity of every account without any operation within the window, and the counterparties of the
+     * remaining accounts last transferred to before the window.
+     *
+     * @return the number of evicted activities.
+     */
+    public int evictIdle() {
+        final long now = clock.millis();
+        int evicted = 0;
+
+        for (final Map.Entry<UUID, AccountActivity> entry : activities.entrySet()) {
+            final AccountActivity activity = entry.getValue();
+
+            synchronized (activity) {
+                if (activity.idle(now)) {
+                    activity.evict();
+                    activities.remove(entry.getKey(), activity);
+                    evicted++;
+                }
+            }
+        }
+
+        if (evicted > 0) {
+            LOGGER.info("operation=evictIdleActivities, evicted={}, remaining={}", evicted, activities.size());
+        }
+
+        return evicted;
+    }
+
+    private void check(final AccountOperation operation, final AccountActivity activity) {
+        final long now = clock.millis();
+
+        for (final VelocityRule rule : rules) {
+            if (!rule.allows(operation, activity, now)) {
+                LOGGER.warn("operation=velocityCheck, message=Operation rejected, accountId={}, direction={}, amount={}, rule={}",
+                        operation.accountId(), operation.direction(), operation.amount(), rule);
+                throw new OperationRejectedException(String.format("Operation on account=%s exceeds velocity rule=%s",
+                        operation.accountId(), rule));
+            }
+        }
+    }
+
+    private AccountActivity activity(final AccountOperation operation) {
+        return activities.computeIfAbsent(operation.accountId(), ignored -> new AccountActivity(buckets, bucketMillis));
+    }
+}
@@ -0,0 +1,72 @@
+package com.tiny.bank.domain.velocity;
+
+import com.tiny.bank.domain.transaction.TransactionType;
+import com.tiny.bank.domain.usecase.AccountOperation;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * A limit on the recent activity of an account, evaluated by a {@link VelocityCheck} before every operation.
+ */
+public interface VelocityRule {
+
+    /**
+     * Returns whether the operation keeps the account within the rule.
+     *
+     * @param operation the operation about to be executed.
+     * @param activity  the recent operations of the account.
+     * @param now       the current time, in milliseconds.
+     * @return {@code true} if the operation is allowed.
+     */
+    boolean allows(AccountOperation operation, AccountActivity activity, long now);
+
+    /**
+     * At most {@code limit} operations in the given direction per window.
+     */
+    record MaxOperations(TransactionType direction, long limit) implements VelocityRule {
+
+        public MaxOperations {
+            Objects.requireNonNull(direction, "direction shouldn't be null");
+        }
+
+        @Override
+        public boolean allows(final AccountOperation operation, final AccountActivity activity, final long now) {
+            return operation.direction() != direction || activity.operations(direction, now) < limit;
+        }
+    }
+
+    /**
+     * At most {@code limitCents} cents moved in the given direction per window.
+     */
+    record MaxAmount(TransactionType direction, long limitCents) implements VelocityRule {
+
+        public MaxAmount {
+            Objects.requireNonNull(direction, "direction shouldn't be null");
+        }
+
+        public static MaxAmount of(final TransactionType direction, final BigDecimal limit) {
+            return new MaxAmount(direction, AccountActivity.cents(limit));
+        }
+
+        @Override
+        public boolean allows(final AccountOperation operation, final AccountActivity activity, final long now) {
+            return operation.direction() != direction
+                    || activity.amountCents(direction, now) + AccountActivity.cents(operation.amount()) <= limitCents;
+        }
+    }
+
+    /**
+     * At most {@code limit} transfers to accounts not transferred to earlier in the window, per window.
+     */
+    record NewCounterparties(long limit) implements VelocityRule {
+
+        @Override
+        public boolean allows(final AccountOperation operation, final AccountActivity activity, final long now) {
+            return operation.direction() != TransactionType.OUTBOUND
+                    || operation.counterparty() == null
+                    || activity.knows(operation.counterparty(), now)
+                    || activity.newCounterparties(now) < limit;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.tiny.bank.ledger;
+
+/**
+ * CSV ledger parser.
+ *
+ * <p>
+ * The first column holds the entry type ({@code user}, {@code account} or {@code transaction}) and selects the
+ * layout of the remaining columns, see {@link LedgerEntryType}. Fields may be double-quoted, with {@code ""} as the
+ * escape for a quote. Empty unquoted fields are treated as absent and lines starting with {@code #} are ignored.
+ * </p>
+ */
+final class CsvLedgerParser implements LedgerParser {
+
+    @Override
+    public LedgerLine newLine() {
+        return new LedgerLine(CsvLedgerParser::unescape);
+    }
+
+    @Override
+    public boolean parse(final LedgerLine line, final int from, final int to) {
+        if (from == to || line.byteAt(from) == '#') {
+            return false;
+        }
+
+        int column = 0;
+        int i = from;
+
+        while (true) {
+            final int start;
+            final int end;
+            boolean quoted = false;
+            boolean escaped = false;
+
+            if (i < to && line.byteAt(i) == '"') {
+                quoted = true;
+                start = ++i;
+
+                while (true) {
+                    if (i >= to) {
+                        throw line.error("unterminated quoted field");
+                    }
+
+                    if (line.byteAt(i) == '"') {
+                        if (i + 1 < to && line.byteAt(i + 1) == '"') {
+                            escaped = true;
+                            i += 2;
+                            continue;
+                        }
+
+                        break;
+                    }
+
+                    i++;
+                }
+
+                end = i++;
+
+                if (i < to && line.byteAt(i) != ',') {
+                    throw line.error("unexpected character after quoted field");
+                }
+            } else {
+                start = i;
+
+                while (i < to && line.byteAt(i) != ',') {
+                    i++;
+                }
+
+                end = i;
+            }
+
+            assign(line, column++, start, end, quoted, escaped);
+
+            if (i >= to) {
+                break;
+            }
+
+            i++;
+        }
+
+        return true;
+    }
+
+    private static void assign(final LedgerLine line,
+                               final int column,
+                               final int start,
+                               final int end,
+                               final boolean quoted,
+                               final boolean escaped) {
+        if (column == 0) {
+            final LedgerEntryType type = LedgerEntryType.fromLabel(line, start, end);
+
+            if (type == null) {
+                throw line.error(String.format("unknown type=%s", line.rawString(start, end)));
+            }
+
+            line.type(type);
+            return;
+        }
+
+        final LedgerField field = line.type().csvColumn(column);
+
+        if (field == null) {
+            throw line.error(String.format("too many columns for type=%s", line.type().label()));
+        }
+
+        if (quoted || end > start) {
+            line.set(field, start, end, escaped);
+        }
+    }
+
+    private static String unescape(final LedgerLine line, final int from, final int to) {
+        return line.rawString(from, to).replace("\"\"", "\"");
+    }
+}
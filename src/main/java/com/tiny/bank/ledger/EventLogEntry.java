@@ -0,0 +1,22 @@
+package com.tiny.bank.ledger;
+
+import com.tiny.bank.domain.event.LedgerEvent;
+
+/**
+ * An entry of an event log, as read by {@link EventLogReader}.
+ *
+ * @param sequence the sequence number of the event, {@code -1} for events written without one.
+ * @param event    the event, {@code null} for a gap of missed events.
+ * @param missed   the number of events missed at this point of the log, {@code 0} for events.
+ */
+public record EventLogEntry(long sequence, LedgerEvent event, long missed) {
+
+    public static final long NO_SEQUENCE = -1;
+
+    /**
+     * @return whether the entry records a gap of missed events rather than an event.
+     */
+    public boolean isMissed() {
+        return event == null;
+    }
+}
@@ -0,0 +1,112 @@
+package com.tiny.bank.ledger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiny.bank.domain.event.AccountCreated;
+import com.tiny.bank.domain.event.BalanceChanged;
+import com.tiny.bank.domain.event.LedgerEvent;
+import com.tiny.bank.domain.event.TransactionRecorded;
+import com.tiny.bank.domain.event.UserCreated;
+import com.tiny.bank.domain.event.UserDeactivated;
+import com.tiny.bank.domain.transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Reads the lines written by {@link EventLogWriter} back into {@link EventLogEntry}s.
+ */
+public final class EventLogReader {
+
+    //Amounts keep their scale, as they were written
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .configure(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES, false);
+
+    private EventLogReader() {
+    }
+
+    /**
+     * @param line a line of an event log.
+     * @return the entry of the line.
+     * @throws IllegalArgumentException if the line is not an entry of an event log.
+     */
+    public static EventLogEntry read(final String line) {
+        final JsonNode node;
+
+        try {
+            node = OBJECT_MAPPER.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed event log entry", e);
+        }
+
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Malformed event log entry");
+        }
+
+        final String type = text(node, "type");
+
+        if (EventLogWriter.MISSED.equals(type)) {
+            return new EventLogEntry(EventLogEntry.NO_SEQUENCE, null, node.path("count").asLong());
+        }
+
+        final long sequence = node.has("sequence") ? node.get("sequence").asLong() : EventLogEntry.NO_SEQUENCE;
+
+        return new EventLogEntry(sequence, event(type, node), 0);
+    }
+
+    private static LedgerEvent event(final String type, final JsonNode node) {
+        final Instant time = Instant.parse(text(node, "time"));
+
+        return switch (type) {
+            case "balance-changed" -> new BalanceChanged(uuid(node, "accountId"), decimal(node, "balance"), time);
+            case "transaction-recorded" -> new TransactionRecorded(uuid(node, "accountId"),
+                    uuid(node, "transactionId"),
+                    TransactionType.valueOf(text(node, "direction")),
+                    decimal(node, "amount"),
+                    decimal(node, "balanceAfterTransaction"),
+                    LocalDateTime.parse(text(node, "date")),
+                    text(node, "description"),
+                    node.has("counterpartyAccountId") ? uuid(node, "counterpartyAccountId") : null,
+                    time);
+            case "user-created" -> new UserCreated(text(node, "ccNumber"),
+                    uuid(node, "userId"),
+                    text(node, "name"),
+                    LocalDate.parse(text(node, "birthdate")),
+                    time);
+            case "account-created" -> new AccountCreated(text(node, "ccNumber"), uuid(node, "accountId"), decimal(node, "balance"), time);
+            case "user-deactivated" -> new UserDeactivated(text(node, "ccNumber"), time);
+            default -> throw new IllegalArgumentException(String.format("Unknown event type=%s", type));
+        };
+    }
+
+    private static String text(final JsonNode node, final String field) {
+        final JsonNode value = node.get(field);
+
+        if (value == null || !value.isTextual()) {
+            throw new IllegalArgumentException(String.format("Event log entry without %s", field));
+        }
+
+        return value.asText();
+    }
+
+    private static UUID uuid(final JsonNode node, final String field) {
+        return UUID.fromString(text(node, field));
+    }
+
+    private static BigDecimal decimal(final JsonNode node, final String field) {
+        final JsonNode value = node.get(field);
+
+        if (value == null || !value.isNumber()) {
+            throw new IllegalArgumentException(String.format("Event log entry without %s", field));
+        }
+
+        return value.decimalValue();
+    }
+}
@@ -0,0 +1,125 @@
+package com.tiny.bank.ledger;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.tiny.bank.domain.event.AccountCreated;
+import com.tiny.bank.domain.event.BalanceChanged;
+import com.tiny.bank.domain.event.LedgerEvent;
+import com.tiny.bank.domain.event.TransactionRecorded;
+import com.tiny.bank.domain.event.UserCreated;
+import com.tiny.bank.domain.event.UserDeactivated;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes {@link LedgerEvent}s as NDJSON, one object per event with its {@code sequence}, {@code type} and
+ * {@code time} followed by the fields of the event. Read back by {@link EventLogReader}.
+ */
+public final class EventLogWriter implements Closeable {
+
+    static final String MISSED = "missed";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactoryBuilder()
+            .enable(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamWriteFeature.FLUSH_PASSED_TO_STREAM)
+            .rootValueSeparator((String) null)
+            .build();
+
+    private final JsonGenerator generator;
+
+    /**
+     * @param outputStream the stream entries are written to, left open when the writer is closed.
+     */
+    public EventLogWriter(final OutputStream outputStream) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(outputStream);
+    }
+
+    /**
+     * Writes an event published on the bus.
+     */
+    public void writeEvent(final long sequence, final LedgerEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("sequence", sequence);
+        writeFields(event);
+    }
+
+    /**
+     * Writes an event without a sequence number, such as an event describing the current state rather than a change
+     * published on the bus.
+     */
+    public void writeEvent(final LedgerEvent event) throws IOException {
+        generator.writeStartObject();
+        writeFields(event);
+    }
+
+    private void writeFields(final LedgerEvent event) throws IOException {
+        generator.writeStringField("type", event.type());
+        generator.writeStringField("time", event.time().toString());
+
+        switch (event) {
+            case BalanceChanged changed -> {
+                generator.writeStringField("accountId", changed.accountId().toString());
+                generator.writeNumberField("balance", changed.balance());
+            }
+            case TransactionRecorded recorded -> {
+                generator.writeStringField("accountId", recorded.accountId().toString());
+                generator.writeStringField("transactionId", recorded.transactionId().toString());
+                generator.writeStringField("direction", recorded.direction().name());
+                generator.writeNumberField("amount", recorded.amount());
+                generator.writeNumberField("balanceAfterTransaction", recorded.balanceAfterTransaction());
+                generator.writeStringField("date", recorded.date().toString());
+                generator.writeStringField("description", recorded.description());
+
+                if (recorded.counterpartyAccountId() != null) {
+                    generator.writeStringField("counterpartyAccountId", recorded.counterpartyAccountId().toString());
+                }
+            }
+            case UserCreated created -> {
+                generator.writeStringField("ccNumber", created.ccNumber());
+                generator.writeStringField("userId", created.userId().toString());
+                generator.writeStringField("name", created.name());
+                generator.writeStringField("birthdate", created.birthdate().toString());
+            }
+            case AccountCreated created -> {
+                generator.writeStringField("ccNumber", created.ccNumber());
+                generator.writeStringField("accountId", created.accountId().toString());
+                generator.writeNumberField("balance", created.balance());
+            }
+            case UserDeactivated deactivated -> generator.writeStringField("ccNumber", deactivated.ccNumber());
+        }
+
+        endEntry();
+    }
+
+    /**
+     * Records a gap of events that were never written.
+     */
+    public void writeMissed(final long count) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", MISSED);
+        generator.writeNumberField("count", count);
+        endEntry();
+    }
+
+    /**
+     * Hands the buffered entries to the output stream, without flushing it.
+     */
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    private void endEntry() throws IOException {
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,62 @@
+package com.tiny.bank.ledger;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.HistoryRetention;
+import com.tiny.bank.domain.transaction.TransactionArchive;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+/**
+ * Moves the transaction records falling outside the {@link HistoryRetention} of every account to the
+ * {@link TransactionArchive}, run on the {@code tiny-bank.history.archive-cron} schedule (disabled by default).
+ */
+public class HistoryArchiveJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HistoryArchiveJob.class);
+
+    private final UserRepository repository;
+    private final HistoryRetention retention;
+    private final TransactionArchive archive;
+
+    public HistoryArchiveJob(final UserRepository repository, final HistoryRetention retention, final TransactionArchive archive) {
+        this.repository = repository;
+        this.retention = retention;
+        this.archive = archive;
+    }
+
+    /**
+     * Archives the expired records of every account. An account that cannot be archived keeps its history and is
+     * retried on the next run.
+     *
+     * @return the number of archived records.
+     */
+    @Scheduled(cron = "${tiny-bank.history.archive-cron:-}")
+    public long run() {
+        if (!retention.isEnabled()) {
+            return 0;
+        }
+
+        final LocalDateTime now = LocalDateTime.now();
+        long archived = 0;
+
+        for (final User user : repository.getUsers()) {
+            for (final Account account : user.accounts()) {
+                try {
+                    archived += account.archiveHistory(retention, archive, now);
+                } catch (UncheckedIOException e) {
+                    LOGGER.error("operation=archiveHistory, accountId={}, message={}", account.getAccountId(), e.getMessage(), e);
+                }
+            }
+        }
+
+        LOGGER.info("operation=archiveHistory, archived={}", archived);
+
+        return archived;
+    }
+}
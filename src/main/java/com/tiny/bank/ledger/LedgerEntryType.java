@@ -0,0 +1,63 @@
+package com.tiny.bank.ledger;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.tiny.bank.ledger.LedgerField.ACCOUNT_ID;
+import static com.tiny.bank.ledger.LedgerField.AMOUNT;
+import static com.tiny.bank.ledger.LedgerField.BALANCE;
+import static com.tiny.bank.ledger.LedgerField.BALANCE_AFTER_TRANSACTION;
+import static com.tiny.bank.ledger.LedgerField.BIRTHDATE;
+import static com.tiny.bank.ledger.LedgerField.CC_NUMBER;
+import static com.tiny.bank.ledger.LedgerField.COUNTERPARTY_ACCOUNT_ID;
+import static com.tiny.bank.ledger.LedgerField.DATE;
+import static com.tiny.bank.ledger.LedgerField.DESCRIPTION;
+import static com.tiny.bank.ledger.LedgerField.DIRECTION;
+import static com.tiny.bank.ledger.LedgerField.NAME;
+import static com.tiny.bank.ledger.LedgerField.STATE;
+import static com.tiny.bank.ledger.LedgerField.TRANSACTION_ID;
+import static com.tiny.bank.ledger.LedgerField.TYPE;
+import static com.tiny.bank.ledger.LedgerField.USER_ID;
+
+/**
+ * Kinds of entries in a ledger file and their CSV column layout.
+ */
+enum LedgerEntryType {
+    USER("user", TYPE, CC_NUMBER, USER_ID, NAME, BIRTHDATE, STATE),
+    ACCOUNT("account", TYPE, CC_NUMBER, ACCOUNT_ID, BALANCE),
+    TRANSACTION("transaction", TYPE, ACCOUNT_ID, TRANSACTION_ID, DIRECTION, AMOUNT, BALANCE_AFTER_TRANSACTION, DATE,
+            COUNTERPARTY_ACCOUNT_ID, DESCRIPTION);
+
+    private static final LedgerEntryType[] VALUES = values();
+
+    private final String label;
+    private final byte[] labelBytes;
+    private final LedgerField[] csvColumns;
+
+    LedgerEntryType(final String label, final LedgerField... csvColumns) {
+        this.label = label;
+        this.labelBytes = label.getBytes(StandardCharsets.US_ASCII);
+        this.csvColumns = csvColumns;
+    }
+
+    String label() {
+        return label;
+    }
+
+    LedgerField csvColumn(final int index) {
+        return index < csvColumns.length ? csvColumns[index] : null;
+    }
+
+    int csvColumnCount() {
+        return csvColumns.length;
+    }
+
+    static LedgerEntryType fromLabel(final LedgerLine line, final int from, final int to) {
+        for (final LedgerEntryType type : VALUES) {
+            if (line.bytesEqual(from, to, type.labelBytes)) {
+                return type;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.tiny.bank.ledger;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.file.Path;
+
+/**
+ * Ledger export into a fixed directory, run on demand or on the {@code tiny-bank.ledger.export-cron} schedule
+ * (disabled by default).
+ */
+public class LedgerExportJob {
+
+    private final LedgerExporter exporter;
+    private final Path directory;
+
+    public LedgerExportJob(final LedgerExporter exporter, final Path directory) {
+        this.exporter = exporter;
+        this.directory = directory;
+    }
+
+    @Scheduled(cron = "${tiny-bank.ledger.export-cron:-}")
+    public LedgerExportSummary run() {
+        return exporter.export(directory);
+    }
+}
@@ -0,0 +1,16 @@
+package com.tiny.bank.ledger;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Totals of a completed ledger export.
+ *
+ * @param startedAt    the instant the export started.
+ * @param files        the files written, one per partition; empty when the export was streamed.
+ * @param users        the number of users exported.
+ * @param accounts     the number of accounts exported.
+ * @param transactions the number of transaction records exported.
+ */
+public record LedgerExportSummary(Instant startedAt, List<String> files, long users, long accounts, long transactions) {
+}
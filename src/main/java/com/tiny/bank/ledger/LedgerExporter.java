@@ -0,0 +1,282 @@
+package com.tiny.bank.ledger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountSnapshot;
+import com.tiny.bank.domain.transaction.TransactionArchive;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports every user, account balance and transaction record of a {@link UserRepository} as gzip-compressed NDJSON.
+ *
+ * <p>
+ * The output uses the layout read by {@link LedgerImporter}, so an export can be re-imported as is. Each account is
+ * written from an {@link AccountSnapshot}, so its balance always matches the exported records. Accounts are
+ * snapshotted one at a time while the service keeps running, which means a transfer completing during the export may
+ * be visible on one side only; both records share the same transaction id for reconciliation.
+ * </p>
+ *
+ * <p>
+ * Records already moved to the {@link TransactionArchive} are exported along with the hot ones.
+ * </p>
+ */
+public class LedgerExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LedgerExporter.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UserRepository repository;
+    private final TransactionArchive archive;
+    private final int partitions;
+
+    /**
+     * @param repository the repository to export.
+     * @param partitions the number of files, and writer threads, used by {@link #export(Path)}.
+     */
+    public LedgerExporter(final UserRepository repository, final int partitions) {
+        this(repository, TransactionArchive.NONE, partitions);
+    }
+
+    /**
+     * @param repository the repository to export.
+     * @param archive    the archive holding the records evicted from the repository accounts.
+     * @param partitions the number of files, and writer threads, used by {@link #export(Path)}.
+     */
+    public LedgerExporter(final UserRepository repository, final TransactionArchive archive, final int partitions) {
+        Objects.requireNonNull(archive, "archive shouldn't be null");
+
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions should be greater than 0");
+        }
+
+        this.repository = repository;
+        this.archive = archive;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Exports the ledger into one {@code .ndjson.gz} file per partition, written in parallel.
+     *
+     * <p>
+     * Users are assigned to partitions by the hash of their ccNumber, in a single pass over the repository before any
+     * writer starts. Files are written under a temporary name and only moved into place once complete.
+     * </p>
+     *
+     * @param directory the directory where the partition files are created.
+     * @return the export totals.
+     * @throws UncheckedIOException if a partition cannot be written.
+     */
+    public LedgerExportSummary export(final Path directory) {
+        Objects.requireNonNull(directory, "directory shouldn't be null");
+
+        final Instant startedAt = Instant.now();
+        final String prefix = "ledger-" + FILE_TIMESTAMP.format(startedAt);
+        final List<String> files = new ArrayList<>(partitions);
+        final List<Future<Totals>> results = new ArrayList<>(partitions);
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Unable to create export directory=%s", directory), e);
+        }
+
+        final List<List<User>> slices = new ArrayList<>(partitions);
+
+        for (int partition = 0; partition < partitions; partition++) {
+            slices.add(new ArrayList<>());
+        }
+
+        final Map<UUID, Account> accounts = new HashMap<>();
+
+        for (final User user : repository.getUsers()) {
+            slices.get(Math.floorMod(user.ccNumber().hashCode(), partitions)).add(user);
+            index(accounts, user);
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(partitions,
+                new ThreadFactoryBuilder().setNameFormat("ledger-export-%d").build())) {
+
+            for (int partition = 0; partition < partitions; partition++) {
+                final List<User> slice = slices.get(partition);
+                final Path file = directory.resolve(String.format("%s-part-%03d.ndjson.gz", prefix, partition));
+
+                files.add(file.toString());
+                results.add(executor.submit(() -> writePartition(file, slice, accounts)));
+            }
+
+            final Totals totals = new Totals();
+
+            for (final Future<Totals> result : results) {
+                totals.add(await(result));
+            }
+
+            LOGGER.info("operation=exportLedger, directory={}, partitions={}, users={}, accounts={}, transactions={}",
+                    directory, partitions, totals.users, totals.accounts, totals.transactions);
+
+            return new LedgerExportSummary(startedAt, files, totals.users, totals.accounts, totals.transactions);
+        }
+    }
+
+    /**
+     * Streams the whole ledger as a single gzip-compressed NDJSON document.
+     *
+     * <p>
+     * The output stream is finished but not closed.
+     * </p>
+     *
+     * @param outputStream the destination of the compressed ledger.
+     * @return the export totals.
+     * @throws UncheckedIOException if the ledger cannot be written.
+     */
+    public LedgerExportSummary export(final OutputStream outputStream) {
+        Objects.requireNonNull(outputStream, "outputStream shouldn't be null");
+
+        final Instant startedAt = Instant.now();
+
+        try {
+            final GZIPOutputStream gzip = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+            final List<User> users = new ArrayList<>();
+            final Map<UUID, Account> accounts = new HashMap<>();
+
+            for (final User user : repository.getUsers()) {
+                users.add(user);
+                index(accounts, user);
+            }
+
+            final Totals totals = write(gzip, users, accounts);
+            gzip.finish();
+
+            return new LedgerExportSummary(startedAt, List.of(), totals.users, totals.accounts, totals.transactions);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to stream ledger export", e);
+        }
+    }
+
+    private Totals writePartition(final Path file, final List<User> users, final Map<UUID, Account> accounts) throws IOException {
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        final Totals totals;
+
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE)) {
+            totals = write(out, users, accounts);
+        }
+
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        return totals;
+    }
+
+    private Totals write(final OutputStream out, final List<User> users, final Map<UUID, Account> accounts) throws IOException {
+        final Totals totals = new Totals();
+
+        try (LedgerWriter writer = new LedgerWriter(out)) {
+            for (final User user : users) {
+                writer.writeUser(user);
+                totals.users++;
+
+                for (final Account account : user.accounts()) {
+                    final AccountSnapshot snapshot = account.snapshot();
+
+                    writer.writeAccount(user.ccNumber(), snapshot);
+                    totals.accounts++;
+
+                    for (final TransactionRecord record : history(snapshot, accounts)) {
+                        writer.writeTransaction(record);
+                        totals.transactions++;
+                    }
+                }
+            }
+        }
+
+        return totals;
+    }
+
+    /**
+     * Returns the hot records of the snapshot together with the archived ones. The archive is read after the
+     * snapshot, so a record archived in between is still exported.
+     */
+    private Set<TransactionRecord> history(final AccountSnapshot snapshot, final Map<UUID, Account> accounts) {
+        if (archive == TransactionArchive.NONE) {
+            return snapshot.transactions();
+        }
+
+        final Set<TransactionRecord> records = new LinkedHashSet<>(archive.read(snapshot.accountId(), accounts::get));
+        records.addAll(snapshot.transactions());
+
+        return records;
+    }
+
+    /**
+     * Adds the accounts of a user to the index resolving archived counterparties, only needed with an archive.
+     */
+    private void index(final Map<UUID, Account> accounts, final User user) {
+        if (archive == TransactionArchive.NONE) {
+            return;
+        }
+
+        for (final Account account : user.accounts()) {
+            accounts.put(account.getAccountId(), account);
+        }
+    }
+
+    private static Totals await(final Future<Totals> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ledger export interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw new UncheckedIOException("Unable to write ledger partition", cause);
+            }
+
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw new IllegalStateException("Unable to write ledger partition", e.getCause());
+        }
+    }
+
+    private static final class Totals {
+        private long users;
+        private long accounts;
+        private long transactions;
+
+        private void add(final Totals other) {
+            users += other.users;
+            accounts += other.accounts;
+            transactions += other.transactions;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.tiny.bank.ledger;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fields that can appear in a ledger line, together with their NDJSON key.
+ */
+enum LedgerField {
+    TYPE("type"),
+    CC_NUMBER("ccNumber"),
+    USER_ID("uuid"),
+    NAME("name"),
+    BIRTHDATE("birthdate"),
+    STATE("state"),
+    ACCOUNT_ID("accountId"),
+    BALANCE("balance"),
+    TRANSACTION_ID("id"),
+    DIRECTION("direction"),
+    AMOUNT("amount"),
+    BALANCE_AFTER_TRANSACTION("balanceAfterTransaction"),
+    DATE("date"),
+    COUNTERPARTY_ACCOUNT_ID("counterpartyAccountId"),
+    DESCRIPTION("description");
+
+    private static final LedgerField[] VALUES = values();
+
+    private final String key;
+    private final byte[] keyBytes;
+
+    LedgerField(final String key) {
+        this.key = key;
+        this.keyBytes = key.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    String key() {
+        return key;
+    }
+
+    /**
+     * Resolves a field from the raw bytes of an NDJSON key without materializing a {@link String}.
+     *
+     * @return the matching field, or {@code null} if the key is unknown.
+     */
+    static LedgerField fromKey(final LedgerLine line, final int from, final int to) {
+        for (final LedgerField field : VALUES) {
+            if (line.bytesEqual(from, to, field.keyBytes)) {
+                return field;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.tiny.bank.ledger;
+
+import java.nio.file.Path;
+
+/**
+ * Supported file formats for ledger imports.
+ */
+public enum LedgerFormat {
+    CSV,
+    NDJSON;
+
+    /**
+     * Infers the ledger format from the file extension, defaulting to {@link #NDJSON}.
+     *
+     * @param path the ledger file.
+     * @return {@link #CSV} for {@code .csv} files, {@link #NDJSON} otherwise.
+     */
+    public static LedgerFormat fromPath(final Path path) {
+        final String fileName = path.getFileName().toString().toLowerCase();
+
+        return fileName.endsWith(".csv") ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,12 @@
+package com.tiny.bank.ledger;
+
+public class LedgerFormatException extends RuntimeException {
+
+    public LedgerFormatException(final long lineNumber, final String message) {
+        super(String.format("Malformed ledger line=%s, %s", lineNumber, message));
+    }
+
+    public LedgerFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
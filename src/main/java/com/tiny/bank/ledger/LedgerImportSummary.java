@@ -0,0 +1,11 @@
+package com.tiny.bank.ledger;
+
+/**
+ * Totals of a completed ledger import.
+ *
+ * @param users        the number of users imported.
+ * @param accounts     the number of accounts imported.
+ * @param transactions the number of transaction records imported.
+ */
+public record LedgerImportSummary(long users, long accounts, long transactions) {
+}
@@ -0,0 +1,257 @@
+package com.tiny.bank.ledger;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.exception.UserAlreadyExistsException;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.user.State;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.tiny.bank.ledger.LedgerField.ACCOUNT_ID;
+import static com.tiny.bank.ledger.LedgerField.BALANCE;
+import static com.tiny.bank.ledger.LedgerField.BIRTHDATE;
+import static com.tiny.bank.ledger.LedgerField.CC_NUMBER;
+import static com.tiny.bank.ledger.LedgerField.NAME;
+import static com.tiny.bank.ledger.LedgerField.STATE;
+import static com.tiny.bank.ledger.LedgerField.USER_ID;
+
+/**
+ * Offline bulk loader of users, accounts and historical transactions into a {@link UserRepository}.
+ *
+ * <p>
+ * Meant to run before the application starts serving requests. The file is memory-mapped and parsed in place, and
+ * account state is built directly (initial balance plus restored history) instead of replaying deposits and
+ * transfers, so no account lock is taken per record.
+ * </p>
+ *
+ * <p>
+ * Publication is all or nothing: users are only published once the whole file has been read and validated, and once
+ * none of its users and accounts was found in the repository, so a rejected file leaves the repository untouched.
+ * The repository has no removal, so this relies on the import being the only writer, as it is at startup; a user
+ * added concurrently with the same credit card number fails the import with the users published so far left in
+ * place.
+ * </p>
+ *
+ * <p>
+ * Entries must be ordered so that a user precedes its accounts and an account precedes its transactions.
+ * Counterparty accounts may appear anywhere in the file; a counterparty that is not part of the import is recorded
+ * as an external party.
+ * </p>
+ */
+public class LedgerImporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LedgerImporter.class);
+
+    private static final State[] STATES = State.values();
+
+    private final UserRepository repository;
+    private final AccountFactory accountFactory;
+    private final long windowSize;
+
+    public LedgerImporter(final UserRepository repository) {
+        this(repository, AccountFactory.DEFAULT);
+    }
+
+    public LedgerImporter(final UserRepository repository, final AccountFactory accountFactory) {
+        this(repository, accountFactory, MappedLedgerReader.DEFAULT_WINDOW_SIZE);
+    }
+
+    LedgerImporter(final UserRepository repository, final AccountFactory accountFactory, final long windowSize) {
+        this.repository = repository;
+        this.accountFactory = Objects.requireNonNull(accountFactory, "accountFactory shouldn't be null");
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Imports a ledger file into the repository.
+     *
+     * @param path   the ledger file.
+     * @param format the format of the file.
+     * @return the totals of imported entries.
+     * @throws LedgerFormatException      if the file is malformed, entries are out of order, a balance is negative or
+     *                                    an imported account is already present in the repository.
+     * @throws UserAlreadyExistsException if an imported user is already present in the repository.
+     * @throws UncheckedIOException       if the file cannot be read.
+     */
+    public LedgerImportSummary importLedger(final Path path, final LedgerFormat format) {
+        Objects.requireNonNull(path, "path shouldn't be null");
+        Objects.requireNonNull(format, "format shouldn't be null");
+
+        final long start = System.nanoTime();
+        final LedgerParser parser = LedgerParser.forFormat(format);
+        final LedgerLine line = parser.newLine();
+        final Loader loader = new Loader(accountFactory);
+
+        try {
+            MappedLedgerReader.read(path, windowSize, (buffer, from, to, lineNumber) -> {
+                line.reset(buffer, lineNumber);
+
+                if (parser.parse(line, from, to)) {
+                    loader.accept(line);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Unable to read ledger file=%s", path), e);
+        }
+
+        final LedgerImportSummary summary = loader.publish(repository);
+
+        LOGGER.info("operation=importLedger, file={}, users={}, accounts={}, transactions={}, elapsedMs={}",
+                path, summary.users(), summary.accounts(), summary.transactions(), (System.nanoTime() - start) / 1_000_000);
+
+        return summary;
+    }
+
+    private record UserDraft(UUID uuid, String name, String ccNumber, LocalDate birthdate, State state,
+                             Set<Account> accounts) {
+    }
+
+    private record AccountDraft(Account account, long lineNumber, List<TransactionRecord> transactions) {
+    }
+
+    private static final class Loader {
+
+        private final AccountFactory accountFactory;
+        private final Map<String, UserDraft> users = new LinkedHashMap<>();
+        private final Map<UUID, AccountDraft> accounts = new HashMap<>();
+        private final List<LedgerTransaction> unresolved = new ArrayList<>();
+        private long transactions;
+
+        Loader(final AccountFactory accountFactory) {
+            this.accountFactory = accountFactory;
+        }
+
+        void accept(final LedgerLine line) {
+            switch (line.type()) {
+                case USER -> acceptUser(line);
+                case ACCOUNT -> acceptAccount(line);
+                case TRANSACTION -> acceptTransaction(line);
+            }
+        }
+
+        private void acceptUser(final LedgerLine line) {
+            final String ccNumber = line.string(CC_NUMBER);
+            final UUID uuid = line.isPresent(USER_ID) ? line.uuid(USER_ID) : UUID.randomUUID();
+            final State state = line.isPresent(STATE) ? line.enumValue(STATE, STATES) : State.ACTIVE;
+
+            final UserDraft user = new UserDraft(uuid, line.string(NAME), ccNumber, line.date(BIRTHDATE), state, new HashSet<>());
+
+            if (users.putIfAbsent(ccNumber, user) != null) {
+                throw line.error(String.format("duplicate user=%s", ccNumber));
+            }
+        }
+
+        private void acceptAccount(final LedgerLine line) {
+            final String ccNumber = line.string(CC_NUMBER);
+            final UserDraft user = users.get(ccNumber);
+
+            if (user == null) {
+                throw line.error(String.format("account for unknown user=%s", ccNumber));
+            }
+
+            final UUID accountId = line.uuid(ACCOUNT_ID);
+            final BigDecimal balance = line.isPresent(BALANCE) ? line.decimal(BALANCE) : BigDecimal.ZERO;
+
+            //Accounts are never overdrawn, transfer netting relies on it
+            if (balance.signum() < 0) {
+                throw line.error(String.format("negative balance=%s of account=%s", balance, accountId));
+            }
+
+            final Account account = accountFactory.createAccount(accountId, ConcurrentHashMap.newKeySet(), balance);
+
+            if (accounts.putIfAbsent(accountId, new AccountDraft(account, line.lineNumber(), new ArrayList<>())) != null) {
+                throw line.error(String.format("duplicate account=%s", accountId));
+            }
+
+            user.accounts().add(account);
+        }
+
+        private void acceptTransaction(final LedgerLine line) {
+            final UUID accountId = line.uuid(ACCOUNT_ID);
+            final AccountDraft draft = accounts.get(accountId);
+
+            if (draft == null) {
+                throw line.error(String.format("transaction for unknown account=%s", accountId));
+            }
+
+            final LedgerTransaction transaction = LedgerTransaction.read(line);
+
+            final AccountDraft counterparty = transaction.counterpartyId() == null ? null : accounts.get(transaction.counterpartyId());
+
+            if (transaction.counterpartyId() != null && counterparty == null) {
+                //The counterparty may still be imported later in the file, resolved once everything has been read
+                unresolved.add(transaction);
+            } else {
+                draft.transactions().add(transaction.toRecord(counterparty == null ? null : counterparty.account()));
+            }
+
+            transactions++;
+        }
+
+        LedgerImportSummary publish(final UserRepository repository) {
+            checkAbsent(repository);
+
+            for (final LedgerTransaction transaction : unresolved) {
+                final AccountDraft counterparty = accounts.get(transaction.counterpartyId());
+
+                accounts.get(transaction.accountId()).transactions()
+                        .add(transaction.toRecord(counterparty == null ? null : counterparty.account()));
+            }
+
+            for (final AccountDraft draft : accounts.values()) {
+                draft.account().restoreTransactions(draft.transactions());
+            }
+
+            for (final UserDraft draft : users.values()) {
+                final User user = new User(draft.uuid(), draft.name(), draft.ccNumber(), draft.birthdate(), draft.accounts(), draft.state());
+
+                if (!repository.addUser(user)) {
+                    throw new UserAlreadyExistsException(draft.ccNumber());
+                }
+            }
+
+            return new LedgerImportSummary(users.size(), accounts.size(), transactions);
+        }
+
+        /**
+         * Fails before anything is published if an imported user or account is already in the repository. Accounts
+         * are checked in a single scan of the repository, which is empty on a first import.
+         */
+        private void checkAbsent(final UserRepository repository) {
+            for (final String ccNumber : users.keySet()) {
+                if (repository.getUser(ccNumber).isPresent()) {
+                    throw new UserAlreadyExistsException(ccNumber);
+                }
+            }
+
+            for (final User user : repository.getUsers()) {
+                for (final Account account : user.accounts()) {
+                    final AccountDraft draft = accounts.get(account.getAccountId());
+
+                    if (draft != null) {
+                        throw new LedgerFormatException(draft.lineNumber(), String.format("account=%s already exists", account.getAccountId()));
+                    }
+                }
+            }
+        }
+    }
+}
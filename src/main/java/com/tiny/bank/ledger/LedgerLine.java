@@ -0,0 +1,334 @@
+package com.tiny.bank.ledger;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Reusable view over the fields of a single ledger line.
+ *
+ * <p>
+ * Parsers only record the byte range of each field inside the mapped buffer. Values are decoded on demand straight
+ * from those bytes, so numbers, identifiers and dates never go through an intermediate {@link String}.
+ * </p>
+ */
+final class LedgerLine {
+
+    private static final int FIELD_COUNT = LedgerField.values().length;
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final int[] from = new int[FIELD_COUNT];
+    private final int[] to = new int[FIELD_COUNT];
+    private final boolean[] escaped = new boolean[FIELD_COUNT];
+    private final Unescaper unescaper;
+
+    private ByteBuffer buffer;
+    private long lineNumber;
+    private LedgerEntryType type;
+
+    /**
+     * Format specific decoding of fields that contain escape sequences.
+     */
+    interface Unescaper {
+        String unescape(LedgerLine line, int from, int to);
+    }
+
+    LedgerLine(final Unescaper unescaper) {
+        this.unescaper = unescaper;
+    }
+
+    void reset(final ByteBuffer buffer, final long lineNumber) {
+        this.buffer = buffer;
+        this.lineNumber = lineNumber;
+        this.type = null;
+        Arrays.fill(from, -1);
+    }
+
+    void set(final LedgerField field, final int from, final int to, final boolean escaped) {
+        this.from[field.ordinal()] = from;
+        this.to[field.ordinal()] = to;
+        this.escaped[field.ordinal()] = escaped;
+    }
+
+    void type(final LedgerEntryType type) {
+        this.type = type;
+    }
+
+    LedgerEntryType type() {
+        return type;
+    }
+
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    byte byteAt(final int index) {
+        return buffer.get(index);
+    }
+
+    boolean bytesEqual(final int from, final int to, final byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(from + i) != expected[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    LedgerFormatException error(final String message) {
+        return new LedgerFormatException(lineNumber, message);
+    }
+
+    boolean isPresent(final LedgerField field) {
+        return from[field.ordinal()] >= 0;
+    }
+
+    String string(final LedgerField field) {
+        requirePresent(field);
+
+        final int index = field.ordinal();
+
+        return escaped[index] ? unescaper.unescape(this, from[index], to[index]) : rawString(from[index], to[index]);
+    }
+
+    String optionalString(final LedgerField field) {
+        return isPresent(field) ? string(field) : null;
+    }
+
+    String rawString(final int from, final int to) {
+        final byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    <E extends Enum<E>> E enumValue(final LedgerField field, final E[] values) {
+        requirePresent(field);
+
+        final int index = field.ordinal();
+
+        for (final E value : values) {
+            if (equalsIgnoreCase(from[index], to[index], value.name())) {
+                return value;
+            }
+        }
+
+        throw error(String.format("unknown %s=%s", field.key(), rawString(from[index], to[index])));
+    }
+
+    UUID uuid(final LedgerField field) {
+        requirePresent(field);
+
+        final int start = from[field.ordinal()];
+
+        if (to[field.ordinal()] - start != 36
+                || buffer.get(start + 8) != '-' || buffer.get(start + 13) != '-'
+                || buffer.get(start + 18) != '-' || buffer.get(start + 23) != '-') {
+            throw error(String.format("invalid %s", field.key()));
+        }
+
+        final long mostSigBits = (hex(start, 8, field) << 32) | (hex(start + 9, 4, field) << 16) | hex(start + 14, 4, field);
+        final long leastSigBits = (hex(start + 19, 4, field) << 48) | hex(start + 24, 12, field);
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    UUID optionalUuid(final LedgerField field) {
+        return isPresent(field) ? uuid(field) : null;
+    }
+
+    BigDecimal decimal(final LedgerField field) {
+        requirePresent(field);
+
+        final int start = from[field.ordinal()];
+        final int end = to[field.ordinal()];
+
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        long unscaled = 0;
+        int scale = -1;
+        int digits = 0;
+
+        for (; i < end; i++) {
+            final byte b = buffer.get(i);
+
+            if (b == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+
+            if (b < '0' || b > '9' || digits == MAX_LONG_DIGITS) {
+                return slowDecimal(field, start, end);
+            }
+
+            unscaled = unscaled * 10 + (b - '0');
+            digits++;
+
+            if (scale >= 0) {
+                scale++;
+            }
+        }
+
+        if (digits == 0) {
+            throw error(String.format("invalid %s", field.key()));
+        }
+
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    LocalDate date(final LedgerField field) {
+        requirePresent(field);
+
+        final int start = from[field.ordinal()];
+
+        if (to[field.ordinal()] - start != 10) {
+            throw error(String.format("invalid %s", field.key()));
+        }
+
+        return localDate(start, field);
+    }
+
+    /**
+     * Decodes an ISO-8601 local date-time ({@code yyyy-MM-ddTHH:mm[:ss[.fffffffff]]}).
+     */
+    LocalDateTime dateTime(final LedgerField field) {
+        requirePresent(field);
+
+        final int start = from[field.ordinal()];
+        final int end = to[field.ordinal()];
+        final int length = end - start;
+
+        if (length < 16 || buffer.get(start + 10) != 'T' || buffer.get(start + 13) != ':') {
+            throw error(String.format("invalid %s", field.key()));
+        }
+
+        final LocalDate date = localDate(start, field);
+        final int hour = digits(start + 11, 2, field);
+        final int minute = digits(start + 14, 2, field);
+        int second = 0;
+        int nanos = 0;
+
+        if (length > 16) {
+            if (length < 19 || buffer.get(start + 16) != ':') {
+                throw error(String.format("invalid %s", field.key()));
+            }
+
+            second = digits(start + 17, 2, field);
+
+            if (length > 19) {
+                final int fractionDigits = length - 20;
+
+                if (buffer.get(start + 19) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                    throw error(String.format("invalid %s", field.key()));
+                }
+
+                nanos = digits(start + 20, fractionDigits, field);
+
+                for (int i = fractionDigits; i < 9; i++) {
+                    nanos *= 10;
+                }
+            }
+        }
+
+        try {
+            return date.atTime(hour, minute, second, nanos);
+        } catch (DateTimeException e) {
+            throw error(String.format("invalid %s", field.key()));
+        }
+    }
+
+    private LocalDate localDate(final int start, final LedgerField field) {
+        if (buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+            throw error(String.format("invalid %s", field.key()));
+        }
+
+        try {
+            return LocalDate.of(digits(start, 4, field), digits(start + 5, 2, field), digits(start + 8, 2, field));
+        } catch (DateTimeException e) {
+            throw error(String.format("invalid %s", field.key()));
+        }
+    }
+
+    private int digits(final int start, final int count, final LedgerField field) {
+        int value = 0;
+
+        for (int i = start; i < start + count; i++) {
+            final byte b = buffer.get(i);
+
+            if (b < '0' || b > '9') {
+                throw error(String.format("invalid %s", field.key()));
+            }
+
+            value = value * 10 + (b - '0');
+        }
+
+        return value;
+    }
+
+    private long hex(final int start, final int count, final LedgerField field) {
+        long value = 0;
+
+        for (int i = start; i < start + count; i++) {
+            final int b = buffer.get(i);
+            final int nibble;
+
+            if (b >= '0' && b <= '9') {
+                nibble = b - '0';
+            } else if (b >= 'a' && b <= 'f') {
+                nibble = b - 'a' + 10;
+            } else if (b >= 'A' && b <= 'F') {
+                nibble = b - 'A' + 10;
+            } else {
+                throw error(String.format("invalid %s", field.key()));
+            }
+
+            value = (value << 4) | nibble;
+        }
+
+        return value;
+    }
+
+    private BigDecimal slowDecimal(final LedgerField field, final int start, final int end) {
+        try {
+            return new BigDecimal(rawString(start, end));
+        } catch (NumberFormatException e) {
+            throw error(String.format("invalid %s", field.key()));
+        }
+    }
+
+    private boolean equalsIgnoreCase(final int start, final int end, final String expected) {
+        if (end - start != expected.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < expected.length(); i++) {
+            if (Character.toUpperCase(buffer.get(start + i)) != expected.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void requirePresent(final LedgerField field) {
+        if (!isPresent(field)) {
+            throw error(String.format("missing %s", field.key()));
+        }
+    }
+}
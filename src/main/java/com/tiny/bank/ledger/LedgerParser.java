@@ -0,0 +1,24 @@
+package com.tiny.bank.ledger;
+
+/**
+ * Tokenizes a single ledger line into the field ranges of a {@link LedgerLine}.
+ */
+interface LedgerParser {
+
+    LedgerLine newLine();
+
+    /**
+     * Parses the bytes {@code [from, to)} of the line's buffer.
+     *
+     * @return {@code true} if the line holds an entry, {@code false} if it is blank or a comment.
+     * @throws LedgerFormatException if the line is malformed.
+     */
+    boolean parse(LedgerLine line, int from, int to);
+
+    static LedgerParser forFormat(final LedgerFormat format) {
+        return switch (format) {
+            case CSV -> new CsvLedgerParser();
+            case NDJSON -> new NdjsonLedgerParser();
+        };
+    }
+}
@@ -0,0 +1,279 @@
+package com.tiny.bank.ledger;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.transaction.TransactionArchive;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link TransactionArchive} storing archived records as gzip-compressed NDJSON segment files on local disk.
+ *
+ * <p>
+ * Every account has its own directory, and every archiving run appends one immutable segment, in the transaction
+ * layout of {@link LedgerWriter}. Once an account has more than {@code maxSegments} segments they are compacted into
+ * a single one. Segments are written under a temporary name and moved into place once complete; readers racing with
+ * a compaction retry when a segment disappears, and may briefly see a record twice, which the returned set absorbs.
+ * </p>
+ *
+ * <p>
+ * A segment name carries the epoch seconds of its oldest and newest record, so a ranged read only decompresses the
+ * segments overlapping the range. Segments named without a range are always read.
+ * </p>
+ */
+public class LedgerSegmentArchive implements TransactionArchive {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LedgerSegmentArchive.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".ndjson.gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int READ_ATTEMPTS = 3;
+
+    private final Path directory;
+    private final int maxSegments;
+
+    /**
+     * @param directory   the directory holding the segments of every account.
+     * @param maxSegments the number of segments an account may have before they are compacted.
+     */
+    public LedgerSegmentArchive(final Path directory, final int maxSegments) {
+        Objects.requireNonNull(directory, "directory shouldn't be null");
+
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("maxSegments should be greater than 0");
+        }
+
+        this.directory = directory;
+        this.maxSegments = maxSegments;
+    }
+
+    @Override
+    public synchronized void append(final UUID accountId, final Collection<TransactionRecord> records) {
+        Objects.requireNonNull(accountId, "accountId shouldn't be null");
+        Objects.requireNonNull(records, "records shouldn't be null");
+
+        if (records.isEmpty()) {
+            return;
+        }
+
+        final Path accountDirectory = directory.resolve(accountId.toString());
+
+        try {
+            Files.createDirectories(accountDirectory);
+
+            final List<Segment> segments = segments(accountDirectory);
+            final LocalDateTime oldest = records.stream().map(TransactionRecord::date).min(Comparator.naturalOrder()).orElseThrow();
+            final LocalDateTime newest = records.stream().map(TransactionRecord::date).max(Comparator.naturalOrder()).orElseThrow();
+
+            writeSegment(accountDirectory, nextIndex(segments), floorSecond(oldest), ceilSecond(newest), out -> {
+                try (LedgerWriter writer = new LedgerWriter(out)) {
+                    for (final TransactionRecord record : records) {
+                        writer.writeTransaction(record);
+                    }
+                }
+            });
+
+            if (segments.size() + 1 > maxSegments) {
+                compact(accountDirectory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Unable to archive transactions of account=%s", accountId), e);
+        }
+    }
+
+    @Override
+    public Set<TransactionRecord> read(final UUID accountId, final Function<UUID, Account> counterparties) {
+        return read(accountId, null, null, counterparties);
+    }
+
+    @Override
+    public Set<TransactionRecord> read(final UUID accountId,
+                                       final LocalDateTime from,
+                                       final LocalDateTime to,
+                                       final Function<UUID, Account> counterparties) {
+        Objects.requireNonNull(accountId, "accountId shouldn't be null");
+        Objects.requireNonNull(counterparties, "counterparties shouldn't be null");
+
+        final long fromSecond = from == null ? Long.MIN_VALUE : floorSecond(from);
+        final long toSecond = to == null ? Long.MAX_VALUE : ceilSecond(to);
+        final byte[] content = readContent(accountId, segment -> segment.from() <= toSecond && segment.to() >= fromSecond);
+
+        if (content.length == 0) {
+            return Set.of();
+        }
+
+        final LedgerParser parser = LedgerParser.forFormat(LedgerFormat.NDJSON);
+        final LedgerLine line = parser.newLine();
+        final Set<TransactionRecord> records = new HashSet<>();
+
+        MappedLedgerReader.read(ByteBuffer.wrap(content), (buffer, start, end, lineNumber) -> {
+            line.reset(buffer, lineNumber);
+
+            if (!parser.parse(line, start, end)) {
+                return;
+            }
+
+            if (line.type() != LedgerEntryType.TRANSACTION) {
+                throw line.error(String.format("unexpected %s entry in archive of account=%s", line.type().label(), accountId));
+            }
+
+            final LedgerTransaction transaction = LedgerTransaction.read(line);
+            final TransactionRecord record = transaction.toRecord(transaction.counterpartyId() == null
+                    ? null
+                    : counterparties.apply(transaction.counterpartyId()));
+
+            //A segment overlapping the range may still hold records outside of it
+            if ((from == null || !record.date().isBefore(from)) && (to == null || !record.date().isAfter(to))) {
+                records.add(record);
+            }
+        });
+
+        return records;
+    }
+
+    /**
+     * Returns the decompressed content of the selected segments of an account, in archiving order.
+     *
+     * @param accountId the account owning the segments.
+     * @param selected  the segments to read.
+     * @return the NDJSON transaction entries, empty if the account has no archived record.
+     * @throws UncheckedIOException if a segment cannot be read.
+     */
+    private byte[] readContent(final UUID accountId, final Predicate<Segment> selected) {
+        final Path accountDirectory = directory.resolve(accountId.toString());
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return concatenate(segments(accountDirectory).stream().filter(selected).toList());
+            } catch (NoSuchFileException e) {
+                //A compaction replaced the listed segments, the merged segment holds the same records
+                if (attempt == READ_ATTEMPTS) {
+                    throw new UncheckedIOException(String.format("Archive of account=%s kept changing while read", accountId), e);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Unable to read archive of account=%s", accountId), e);
+            }
+        }
+    }
+
+    private void compact(final Path accountDirectory) throws IOException {
+        final List<Segment> segments = segments(accountDirectory);
+        final byte[] content = concatenate(segments);
+        final long from = segments.stream().mapToLong(Segment::from).min().orElseThrow();
+        final long to = segments.stream().mapToLong(Segment::to).max().orElseThrow();
+
+        writeSegment(accountDirectory, nextIndex(segments), from, to, out -> out.write(content));
+
+        for (final Segment segment : segments) {
+            Files.delete(segment.path());
+        }
+
+        LOGGER.info("operation=compactArchive, directory={}, segments={}, bytes={}", accountDirectory, segments.size(), content.length);
+    }
+
+    private static void writeSegment(final Path accountDirectory,
+                                     final long index,
+                                     final long from,
+                                     final long to,
+                                     final SegmentContent content) throws IOException {
+        //A compaction of segments without a range keeps the merged one unbounded
+        final String range = from == Long.MIN_VALUE || to == Long.MAX_VALUE ? "" : String.format(".%d.%d", from, to);
+        final Path segment = accountDirectory.resolve(String.format("%s%019d%s%s", SEGMENT_PREFIX, index, range, SEGMENT_SUFFIX));
+        final Path temporary = segment.resolveSibling(segment.getFileName() + ".tmp");
+
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE)) {
+            content.writeTo(out);
+        }
+
+        Files.move(temporary, segment, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] concatenate(final List<Segment> segments) throws IOException {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        for (final Segment segment : segments) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(segment.path()), BUFFER_SIZE)) {
+                in.transferTo(content);
+            }
+        }
+
+        return content.toByteArray();
+    }
+
+    private static List<Segment> segments(final Path accountDirectory) throws IOException {
+        if (!Files.isDirectory(accountDirectory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> files = Files.list(accountDirectory)) {
+            return files.filter(file -> {
+                        final String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .map(Segment::of)
+                    .sorted(Comparator.comparingLong(Segment::index))
+                    .toList();
+        }
+    }
+
+    private static long nextIndex(final List<Segment> segments) {
+        return segments.isEmpty() ? 0 : segments.getLast().index() + 1;
+    }
+
+    private static long floorSecond(final LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long ceilSecond(final LocalDateTime date) {
+        return date.getNano() == 0 ? floorSecond(date) : floorSecond(date) + 1;
+    }
+
+    /**
+     * A segment file, {@code segment-<index>[.<from>.<to>].ndjson.gz}, with the epoch seconds bounding its records.
+     */
+    private record Segment(Path path, long index, long from, long to) {
+
+        static Segment of(final Path path) {
+            final String name = path.getFileName().toString();
+            final String[] parts = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()).split("\\.");
+            final long index = Long.parseLong(parts[0]);
+
+            if (parts.length == 3) {
+                return new Segment(path, index, Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            }
+
+            return new Segment(path, index, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SegmentContent {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
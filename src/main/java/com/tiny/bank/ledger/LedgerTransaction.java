@@ -0,0 +1,49 @@
+package com.tiny.bank.ledger;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.OutboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.tiny.bank.ledger.LedgerField.ACCOUNT_ID;
+import static com.tiny.bank.ledger.LedgerField.AMOUNT;
+import static com.tiny.bank.ledger.LedgerField.BALANCE_AFTER_TRANSACTION;
+import static com.tiny.bank.ledger.LedgerField.COUNTERPARTY_ACCOUNT_ID;
+import static com.tiny.bank.ledger.LedgerField.DATE;
+import static com.tiny.bank.ledger.LedgerField.DESCRIPTION;
+import static com.tiny.bank.ledger.LedgerField.DIRECTION;
+import static com.tiny.bank.ledger.LedgerField.TRANSACTION_ID;
+
+/**
+ * Transaction entry of a ledger, decoded but with its counterparty account not resolved yet.
+ */
+record LedgerTransaction(TransactionType direction, UUID id, BigDecimal amount, BigDecimal balanceAfterTransaction,
+                         LocalDateTime date, String description, UUID counterpartyId, UUID accountId) {
+
+    private static final TransactionType[] DIRECTIONS = TransactionType.values();
+
+    static LedgerTransaction read(final LedgerLine line) {
+        return new LedgerTransaction(line.enumValue(DIRECTION, DIRECTIONS),
+                line.uuid(TRANSACTION_ID),
+                line.decimal(AMOUNT),
+                line.decimal(BALANCE_AFTER_TRANSACTION),
+                line.dateTime(DATE),
+                line.isPresent(DESCRIPTION) ? line.string(DESCRIPTION) : "",
+                line.optionalUuid(COUNTERPARTY_ACCOUNT_ID),
+                line.uuid(ACCOUNT_ID));
+    }
+
+    TransactionRecord toRecord(final Account counterparty) {
+        return switch (direction) {
+            case INBOUND -> new InboundTransactionRecord(id, amount, balanceAfterTransaction, date, description,
+                    counterparty, accountId);
+            case OUTBOUND -> new OutboundTransactionRecord(id, amount, balanceAfterTransaction, date, description,
+                    counterparty, accountId);
+        };
+    }
+}
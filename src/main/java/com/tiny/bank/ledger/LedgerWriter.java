@@ -0,0 +1,94 @@
+package com.tiny.bank.ledger;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountSnapshot;
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.OutboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionType;
+import com.tiny.bank.domain.user.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes ledger entries as NDJSON, in the same layout read by {@link NdjsonLedgerParser}.
+ */
+final class LedgerWriter implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactoryBuilder()
+            .enable(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .rootValueSeparator((String) null)
+            .build();
+
+    private final JsonGenerator generator;
+
+    LedgerWriter(final OutputStream outputStream) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(outputStream);
+    }
+
+    void writeUser(final User user) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(LedgerField.TYPE.key(), LedgerEntryType.USER.label());
+        generator.writeStringField(LedgerField.CC_NUMBER.key(), user.ccNumber());
+        generator.writeStringField(LedgerField.USER_ID.key(), user.uuid().toString());
+        generator.writeStringField(LedgerField.NAME.key(), user.name());
+        generator.writeStringField(LedgerField.BIRTHDATE.key(), user.birthdate().toString());
+        generator.writeStringField(LedgerField.STATE.key(), user.state().name());
+        endEntry();
+    }
+
+    void writeAccount(final String ccNumber, final AccountSnapshot account) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(LedgerField.TYPE.key(), LedgerEntryType.ACCOUNT.label());
+        generator.writeStringField(LedgerField.CC_NUMBER.key(), ccNumber);
+        generator.writeStringField(LedgerField.ACCOUNT_ID.key(), account.accountId().toString());
+        generator.writeNumberField(LedgerField.BALANCE.key(), account.balance());
+        endEntry();
+    }
+
+    void writeTransaction(final TransactionRecord record) throws IOException {
+        final TransactionType direction;
+        final Account counterparty;
+
+        switch (record) {
+            case InboundTransactionRecord inbound -> {
+                direction = TransactionType.INBOUND;
+                counterparty = inbound.provider();
+            }
+            case OutboundTransactionRecord outbound -> {
+                direction = TransactionType.OUTBOUND;
+                counterparty = outbound.recipient();
+            }
+        }
+
+        generator.writeStartObject();
+        generator.writeStringField(LedgerField.TYPE.key(), LedgerEntryType.TRANSACTION.label());
+        generator.writeStringField(LedgerField.ACCOUNT_ID.key(), record.accountId().toString());
+        generator.writeStringField(LedgerField.TRANSACTION_ID.key(), record.id().toString());
+        generator.writeStringField(LedgerField.DIRECTION.key(), direction.name());
+        generator.writeNumberField(LedgerField.AMOUNT.key(), record.amount());
+        generator.writeNumberField(LedgerField.BALANCE_AFTER_TRANSACTION.key(), record.balanceAfterTransaction());
+        generator.writeStringField(LedgerField.DATE.key(), record.date().toString());
+        generator.writeStringField(LedgerField.COUNTERPARTY_ACCOUNT_ID.key(),
+                counterparty == null ? null : counterparty.getAccountId().toString());
+        generator.writeStringField(LedgerField.DESCRIPTION.key(), record.description());
+        endEntry();
+    }
+
+    private void endEntry() throws IOException {
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
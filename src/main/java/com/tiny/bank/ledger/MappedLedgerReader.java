@@ -0,0 +1,109 @@
+package com.tiny.bank.ledger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Splits a ledger file into lines using memory-mapped windows of the file.
+ *
+ * <p>
+ * Lines are handed out as byte ranges of the mapped buffer, so no per-line copy or {@link String} is created.
+ * A window always ends on a line boundary; the remainder of a partially mapped line is re-mapped at the start of
+ * the next window.
+ * </p>
+ */
+final class MappedLedgerReader {
+
+    static final long DEFAULT_WINDOW_SIZE = 1L << 30;
+
+    @FunctionalInterface
+    interface LineHandler {
+        void onLine(ByteBuffer buffer, int from, int to, long lineNumber);
+    }
+
+    private MappedLedgerReader() {
+    }
+
+    /**
+     * Reads every line of the file, stripping the line terminator ({@code \n} or {@code \r\n}).
+     *
+     * @param path       the ledger file.
+     * @param windowSize the maximum number of bytes mapped at once.
+     * @param handler    the callback invoked for each line.
+     * @return the number of lines read.
+     * @throws IOException if the file cannot be mapped.
+     */
+    static long read(final Path path, final long windowSize, final LineHandler handler) throws IOException {
+        long lineNumber = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                final int length = (int) Math.min(windowSize, size - position);
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                final boolean lastWindow = position + length == size;
+
+                int lineStart = 0;
+
+                for (int i = 0; i < length; i++) {
+                    if (buffer.get(i) == '\n') {
+                        handler.onLine(buffer, lineStart, stripCarriageReturn(buffer, lineStart, i), ++lineNumber);
+                        lineStart = i + 1;
+                    }
+                }
+
+                if (lastWindow) {
+                    if (lineStart < length) {
+                        handler.onLine(buffer, lineStart, stripCarriageReturn(buffer, lineStart, length), ++lineNumber);
+                    }
+
+                    break;
+                }
+
+                if (lineStart == 0) {
+                    throw new LedgerFormatException(lineNumber + 1, "line is longer than the mapping window");
+                }
+
+                position += lineStart;
+            }
+        }
+
+        return lineNumber;
+    }
+
+    /**
+     * Reads every line of an in-memory buffer, stripping the line terminator ({@code \n} or {@code \r\n}).
+     *
+     * @param buffer  the ledger content, from position zero up to its limit.
+     * @param handler the callback invoked for each line.
+     * @return the number of lines read.
+     */
+    static long read(final ByteBuffer buffer, final LineHandler handler) {
+        final int length = buffer.limit();
+        long lineNumber = 0;
+        int lineStart = 0;
+
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(i) == '\n') {
+                handler.onLine(buffer, lineStart, stripCarriageReturn(buffer, lineStart, i), ++lineNumber);
+                lineStart = i + 1;
+            }
+        }
+
+        if (lineStart < length) {
+            handler.onLine(buffer, lineStart, stripCarriageReturn(buffer, lineStart, length), ++lineNumber);
+        }
+
+        return lineNumber;
+    }
+
+    private static int stripCarriageReturn(final ByteBuffer buffer, final int from, final int to) {
+        return to > from && buffer.get(to - 1) == '\r' ? to - 1 : to;
+    }
+}
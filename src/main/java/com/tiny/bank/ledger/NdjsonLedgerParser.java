@@ -0,0 +1,214 @@
+package com.tiny.bank.ledger;
+
+/**
+ * Newline-delimited JSON ledger parser.
+ *
+ * <p>
+ * Each line is a flat JSON object whose {@code type} member is {@code user}, {@code account} or
+ * {@code transaction}; the remaining member names are the ones of {@link LedgerField}. Unknown members are skipped,
+ * {@code null} members are treated as absent and nested objects or arrays are rejected. Numbers may be given either
+ * as JSON numbers or as strings.
+ * </p>
+ */
+final class NdjsonLedgerParser implements LedgerParser {
+
+    @Override
+    public LedgerLine newLine() {
+        return new LedgerLine(NdjsonLedgerParser::unescape);
+    }
+
+    @Override
+    public boolean parse(final LedgerLine line, final int from, final int to) {
+        int i = skipWhitespace(line, from, to);
+
+        if (i == to) {
+            return false;
+        }
+
+        i = expect(line, i, to, '{');
+        i = skipWhitespace(line, i, to);
+
+        if (i < to && line.byteAt(i) == '}') {
+            throw line.error("missing type");
+        }
+
+        while (true) {
+            i = expect(line, i, to, '"');
+            final int keyStart = i;
+            i = endOfString(line, i, to);
+            final LedgerField field = LedgerField.fromKey(line, keyStart, i);
+
+            i = skipWhitespace(line, i + 1, to);
+            i = expect(line, i, to, ':');
+            i = skipWhitespace(line, i, to);
+
+            if (i >= to) {
+                throw line.error("missing value");
+            }
+
+            final byte first = line.byteAt(i);
+
+            if (first == '"') {
+                final int valueStart = i + 1;
+                i = endOfString(line, valueStart, to);
+                assign(line, field, valueStart, i, hasEscapes(line, valueStart, i));
+                i++;
+            } else if (first == '{' || first == '[') {
+                throw line.error("nested values are not supported");
+            } else {
+                final int valueStart = i;
+
+                while (i < to && line.byteAt(i) != ',' && line.byteAt(i) != '}' && !isWhitespace(line.byteAt(i))) {
+                    i++;
+                }
+
+                if (!isNull(line, valueStart, i)) {
+                    assign(line, field, valueStart, i, false);
+                }
+            }
+
+            i = skipWhitespace(line, i, to);
+
+            if (i < to && line.byteAt(i) == ',') {
+                i = skipWhitespace(line, i + 1, to);
+                continue;
+            }
+
+            i = expect(line, i, to, '}');
+            break;
+        }
+
+        if (skipWhitespace(line, i, to) != to) {
+            throw line.error("unexpected content after object");
+        }
+
+        if (line.type() == null) {
+            throw line.error("missing type");
+        }
+
+        return true;
+    }
+
+    private static void assign(final LedgerLine line,
+                               final LedgerField field,
+                               final int start,
+                               final int end,
+                               final boolean escaped) {
+        if (field == null) {
+            return;
+        }
+
+        if (field == LedgerField.TYPE) {
+            final LedgerEntryType type = LedgerEntryType.fromLabel(line, start, end);
+
+            if (type == null) {
+                throw line.error(String.format("unknown type=%s", line.rawString(start, end)));
+            }
+
+            line.type(type);
+            return;
+        }
+
+        line.set(field, start, end, escaped);
+    }
+
+    private static int endOfString(final LedgerLine line, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            final byte b = line.byteAt(i);
+
+            if (b == '\\') {
+                i++;
+            } else if (b == '"') {
+                return i;
+            }
+        }
+
+        throw line.error("unterminated string");
+    }
+
+    private static boolean hasEscapes(final LedgerLine line, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (line.byteAt(i) == '\\') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isNull(final LedgerLine line, final int from, final int to) {
+        return to - from == 4 && line.byteAt(from) == 'n' && line.byteAt(from + 1) == 'u'
+                && line.byteAt(from + 2) == 'l' && line.byteAt(from + 3) == 'l';
+    }
+
+    private static int expect(final LedgerLine line, final int index, final int to, final char expected) {
+        if (index >= to || line.byteAt(index) != expected) {
+            throw line.error(String.format("expected '%s'", expected));
+        }
+
+        return index + 1;
+    }
+
+    private static int skipWhitespace(final LedgerLine line, final int from, final int to) {
+        int i = from;
+
+        while (i < to && isWhitespace(line.byteAt(i))) {
+            i++;
+        }
+
+        return i;
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static String unescape(final LedgerLine line, final int from, final int to) {
+        final StringBuilder builder = new StringBuilder(to - from);
+        int segmentStart = from;
+        int i = from;
+
+        while (i < to) {
+            if (line.byteAt(i) != '\\') {
+                i++;
+                continue;
+            }
+
+            builder.append(line.rawString(segmentStart, i));
+
+            if (i + 1 >= to) {
+                throw line.error("invalid escape sequence");
+            }
+
+            final byte escape = line.byteAt(i + 1);
+
+            switch (escape) {
+                case '"', '\\', '/' -> builder.append((char) escape);
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if (i + 6 > to) {
+                        throw line.error("invalid unicode escape");
+                    }
+
+                    try {
+                        builder.append((char) Integer.parseInt(line.rawString(i + 2, i + 6), 16));
+                    } catch (NumberFormatException e) {
+                        throw line.error("invalid unicode escape");
+                    }
+
+                    i += 4;
+                }
+                default -> throw line.error("invalid escape sequence");
+            }
+
+            i += 2;
+            segmentStart = i;
+        }
+
+        return builder.append(line.rawString(segmentStart, to)).toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.tiny.bank.ledger;
+
+import com.google.common.io.CountingOutputStream;
+import com.tiny.bank.domain.event.EventSubscriber;
+import com.tiny.bank.domain.event.LedgerEvent;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link EventSubscriber} appending every event to NDJSON files in a local directory, as written by
+ * {@link EventLogWriter}.
+ *
+ * <p>
+ * Files are named {@code events-<index>.ndjson} with an index growing across files and restarts. A file is closed
+ * once it reaches the maximum size and the next one opened, and the oldest files beyond the maximum number are
+ * deleted. Output is buffered and flushed whenever the subscriber caught up with the bus, so a burst of events costs
+ * one write. Events the subscriber missed leave a {@code missed} entry with their count.
+ * </p>
+ */
+public class RotatingEventLog implements EventSubscriber, Closeable {
+
+    private static final Pattern FILE_NAME = Pattern.compile("events-(\\d{20})\\.ndjson");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final long maxFileSize;
+    private final int maxFiles;
+
+    private long fileIndex;
+    private CountingOutputStream output;
+    private EventLogWriter writer;
+
+    /**
+     * @param directory   the directory of the files, created if it does not exist.
+     * @param maxFileSize the size in bytes a file is rotated at.
+     * @param maxFiles    the number of files kept.
+     * @throws UncheckedIOException if the directory cannot be created or listed.
+     */
+    public RotatingEventLog(final Path directory, final long maxFileSize, final int maxFiles) {
+        Objects.requireNonNull(directory, "directory shouldn't be null");
+
+        if (maxFileSize < 1 || maxFiles < 1) {
+            throw new IllegalArgumentException("maxFileSize and maxFiles should be greater than 0");
+        }
+
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+
+        try {
+            Files.createDirectories(directory);
+            this.fileIndex = files(directory).stream().mapToLong(RotatingEventLog::index).max().orElse(-1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Unable to open the event log in %s", directory), e);
+        }
+    }
+
+    /**
+     * @param directory the directory of an event log.
+     * @return the files of the log, oldest first.
+     * @throws IOException if the directory cannot be listed.
+     */
+    public static List<Path> files(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> FILE_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    @Override
+    public void onEvent(final long sequence, final LedgerEvent event, final boolean endOfBatch) throws IOException {
+        writer().writeEvent(sequence, event);
+        endEntry(endOfBatch);
+    }
+
+    @Override
+    public void onMissed(final long count) throws IOException {
+        writer().writeMissed(count);
+        endEntry(false);
+    }
+
+    @Override
+    public void onClose() throws IOException {
+        close();
+    }
+
+    /**
+     * Flushes and closes the current file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            output.close();
+            writer = null;
+        }
+    }
+
+    private EventLogWriter writer() throws IOException {
+        if (writer == null) {
+            final Path file = directory.resolve(String.format("events-%020d.ndjson", ++fileIndex));
+
+            output = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+            writer = new EventLogWriter(output);
+            deleteOldest();
+        }
+
+        return writer;
+    }
+
+    private void endEntry(final boolean endOfBatch) throws IOException {
+        writer.flush();
+
+        if (output.getCount() >= maxFileSize) {
+            close();
+        } else if (endOfBatch) {
+            output.flush();
+        }
+    }
+
+    private void deleteOldest() throws IOException {
+        final List<Path> files = files(directory);
+
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private static long index(final Path file) {
+        final Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+}
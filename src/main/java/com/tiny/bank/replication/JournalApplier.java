@@ -0,0 +1,121 @@
+package com.tiny.bank.replication;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.event.AccountCreated;
+import com.tiny.bank.domain.event.BalanceChanged;
+import com.tiny.bank.domain.event.LedgerEvent;
+import com.tiny.bank.domain.event.TransactionRecorded;
+import com.tiny.bank.domain.event.UserCreated;
+import com.tiny.bank.domain.event.UserDeactivated;
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.OutboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionType;
+import com.tiny.bank.domain.user.State;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies the events of a primary to the repository of a replica.
+ *
+ * <p>
+ * Every event can be applied more than once, as snapshots and the events following them overlap: existing users are
+ * not added again, balances are set rather than changed, and a record already in the history is skipped.
+ * </p>
+ */
+final class JournalApplier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalApplier.class);
+
+    private final UserRepository repository;
+    private final AccountFactory accountFactory;
+
+    /**
+     * Credit card number of the owner of every replicated account, so accounts are found through their user rather
+     * than by a scan of the repository. Only used by the replica thread.
+     */
+    private final Map<UUID, String> owners = new HashMap<>();
+
+    JournalApplier(final UserRepository repository, final AccountFactory accountFactory) {
+        this.repository = Objects.requireNonNull(repository, "repository shouldn't be null");
+        this.accountFactory = Objects.requireNonNull(accountFactory, "accountFactory shouldn't be null");
+    }
+
+    void apply(final LedgerEvent event) {
+        switch (event) {
+            case UserCreated created -> {
+                if (repository.getUser(created.ccNumber()).isEmpty()) {
+                    repository.addUser(new User(created.userId(), created.name(), created.ccNumber(), created.birthdate(), Set.of(), State.ACTIVE));
+                }
+            }
+            case AccountCreated created -> {
+                owners.put(created.accountId(), created.ccNumber());
+                account(created.accountId()).ifPresentOrElse(
+                        account -> account.restoreBalance(created.balance()),
+                        () -> repository.updateUser(created.ccNumber(), user -> {
+                            final Set<Account> accounts = new HashSet<>(user.accounts());
+
+                            accounts.add(accountFactory.createAccount(created.accountId(), Set.of(), created.balance()));
+                            return new User(user.uuid(), user.name(), user.ccNumber(), user.birthdate(), accounts, user.state());
+                        }));
+            }
+            case BalanceChanged changed -> account(changed.accountId())
+                    .ifPresent(account -> account.restoreBalance(changed.balance()));
+            case TransactionRecorded recorded -> account(recorded.accountId())
+                    .ifPresent(account -> record(account, recorded));
+            case UserDeactivated deactivated -> repository.updateUser(deactivated.ccNumber(), User::deactivateUser);
+        }
+    }
+
+    private void record(final Account account, final TransactionRecorded recorded) {
+        for (final TransactionRecord existing : account.getTransactions(recorded.date(), recorded.date())) {
+            if (existing.id().equals(recorded.transactionId())) {
+                return;
+            }
+        }
+
+        final Account counterparty = recorded.counterpartyAccountId() == null
+                ? null
+                : account(recorded.counterpartyAccountId()).orElse(null);
+        final TransactionRecord record = recorded.direction() == TransactionType.INBOUND
+                ? new InboundTransactionRecord(recorded.transactionId(), recorded.amount(), recorded.balanceAfterTransaction(),
+                recorded.date(), recorded.description(), counterparty, recorded.accountId())
+                : new OutboundTransactionRecord(recorded.transactionId(), recorded.amount(), recorded.balanceAfterTransaction(),
+                recorded.date(), recorded.description(), counterparty, recorded.accountId());
+
+        try {
+            account.restoreTransactions(List.of(record));
+        } catch (IllegalArgumentException e) {
+            //The replica history already went past it, such as a record archived on the replica
+            LOGGER.warn("operation=applyTransaction, message=Record older than the replica history skipped, accountId={}, transactionId={}",
+                    recorded.accountId(), recorded.transactionId());
+        }
+    }
+
+    /**
+     * Looks an account up through its owner, accounts are always announced before they are used.
+     */
+    private Optional<Account> account(final UUID accountId) {
+        final String owner = owners.get(accountId);
+
+        if (owner == null) {
+            return Optional.empty();
+        }
+
+        return repository.getUser(owner).flatMap(user -> user.accounts().stream()
+                .filter(account -> account.getAccountId().equals(accountId))
+                .findFirst());
+    }
+}
@@ -0,0 +1,22 @@
+package com.tiny.bank.replication;
+
+/**
+ * Control lines of the journal protocol, every other line is an event log entry.
+ *
+ * <p>
+ * A replica opens the connection with {@code RESUME <epoch> <sequence>}, asking for the journal from the sequence
+ * number following the last event it applied, or with {@code SNAPSHOT} when it has nothing to resume. The primary
+ * answers {@code RESUME <epoch> <sequence>} and streams the events from there, or {@code SNAPSHOT <epoch> <sequence>},
+ * then the state of every user as events without sequence numbers, then {@code EVENTS}, then the events from that
+ * sequence number on. The epoch identifies the primary process; sequence numbers of another epoch mean nothing.
+ * </p>
+ */
+final class JournalProtocol {
+
+    static final String RESUME = "RESUME";
+    static final String SNAPSHOT = "SNAPSHOT";
+    static final String EVENTS = "EVENTS";
+
+    private JournalProtocol() {
+    }
+}
@@ -0,0 +1,216 @@
+package com.tiny.bank.replication;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.ledger.EventLogEntry;
+import com.tiny.bank.ledger.EventLogReader;
+import com.tiny.bank.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a repository in sync with a primary, by applying the journal served by its {@link JournalServer}.
+ *
+ * <p>
+ * The replica runs on its own daemon thread. It resumes from the last event it applied whenever it reconnects to the
+ * same primary, and starts over with a snapshot otherwise, reconnecting after a delay for as long as it is open. Only
+ * the replica should write to the repository.
+ * </p>
+ */
+public class JournalReplica implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalReplica.class);
+
+    private final Path socket;
+    private final Duration reconnectDelay;
+    private final JournalApplier applier;
+    private final Thread thread;
+
+    private volatile boolean closed;
+    private volatile SocketChannel connection;
+
+    /**
+     * The epoch of the primary and the sequence number of the next event to apply, {@code null} and {@code -1} until
+     * a snapshot was applied.
+     */
+    private volatile String epoch;
+    private volatile long position = -1;
+
+    /**
+     * @param socket         the path of the socket of the primary.
+     * @param repository     the repository of the replica.
+     * @param reconnectDelay the time between two connection attempts.
+     */
+    public JournalReplica(final Path socket, final UserRepository repository, final Duration reconnectDelay) {
+        this(socket, repository, AccountFactory.DEFAULT, reconnectDelay);
+    }
+
+    /**
+     * @param socket         the path of the socket of the primary.
+     * @param repository     the repository of the replica.
+     * @param accountFactory creates the replicated accounts.
+     * @param reconnectDelay the time between two connection attempts.
+     */
+    public JournalReplica(final Path socket,
+                          final UserRepository repository,
+                          final AccountFactory accountFactory,
+                          final Duration reconnectDelay) {
+        this.socket = Objects.requireNonNull(socket, "socket shouldn't be null");
+        this.reconnectDelay = Objects.requireNonNull(reconnectDelay, "reconnectDelay shouldn't be null");
+        this.applier = new JournalApplier(repository, accountFactory);
+        this.thread = new ThreadFactoryBuilder()
+                .setNameFormat("journal-replica")
+                .setDaemon(true)
+                .build()
+                .newThread(this::run);
+    }
+
+    /**
+     * Starts following the primary.
+     *
+     * @return the replica.
+     */
+    public JournalReplica start() {
+        thread.start();
+        return this;
+    }
+
+    /**
+     * @return the sequence number of the next event to apply, {@code -1} until a snapshot was applied.
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Stops following the primary, the repository keeps the state applied so far.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+
+        final SocketChannel current = connection;
+
+        if (current != null) {
+            current.close();
+        }
+
+        thread.interrupt();
+
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        boolean connected = true;
+
+        while (!closed) {
+            try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+                connection = channel;
+                channel.connect(UnixDomainSocketAddress.of(socket));
+                connected = true;
+                follow(channel);
+            } catch (IOException | RuntimeException e) {
+                //Only the first failure is worth a warning, the primary may stay down for a while
+                if (closed) {
+                    return;
+                } else if (connected) {
+                    LOGGER.warn("operation=followPrimary, message=Disconnected from the primary, socket={}, position={}, cause={}",
+                            socket, position, e.toString());
+                } else {
+                    LOGGER.debug("operation=followPrimary, message=Primary unavailable, socket={}, cause={}", socket, e.toString());
+                }
+
+                connected = false;
+            } finally {
+                connection = null;
+            }
+
+            if (!closed) {
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void follow(final SocketChannel channel) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+        final OutputStream output = Channels.newOutputStream(channel);
+        final String request = epoch == null
+                ? JournalProtocol.SNAPSHOT
+                : String.format("%s %s %d", JournalProtocol.RESUME, epoch, position);
+
+        output.write((request + '\n').getBytes(StandardCharsets.UTF_8));
+        output.flush();
+
+        final String[] response = readLine(reader).split(" ");
+
+        if (response.length != 3) {
+            throw new IllegalStateException(String.format("Unexpected journal response %s", String.join(" ", response)));
+        }
+
+        if (JournalProtocol.SNAPSHOT.equals(response[0])) {
+            //A partly applied snapshot can't be resumed
+            epoch = null;
+            position = -1;
+            applySnapshot(reader);
+        }
+
+        epoch = response[1];
+        position = Long.parseLong(response[2]);
+        LOGGER.info("operation=followPrimary, message=Following the primary, socket={}, epoch={}, position={}", socket, epoch, position);
+
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            final EventLogEntry entry = EventLogReader.read(line);
+
+            if (entry.isMissed() || entry.sequence() != position) {
+                throw new IllegalStateException(String.format("Journal gap at position=%d", position));
+            }
+
+            applier.apply(entry.event());
+            position = entry.sequence() + 1;
+        }
+    }
+
+    private void applySnapshot(final BufferedReader reader) throws IOException {
+        String line;
+
+        while (!JournalProtocol.EVENTS.equals(line = readLine(reader))) {
+            applier.apply(EventLogReader.read(line).event());
+        }
+    }
+
+    private static String readLine(final BufferedReader reader) throws IOException {
+        final String line = reader.readLine();
+
+        if (line == null) {
+            throw new IOException("The primary closed the connection");
+        }
+
+        return line;
+    }
+}
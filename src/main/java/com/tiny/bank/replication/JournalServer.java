@@ -0,0 +1,334 @@
+package com.tiny.bank.replication;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.event.AccountCreated;
+import com.tiny.bank.domain.event.EventBus;
+import com.tiny.bank.domain.event.EventSubscriber;
+import com.tiny.bank.domain.event.LedgerEvent;
+import com.tiny.bank.domain.event.TransactionRecorded;
+import com.tiny.bank.domain.event.UserCreated;
+import com.tiny.bank.domain.event.UserDeactivated;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.ledger.EventLogWriter;
+import com.tiny.bank.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Serves the journal of the primary to replicas over a Unix domain socket: the events of its {@link EventBus}, in the
+ * event log format of {@link EventLogWriter}, as described by {@link JournalProtocol}.
+ *
+ * <p>
+ * A replica resuming within the events still kept by the bus gets them from where it stopped. Any other replica first
+ * gets a snapshot of the repository, then the events published since the snapshot started, held back in memory while
+ * the snapshot is written. Snapshot and events overlap, a replica must apply events idempotently. A replica falling
+ * behind by more than the capacity of the bus once streaming events is disconnected, and resynchronizes with a
+ * snapshot when it reconnects.
+ * </p>
+ */
+public class JournalServer implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalServer.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("journal-server-%d")
+            .setDaemon(true)
+            .build();
+
+    private final Path socket;
+    private final EventBus eventBus;
+    private final UserRepository repository;
+    private final UUID epoch = UUID.randomUUID();
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final Set<EventBus.Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private ServerSocketChannel server;
+
+    /**
+     * @param socket     the path of the socket, replacing any file left there.
+     * @param eventBus   the bus of the journaled events.
+     * @param repository the repository snapshots are taken from.
+     */
+    public JournalServer(final Path socket, final EventBus eventBus, final UserRepository repository) {
+        this.socket = Objects.requireNonNull(socket, "socket shouldn't be null");
+        this.eventBus = Objects.requireNonNull(eventBus, "eventBus shouldn't be null");
+        this.repository = Objects.requireNonNull(repository, "repository shouldn't be null");
+    }
+
+    /**
+     * Starts accepting replicas.
+     *
+     * @return the server.
+     * @throws UncheckedIOException if the socket cannot be bound.
+     */
+    public synchronized JournalServer start() {
+        if (server != null) {
+            throw new IllegalStateException("The journal server is already started");
+        }
+
+        try {
+            Files.createDirectories(socket.toAbsolutePath().getParent());
+            //A socket file outlives the process that bound it
+            Files.deleteIfExists(socket);
+
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(socket));
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Unable to bind the journal socket %s", socket), e);
+        }
+
+        THREAD_FACTORY.newThread(this::accept).start();
+        LOGGER.info("operation=startJournalServer, socket={}, epoch={}", socket, epoch);
+        return this;
+    }
+
+    /**
+     * @return the identifier of this primary, sequence numbers are only meaningful within it.
+     */
+    public UUID epoch() {
+        return epoch;
+    }
+
+    /**
+     * Stops accepting replicas and disconnects the connected ones.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (server == null) {
+            return;
+        }
+
+        server.close();
+
+        for (final EventBus.Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+
+        for (final SocketChannel connection : connections) {
+            connection.close();
+        }
+
+        Files.deleteIfExists(socket);
+    }
+
+    private void accept() {
+        try {
+            while (true) {
+                final SocketChannel connection = server.accept();
+
+                connections.add(connection);
+                THREAD_FACTORY.newThread(() -> serve(connection)).start();
+            }
+        } catch (ClosedChannelException e) {
+            LOGGER.info("operation=stopJournalServer, socket={}", socket);
+        } catch (IOException e) {
+            LOGGER.error("operation=acceptReplica, message=Journal server stopped, socket={}", socket, e);
+        }
+    }
+
+    /**
+     * Answers the request of a replica, then hands the connection to a subscription of the bus, which closes it.
+     *
+     * <p>
+     * The subscription starts before the answer is written and holds back its events until then, so events published
+     * while a large snapshot is written are kept for the replica rather than lapped by the bus.
+     * </p>
+     */
+    private void serve(final SocketChannel connection) {
+        try {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(connection), StandardCharsets.UTF_8));
+            final OutputStream output = new BufferedOutputStream(Channels.newOutputStream(connection), BUFFER_SIZE);
+            final EventLogWriter writer = new EventLogWriter(output);
+            final String request = reader.readLine();
+            final long resumed = resumedSequence(request);
+            //Taken before reading the state: every change a snapshot misses is published from there on
+            final long sequence = resumed >= 0 ? resumed : eventBus.nextSequence();
+            final ReplicaSubscriber subscriber = new ReplicaSubscriber(connection, output, writer);
+
+            subscriber.subscription = eventBus.subscribe(subscriber, sequence);
+            subscriptions.add(subscriber.subscription);
+
+            //The subscription may have ended before it was known to its subscriber
+            if (!subscriber.subscription.isActive()) {
+                subscriptions.remove(subscriber.subscription);
+            }
+
+            if (resumed >= 0) {
+                writeLine(output, String.format("%s %s %d", JournalProtocol.RESUME, epoch, sequence));
+            } else {
+                writeLine(output, String.format("%s %s %d", JournalProtocol.SNAPSHOT, epoch, sequence));
+                writeSnapshot(writer);
+                writer.flush();
+                writeLine(output, JournalProtocol.EVENTS);
+            }
+
+            subscriber.release();
+            LOGGER.info("operation=serveReplica, request={}, sequence={}", request, sequence);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("operation=serveReplica, message=Replica disconnected", e);
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * @return the sequence number to resume from, {@code -1} if the replica needs a snapshot.
+     */
+    private long resumedSequence(final String request) {
+        if (request == null) {
+            throw new IllegalStateException("The replica closed the connection without a request");
+        }
+
+        final String[] parts = request.split(" ");
+
+        if (parts.length != 3 || !JournalProtocol.RESUME.equals(parts[0]) || !epoch.toString().equals(parts[1])) {
+            return -1;
+        }
+
+        final long sequence = Long.parseLong(parts[2]);
+        final long next = eventBus.nextSequence();
+
+        return sequence <= next && next - sequence <= eventBus.capacity() ? sequence : -1;
+    }
+
+    /**
+     * Writes every user and account first, so the counterparty of every record is known once records are applied.
+     */
+    private void writeSnapshot(final EventLogWriter writer) throws IOException {
+        final Instant time = Instant.now();
+        final List<Account> accounts = new ArrayList<>();
+
+        for (final User user : repository.getUsers()) {
+            writer.writeEvent(new UserCreated(user.ccNumber(), user.uuid(), user.name(), user.birthdate(), time));
+
+            for (final Account account : user.accounts()) {
+                writer.writeEvent(new AccountCreated(user.ccNumber(), account.getAccountId(), account.getBalance(), time));
+                accounts.add(account);
+            }
+
+            if (user.isUserDeactivated()) {
+                writer.writeEvent(new UserDeactivated(user.ccNumber(), time));
+            }
+        }
+
+        for (final Account account : accounts) {
+            for (final TransactionRecord record : account.getTransactions()) {
+                writer.writeEvent(TransactionRecorded.of(record, time));
+            }
+        }
+    }
+
+    private static void writeLine(final OutputStream output, final String line) throws IOException {
+        output.write((line + '\n').getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void disconnect(final SocketChannel connection) {
+        connections.remove(connection);
+
+        try {
+            connection.close();
+        } catch (IOException e) {
+            LOGGER.warn("operation=disconnectReplica, message=Unable to close the connection", e);
+        }
+    }
+
+    /**
+     * Writes the events of the bus to a replica, flushing whenever it caught up with the bus. Events are held back
+     * until the answer to the replica is written.
+     */
+    private final class ReplicaSubscriber implements EventSubscriber {
+
+        private final SocketChannel connection;
+        private final OutputStream output;
+        private final EventLogWriter writer;
+
+        /**
+         * Events held back until the answer is written, {@code null} once released.
+         */
+        private List<Held> held = new ArrayList<>();
+
+        private volatile EventBus.Subscription subscription;
+
+        private ReplicaSubscriber(final SocketChannel connection, final OutputStream output, final EventLogWriter writer) {
+            this.connection = connection;
+            this.output = output;
+            this.writer = writer;
+        }
+
+        @Override
+        public void onEvent(final long sequence, final LedgerEvent event, final boolean endOfBatch) throws IOException {
+            synchronized (this) {
+                if (held != null) {
+                    held.add(new Held(sequence, event));
+                    return;
+                }
+            }
+
+            writer.writeEvent(sequence, event);
+
+            if (endOfBatch) {
+                writer.flush();
+                output.flush();
+            }
+        }
+
+        /**
+         * Writes the events held back so far, later events are written as they come.
+         */
+        private synchronized void release() throws IOException {
+            for (final Held event : held) {
+                writer.writeEvent(event.sequence(), event.event());
+            }
+
+            held = null;
+            writer.flush();
+            output.flush();
+        }
+
+        @Override
+        public void onMissed(final long count) {
+            //The replica can't tell what it missed, it resynchronizes with a snapshot once disconnected
+            throw new IllegalStateException(String.format("Replica missed %d events", count));
+        }
+
+        @Override
+        public void onClose() {
+            if (subscription != null) {
+                subscriptions.remove(subscription);
+            }
+
+            disconnect(connection);
+        }
+    }
+
+    private record Held(long sequence, LedgerEvent event) {
+    }
+}
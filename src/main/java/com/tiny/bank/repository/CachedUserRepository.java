@@ -0,0 +1,482 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.user.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Read-through, write-through cache of users in front of another {@link UserRepository}, typically one that is not
+ * held in memory such as {@link KeyValueUserRepository}, so that memory follows the working set rather than the user
+ * base.
+ *
+ * <p>
+ * Eviction follows W-TinyLFU. New users enter a small LRU window, one percent of the cache. A user leaving the window
+ * only enters the main LRU space if it was used more often recently than the user it would evict, as estimated by a
+ * {@link FrequencySketch} of every lookup and write, hits and misses alike; a scan of users looked up once never
+ * flushes the frequently used ones. Accounts of cached users are indexed, so account lookups of cached users are hits
+ * too.
+ * </p>
+ *
+ * <p>
+ * Hits never wait for a lock: users and accounts are read from concurrent maps, and the access is recorded in a
+ * {@link ReadBuffer} replayed against the eviction policy in batches, by whichever thread finds it full or takes the
+ * policy lock for a miss or a write. Under heavy contention some accesses are dropped, which only makes the policy
+ * less precise.
+ * </p>
+ *
+ * <p>
+ * Pinned users are never evicted, the cache then grows beyond its maximum size. By default a user is pinned while one
+ * of its accounts has pending holds, which only live in memory. A pinned user found at the eviction end of a queue
+ * moves to a queue of its own, so eviction does not scan it again, and goes back once accessed or checked unpinned.
+ * Accounts in the middle of an operation need no pin: the operation references them, and repositories hand out a
+ * single live instance per account.
+ * </p>
+ *
+ * <p>
+ * Writes go to the repository behind the cache first, then replace the cached user, under a lock that keeps them in
+ * the order of the repository. A miss only caches what it loaded if no write happened in the meantime, so it never
+ * caches a user older than the last write. Full scans are not cached.
+ * </p>
+ */
+public class CachedUserRepository implements UserRepository, Closeable {
+
+    /**
+     * Pins the users having an account with pending holds.
+     */
+    public static final Predicate<User> PENDING_HOLDS = user -> user.accounts().stream().anyMatch(Account::hasHolds);
+
+    private final UserRepository delegate;
+    private final Predicate<User> pinned;
+    private final Object writeLock = new Object();
+
+    /**
+     * Cached users by credit card number, and the credit card number of the owner of every cached account, both read
+     * without locking.
+     */
+    private final ConcurrentHashMap<String, Node> data = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, String> owners = new ConcurrentHashMap<>();
+
+    /**
+     * Hits waiting to be replayed against the eviction policy.
+     */
+    private final ReadBuffer<Node> reads = new ReadBuffer<>();
+
+    /**
+     * Guards the eviction policy below.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Unpinned users of the window and of the main space, and the pinned users, least recently used first.
+     */
+    private final AccessQueue window = new AccessQueue();
+    private final AccessQueue main = new AccessQueue();
+    private final AccessQueue pinnedUsers = new AccessQueue();
+    private final int windowSize;
+    private final int mainSize;
+    private final FrequencySketch sketch;
+
+    /**
+     * Number of writes to the cache.
+     */
+    private long writes;
+
+    /**
+     * @param delegate    the repository behind the cache.
+     * @param maximumSize the maximum number of cached users, pinned users aside.
+     */
+    public CachedUserRepository(final UserRepository delegate, final int maximumSize) {
+        this(delegate, maximumSize, PENDING_HOLDS);
+    }
+
+    /**
+     * @param delegate    the repository behind the cache.
+     * @param maximumSize the maximum number of cached users, pinned users aside.
+     * @param pinned      tells the users that must not be evicted.
+     */
+    public CachedUserRepository(final UserRepository delegate, final int maximumSize, final Predicate<User> pinned) {
+        Objects.requireNonNull(delegate, "delegate shouldn't be null");
+        Objects.requireNonNull(pinned, "pinned shouldn't be null");
+
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize should be greater than 0");
+        }
+
+        this.delegate = delegate;
+        this.pinned = pinned;
+        this.windowSize = maximumSize / 100;
+        this.mainSize = maximumSize - windowSize;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    @Override
+    public Optional<User> getUser(final String id) {
+        Objects.requireNonNull(id, "id shouldn't be null");
+
+        final Node node = data.get(id);
+
+        if (node != null) {
+            afterRead(node);
+            return Optional.of(node.user);
+        }
+
+        final long observedWrites;
+
+        lock.lock();
+
+        try {
+            drainReads();
+            sketch.increment(id);
+            observedWrites = writes;
+        } finally {
+            lock.unlock();
+        }
+
+        final Optional<User> loaded = delegate.getUser(id);
+
+        loaded.ifPresent(user -> {
+            lock.lock();
+
+            try {
+                if (writes == observedWrites && !data.containsKey(id)) {
+                    insert(user);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+
+        return loaded;
+    }
+
+    @Override
+    public Collection<User> getUsers() {
+        return delegate.getUsers();
+    }
+
+    @Override
+    public Optional<Account> findAccount(final UUID accountId) {
+        final String owner = owners.get(accountId);
+        final Node node = owner == null ? null : data.get(owner);
+
+        if (node != null) {
+            afterRead(node);
+
+            for (final Account account : node.user.accounts()) {
+                if (account.getAccountId().equals(accountId)) {
+                    return Optional.of(account);
+                }
+            }
+        }
+
+        return delegate.findAccount(accountId);
+    }
+
+    @Override
+    public boolean addUser(final User user) {
+        synchronized (writeLock) {
+            final boolean added = delegate.addUser(user);
+
+            if (added) {
+                cache(user);
+            }
+
+            return added;
+        }
+    }
+
+    @Override
+    public Optional<User> updateUser(final String ccNumber, final Function<User, User> userFunction) {
+        synchronized (writeLock) {
+            final Optional<User> updated = delegate.updateUser(ccNumber, userFunction);
+
+            updated.ifPresent(this::cache);
+            return updated;
+        }
+    }
+
+    /**
+     * @return the number of cached users, pinned users included.
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * Closes the repository behind the cache, if it can be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Buffers the access of a hit, or replays the buffered accesses if the buffer is full and the policy is free.
+     */
+    private void afterRead(final Node node) {
+        if (!reads.offer(node) && lock.tryLock()) {
+            try {
+                drainReads();
+                onAccess(node);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replays the buffered accesses against the eviction policy, the caller must hold the lock.
+     */
+    private void drainReads() {
+        reads.drain(this::onAccess);
+        evict();
+    }
+
+    /**
+     * Records the access of a cached user, the caller must hold the lock. A pinned user that is no longer pinned moves
+     * back to the main space.
+     */
+    private void onAccess(final Node node) {
+        if (node.queue == null) {
+            return;
+        }
+
+        sketch.increment(node.key);
+
+        if (node.queue != pinnedUsers) {
+            node.queue.moveToBack(node);
+        } else if (!pinned.test(node.user)) {
+            pinnedUsers.remove(node);
+            main.add(node);
+        }
+    }
+
+    private void cache(final User user) {
+        lock.lock();
+
+        try {
+            drainReads();
+            writes++;
+            sketch.increment(user.ccNumber());
+
+            final Node node = data.get(user.ccNumber());
+
+            if (node == null) {
+                insert(user);
+                return;
+            }
+
+            node.user = user;
+            index(user);
+
+            if (node.queue != pinnedUsers) {
+                node.queue.moveToBack(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a user to the window, the caller must hold the lock.
+     */
+    private void insert(final User user) {
+        final Node node = new Node(user);
+
+        data.put(node.key, node);
+        index(user);
+        window.add(node);
+        evict();
+    }
+
+    /**
+     * Moves the least recently used users out of a full window, and out of a main space beyond its size, the caller
+     * must hold the lock. Pinned users found on the way move to their own queue, so that they are not scanned again;
+     * one of them is checked on every call and moves back to the main space, as its least recently used user, once
+     * unpinned.
+     */
+    private void evict() {
+        final Node unpinned = pinnedUsers.peek();
+
+        if (unpinned != null) {
+            pinnedUsers.remove(unpinned);
+
+            if (pinned.test(unpinned.user)) {
+                pinnedUsers.add(unpinned);
+            } else {
+                main.addFirst(unpinned);
+            }
+        }
+
+        while (window.size() > windowSize) {
+            final Node candidate = window.peek();
+
+            window.remove(candidate);
+
+            if (pinned.test(candidate.user)) {
+                pinnedUsers.add(candidate);
+            } else {
+                admit(candidate);
+            }
+        }
+
+        while (main.size() > mainSize) {
+            final Node victim = main.peek();
+
+            main.remove(victim);
+
+            if (pinned.test(victim.user)) {
+                pinnedUsers.add(victim);
+            } else {
+                discard(victim);
+            }
+        }
+    }
+
+    /**
+     * Moves a user out of the window into the main space if there is room, or if it is used more often than the user
+     * it would evict; otherwise the user leaves the cache.
+     */
+    private void admit(final Node candidate) {
+        while (main.size() >= mainSize) {
+            final Node victim = main.peek();
+
+            if (pinned.test(victim.user)) {
+                main.remove(victim);
+                pinnedUsers.add(victim);
+            } else if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                main.remove(victim);
+                discard(victim);
+            } else {
+                discard(candidate);
+                return;
+            }
+        }
+
+        main.add(candidate);
+    }
+
+    private void discard(final Node node) {
+        data.remove(node.key, node);
+        unindex(node.user);
+    }
+
+    private void index(final User user) {
+        for (final Account account : user.accounts()) {
+            owners.put(account.getAccountId(), user.ccNumber());
+        }
+    }
+
+    private void unindex(final User user) {
+        for (final Account account : user.accounts()) {
+            owners.remove(account.getAccountId(), user.ccNumber());
+        }
+    }
+
+    /**
+     * Cached user, and its place in a queue of the eviction policy.
+     */
+    private static final class Node {
+
+        private final String key;
+        private volatile User user;
+
+        /**
+         * Guarded by the lock, {@code queue} is {@code null} once the user left the cache.
+         */
+        private AccessQueue queue;
+        private Node previous;
+        private Node next;
+
+        private Node(final User user) {
+            this.key = user.ccNumber();
+            this.user = user;
+        }
+    }
+
+    /**
+     * Doubly linked queue of users, least recently used first, guarded by the lock.
+     */
+    private static final class AccessQueue {
+
+        private Node first;
+        private Node last;
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        private Node peek() {
+            return first;
+        }
+
+        private void add(final Node node) {
+            node.queue = this;
+            node.previous = last;
+            node.next = null;
+
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+
+            last = node;
+            size++;
+        }
+
+        private void addFirst(final Node node) {
+            node.queue = this;
+            node.previous = null;
+            node.next = first;
+
+            if (first == null) {
+                last = node;
+            } else {
+                first.previous = node;
+            }
+
+            first = node;
+            size++;
+        }
+
+        private void remove(final Node node) {
+            if (node.previous == null) {
+                first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+
+            if (node.next == null) {
+                last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+
+            node.queue = null;
+            node.previous = null;
+            node.next = null;
+            size--;
+        }
+
+        private void moveToBack(final Node node) {
+            if (node != last) {
+                remove(node);
+                add(node);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.user.User;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * {@link UserRepository} keeping every user in a {@link ConcurrentHashMap} keyed by credit card number.
+ */
+public class ConcurrentMapUserRepository implements UserRepository {
+
+    private final ConcurrentHashMap<String, User> repository;
+
+    /**
+     * Constructs a new instance of {@code ConcurrentMapUserRepository}.
+     * Initializes the repository with a thread-safe {@link ConcurrentHashMap}.
+     */
+    public ConcurrentMapUserRepository() {
+        this.repository = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Optional<User> getUser(final String id) {
+        return Optional.ofNullable(repository.get(id));
+    }
+
+    @Override
+    public Collection<User> getUsers() {
+        return Collections.unmodifiableCollection(repository.values());
+    }
+
+    @Override
+    public boolean addUser(final User user) {
+        return repository.putIfAbsent(user.ccNumber(), user) == null;
+    }
+
+    @Override
+    public Optional<User> updateUser(final String ccNumber, final Function<User, User> userFunction) {
+        return Optional.ofNullable(repository.computeIfPresent(ccNumber, (key, user) -> userFunction.apply(user)));
+    }
+}
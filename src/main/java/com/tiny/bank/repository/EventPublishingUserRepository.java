@@ -0,0 +1,129 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.event.AccountCreated;
+import com.tiny.bank.domain.event.EventBus;
+import com.tiny.bank.domain.event.UserCreated;
+import com.tiny.bank.domain.event.UserDeactivated;
+import com.tiny.bank.domain.user.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * {@link UserRepository} publishing the lifecycle of users and accounts on an {@link EventBus}: created users, the
+ * accounts they gain, and deactivations.
+ *
+ * <p>
+ * Writes are serialized under a lock and their events published before the write returns, so events follow the order
+ * of the writes, and an account is announced before anyone outside the repository could change its balance. Reads go
+ * straight to the repository behind it.
+ * </p>
+ */
+public class EventPublishingUserRepository implements UserRepository, Closeable {
+
+    private final UserRepository delegate;
+    private final EventBus eventBus;
+    private final Object writeLock = new Object();
+
+    /**
+     * @param delegate the repository the writes go to.
+     * @param eventBus the bus to publish on.
+     */
+    public EventPublishingUserRepository(final UserRepository delegate, final EventBus eventBus) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate shouldn't be null");
+        this.eventBus = Objects.requireNonNull(eventBus, "eventBus shouldn't be null");
+    }
+
+    @Override
+    public Optional<User> getUser(final String id) {
+        return delegate.getUser(id);
+    }
+
+    @Override
+    public Collection<User> getUsers() {
+        return delegate.getUsers();
+    }
+
+    @Override
+    public Optional<Account> findAccount(final UUID accountId) {
+        return delegate.findAccount(accountId);
+    }
+
+    @Override
+    public boolean addUser(final User user) {
+        synchronized (writeLock) {
+            final boolean added = delegate.addUser(user);
+
+            if (added) {
+                final Instant time = Instant.now();
+
+                eventBus.publish(new UserCreated(user.ccNumber(), user.uuid(), user.name(), user.birthdate(), time));
+                publishAccounts(user, Set.of(), time);
+
+                if (user.isUserDeactivated()) {
+                    eventBus.publish(new UserDeactivated(user.ccNumber(), time));
+                }
+            }
+
+            return added;
+        }
+    }
+
+    @Override
+    public Optional<User> updateUser(final String ccNumber, final Function<User, User> userFunction) {
+        Objects.requireNonNull(userFunction, "userFunction shouldn't be null");
+
+        synchronized (writeLock) {
+            final User[] previous = new User[1];
+            final Optional<User> updated = delegate.updateUser(ccNumber, user -> {
+                previous[0] = user;
+                return userFunction.apply(user);
+            });
+
+            updated.ifPresent(user -> publishChanges(previous[0], user));
+            return updated;
+        }
+    }
+
+    /**
+     * Closes the repository behind it, if it can be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void publishChanges(final User previous, final User updated) {
+        final Instant time = Instant.now();
+        final Set<UUID> existing = new HashSet<>();
+
+        for (final Account account : previous.accounts()) {
+            existing.add(account.getAccountId());
+        }
+
+        publishAccounts(updated, existing, time);
+
+        if (!previous.isUserDeactivated() && updated.isUserDeactivated()) {
+            eventBus.publish(new UserDeactivated(updated.ccNumber(), time));
+        }
+    }
+
+    private void publishAccounts(final User user, final Set<UUID> existing, final Instant time) {
+        for (final Account account : user.accounts()) {
+            if (!existing.contains(account.getAccountId())) {
+                eventBus.publish(new AccountCreated(user.ccNumber(), account.getAccountId(), account.getBalance(), time));
+            }
+        }
+    }
+}
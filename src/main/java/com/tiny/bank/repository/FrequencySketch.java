@@ -0,0 +1,103 @@
+package com.tiny.bank.repository;
+
+/**
+ * Count-min sketch of 4-bit counters estimating how often keys were recently accessed, the TinyLFU admission filter
+ * of {@link CachedUserRepository}.
+ *
+ * <p>
+ * Each key increments one counter in each of four rows, and its frequency is the minimum of the four, which only
+ * overestimates on collisions. Every counter is halved once ten accesses per cached entry were recorded, so the
+ * frequencies follow the recent workload instead of growing forever. Not thread-safe, the cache calls it under its
+ * lock.
+ * </p>
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAXIMUM = 15;
+
+    /**
+     * Sixteen counters per long, a row being the same counter of four different longs.
+     */
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+
+    private int additions;
+
+    /**
+     * @param maximumSize the number of entries of the cache the sketch admits into.
+     */
+    FrequencySketch(final int maximumSize) {
+        final int length = Integer.highestOneBit(Math.max(2, Math.min(maximumSize, 1 << 30)) - 1) << 1;
+
+        this.table = new long[length];
+        this.mask = length - 1;
+        this.sampleSize = (int) Math.min(10L * maximumSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return the estimated number of recent accesses of the key, at most 15.
+     */
+    int frequency(final Object key) {
+        final int hash = spread(key.hashCode());
+        int frequency = MAXIMUM;
+
+        for (int row = 0; row < SEEDS.length; row++) {
+            frequency = Math.min(frequency, (int) ((table[index(hash, row)] >>> shift(hash, row)) & MAXIMUM));
+        }
+
+        return frequency;
+    }
+
+    /**
+     * Records an access of the key.
+     */
+    void increment(final Object key) {
+        final int hash = spread(key.hashCode());
+        boolean incremented = false;
+
+        for (int row = 0; row < SEEDS.length; row++) {
+            final int index = index(hash, row);
+            final int shift = shift(hash, row);
+
+            if (((table[index] >>> shift) & MAXIMUM) < MAXIMUM) {
+                table[index] += 1L << shift;
+                incremented = true;
+            }
+        }
+
+        if (incremented && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+
+        additions /= 2;
+    }
+
+    private int index(final int hash, final int row) {
+        long index = (hash + SEEDS[row]) * SEEDS[row];
+        index += index >>> 32;
+
+        return (int) index & mask;
+    }
+
+    /**
+     * The counter of a row within its long, a different 4-bit group of the hash for each row.
+     */
+    private static int shift(final int hash, final int row) {
+        return ((hash >>> (row << 3)) & MAXIMUM) << 2;
+    }
+
+    private static int spread(final int hashCode) {
+        int hash = hashCode * 0x9E3779B9;
+
+        return hash ^ (hash >>> 16);
+    }
+}
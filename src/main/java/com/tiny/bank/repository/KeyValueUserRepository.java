@@ -0,0 +1,410 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.account.BalanceObserver;
+import com.tiny.bank.domain.user.State;
+import com.tiny.bank.domain.user.User;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * {@link UserRepository} backed by an embedded {@link MVStore}, a log-structured B-tree store running in-process, so
+ * users are not bound by the heap and survive restarts.
+ *
+ * <p>
+ * Users, the owner of every account and account balances are kept in three maps. A user is decoded on every lookup,
+ * and meant to sit behind a {@link CachedUserRepository} that keeps the hot ones in memory. Its accounts however are
+ * shared: an account is decoded once and handed out again for as long as anything still references it, so there is
+ * never more than one live instance of an account. Balance changes are written through to the store under the account
+ * write lock.
+ * </p>
+ *
+ * <p>
+ * Transaction histories are not stored, they stay with the live accounts and the
+ * {@link com.tiny.bank.domain.transaction.TransactionArchive}. An account with hot records is therefore held strongly
+ * by the repository from its first operation on, and only left to the garbage collector once a lookup finds its hot
+ * history empty, in practice once the records were archived. Accounts without history are decoded again when needed.
+ * </p>
+ *
+ * <p>
+ * The store commits in the background about every second, and on {@link #close()}; the writes of the last second are
+ * lost if the process dies, and so are the hot histories.
+ * </p>
+ */
+public class KeyValueUserRepository implements UserRepository, Closeable {
+
+    private final MVStore store;
+    private final MVMap<String, byte[]> users;
+    private final MVMap<UUID, String> owners;
+    private final MVMap<UUID, BigDecimal> balances;
+    private final AccountFactory accountFactory;
+    private final Object writeLock = new Object();
+
+    /**
+     * The live accounts, by id.
+     */
+    private final ConcurrentHashMap<UUID, AccountReference> accounts = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Account> collected = new ReferenceQueue<>();
+
+    /**
+     * Opens the repository.
+     *
+     * @param file the store file, created if it does not exist.
+     * @throws UncheckedIOException if the directory of the file cannot be created.
+     */
+    public KeyValueUserRepository(final Path file) {
+        this(file, AccountFactory.DEFAULT);
+    }
+
+    /**
+     * Opens the repository.
+     *
+     * @param file           the store file, created if it does not exist.
+     * @param accountFactory creates the accounts decoded from the store.
+     * @throws UncheckedIOException if the directory of the file cannot be created.
+     */
+    public KeyValueUserRepository(final Path file, final AccountFactory accountFactory) {
+        Objects.requireNonNull(file, "file shouldn't be null");
+        Objects.requireNonNull(accountFactory, "accountFactory shouldn't be null");
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Unable to create the directory of %s", file), e);
+        }
+
+        this.store = new MVStore.Builder().fileName(file.toString()).open();
+        this.users = store.openMap("users");
+        this.owners = store.openMap("owners");
+        this.balances = store.openMap("balances");
+        this.accountFactory = accountFactory;
+    }
+
+    @Override
+    public Optional<User> getUser(final String id) {
+        Objects.requireNonNull(id, "id shouldn't be null");
+
+        return Optional.ofNullable(users.get(id)).map(encoded -> decode(id, encoded));
+    }
+
+    @Override
+    public Collection<User> getUsers() {
+        return new Users();
+    }
+
+    @Override
+    public Optional<Account> findAccount(final UUID accountId) {
+        return Optional.ofNullable(owners.get(accountId))
+                .flatMap(this::getUser)
+                .flatMap(user -> user.accounts().stream()
+                        .filter(account -> account.getAccountId().equals(accountId))
+                        .findFirst());
+    }
+
+    @Override
+    public boolean addUser(final User user) {
+        synchronized (writeLock) {
+            if (users.containsKey(user.ccNumber())) {
+                return false;
+            }
+
+            store(user);
+            return true;
+        }
+    }
+
+    @Override
+    public Optional<User> updateUser(final String ccNumber, final Function<User, User> userFunction) {
+        Objects.requireNonNull(ccNumber, "ccNumber shouldn't be null");
+
+        synchronized (writeLock) {
+            final Optional<User> current = getUser(ccNumber);
+
+            if (current.isEmpty()) {
+                return Optional.empty();
+            }
+
+            final User updated = userFunction.apply(current.get());
+
+            if (updated == null) {
+                throw new IllegalStateException("Removing users is not supported");
+            }
+
+            store(updated);
+            return Optional.of(updated);
+        }
+    }
+
+    /**
+     * Commits the pending writes and closes the store.
+     */
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    /**
+     * Writes the user and its new accounts, the caller must hold the write lock. Accounts are written first, so a
+     * concurrent lookup never finds a user without the balances of its accounts.
+     */
+    private void store(final User user) {
+        for (final Account account : user.accounts()) {
+            if (!owners.containsKey(account.getAccountId())) {
+                owners.put(account.getAccountId(), user.ccNumber());
+                share(account);
+            }
+        }
+
+        users.put(user.ccNumber(), encode(user));
+    }
+
+    /**
+     * Makes an account the live instance of its id and writes its balance changes through, starting with the current
+     * balance.
+     */
+    private void share(final Account account) {
+        final AccountReference reference = new AccountReference(account, collected);
+
+        accounts.put(account.getAccountId(), reference);
+        account.observeBalance(new BalanceWriter(account.getAccountId(), false, reference));
+
+        if (account.hasHistory()) {
+            reference.retain(account);
+        }
+    }
+
+    /**
+     * @return the live instance of the account, decoded from the store if there is none.
+     */
+    private Account account(final UUID accountId) {
+        expungeCollected();
+
+        final AccountReference reference = accounts.compute(accountId, (key, current) -> {
+            if (current != null && current.get() != null) {
+                return current;
+            }
+
+            final Account account = accountFactory.createAccount(key, Set.of(), balances.getOrDefault(key, BigDecimal.ZERO));
+            final AccountReference decoded = new AccountReference(account, collected);
+
+            account.observeBalance(new BalanceWriter(key, true, decoded));
+            return decoded;
+        });
+
+        final Account account = reference.get();
+
+        //Cleared between the compute and now, nothing references the instance any more
+        if (account == null) {
+            return account(accountId);
+        }
+
+        reference.releaseIfArchived(account);
+        return account;
+    }
+
+    private void expungeCollected() {
+        AccountReference reference;
+
+        while ((reference = (AccountReference) collected.poll()) != null) {
+            accounts.remove(reference.accountId, reference);
+        }
+    }
+
+    private static byte[] encode(final User user) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeLong(user.uuid().getMostSignificantBits());
+            output.writeLong(user.uuid().getLeastSignificantBits());
+            output.writeUTF(user.name());
+            output.writeLong(user.birthdate().toEpochDay());
+            output.writeBoolean(user.isUserDeactivated());
+            output.writeInt(user.accounts().size());
+
+            for (final Account account : user.accounts()) {
+                output.writeLong(account.getAccountId().getMostSignificantBits());
+                output.writeLong(account.getAccountId().getLeastSignificantBits());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private User decode(final String ccNumber, final byte[] encoded) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            final UUID uuid = new UUID(input.readLong(), input.readLong());
+            final String name = input.readUTF();
+            final LocalDate birthdate = LocalDate.ofEpochDay(input.readLong());
+            final State state = input.readBoolean() ? State.INACTIVE : State.ACTIVE;
+            final int accountCount = input.readInt();
+            final Set<Account> userAccounts = new HashSet<>(accountCount);
+
+            for (int i = 0; i < accountCount; i++) {
+                userAccounts.add(account(new UUID(input.readLong(), input.readLong())));
+            }
+
+            return new User(uuid, name, ccNumber, birthdate, userAccounts, state);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the balance changes of an account through to the store, and retains the account once an operation
+     * recorded something in its history.
+     */
+    private final class BalanceWriter implements BalanceObserver {
+
+        private final UUID accountId;
+        private final AccountReference reference;
+
+        /**
+         * Whether the balance the writer is first told about was just read from the store, guarded by the account
+         * write lock.
+         */
+        private boolean stored;
+
+        /**
+         * Whether the writer was not told about any balance yet, guarded by the account write lock.
+         */
+        private boolean initial = true;
+
+        private BalanceWriter(final UUID accountId, final boolean stored, final AccountReference reference) {
+            this.accountId = accountId;
+            this.stored = stored;
+            this.reference = reference;
+        }
+
+        @Override
+        public void balanceChanged(final Account account, final BigDecimal balance) {
+            if (!stored) {
+                balances.put(accountId, balance);
+            }
+
+            //Every balance change after the first comes with a record, which only lives on heap
+            if (!initial) {
+                reference.retain(account);
+            }
+
+            stored = false;
+            initial = false;
+        }
+    }
+
+    private static final class AccountReference extends WeakReference<Account> {
+
+        private final UUID accountId;
+
+        /**
+         * The account itself while it may have hot records, so it is not collected with them.
+         */
+        private volatile Account retained;
+
+        private AccountReference(final Account account, final ReferenceQueue<Account> queue) {
+            super(account, queue);
+            this.accountId = account.getAccountId();
+        }
+
+        private void retain(final Account account) {
+            if (retained == null) {
+                retained = account;
+            }
+        }
+
+        /**
+         * Lets the account be collected if its hot history is empty. Cleared before checking, so an operation either
+         * completed before the check and is seen by it, or retains the account again itself.
+         */
+        private void releaseIfArchived(final Account account) {
+            if (retained == null) {
+                return;
+            }
+
+            retained = null;
+
+            if (account.hasHistory()) {
+                retained = account;
+            }
+        }
+    }
+
+    /**
+     * Live, weakly consistent view of the users, decoded as they are iterated.
+     */
+    private final class Users extends AbstractCollection<User> {
+
+        @Override
+        public Iterator<User> iterator() {
+            final Iterator<String> keys = users.keyIterator(null);
+
+            return new Iterator<>() {
+
+                private User next = advance();
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public User next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+
+                    final User user = next;
+
+                    next = advance();
+                    return user;
+                }
+
+                private User advance() {
+                    while (keys.hasNext()) {
+                        final Optional<User> user = getUser(keys.next());
+
+                        if (user.isPresent()) {
+                            return user.get();
+                        }
+                    }
+
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return Math.toIntExact(users.sizeAsLong());
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.user.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * File of fixed-size slots, one per account, holding the account balance and the user it belongs to, mapped in
+ * memory so that balances are updated in place.
+ *
+ * <p>
+ * A slot holds two balance cells and a version whose parity selects the current cell. A balance is written into the
+ * other cell, then the version is incremented with a release write: a process that dies in the middle of a write
+ * leaves the previous balance current, never a torn one. The slot count in the header is likewise only incremented
+ * once a new slot is fully written.
+ * </p>
+ *
+ * <p>
+ * The file grows by chunks mapped once and never remapped, so writers keep their buffers while the table grows.
+ * Writes reach the page cache immediately and survive the process; {@link #force()} makes them survive the machine.
+ * </p>
+ *
+ * <p>
+ * Slot layout, little-endian:
+ * </p>
+ * <pre>
+ *   0  long  version            40  long  account id, high bits    76  int   flags
+ *   8  long  cell 0, unscaled   48  long  account id, low bits     80  byte  credit card number length
+ *  16  int   cell 0, scale      56  long  user id, high bits       81  byte  name length
+ *  24  long  cell 1, unscaled   64  long  user id, low bits        82  credit card number, UTF-8
+ *  32  int   cell 1, scale      72  int   birthdate, epoch day    128  name, UTF-8
+ * </pre>
+ */
+public final class MappedBalanceTable implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappedBalanceTable.class);
+
+    static final int SLOT_SIZE = 256;
+    static final int MAX_CC_NUMBER_BYTES = 46;
+    static final int MAX_NAME_BYTES = 128;
+
+    private static final long MAGIC = 0x314C424B4E414254L;
+    private static final int FORMAT_VERSION = 1;
+    private static final int CHUNK_SLOTS = 1 << 15;
+    private static final long CHUNK_SIZE = (long) CHUNK_SLOTS * SLOT_SIZE;
+
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_FORMAT = 8;
+    private static final int HEADER_SLOT_SIZE = 12;
+    private static final int HEADER_SLOTS = 16;
+
+    private static final int VERSION = 0;
+    private static final int CELLS = 8;
+    private static final int CELL_SIZE = 16;
+    private static final int ACCOUNT_ID = 40;
+    private static final int USER_ID = 56;
+    private static final int BIRTHDATE = 72;
+    private static final int FLAGS = 76;
+    private static final int CC_NUMBER_LENGTH = 80;
+    private static final int NAME_LENGTH = 81;
+    private static final int CC_NUMBER = 82;
+    private static final int NAME = 128;
+
+    private static final int HAS_ACCOUNT = 1;
+    private static final int INACTIVE = 1 << 1;
+
+    /**
+     * Scale of a balance whose unscaled value does not fit in a long, the slot is then unreadable.
+     */
+    private static final int OVERFLOW = Integer.MIN_VALUE;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * A slot as read from, or written to, the table.
+     *
+     * @param accountId the account of the slot, {@code null} for a user without accounts.
+     */
+    public record Row(UUID userId,
+                      String name,
+                      String ccNumber,
+                      LocalDate birthdate,
+                      State state,
+                      UUID accountId,
+                      BigDecimal balance) {
+
+        public Row {
+            Objects.requireNonNull(userId, "userId shouldn't be null");
+            Objects.requireNonNull(name, "name shouldn't be null");
+            Objects.requireNonNull(ccNumber, "ccNumber shouldn't be null");
+            Objects.requireNonNull(birthdate, "birthdate shouldn't be null");
+            Objects.requireNonNull(state, "state shouldn't be null");
+            Objects.requireNonNull(balance, "balance shouldn't be null");
+        }
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+
+    /**
+     * Mapped chunks, replaced by a longer copy when the table grows.
+     */
+    private volatile MappedByteBuffer[] chunks;
+
+    /**
+     * Only written under the table lock.
+     */
+    private int slots;
+
+    /**
+     * Opens the table, creating the file if it does not exist.
+     *
+     * @param file the table file.
+     * @throws UncheckedIOException  if the file cannot be opened or mapped.
+     * @throws IllegalStateException if the file is not a balance table.
+     */
+    public MappedBalanceTable(final Path file) {
+        Objects.requireNonNull(file, "file shouldn't be null");
+
+        this.file = file;
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            final boolean created = channel.size() == 0;
+
+            this.header = map(0, SLOT_SIZE);
+
+            if (created) {
+                header.putLong(HEADER_MAGIC, MAGIC);
+                header.putInt(HEADER_FORMAT, FORMAT_VERSION);
+                header.putInt(HEADER_SLOT_SIZE, SLOT_SIZE);
+            } else if (header.getLong(HEADER_MAGIC) != MAGIC
+                    || header.getInt(HEADER_FORMAT) != FORMAT_VERSION
+                    || header.getInt(HEADER_SLOT_SIZE) != SLOT_SIZE) {
+                channel.close();
+                throw new IllegalStateException(String.format("%s is not a balance table", file));
+            }
+
+            this.slots = Math.toIntExact((long) LONGS.getAcquire(header, HEADER_SLOTS));
+
+            final MappedByteBuffer[] mapped = new MappedByteBuffer[(slots + CHUNK_SLOTS - 1) / CHUNK_SLOTS];
+
+            for (int i = 0; i < mapped.length; i++) {
+                mapped[i] = mapChunk(i);
+            }
+
+            this.chunks = mapped;
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Unable to open balance table %s", file), e);
+        }
+    }
+
+    /**
+     * @return the number of slots in the table.
+     */
+    public synchronized int size() {
+        return slots;
+    }
+
+    /**
+     * Fails unless a user fits in a slot.
+     *
+     * @throws IllegalArgumentException if the credit card number or the name is too long.
+     */
+    public static void checkFits(final String ccNumber, final String name) {
+        if (ccNumber.getBytes(StandardCharsets.UTF_8).length > MAX_CC_NUMBER_BYTES) {
+            throw new IllegalArgumentException(String.format("ccNumber is longer than %d bytes", MAX_CC_NUMBER_BYTES));
+        }
+
+        if (name.getBytes(StandardCharsets.UTF_8).length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException(String.format("name is longer than %d bytes", MAX_NAME_BYTES));
+        }
+    }
+
+    /**
+     * Writes a row into a new slot.
+     *
+     * @return the slot of the row.
+     * @throws IllegalArgumentException if the row does not fit in a slot.
+     */
+    public synchronized int append(final Row row) {
+        checkFits(row.ccNumber(), row.name());
+
+        final int slot = slots;
+
+        if (slot % CHUNK_SLOTS == 0 && slot / CHUNK_SLOTS == chunks.length) {
+            grow();
+        }
+
+        final ByteBuffer chunk = chunk(slot);
+        final int base = base(slot);
+        final byte[] ccNumber = row.ccNumber().getBytes(StandardCharsets.UTF_8);
+        final byte[] name = row.name().getBytes(StandardCharsets.UTF_8);
+
+        chunk.putLong(base + USER_ID, row.userId().getMostSignificantBits());
+        chunk.putLong(base + USER_ID + 8, row.userId().getLeastSignificantBits());
+        chunk.putInt(base + BIRTHDATE, Math.toIntExact(row.birthdate().toEpochDay()));
+        chunk.put(base + CC_NUMBER_LENGTH, (byte) ccNumber.length);
+        chunk.put(base + NAME_LENGTH, (byte) name.length);
+        chunk.put(base + CC_NUMBER, ccNumber);
+        chunk.put(base + NAME, name);
+
+        if (row.accountId() != null) {
+            chunk.putLong(base + ACCOUNT_ID, row.accountId().getMostSignificantBits());
+            chunk.putLong(base + ACCOUNT_ID + 8, row.accountId().getLeastSignificantBits());
+        }
+
+        writeCell(chunk, base, 0, row.balance());
+        chunk.putInt(base + FLAGS, flags(row.accountId() != null, row.state()));
+
+        slots = slot + 1;
+        LONGS.setRelease(header, HEADER_SLOTS, (long) slots);
+
+        return slot;
+    }
+
+    /**
+     * Reads a slot.
+     */
+    public Row read(final int slot) {
+        checkSlot(slot);
+
+        final ByteBuffer chunk = chunk(slot);
+        final int base = base(slot);
+        final int flags = (int) INTS.getAcquire(chunk, base + FLAGS);
+
+        return new Row(new UUID(chunk.getLong(base + USER_ID), chunk.getLong(base + USER_ID + 8)),
+                string(chunk, base + NAME, chunk.get(base + NAME_LENGTH)),
+                string(chunk, base + CC_NUMBER, chunk.get(base + CC_NUMBER_LENGTH)),
+                LocalDate.ofEpochDay(chunk.getInt(base + BIRTHDATE)),
+                (flags & INACTIVE) != 0 ? State.INACTIVE : State.ACTIVE,
+                (flags & HAS_ACCOUNT) != 0 ? new UUID(chunk.getLong(base + ACCOUNT_ID), chunk.getLong(base + ACCOUNT_ID + 8)) : null,
+                balance(chunk, base, slot));
+    }
+
+    /**
+     * Gives an account to the slot of a user without accounts.
+     *
+     * @throws IllegalStateException if the slot already has an account.
+     */
+    public synchronized void assignAccount(final int slot, final UUID accountId, final BigDecimal balance) {
+        checkSlot(slot);
+
+        final ByteBuffer chunk = chunk(slot);
+        final int base = base(slot);
+        final int flags = chunk.getInt(base + FLAGS);
+
+        if ((flags & HAS_ACCOUNT) != 0) {
+            throw new IllegalStateException(String.format("Slot %d already has an account", slot));
+        }
+
+        chunk.putLong(base + ACCOUNT_ID, accountId.getMostSignificantBits());
+        chunk.putLong(base + ACCOUNT_ID + 8, accountId.getLeastSignificantBits());
+        writeBalance(slot, balance);
+
+        INTS.setRelease(chunk, base + FLAGS, flags | HAS_ACCOUNT);
+    }
+
+    /**
+     * Sets the state of the user of a slot.
+     */
+    public synchronized void writeState(final int slot, final State state) {
+        checkSlot(slot);
+
+        final ByteBuffer chunk = chunk(slot);
+        final int base = base(slot);
+        final int flags = chunk.getInt(base + FLAGS);
+
+        INTS.setRelease(chunk, base + FLAGS, flags(((flags & HAS_ACCOUNT) != 0), state));
+    }
+
+    /**
+     * Writes the balance of a slot in place, the writes of a slot must not be concurrent. An unchanged balance is not
+     * written again, so that the pages of unchanged slots are never dirtied.
+     */
+    public void writeBalance(final int slot, final BigDecimal balance) {
+        final ByteBuffer chunk = chunk(slot);
+        final int base = base(slot);
+        final long version = chunk.getLong(base + VERSION);
+        final int current = base + CELLS + (int) (version & 1) * CELL_SIZE;
+
+        if (chunk.getInt(current + 8) == balance.scale()
+                && balance.unscaledValue().bitLength() < Long.SIZE
+                && chunk.getLong(current) == balance.unscaledValue().longValue()) {
+            return;
+        }
+
+        writeCell(chunk, base, (int) ((version + 1) & 1), balance);
+        LONGS.setRelease(chunk, base + VERSION, version + 1);
+    }
+
+    /**
+     * Flushes the table to the storage device.
+     */
+    public void force() {
+        header.force();
+
+        for (final MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private void writeCell(final ByteBuffer chunk, final int base, final int cell, final BigDecimal balance) {
+        final int offset = base + CELLS + cell * CELL_SIZE;
+        final BigInteger unscaled = balance.unscaledValue();
+
+        if (unscaled.bitLength() < Long.SIZE) {
+            chunk.putLong(offset, unscaled.longValue());
+            chunk.putInt(offset + 8, balance.scale());
+        } else {
+            //Never thrown under the account lock, the slot is reported when the table is opened instead
+            LOGGER.error("operation=writeBalance, message=Balance does not fit in a slot, file={}, balance={}", file, balance);
+            chunk.putInt(offset + 8, OVERFLOW);
+        }
+    }
+
+    private static BigDecimal balance(final ByteBuffer chunk, final int base, final int slot) {
+        final long version = (long) LONGS.getAcquire(chunk, base + VERSION);
+        final int cell = base + CELLS + (int) (version & 1) * CELL_SIZE;
+        final int scale = chunk.getInt(cell + 8);
+
+        if (scale == OVERFLOW) {
+            throw new IllegalStateException(String.format("Balance of slot %d did not fit in the table", slot));
+        }
+
+        return BigDecimal.valueOf(chunk.getLong(cell), scale);
+    }
+
+    private static int flags(final boolean hasAccount, final State state) {
+        return (hasAccount ? HAS_ACCOUNT : 0) | (state == State.INACTIVE ? INACTIVE : 0);
+    }
+
+    private static String string(final ByteBuffer chunk, final int offset, final byte length) {
+        final byte[] bytes = new byte[Byte.toUnsignedInt(length)];
+
+        chunk.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void checkSlot(final int slot) {
+        if (slot < 0 || slot >= (long) LONGS.getAcquire(header, HEADER_SLOTS)) {
+            throw new IndexOutOfBoundsException(String.format("Slot %d is not in the table", slot));
+        }
+    }
+
+    private ByteBuffer chunk(final int slot) {
+        return chunks[slot / CHUNK_SLOTS];
+    }
+
+    private static int base(final int slot) {
+        return (slot % CHUNK_SLOTS) * SLOT_SIZE;
+    }
+
+    private void grow() {
+        final MappedByteBuffer[] current = chunks;
+        final MappedByteBuffer[] grown = Arrays.copyOf(current, current.length + 1);
+
+        try {
+            grown[current.length] = mapChunk(current.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Unable to grow balance table %s", file), e);
+        }
+
+        chunks = grown;
+    }
+
+    private MappedByteBuffer mapChunk(final int chunk) throws IOException {
+        return map(SLOT_SIZE + chunk * CHUNK_SIZE, CHUNK_SIZE);
+    }
+
+    private MappedByteBuffer map(final long position, final long size) throws IOException {
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+}
@@ -0,0 +1,198 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.user.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * {@link ConcurrentMapUserRepository} whose users, accounts and balances are kept in a {@link MappedBalanceTable}, so
+ * they are back as soon as the process restarts.
+ *
+ * <p>
+ * Every account has a slot of the table, and a user without accounts a slot of its own that is given to its first
+ * account. Balance changes are written to the slot of the account in place, under the account write lock; user and
+ * account creations and user state changes are written under the repository write lock.
+ * </p>
+ *
+ * <p>
+ * Opening the repository rebuilds the users from the table, which is read through the page cache: there is no ledger
+ * to parse nor history to replay. Transaction histories and authorization holds are not in the table, histories are
+ * kept by the {@link com.tiny.bank.domain.transaction.TransactionArchive} and holds do not outlive the process.
+ * </p>
+ */
+public class MappedUserRepository extends ConcurrentMapUserRepository implements Closeable {
+
+    private static final int[] NO_SLOTS = new int[0];
+
+    private final MappedBalanceTable table;
+    private final AccountFactory accountFactory;
+    private final Object writeLock = new Object();
+
+    /**
+     * Slots of every user by credit card number, guarded by the write lock.
+     */
+    private final Map<String, int[]> userSlots = new HashMap<>();
+
+    /**
+     * Opens the repository, restoring every user of the table.
+     *
+     * @param file the table file, created if it does not exist.
+     */
+    public MappedUserRepository(final Path file) {
+        this(file, AccountFactory.DEFAULT);
+    }
+
+    /**
+     * Opens the repository, restoring every user of the table.
+     *
+     * @param file           the table file, created if it does not exist.
+     * @param accountFactory creates the restored accounts.
+     */
+    public MappedUserRepository(final Path file, final AccountFactory accountFactory) {
+        this.accountFactory = Objects.requireNonNull(accountFactory, "accountFactory shouldn't be null");
+        this.table = new MappedBalanceTable(file);
+
+        restore();
+    }
+
+    @Override
+    public boolean addUser(final User user) {
+        MappedBalanceTable.checkFits(user.ccNumber(), user.name());
+
+        synchronized (writeLock) {
+            if (!super.addUser(user)) {
+                return false;
+            }
+
+            userSlots.put(user.ccNumber(), NO_SLOTS);
+            store(user);
+            return true;
+        }
+    }
+
+    @Override
+    public Optional<User> updateUser(final String ccNumber, final Function<User, User> userFunction) {
+        Objects.requireNonNull(ccNumber, "ccNumber shouldn't be null");
+
+        synchronized (writeLock) {
+            final Optional<User> updated = super.updateUser(ccNumber, userFunction);
+
+            updated.ifPresent(this::store);
+            return updated;
+        }
+    }
+
+    /**
+     * Flushes the table to the storage device and closes it.
+     */
+    @Override
+    public void close() throws IOException {
+        table.close();
+    }
+
+    /**
+     * Gives a slot to every new account of the user and writes its state, the caller must hold the write lock.
+     */
+    private void store(final User user) {
+        int[] slots = userSlots.get(user.ccNumber());
+        final Set<UUID> stored = new HashSet<>();
+        int emptySlot = -1;
+
+        for (final int slot : slots) {
+            final MappedBalanceTable.Row row = table.read(slot);
+
+            if (row.accountId() == null) {
+                emptySlot = slot;
+            } else {
+                stored.add(row.accountId());
+            }
+
+            if (row.state() != user.state()) {
+                table.writeState(slot, user.state());
+            }
+        }
+
+        for (final Account account : user.accounts()) {
+            if (stored.contains(account.getAccountId())) {
+                continue;
+            }
+
+            final int slot;
+
+            if (emptySlot >= 0) {
+                slot = emptySlot;
+                emptySlot = -1;
+                table.assignAccount(slot, account.getAccountId(), account.getBalance());
+            } else {
+                slot = table.append(row(user, account));
+                slots = append(slots, slot);
+            }
+
+            account.observeBalance((observed, balance) -> table.writeBalance(slot, balance));
+        }
+
+        if (slots.length == 0) {
+            slots = append(slots, table.append(row(user, null)));
+        }
+
+        userSlots.put(user.ccNumber(), slots);
+    }
+
+    private void restore() {
+        final int size = table.size();
+
+        for (int slot = 0; slot < size; slot++) {
+            final MappedBalanceTable.Row row = table.read(slot);
+            final int[] slots = userSlots.get(row.ccNumber());
+            User user;
+
+            if (slots == null) {
+                user = new User(row.userId(), row.name(), row.ccNumber(), row.birthdate(), new HashSet<>(1), row.state());
+                super.addUser(user);
+                userSlots.put(row.ccNumber(), new int[]{slot});
+            } else {
+                user = super.getUser(row.ccNumber()).orElseThrow();
+                userSlots.put(row.ccNumber(), append(slots, slot));
+            }
+
+            if (row.accountId() != null) {
+                final Account account = accountFactory.createAccount(row.accountId(), Set.of(), row.balance());
+                final int accountSlot = slot;
+
+                user.accounts().add(account);
+                account.observeBalance((observed, balance) -> table.writeBalance(accountSlot, balance));
+            }
+        }
+    }
+
+    private static MappedBalanceTable.Row row(final User user, final Account account) {
+        return new MappedBalanceTable.Row(user.uuid(),
+                user.name(),
+                user.ccNumber(),
+                user.birthdate(),
+                user.state(),
+                account == null ? null : account.getAccountId(),
+                account == null ? BigDecimal.ZERO : account.getBalance());
+    }
+
+    private static int[] append(final int[] slots, final int slot) {
+        final int[] appended = Arrays.copyOf(slots, slots.length + 1);
+
+        appended[slots.length] = slot;
+        return appended;
+    }
+}
@@ -0,0 +1,291 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.user.User;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * {@link UserRepository} backed by an open-addressing table instead of a {@link java.util.concurrent.ConcurrentHashMap}.
+ *
+ * <p>
+ * A slot is a pre-computed 32-bit hash of the credit card number in an {@code int[]} and the {@link User} in a
+ * parallel array, the key itself being the {@link User#ccNumber()}. There are no entry objects: a user costs two
+ * array slots instead of a map node, and a lookup probes consecutive hashes, only comparing keys when hashes match.
+ * </p>
+ *
+ * <p>
+ * Reads are lock-free and probe with plain loads. Writes, which are far less frequent than lookups, are serialized by
+ * a lock and end with a volatile write of the table reference, so a reader, which starts with a volatile read of that
+ * reference, sees every write completed before its read. A write still in progress may be half visible, a hash
+ * without its user is then read as a miss. The table is copied into one twice its size once three quarters full, and
+ * a reader that raced with a resize reads again from the new table.
+ * </p>
+ */
+public class OpenAddressingUserRepository implements UserRepository {
+
+    private static final int EMPTY = 0;
+    private static final int MIN_CAPACITY = 16;
+
+    private final Object writeLock = new Object();
+
+    private volatile Table table;
+
+    public OpenAddressingUserRepository() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedUsers the number of users the table is sized for up front.
+     */
+    public OpenAddressingUserRepository(final int expectedUsers) {
+        if (expectedUsers < 0) {
+            throw new IllegalArgumentException("expectedUsers shouldn't be negative");
+        }
+
+        this.table = new Table(capacityFor(expectedUsers));
+    }
+
+    @Override
+    public Optional<User> getUser(final String id) {
+        Objects.requireNonNull(id, "id shouldn't be null");
+
+        final int hash = hash(id);
+
+        while (true) {
+            final Table current = table;
+            final User user = current.get(id, hash);
+
+            if (current == table) {
+                return Optional.ofNullable(user);
+            }
+        }
+    }
+
+    @Override
+    public Collection<User> getUsers() {
+        return new Users();
+    }
+
+    @Override
+    public boolean addUser(final User user) {
+        final String ccNumber = user.ccNumber();
+        final int hash = hash(ccNumber);
+
+        synchronized (writeLock) {
+            Table current = table;
+
+            if (current.find(ccNumber, hash) >= 0) {
+                return false;
+            }
+
+            if (current.size + 1 > current.threshold()) {
+                current = current.resize();
+            }
+
+            current.insert(hash, user);
+            table = current;
+            return true;
+        }
+    }
+
+    @Override
+    public Optional<User> updateUser(final String ccNumber, final Function<User, User> userFunction) {
+        Objects.requireNonNull(ccNumber, "ccNumber shouldn't be null");
+
+        final int hash = hash(ccNumber);
+
+        synchronized (writeLock) {
+            final Table current = table;
+            final int slot = current.find(ccNumber, hash);
+
+            if (slot < 0) {
+                return Optional.empty();
+            }
+
+            final User updated = userFunction.apply(current.users[slot]);
+
+            if (updated == null) {
+                throw new IllegalStateException("Removing users is not supported");
+            }
+
+            current.users[slot] = updated;
+            table = current;
+            return Optional.of(updated);
+        }
+    }
+
+    /**
+     * Spreads the cached {@link String#hashCode()} over every bit with the murmur3 finalizer, numeric credit card
+     * numbers have close hash codes that would otherwise fill runs of consecutive slots. {@link #EMPTY} marks a free
+     * slot so it is never a hash.
+     */
+    private static int hash(final String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+
+        return hash == EMPTY ? 1 : hash;
+    }
+
+    private static int capacityFor(final int expectedUsers) {
+        final long slots = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedUsers / 0.75));
+
+        if (slots > 1 << 30) {
+            throw new IllegalArgumentException("Too many users for a single table: " + expectedUsers);
+        }
+
+        return Integer.highestOneBit((int) slots - 1) << 1;
+    }
+
+    private static final class Table {
+
+        private final int[] hashes;
+        private final User[] users;
+        private final int mask;
+
+        /**
+         * Only read and written under the write lock.
+         */
+        private int size;
+
+        private Table(final int capacity) {
+            this.hashes = new int[capacity];
+            this.users = new User[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private int threshold() {
+            return hashes.length - (hashes.length >>> 2);
+        }
+
+        /**
+         * Looks a key up outside of the write lock.
+         *
+         * @return the user, or {@code null}.
+         */
+        private User get(final String key, final int hash) {
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                final int candidate = hashes[slot];
+
+                if (candidate == EMPTY) {
+                    return null;
+                }
+
+                if (candidate == hash) {
+                    final User user = users[slot];
+
+                    if (user != null && user.ccNumber().equals(key)) {
+                        return user;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Looks a key up under the write lock.
+         *
+         * @return the slot of the key, or {@code -1}.
+         */
+        private int find(final String key, final int hash) {
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                if (hashes[slot] == EMPTY) {
+                    return -1;
+                }
+
+                if (hashes[slot] == hash && users[slot].ccNumber().equals(key)) {
+                    return slot;
+                }
+            }
+        }
+
+        private void insert(final int hash, final User user) {
+            int slot = hash & mask;
+
+            while (hashes[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+
+            users[slot] = user;
+            hashes[slot] = hash;
+            size++;
+        }
+
+        private Table resize() {
+            if (hashes.length == 1 << 30) {
+                throw new IllegalStateException("The user table is full");
+            }
+
+            final Table resized = new Table(hashes.length << 1);
+
+            for (int slot = 0; slot < hashes.length; slot++) {
+                if (hashes[slot] != EMPTY) {
+                    resized.insert(hashes[slot], users[slot]);
+                }
+            }
+
+            return resized;
+        }
+    }
+
+    /**
+     * Live, weakly consistent view of the users: every iteration reads the current table, and may or may not reflect
+     * users added or updated while it runs.
+     */
+    private final class Users extends AbstractCollection<User> {
+
+        @Override
+        public Iterator<User> iterator() {
+            final Table current = table;
+
+            return new Iterator<>() {
+
+                private int slot = advance(0);
+
+                @Override
+                public boolean hasNext() {
+                    return slot < current.users.length;
+                }
+
+                @Override
+                public User next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    final User user = current.users[slot];
+
+                    slot = advance(slot + 1);
+                    return user;
+                }
+
+                private int advance(int from) {
+                    while (from < current.users.length && current.users[from] == null) {
+                        from++;
+                    }
+
+                    return from;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+
+            for (final User ignored : this) {
+                size++;
+            }
+
+            return size;
+        }
+    }
+}
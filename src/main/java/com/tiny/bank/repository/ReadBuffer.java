@@ -0,0 +1,102 @@
+package com.tiny.bank.repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Lossy buffer of the cache hits of {@link CachedUserRepository}, so that a hit records its access without taking the
+ * lock of the eviction policy, which replays the buffered accesses in batches.
+ *
+ * <p>
+ * Threads are spread over striped ring buffers of 16 elements by thread id, so they rarely contend on the same
+ * counter. Offering to a full stripe fails, and the caller then drains the buffer if the policy is not busy; an
+ * element losing a race for its slot is dropped, which only costs the eviction policy some precision. Any number of
+ * threads can offer, a single thread at a time drains.
+ * </p>
+ */
+final class ReadBuffer<E> {
+
+    private static final int STRIPE_SIZE = 16;
+    private static final int STRIPE_MASK = STRIPE_SIZE - 1;
+
+    private final Stripe<E>[] stripes;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    ReadBuffer() {
+        final int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+
+        this.stripes = new Stripe[Math.min(count, 64)];
+        this.mask = stripes.length - 1;
+
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe<>();
+        }
+    }
+
+    /**
+     * Records an element, unless it loses the race for its slot.
+     *
+     * @return {@code false} if the stripe of the calling thread is full, the element is then not recorded.
+     */
+    boolean offer(final E element) {
+        final long hash = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+
+        return stripes[(int) (hash >>> 32) & mask].offer(element);
+    }
+
+    /**
+     * Hands every recorded element to the consumer, oldest first within a stripe.
+     */
+    void drain(final Consumer<E> consumer) {
+        for (final Stripe<E> stripe : stripes) {
+            stripe.drain(consumer);
+        }
+    }
+
+    private static final class Stripe<E> {
+
+        private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(STRIPE_SIZE);
+        private final AtomicLong writes = new AtomicLong();
+
+        /**
+         * Only written by the draining thread.
+         */
+        private volatile long reads;
+
+        boolean offer(final E element) {
+            final long tail = writes.get();
+
+            if (tail - reads >= STRIPE_SIZE) {
+                return false;
+            }
+
+            if (writes.compareAndSet(tail, tail + 1)) {
+                buffer.setRelease((int) tail & STRIPE_MASK, element);
+            }
+
+            return true;
+        }
+
+        void drain(final Consumer<E> consumer) {
+            final long tail = writes.get();
+            long head = reads;
+
+            //A slot claimed but not published yet ends the drain, the next one picks it up
+            for (; head < tail; head++) {
+                final int index = (int) head & STRIPE_MASK;
+                final E element = buffer.getAcquire(index);
+
+                if (element == null) {
+                    break;
+                }
+
+                buffer.setRelease(index, null);
+                consumer.accept(element);
+            }
+
+            reads = head;
+        }
+    }
+}
@@ -1,34 +1,61 @@
 package com.tiny.bank.repository;
 
+import com.tiny.bank.domain.account.Account;
 import com.tiny.bank.domain.user.User;
 
+import java.util.Collection;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
- * Repository class for managing {@link User} entities.
+ * Repository of {@link User} entities, the storage SPI every use case depends on.
+ *
+ * <p>
+ * Implementations must hand out a single {@link Account} instance per account at any time: accounts are mutable and
+ * guard their balance with their own lock, so two live copies of an account would lose updates. Users are
+ * immutable and may be copies.
+ * </p>
  */
-public class UserRepository {
+public interface UserRepository {
 
-    private final ConcurrentHashMap<String, User> repository;
+    /**
+     * Retrieves a user from the repository by their ID.
+     *
+     * @param id the ID of the user to retrieve.
+     * @return an {@link Optional} containing the {@link User} if found, or an empty {@link Optional} if not found.
+     */
+    Optional<User> getUser(String id);
 
     /**
-     * Constructs a new instance of {@code UserRepository}.
-     * Initializes the repository with a thread-safe {@link ConcurrentHashMap}.
+     * Returns every user in the repository.
+     *
+     * <p>
+     * The returned collection is a live, weakly consistent view: it never throws on concurrent modification and
+     * does not copy the repository, but may or may not reflect users added or updated while it is being iterated.
+     * </p>
+     *
+     * @return an unmodifiable {@link Collection} of {@link User}.
      */
-    public UserRepository() {
-        this.repository = new ConcurrentHashMap<>();
-    }
+    Collection<User> getUsers();
 
     /**
-     * Retrieves a user from the repository by their ID.
+     * Finds an account of any user by its identifier.
      *
-     * @param id the ID of the user to retrieve.
-     * @return an {@link Optional} containing the {@link User} if found, or an empty {@link Optional} if not found.
+     * <p>
+     * Unless overridden, every user is scanned; meant for infrequent lookups such as resolving the counterparties of
+     * archived transactions.
+     * </p>
+     *
+     * @param accountId the UUID of the account.
+     * @return an {@link Optional} containing the {@link Account} if found, or an empty {@link Optional} otherwise.
      */
-    public Optional<User> getUser(final String id) {
-        return Optional.ofNullable(repository.get(id));
+    default Optional<Account> findAccount(final UUID accountId) {
+        return getUsers()
+                .stream()
+                .flatMap(user -> user.accounts().stream())
+                .filter(account -> account.getAccountId().equals(accountId))
+                .findFirst();
     }
 
     /**
@@ -41,9 +68,7 @@ public class UserRepository {
      * @param user the {@link User} to add.
      * @return {@code true} if the user was successfully added, {@code false} if user was already present.
      */
-    public boolean addUser(final User user) {
-        return repository.putIfAbsent(user.ccNumber(), user) == null;
-    }
+    boolean addUser(User user);
 
     /**
      * Updates an existing user in the repository using the provided update function.
@@ -58,7 +83,5 @@ public class UserRepository {
      * @return an {@link Optional} containing the updated {@link User} if the update was successful,
      * or an empty {@link Optional} if no user with the given credit card number exists.
      */
-    public Optional<User> updateUser(final String ccNumber, final Function<User, User> userFunction) {
-        return Optional.ofNullable(repository.computeIfPresent(ccNumber, (key, user) -> userFunction.apply(user)));
-    }
+    Optional<User> updateUser(String ccNumber, Function<User, User> userFunction);
 }
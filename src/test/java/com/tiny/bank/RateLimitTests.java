@@ -0,0 +1,60 @@
+package com.tiny.bank;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"tiny-bank.rate-limit.enabled=true",
+        "tiny-bank.rate-limit.user-rate=0.01",
+        "tiny-bank.rate-limit.user-burst=2"})
+@AutoConfigureMockMvc
+class RateLimitTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldRateLimitAUser() throws Exception {
+        final String userId = UUID.randomUUID().toString();
+        final String otherUserId = UUID.randomUUID().toString();
+
+        createUser(userId);
+        createUser(otherUserId);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/accounts/balance", userId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/accounts/balance", userId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/accounts/balance", userId))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.message").value("Too many requests"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/accounts/balance", otherUserId))
+                .andExpect(status().isOk());
+    }
+
+    private void createUser(final String ccNumber) throws Exception {
+        //User creation is not rate limited
+        mockMvc.perform(MockMvcRequestBuilders.post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "name": "Rui Moreira",
+                                  "ccNumber": "%s",
+                                  "birthdate": "2001-12-10"
+                                }""".formatted(ccNumber)))
+                .andExpect(status().isOk());
+    }
+}
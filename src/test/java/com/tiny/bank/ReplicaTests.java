@@ -0,0 +1,104 @@
+package com.tiny.bank;
+
+import com.tiny.bank.domain.event.EventBus;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.replication.JournalServer;
+import com.tiny.bank.repository.ConcurrentMapUserRepository;
+import com.tiny.bank.repository.EventPublishingUserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the application as a replica of a primary journal server started by the test.
+ */
+@SpringBootTest(properties = {"tiny-bank.replication.role=replica",
+        "tiny-bank.replication.reconnect-delay=20ms",
+        "tiny-bank.events.log-enabled=false"})
+@AutoConfigureMockMvc
+class ReplicaTests {
+
+    private static final String CC_NUMBER = UUID.randomUUID().toString();
+
+    private static Path directory;
+    private static EventBus eventBus;
+    private static JournalServer primary;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void startPrimary() throws IOException {
+        directory = Files.createTempDirectory("tiny-bank-replica");
+        eventBus = new EventBus(1024);
+
+        var repository = new EventPublishingUserRepository(new ConcurrentMapUserRepository(), eventBus);
+        var user = User.createAccount(User.createUser("Rui Moreira", CC_NUMBER, LocalDate.of(2001, 12, 10)));
+
+        repository.addUser(user);
+        user.deposit(user.accounts().iterator().next().getAccountId(), BigDecimal.valueOf(100));
+
+        primary = new JournalServer(directory.resolve("journal.sock"), eventBus, repository).start();
+    }
+
+    @DynamicPropertySource
+    static void replicationProperties(final DynamicPropertyRegistry registry) {
+        registry.add("tiny-bank.replication.socket", () -> directory.resolve("journal.sock").toString());
+    }
+
+    @AfterAll
+    static void stopPrimary() throws IOException {
+        primary.close();
+        eventBus.close();
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    void shouldServeReplicatedBalances() throws Exception {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/accounts/balance", CC_NUMBER))
+                .andReturn().getResponse().getContentAsString().equals("[]") && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/accounts/balance", CC_NUMBER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].value").value(100));
+    }
+
+    @Test
+    void shouldRejectWrites() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "name": "Rui Moreira",
+                                  "ccNumber": "%s",
+                                  "birthdate": "2001-12-10"
+                                }""".formatted(UUID.randomUUID())))
+                .andExpect(status().isMethodNotAllowed())
+                .andExpect(header().string("Allow", "GET, HEAD, OPTIONS"))
+                .andExpect(jsonPath("$.message").value("Read-only replica, send writes to the primary"));
+    }
+}
@@ -3,22 +3,31 @@ package com.tiny.bank;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JSR310Module;
+import com.tiny.bank.api.model.request.ScheduledTransactionRequest;
 import com.tiny.bank.api.model.request.TransactionRequest;
 import com.tiny.bank.domain.account.Account;
 import com.tiny.bank.domain.user.User;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
 import java.util.UUID;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -93,6 +102,23 @@ class TinyBankApplicationTests {
                 .andDo(print());
     }
 
+    @Test
+    void userAccountsCheckBalance() throws Exception {
+        final String userId = UUID.randomUUID().toString();
+        createUser(userId);
+        createAccount(userId);
+
+        final User user = createAccount(userId);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/accounts/balance", userId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(user.accounts().size()))
+                .andExpect(jsonPath("$[0].value").value("0"))
+                .andExpect(jsonPath("$[0].userId").value(userId))
+                .andDo(print());
+    }
+
     @Test
     void shouldDepositInAnAccount() throws Exception {
         final String userId = UUID.randomUUID().toString();
@@ -153,6 +179,13 @@ class TinyBankApplicationTests {
                 .andExpect(jsonPath("$.transactionRecords[0].amount").value("150.0"))
                 .andExpect(jsonPath("$.transactionRecords[0].accountId").value(account.getAccountId().toString()))
                 .andDo(print());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/accounts/{accountId}/transactions", userId, account.getAccountId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("from", LocalDateTime.now().plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionRecords").isEmpty())
+                .andDo(print());
     }
 
     @Test
@@ -183,6 +216,216 @@ class TinyBankApplicationTests {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void shouldScheduleAndCancelAStandingOrder() throws Exception {
+        final String senderUserId = UUID.randomUUID().toString();
+        createUser(senderUserId);
+
+        final String receiverUserId = UUID.randomUUID().toString();
+        createUser(receiverUserId);
+
+        final Account senderAccount = createAccount(senderUserId).accounts().stream().findAny().get();
+        final Account receiverAccount = createAccount(receiverUserId).accounts().stream().findAny().get();
+
+        var request = new ScheduledTransactionRequest(senderUserId, senderAccount.getAccountId().toString(), receiverUserId,
+                receiverAccount.getAccountId().toString(), 40.0, LocalDateTime.now().plusDays(1), Period.ofMonths(1));
+
+        final MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/transaction/scheduled")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recurrence").value("P1M"))
+                .andReturn();
+
+        final String id = objectMapper.readTree(result.getResponse().getContentAsByteArray()).get("id").asText();
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/transaction/scheduled/{id}", id))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/transaction/scheduled/{id}", id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReserveAndCaptureAHold() throws Exception {
+        final String userId = UUID.randomUUID().toString();
+        createUser(userId);
+
+        final Account account = createAccount(userId).accounts().stream().findAny().get();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/{userId}/accounts/{accountId}/deposit", userId, account.getAccountId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("amount", "150.0"))
+                .andExpect(status().isOk());
+
+        final MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/users/{userId}/accounts/{accountId}/holds", userId, account.getAccountId())
+                        .param("amount", "100.0")
+                        .param("ttl", "PT15M"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        final String holdId = objectMapper.readTree(result.getResponse().getContentAsByteArray()).get("id").asText();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/{userId}/accounts/{accountId}/holds/{holdId}/capture", userId, account.getAccountId(), holdId)
+                        .param("amount", "60.0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value").value(90.0));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/users/{userId}/accounts/{accountId}/holds/{holdId}", userId, account.getAccountId(), holdId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldProcessANettedBatchOfTransactions() throws Exception {
+        final String senderUserId = UUID.randomUUID().toString();
+        createUser(senderUserId);
+
+        final String receiverUserId = UUID.randomUUID().toString();
+        createUser(receiverUserId);
+
+        final Account senderAccount = createAccount(senderUserId).accounts().stream().findAny().get();
+        final Account receiverAccount = createAccount(receiverUserId).accounts().stream().findAny().get();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/{userId}/accounts/{accountId}/deposit", senderUserId, senderAccount.getAccountId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("amount", "50.0"))
+                .andExpect(status().isOk());
+
+        var batch = List.of(
+                new TransactionRequest(senderUserId, senderAccount.getAccountId().toString(), receiverUserId, receiverAccount.getAccountId().toString(), 50.0),
+                new TransactionRequest(receiverUserId, receiverAccount.getAccountId().toString(), senderUserId, senderAccount.getAccountId().toString(), 30.0),
+                new TransactionRequest(senderUserId, senderAccount.getAccountId().toString(), receiverUserId, receiverAccount.getAccountId().toString(), 40.0));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/transaction/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].message").value("Operation successful"))
+                .andExpect(jsonPath("$[1].message").value("Operation successful"))
+                .andExpect(jsonPath("$[2].message").value("Insufficient funds to process the transaction after netting"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/accounts/{accountId}/balance", receiverUserId, receiverAccount.getAccountId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value").value(20.0));
+    }
+
+    @Test
+    void shouldSearchTransactions() throws Exception {
+        final String senderUserId = UUID.randomUUID().toString();
+        createUser(senderUserId);
+
+        final String receiverUserId = UUID.randomUUID().toString();
+        createUser(receiverUserId);
+
+        final Account senderAccount = createAccount(senderUserId).accounts().stream().findAny().get();
+        final Account receiverAccount = createAccount(receiverUserId).accounts().stream().findAny().get();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/{userId}/accounts/{accountId}/deposit", senderUserId, senderAccount.getAccountId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("amount", "150.0"))
+                .andExpect(status().isOk());
+
+        var transaction = new TransactionRequest(senderUserId, senderAccount.getAccountId().toString(), receiverUserId, receiverAccount.getAccountId().toString(), 40.0);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/transaction")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transaction)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/transactions/search", senderUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("counterparty", receiverAccount.getAccountId().toString())
+                        .param("min", "10")
+                        .param("from", LocalDate.now().minusDays(1).atStartOfDay().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionRecords.length()").value(1))
+                .andExpect(jsonPath("$.transactionRecords[0].amount").value("40.0"))
+                .andDo(print());
+    }
+
+    @Test
+    void shouldStreamTheLedger() throws Exception {
+        final String userId = UUID.randomUUID().toString();
+        createUser(userId);
+        createAccount(userId);
+
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/ledger/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"ledger.ndjson.gz\""));
+    }
+
+    @Test
+    void shouldExportTheLedger() throws Exception {
+        final String userId = UUID.randomUUID().toString();
+        createUser(userId);
+        createAccount(userId);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/ledger/exports").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.files").isNotEmpty())
+                .andExpect(jsonPath("$.users").isNumber())
+                .andDo(print());
+    }
+
+    @Test
+    void shouldStreamLifecycleAndBalanceEvents() throws Exception {
+        final String userId = UUID.randomUUID().toString();
+
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/events/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        createUser(userId);
+        var account = createAccount(userId).accounts().iterator().next();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/{userId}/accounts/{accountId}/deposit", userId, account.getAccountId())
+                        .param("amount", "12.50"))
+                .andExpect(status().isOk());
+
+        var stream = "";
+
+        for (int i = 0; i < 100 && !stream.contains("event:balance-changed"); i++) {
+            Thread.sleep(50);
+            stream = result.getResponse().getContentAsString();
+        }
+
+        Assertions.assertThat(stream)
+                .contains("event:user-created", "\"ccNumber\":\"" + userId + "\"")
+                .contains("event:account-created", "\"accountId\":\"" + account.getAccountId() + "\"")
+                .contains("event:balance-changed", "\"balance\":12.5");
+    }
+
+    @Test
+    void shouldStreamTheBalanceOfAnAccount() throws Exception {
+        final String userId = UUID.randomUUID().toString();
+        createUser(userId);
+        var account = createAccount(userId).accounts().iterator().next();
+
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/accounts/{accountId}/balance/stream", userId, account.getAccountId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/{userId}/accounts/{accountId}/deposit", userId, account.getAccountId())
+                        .param("amount", "12.50"))
+                .andExpect(status().isOk());
+
+        var stream = "";
+
+        for (int i = 0; i < 100 && !stream.contains("\"value\":12.5"); i++) {
+            Thread.sleep(50);
+            stream = result.getResponse().getContentAsString();
+        }
+
+        Assertions.assertThat(stream)
+                .startsWith("event:balance\ndata:{\"value\":0,")
+                .contains("\"accountId\":\"" + account.getAccountId() + "\"", "\"userId\":\"" + userId + "\"")
+                .contains("\"value\":12.5");
+    }
 
     private void createUser(final String ccNumber) throws Exception {
         objectMapper.enable(JsonParser.Feature.INCLUDE_SOURCE_IN_LOCATION).registerModule(new JSR310Module());
@@ -0,0 +1,40 @@
+package com.tiny.bank.api.ratelimit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void shouldTestABurstThenTheRefillRate() {
+        var victim = new RateLimiter(2, 3, 100, clock::get);
+
+        Assertions.assertThat(victim.tryAcquire("user")).isZero();
+        Assertions.assertThat(victim.tryAcquire("user")).isZero();
+        Assertions.assertThat(victim.tryAcquire("user")).isZero();
+
+        Assertions.assertThat(victim.tryAcquire("user"))
+                .isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+
+        //Other keys have their own bucket
+        Assertions.assertThat(victim.tryAcquire("other")).isZero();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        Assertions.assertThat(victim.tryAcquire("user")).isZero();
+        Assertions.assertThat(victim.tryAcquire("user")).isPositive();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        //Idle for long, the bucket is full again but never holds more than the burst
+        Assertions.assertThat(victim.tryAcquire("user")).isZero();
+        Assertions.assertThat(victim.tryAcquire("user")).isZero();
+        Assertions.assertThat(victim.tryAcquire("user")).isZero();
+        Assertions.assertThat(victim.tryAcquire("user")).isPositive();
+    }
+}
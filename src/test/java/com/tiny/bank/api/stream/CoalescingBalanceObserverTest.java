@@ -0,0 +1,87 @@
+package com.tiny.bank.api.stream;
+
+import com.tiny.bank.domain.account.Account;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+class CoalescingBalanceObserverTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final BlockingQueue<BigDecimal> sent = new LinkedBlockingQueue<>();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void shouldTestABurstIsSentOnceWithItsLatestBalance() throws Exception {
+        var account = Account.createAccount();
+
+        account.observeBalance(new CoalescingBalanceObserver(Duration.ofMillis(200), scheduler, Runnable::run, sent::add));
+
+        Assertions.assertThat(sent.poll(5, TimeUnit.SECONDS))
+                .isZero();
+
+        for (int i = 0; i < 100; i++) {
+            account.bankDeposit(BigDecimal.ONE);
+        }
+
+        Assertions.assertThat(sent.poll(5, TimeUnit.SECONDS))
+                .isEqualTo(BigDecimal.valueOf(100));
+
+        Assertions.assertThat(sent.poll(400, TimeUnit.MILLISECONDS))
+                .isNull();
+    }
+
+    @Test
+    void shouldTestAChangeAfterAQuietIntervalIsSentRightAway() throws Exception {
+        var account = Account.createAccount();
+        var interval = Duration.ofMillis(50);
+
+        account.observeBalance(new CoalescingBalanceObserver(interval, scheduler, Runnable::run, sent::add));
+        sent.take();
+        Thread.sleep(interval.toMillis() * 2);
+
+        account.bankDeposit(BigDecimal.TEN);
+
+        Assertions.assertThat(sent.poll())
+                .isEqualTo(BigDecimal.TEN);
+    }
+
+    @Test
+    void shouldTestUnchangedBalancesAreNotSentAgain() throws Exception {
+        var account = Account.createAccountWithInitialBalance(BigDecimal.TEN);
+
+        account.observeBalance(new CoalescingBalanceObserver(Duration.ofMillis(200), scheduler, Runnable::run, sent::add));
+        sent.take();
+
+        account.bankDeposit(BigDecimal.ONE);
+        account.bankWithdrawal(BigDecimal.ONE);
+
+        Assertions.assertThat(sent.poll(300, TimeUnit.MILLISECONDS))
+                .isNull();
+    }
+
+    @Test
+    void shouldTestChangesAfterShutdownDoNotFail() {
+        var account = Account.createAccount();
+
+        account.observeBalance(new CoalescingBalanceObserver(Duration.ofMillis(200), scheduler, Runnable::run, sent::add));
+        scheduler.shutdownNow();
+
+        account.bankDeposit(BigDecimal.ONE);
+
+        Assertions.assertThat(account.getBalance())
+                .isEqualTo(BigDecimal.ONE);
+    }
+}
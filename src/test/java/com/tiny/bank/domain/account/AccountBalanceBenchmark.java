@@ -0,0 +1,124 @@
+package com.tiny.bank.domain.account;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Measures how balance readers affect deposit throughput on a single hot account.
+ *
+ * <p>
+ * Each {@code *WithReaders} group runs one depositing thread against three threads polling the balance, to be
+ * compared with the matching deposit-only group. {@code fairLock*} groups replay the former fair
+ * {@link ReentrantReadWriteLock} read path as a baseline.
+ * </p>
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AccountBalanceBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AccountBalanceBenchmark {
+
+    private static final BigDecimal AMOUNT = BigDecimal.ONE;
+
+    @State(Scope.Group)
+    public static class AccountState {
+
+        private Account account;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            //Every deposit is recorded, start each iteration with an empty history to keep the heap flat
+            account = Account.createAccount();
+        }
+    }
+
+    @State(Scope.Group)
+    public static class FairLockState {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+        private volatile BigDecimal balance = BigDecimal.ZERO;
+
+        BigDecimal getBalance() {
+            lock.readLock().lock();
+
+            try {
+                return balance;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        BigDecimal deposit(final BigDecimal amount) {
+            lock.writeLock().lock();
+
+            try {
+                balance = balance.add(amount);
+                return balance;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("deposit")
+    @GroupThreads(1)
+    public BigDecimal deposit(final AccountState state) {
+        return state.account.bankDeposit(AMOUNT);
+    }
+
+    @Benchmark
+    @Group("depositWithReaders")
+    @GroupThreads(1)
+    public BigDecimal depositWithReaders(final AccountState state) {
+        return state.account.bankDeposit(AMOUNT);
+    }
+
+    @Benchmark
+    @Group("depositWithReaders")
+    @GroupThreads(3)
+    public BigDecimal balanceWithDeposits(final AccountState state) {
+        return state.account.getBalance();
+    }
+
+    @Benchmark
+    @Group("fairLockDeposit")
+    @GroupThreads(1)
+    public BigDecimal fairLockDeposit(final FairLockState state) {
+        return state.deposit(AMOUNT);
+    }
+
+    @Benchmark
+    @Group("fairLockDepositWithReaders")
+    @GroupThreads(1)
+    public BigDecimal fairLockDepositWithReaders(final FairLockState state) {
+        return state.deposit(AMOUNT);
+    }
+
+    @Benchmark
+    @Group("fairLockDepositWithReaders")
+    @GroupThreads(3)
+    public BigDecimal fairLockBalanceWithDeposits(final FairLockState state) {
+        return state.getBalance();
+    }
+}
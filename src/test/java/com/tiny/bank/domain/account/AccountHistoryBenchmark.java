@@ -0,0 +1,76 @@
+package com.tiny.bank.domain.account;
+
+import com.google.common.collect.ImmutableSet;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures concurrent history reads of a single account.
+ *
+ * <p>
+ * {@code view} reads the shared history view, {@code copy} replays the former per-read {@link ImmutableSet} copy and
+ * {@code range} reads the records of the last hour.
+ * </p>
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AccountHistoryBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(4)
+public class AccountHistoryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class AccountState {
+
+        @Param({"1000", "100000"})
+        private int records;
+
+        private Account account;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            account = Account.createAccount();
+
+            for (int i = 0; i < records; i++) {
+                account.bankDeposit(BigDecimal.ONE);
+            }
+        }
+    }
+
+    @Benchmark
+    public Set<TransactionRecord> view(final AccountState state) {
+        return state.account.getTransactions();
+    }
+
+    @Benchmark
+    public Set<TransactionRecord> copy(final AccountState state) {
+        return ImmutableSet.copyOf(state.account.getTransactions());
+    }
+
+    @Benchmark
+    public Set<TransactionRecord> range(final AccountState state) {
+        return state.account.getTransactions(LocalDateTime.now().minusHours(1), null);
+    }
+}
@@ -4,17 +4,40 @@ import com.tiny.bank.domain.account.Account;
 import com.tiny.bank.domain.exception.InsufficientFundsException;
 import com.tiny.bank.domain.transaction.InboundTransactionRecord;
 import com.tiny.bank.domain.transaction.OutboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionArchive;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionSearchCriteria;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 class AccountTest {
 
+    private static final AccountFactory ASYNCHRONOUS = new AccountFactory(RecordMode.ASYNCHRONOUS, BalanceObserver.NONE,
+            RecordObserver.NONE);
+
     @Test
     void shouldTestTheFailureOfWithdrawalActionWhenFundsAreInsufficient() {
         final Account victim = Account.createAccount();
@@ -122,6 +145,10 @@ class AccountTest {
                 .extracting("amount")
                 .isEqualTo(List.of(BigDecimal.TEN));
 
+        Assertions.assertThat(recipient.getTransactions())
+                .extracting("accountId")
+                .isEqualTo(List.of(recipient.getAccountId()));
+
         Assertions.assertThat(sender.getBalance())
                 .isNotNull();
 
@@ -175,4 +202,441 @@ class AccountTest {
                 .isEmpty();
     }
 
+    @Test
+    void shouldTestASnapshot() {
+        var victim = Account.createAccountWithInitialBalance(BigDecimal.valueOf(150.0));
+
+        victim.bankWithdrawal(BigDecimal.TEN);
+
+        var snapshot = victim.snapshot();
+
+        victim.bankDeposit(BigDecimal.TEN);
+
+        Assertions.assertThat(snapshot.accountId())
+                .isEqualTo(victim.getAccountId());
+
+        Assertions.assertThat(snapshot.balance())
+                .isEqualTo(BigDecimal.valueOf(140.0));
+
+        Assertions.assertThat(snapshot.transactions())
+                .hasOnlyElementsOfType(OutboundTransactionRecord.class)
+                .extracting("balanceAfterTransaction")
+                .isEqualTo(List.of(BigDecimal.valueOf(140.0)));
+    }
+
+    @Test
+    void shouldTestAsynchronousRecordsAreVisibleToHistoryReads() {
+        var victim = ASYNCHRONOUS.createAccount(UUID.randomUUID(), ConcurrentHashMap.newKeySet(), BigDecimal.valueOf(150.0));
+
+        victim.bankWithdrawal(BigDecimal.TEN);
+        victim.bankDeposit(BigDecimal.ONE);
+
+        var snapshot = victim.snapshot();
+
+        Assertions.assertThat(snapshot.balance())
+                .isEqualTo(BigDecimal.valueOf(141.0));
+
+        Assertions.assertThat(snapshot.transactions())
+                .extracting("balanceAfterTransaction")
+                .containsExactlyInAnyOrder(BigDecimal.valueOf(140.0), BigDecimal.valueOf(141.0));
+
+        Assertions.assertThat(victim.getTransactions())
+                .containsExactlyInAnyOrderElementsOf(snapshot.transactions());
+    }
+
+    @Test
+    void shouldTestAnAsynchronousTransactionAction() {
+        var sender = ASYNCHRONOUS.createAccount(UUID.randomUUID(), ConcurrentHashMap.newKeySet(), BigDecimal.valueOf(150.0));
+        var recipient = Account.createAccount();
+
+        sender.transferTo(BigDecimal.TEN, recipient);
+
+        Assertions.assertThat(sender.getTransactions())
+                .singleElement()
+                .isInstanceOfSatisfying(OutboundTransactionRecord.class, record -> {
+                    Assertions.assertThat(record.recipient()).isSameAs(recipient);
+                    Assertions.assertThat(record.balanceAfterTransaction()).isEqualTo(BigDecimal.valueOf(140.0));
+                    Assertions.assertThat(record.accountId()).isEqualTo(sender.getAccountId());
+                });
+
+        //The synchronous side of the transfer records it right away
+        Assertions.assertThat(recipient.getTransactions())
+                .singleElement()
+                .isInstanceOfSatisfying(InboundTransactionRecord.class, record -> {
+                    Assertions.assertThat(record.provider()).isSameAs(sender);
+                    Assertions.assertThat(record.balanceAfterTransaction()).isEqualTo(BigDecimal.TEN);
+                    Assertions.assertThat(record.accountId()).isEqualTo(recipient.getAccountId());
+                    Assertions.assertThat(record.id()).isEqualTo(sender.getTransactions().iterator().next().id());
+                });
+    }
+
+    @Test
+    void shouldTestTheArchivingOfExpiredHistory() {
+        var victim = Account.createAccount();
+        var archive = mock(TransactionArchive.class);
+
+        victim.bankDeposit(BigDecimal.ONE);
+        victim.bankDeposit(BigDecimal.TEN);
+
+        var archived = victim.archiveHistory(new HistoryRetention(1, null), archive, LocalDateTime.now().plusSeconds(1));
+
+        Assertions.assertThat(archived)
+                .isEqualTo(1);
+
+        Assertions.assertThat(victim.getTransactions())
+                .singleElement()
+                .extracting("amount")
+                .isEqualTo(BigDecimal.TEN);
+
+        verify(archive).append(eq(victim.getAccountId()), argThat(records -> records.size() == 1
+                && records.iterator().next().amount().equals(BigDecimal.ONE)));
+    }
+
+    @Test
+    void shouldTestOverlappingArchivingRunsArchiveARecordOnce() throws InterruptedException {
+        var victim = Account.createAccount();
+        var appended = new CopyOnWriteArrayList<TransactionRecord>();
+        var storing = new CountDownLatch(1);
+        var stored = new CountDownLatch(1);
+        var archive = mock(TransactionArchive.class);
+
+        victim.bankDeposit(BigDecimal.ONE);
+        victim.bankDeposit(BigDecimal.TEN);
+
+        doAnswer(invocation -> {
+            appended.addAll(invocation.getArgument(1));
+            storing.countDown();
+            stored.await();
+            return null;
+        }).when(archive).append(any(), any());
+
+        var retention = new HistoryRetention(0, null);
+        var now = LocalDateTime.now().plusSeconds(1);
+        var first = new Thread(() -> victim.archiveHistory(retention, archive, now));
+        var second = new Thread(() -> victim.archiveHistory(retention, archive, now));
+
+        first.start();
+        storing.await();
+        second.start();
+
+        //The second run would find the records still on heap while the first one stores them
+        Thread.sleep(100);
+        stored.countDown();
+        first.join();
+        second.join();
+
+        Assertions.assertThat(appended)
+                .hasSize(2)
+                .doesNotHaveDuplicates();
+
+        Assertions.assertThat(victim.getTransactions())
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestHistoryIsKeptWhenArchivingFails() {
+        var victim = Account.createAccount();
+        var archive = mock(TransactionArchive.class);
+
+        victim.bankDeposit(BigDecimal.ONE);
+
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(archive).append(any(), any());
+
+        Assertions.assertThatThrownBy(() -> victim.archiveHistory(new HistoryRetention(0, null), archive, LocalDateTime.now()))
+                .isInstanceOf(UncheckedIOException.class);
+
+        Assertions.assertThat(victim.getTransactions())
+                .hasSize(1);
+    }
+
+    @Test
+    void shouldTestATransactionSearch() {
+        var sender = Account.createAccountWithInitialBalance(BigDecimal.valueOf(150.0));
+        var recipient = Account.createAccount();
+        var other = Account.createAccount();
+
+        sender.transferTo(BigDecimal.TEN, recipient);
+        sender.transferTo(BigDecimal.valueOf(50), recipient);
+        sender.transferTo(BigDecimal.ONE, other);
+        sender.bankWithdrawal(BigDecimal.valueOf(20));
+
+        Assertions.assertThat(sender.search(new TransactionSearchCriteria(recipient.getAccountId(), BigDecimal.valueOf(20), null, null, null)))
+                .singleElement()
+                .extracting(TransactionRecord::amount)
+                .isEqualTo(BigDecimal.valueOf(50));
+
+        Assertions.assertThat(sender.search(new TransactionSearchCriteria(null, BigDecimal.valueOf(5), BigDecimal.valueOf(20), null, null)))
+                .extracting(TransactionRecord::amount)
+                .containsExactlyInAnyOrder(BigDecimal.TEN, BigDecimal.valueOf(20));
+
+        Assertions.assertThat(sender.search(new TransactionSearchCriteria(null, null, null, LocalDateTime.now().plusDays(1), null)))
+                .isEmpty();
+
+        sender.archiveHistory(new HistoryRetention(0, null), mock(TransactionArchive.class), LocalDateTime.now().plusSeconds(1));
+
+        Assertions.assertThat(sender.search(new TransactionSearchCriteria(recipient.getAccountId(), null, null, null, null)))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestADateRangeRead() {
+        var sender = Account.createAccountWithInitialBalance(BigDecimal.valueOf(150.0));
+        var recipient = Account.createAccount();
+
+        recipient.bankDeposit(BigDecimal.ONE);
+        sender.transferTo(BigDecimal.TEN, recipient);
+        recipient.bankWithdrawal(BigDecimal.valueOf(2));
+
+        var history = List.copyOf(recipient.getTransactions(null, null));
+
+        Assertions.assertThat(history)
+                .extracting(TransactionRecord::amount)
+                .containsExactly(BigDecimal.ONE, BigDecimal.TEN, BigDecimal.valueOf(2));
+
+        Assertions.assertThat(history)
+                .isSortedAccordingTo(Comparator.comparing(TransactionRecord::date));
+
+        Assertions.assertThat(recipient.getTransactions(history.get(1).date(), history.get(1).date()))
+                .contains(history.get(1))
+                .doesNotContain(history.getFirst(), history.getLast());
+
+        Assertions.assertThat(recipient.getTransactions(LocalDateTime.now().plusDays(1), null))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestRestoredTransactionsAreSorted() {
+        var victim = Account.createAccount();
+        var now = LocalDateTime.now();
+        var older = InboundTransactionRecord.createPersonalInboundTransaction(UUID.randomUUID(), BigDecimal.ONE, BigDecimal.ONE,
+                now.minusDays(1), victim.getAccountId());
+        var newer = InboundTransactionRecord.createPersonalInboundTransaction(UUID.randomUUID(), BigDecimal.TEN, BigDecimal.TEN,
+                now, victim.getAccountId());
+
+        victim.restoreTransactions(List.of(newer, older));
+
+        Assertions.assertThat(victim.getTransactions(null, null))
+                .containsExactly(older, newer);
+
+        Assertions.assertThatThrownBy(() -> victim.restoreTransactions(List.of(older)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        victim.bankDeposit(BigDecimal.ONE);
+
+        Assertions.assertThat(List.copyOf(victim.getTransactions()).getLast().date())
+                .isAfterOrEqualTo(now);
+    }
+
+    @Test
+    void shouldTestHistoryReadsAreNotAffectedByLaterOperations() {
+        var victim = Account.createAccount();
+
+        victim.bankDeposit(BigDecimal.ONE);
+
+        var history = victim.getTransactions();
+        var record = history.iterator().next();
+
+        victim.bankDeposit(BigDecimal.TEN);
+
+        Assertions.assertThat(history)
+                .containsExactly(record)
+                .isEqualTo(Set.of(record));
+
+        Assertions.assertThat(victim.getTransactions())
+                .hasSize(2)
+                .contains(record)
+                .doesNotContain(InboundTransactionRecord.createPersonalInboundTransaction(BigDecimal.ONE, BigDecimal.ONE, victim.getAccountId()));
+
+        Assertions.assertThatThrownBy(() -> history.remove(record))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldTestAHoldReservesTheAvailableBalance() {
+        var victim = Account.createAccount();
+
+        victim.bankDeposit(BigDecimal.valueOf(100));
+
+        var hold = victim.reserve(BigDecimal.valueOf(70), LocalDateTime.now().plusMinutes(5));
+
+        Assertions.assertThat(victim.getBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(100));
+
+        Assertions.assertThat(victim.getAvailableBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(30));
+
+        Assertions.assertThat(victim.getHolds())
+                .containsExactly(hold);
+
+        Assertions.assertThat(victim.getTransactions())
+                .hasSize(1);
+
+        Assertions.assertThatThrownBy(() -> victim.bankWithdrawal(BigDecimal.valueOf(50)))
+                .isInstanceOf(InsufficientFundsException.class);
+
+        Assertions.assertThatThrownBy(() -> victim.reserve(BigDecimal.valueOf(50), LocalDateTime.now().plusMinutes(5)))
+                .isInstanceOf(InsufficientFundsException.class);
+
+        Assertions.assertThat(victim.release(hold.id()))
+                .isTrue();
+
+        Assertions.assertThat(victim.release(hold.id()))
+                .isFalse();
+
+        Assertions.assertThat(victim.getAvailableBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(100));
+    }
+
+    @Test
+    void shouldTestAHoldCapture() {
+        var victim = Account.createAccount();
+
+        victim.bankDeposit(BigDecimal.valueOf(100));
+
+        var partial = victim.reserve(BigDecimal.valueOf(40), LocalDateTime.now().plusMinutes(5));
+        var full = victim.reserve(BigDecimal.valueOf(20), LocalDateTime.now().plusMinutes(5));
+
+        Assertions.assertThatThrownBy(() -> victim.capture(partial.id(), BigDecimal.valueOf(50)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Assertions.assertThat(victim.capture(partial.id(), BigDecimal.valueOf(25)))
+                .isEqualByComparingTo(BigDecimal.valueOf(75));
+
+        Assertions.assertThat(victim.capture(full.id(), null))
+                .isEqualByComparingTo(BigDecimal.valueOf(55));
+
+        Assertions.assertThat(victim.getAvailableBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(55));
+
+        Assertions.assertThat(victim.getHolds())
+                .isEmpty();
+
+        Assertions.assertThat(victim.getTransactions())
+                .hasSize(3)
+                .filteredOn(OutboundTransactionRecord.class::isInstance)
+                .extracting(TransactionRecord::amount)
+                .containsExactly(BigDecimal.valueOf(25), BigDecimal.valueOf(20));
+
+        Assertions.assertThatThrownBy(() -> victim.capture(full.id(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldTestAnExpiredHoldCannotBeCaptured() {
+        var victim = Account.createAccount();
+
+        victim.bankDeposit(BigDecimal.valueOf(100));
+
+        var hold = victim.reserve(BigDecimal.valueOf(40), LocalDateTime.now().minusSeconds(1));
+
+        Assertions.assertThatThrownBy(() -> victim.capture(hold.id(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Assertions.assertThat(victim.getBalance())
+                .isEqualByComparingTo(victim.getAvailableBalance());
+    }
+
+    @Test
+    void shouldTestADormantAccountKeepsItsIdentity() {
+        var accountId = UUID.randomUUID();
+        var victim = new Account(accountId, Set.of(), BigDecimal.ZERO);
+
+        Assertions.assertThat(victim.getAccountId())
+                .isEqualTo(accountId);
+
+        Assertions.assertThat(victim)
+                .isEqualTo(new Account(accountId, Set.of(), BigDecimal.TEN))
+                .hasSameHashCodeAs(Objects.hash(accountId));
+
+        Assertions.assertThat(victim.search(new TransactionSearchCriteria(null, null, null, null, null)))
+                .isEmpty();
+
+        Assertions.assertThat(victim.getHolds())
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestHoldsCanBeReservedAgainOnceAllAreReleased() {
+        var victim = Account.createAccount();
+
+        victim.bankDeposit(BigDecimal.valueOf(100));
+
+        var hold = victim.reserve(BigDecimal.valueOf(40), LocalDateTime.now().plusMinutes(1));
+
+        Assertions.assertThat(victim.release(hold.id()))
+                .isTrue();
+
+        Assertions.assertThat(victim.release(hold.id()))
+                .isFalse();
+
+        var second = victim.reserve(BigDecimal.valueOf(100), LocalDateTime.now().plusMinutes(1));
+
+        Assertions.assertThat(victim.getHolds())
+                .containsExactly(second);
+    }
+
+    @Test
+    void shouldTestBalanceObserversSeeEveryChangeInOrder() {
+        var victim = Account.createAccountWithInitialBalance(BigDecimal.valueOf(100));
+        var recipient = Account.createAccount();
+        var first = new ArrayList<BigDecimal>();
+        var second = new ArrayList<BigDecimal>();
+
+        victim.observeBalance((account, balance) -> first.add(balance));
+        victim.observeBalance((account, balance) -> second.add(balance));
+
+        victim.bankDeposit(BigDecimal.TEN);
+        victim.transferTo(BigDecimal.valueOf(30), recipient);
+
+        var hold = victim.reserve(BigDecimal.valueOf(5), LocalDateTime.now().plusMinutes(1));
+
+        victim.capture(hold.id(), null);
+
+        Assertions.assertThat(first)
+                .containsExactly(BigDecimal.valueOf(100), BigDecimal.valueOf(110), BigDecimal.valueOf(80), BigDecimal.valueOf(75));
+
+        Assertions.assertThat(second)
+                .containsExactlyElementsOf(first);
+    }
+
+    @Test
+    void shouldTestRemovedBalanceObserversAreNoLongerTold() {
+        var victim = Account.createAccount();
+        var first = new ArrayList<BigDecimal>();
+        var second = new ArrayList<BigDecimal>();
+        BalanceObserver removed = (account, balance) -> first.add(balance);
+
+        victim.observeBalance(removed);
+        victim.observeBalance((account, balance) -> second.add(balance));
+        victim.bankDeposit(BigDecimal.ONE);
+        victim.stopObservingBalance(removed);
+        victim.bankDeposit(BigDecimal.ONE);
+
+        Assertions.assertThat(first)
+                .containsExactly(BigDecimal.ZERO, BigDecimal.ONE);
+
+        Assertions.assertThat(second)
+                .containsExactly(BigDecimal.ZERO, BigDecimal.ONE, BigDecimal.valueOf(2));
+    }
+
+    @Test
+    void shouldTestRestoredBalancesAreOnlyToldToTheAccountObservers() {
+        var observed = new ArrayList<BigDecimal>();
+        var globallyObserved = new ArrayList<BigDecimal>();
+        var victim = new AccountFactory(RecordMode.SYNCHRONOUS, (account, balance) -> globallyObserved.add(balance),
+                RecordObserver.NONE).createAccount();
+
+        victim.observeBalance((account, balance) -> observed.add(balance));
+        victim.restoreBalance(BigDecimal.TEN);
+
+        Assertions.assertThat(victim.getBalance())
+                .isEqualTo(BigDecimal.TEN);
+
+        Assertions.assertThat(observed)
+                .containsExactly(BigDecimal.ZERO, BigDecimal.TEN);
+
+        Assertions.assertThat(globallyObserved)
+                .isEmpty();
+    }
+
 }
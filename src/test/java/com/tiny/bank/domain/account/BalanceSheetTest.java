@@ -0,0 +1,97 @@
+package com.tiny.bank.domain.account;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+class BalanceSheetTest {
+
+    @Test
+    void shouldTestABalanceSheet() {
+        var account = Account.createAccountWithInitialBalance(BigDecimal.valueOf(150.0));
+        var secondAccount = Account.createAccount();
+
+        account.transferTo(BigDecimal.TEN, secondAccount);
+
+        var victim = BalanceSheet.of(List.of(account, secondAccount));
+
+        Assertions.assertThat(victim.balances())
+                .containsExactly(new AccountBalance(account.getAccountId(), BigDecimal.valueOf(140.0)),
+                        new AccountBalance(secondAccount.getAccountId(), BigDecimal.TEN));
+
+        Assertions.assertThat(victim.total())
+                .isEqualByComparingTo(BigDecimal.valueOf(150));
+    }
+
+    @Test
+    void shouldTestAnEmptyBalanceSheet() {
+        var victim = BalanceSheet.of(List.of());
+
+        Assertions.assertThat(victim.balances())
+                .isEmpty();
+
+        Assertions.assertThat(victim.total())
+                .isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void shouldTestABalanceSheetBacksOffWithoutStallingWriters() throws InterruptedException {
+        var account = Account.createAccountWithInitialBalance(BigDecimal.TEN);
+        var secondAccount = Account.createAccount();
+        var result = new AtomicReference<BalanceSheet>();
+        var reader = new Thread(() -> result.set(BalanceSheet.of(List.of(account, secondAccount, account))));
+
+        final long stamp = secondAccount.writeLock();
+
+        try {
+            reader.start();
+
+            //Parked between optimistic reads rather than blocked on a lock
+            while (reader.getState() != Thread.State.TIMED_WAITING) {
+                Assertions.assertThat(reader.isAlive()).isTrue();
+                Thread.sleep(1);
+            }
+
+            account.bankDeposit(BigDecimal.ONE);
+        } finally {
+            secondAccount.unlockWrite(stamp);
+        }
+
+        reader.join(5_000);
+
+        Assertions.assertThat(result.get().balances())
+                .extracting(AccountBalance::balance)
+                .containsExactly(BigDecimal.valueOf(11), BigDecimal.ZERO, BigDecimal.valueOf(11));
+    }
+
+    @Test
+    void shouldTestABalanceSheetIsNeverTornByConcurrentTransfers() throws InterruptedException {
+        var account = Account.createAccountWithInitialBalance(BigDecimal.valueOf(100));
+        var secondAccount = Account.createAccountWithInitialBalance(BigDecimal.valueOf(100));
+        var running = new AtomicBoolean(true);
+
+        var transfers = new Thread(() -> {
+            while (running.get()) {
+                account.transferTo(BigDecimal.ONE, secondAccount);
+                secondAccount.transferTo(BigDecimal.ONE, account);
+            }
+        });
+
+        transfers.start();
+
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                Assertions.assertThat(BalanceSheet.of(List.of(account, secondAccount)).total())
+                        .isEqualByComparingTo(BigDecimal.valueOf(200));
+            }
+        } finally {
+            running.set(false);
+            transfers.join();
+        }
+    }
+
+}
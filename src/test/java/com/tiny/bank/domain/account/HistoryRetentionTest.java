@@ -0,0 +1,59 @@
+package com.tiny.bank.domain.account;
+
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+class HistoryRetentionTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private final TransactionRecord lastYear = record(NOW.minusYears(1));
+    private final TransactionRecord lastMonth = record(NOW.minusMonths(1));
+    private final TransactionRecord yesterday = record(NOW.minusDays(1));
+
+    @Test
+    void shouldTestRetentionByRecordCount() {
+        var victim = new HistoryRetention(2, null);
+
+        Assertions.assertThat(victim.expired(List.of(lastYear, lastMonth, yesterday), NOW))
+                .containsExactly(lastYear);
+    }
+
+    @Test
+    void shouldTestRetentionByAge() {
+        var victim = new HistoryRetention(null, Duration.ofDays(7));
+
+        Assertions.assertThat(victim.expired(List.of(lastYear, lastMonth, yesterday), NOW))
+                .containsExactly(lastYear, lastMonth);
+    }
+
+    @Test
+    void shouldTestDisabledRetention() {
+        var victim = new HistoryRetention(null, null);
+
+        Assertions.assertThat(victim.isEnabled())
+                .isFalse();
+
+        Assertions.assertThat(victim.expired(List.of(lastYear, lastMonth, yesterday), NOW))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestRetentionFailsWithNegativeBounds() {
+        Assertions.assertThatThrownBy(() -> new HistoryRetention(-1, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static TransactionRecord record(final LocalDateTime date) {
+        return InboundTransactionRecord.createPersonalInboundTransaction(UUID.randomUUID(), BigDecimal.TEN, BigDecimal.TEN,
+                date, UUID.randomUUID());
+    }
+}
@@ -0,0 +1,111 @@
+package com.tiny.bank.domain.account;
+
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class TransactionHistoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int RECORDS = TransactionHistory.CHUNK_SIZE * 3 + 10;
+
+    private final List<TransactionRecord> appended = new ArrayList<>();
+
+    private TransactionHistory victim;
+
+    @BeforeEach
+    void setUp() {
+        victim = new TransactionHistory();
+
+        for (int minute = 0; minute < RECORDS; minute++) {
+            final TransactionRecord record = record(START.plusMinutes(minute));
+
+            appended.add(record);
+            victim.append(record);
+        }
+    }
+
+    @Test
+    void shouldTestRecordsAreReadInDateOrder() {
+        Assertions.assertThat(victim.records())
+                .containsExactlyElementsOf(appended);
+    }
+
+    @Test
+    void shouldTestADateRangeRead() {
+        Assertions.assertThat(victim.range(START.plusMinutes(250), START.plusMinutes(300)))
+                .containsExactlyElementsOf(appended.subList(250, 301));
+
+        Assertions.assertThat(victim.range(null, START.plusMinutes(2)))
+                .containsExactlyElementsOf(appended.subList(0, 3));
+
+        Assertions.assertThat(victim.range(START.plusMinutes(RECORDS - 2), null))
+                .containsExactlyElementsOf(appended.subList(RECORDS - 2, RECORDS));
+
+        Assertions.assertThat(victim.range(START.minusDays(2), START.minusDays(1)))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestATailRead() {
+        Assertions.assertThat(victim.tail(3))
+                .containsExactlyElementsOf(appended.subList(RECORDS - 3, RECORDS));
+
+        Assertions.assertThat(victim.tail(RECORDS + 1))
+                .containsExactlyElementsOf(appended);
+    }
+
+    @Test
+    void shouldTestReadsAreNotAffectedByLaterChanges() {
+        final List<TransactionRecord> records = victim.records();
+        final List<TransactionRecord> head = records.subList(0, TransactionHistory.CHUNK_SIZE + 1);
+
+        victim.evict(head);
+        victim.append(record(START.plusMinutes(RECORDS)));
+
+        Assertions.assertThat(records)
+                .containsExactlyElementsOf(appended);
+
+        Assertions.assertThat(victim.records())
+                .hasSize(RECORDS - head.size() + 1)
+                .startsWith(appended.get(head.size()));
+    }
+
+    @Test
+    void shouldTestEvictingTheWholeHistory() {
+        victim.evict(victim.records());
+        victim.evict(victim.records());
+
+        Assertions.assertThat(victim.records())
+                .isEmpty();
+
+        final TransactionRecord record = record(START.plusMinutes(RECORDS));
+
+        victim.append(record);
+
+        Assertions.assertThat(victim.tail(1))
+                .containsExactly(record);
+    }
+
+    @Test
+    void shouldTestAnOlderRecordIsRejected() {
+        Assertions.assertThatThrownBy(() -> victim.append(record(START)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Assertions.assertThatThrownBy(() -> victim.evict(List.copyOf(appended)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static TransactionRecord record(final LocalDateTime date) {
+        return InboundTransactionRecord.createPersonalInboundTransaction(UUID.randomUUID(), BigDecimal.TEN, BigDecimal.TEN,
+                date, UUID.randomUUID());
+    }
+}
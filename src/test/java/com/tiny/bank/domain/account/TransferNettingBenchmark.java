@@ -0,0 +1,90 @@
+package com.tiny.bank.domain.account;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a batch of back-and-forth transfers between a few marketplace accounts.
+ *
+ * <p>
+ * {@code sequential} executes every transfer on its own, locking both accounts each time, and {@code netted} settles
+ * the whole batch through {@link TransferNetting}.
+ * </p>
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=TransferNettingBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(4)
+public class TransferNettingBenchmark {
+
+    private static final int ACCOUNTS = 8;
+
+    @State(Scope.Benchmark)
+    public static class BatchState {
+
+        @Param({"256"})
+        private int batchSize;
+
+        private List<TransferNetting.Transfer> transfers;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            final Random random = new Random(42);
+            final List<Account> accounts = new ArrayList<>();
+
+            for (int i = 0; i < ACCOUNTS; i++) {
+                //Fresh accounts every iteration, the history is never archived here
+                accounts.add(new Account(UUID.randomUUID(), Set.of(), BigDecimal.valueOf(1_000_000_000)));
+            }
+
+            transfers = new ArrayList<>(batchSize);
+
+            for (int i = 0; i < batchSize; i++) {
+                final int sender = random.nextInt(ACCOUNTS);
+                final int recipient = (sender + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+
+                transfers.add(new TransferNetting.Transfer(accounts.get(sender), accounts.get(recipient), BigDecimal.ONE));
+            }
+        }
+    }
+
+    @Benchmark
+    public int sequential(final BatchState state) {
+        for (final TransferNetting.Transfer transfer : state.transfers) {
+            transfer.sender().transferTo(transfer.amount(), transfer.recipient());
+        }
+
+        return state.transfers.size();
+    }
+
+    @Benchmark
+    public BitSet netted(final BatchState state) {
+        return TransferNetting.settle(state.transfers);
+    }
+}
@@ -0,0 +1,155 @@
+package com.tiny.bank.domain.account;
+
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.OutboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class TransferNettingTest {
+
+    @Test
+    void shouldTestBackAndForthTransfersAreSettledByNetPosition() {
+        var first = Account.createAccount();
+        var second = Account.createAccount();
+
+        first.bankDeposit(BigDecimal.valueOf(10));
+
+        var transfers = new ArrayList<TransferNetting.Transfer>();
+
+        for (int i = 0; i < 50; i++) {
+            transfers.add(new TransferNetting.Transfer(first, second, BigDecimal.valueOf(10)));
+            transfers.add(new TransferNetting.Transfer(second, first, BigDecimal.valueOf(10)));
+        }
+
+        Assertions.assertThat(TransferNetting.settle(transfers).cardinality())
+                .isEqualTo(100);
+
+        Assertions.assertThat(first.getBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(10));
+
+        Assertions.assertThat(second.getBalance())
+                .isZero();
+
+        Assertions.assertThat(second.getTransactions())
+                .hasSize(100)
+                .extracting(TransactionRecord::balanceAfterTransaction)
+                .allMatch(balance -> balance.signum() >= 0);
+
+        var inbound = second.getTransactions().stream()
+                .filter(InboundTransactionRecord.class::isInstance)
+                .map(TransactionRecord::id)
+                .toList();
+
+        Assertions.assertThat(first.getTransactions())
+                .filteredOn(OutboundTransactionRecord.class::isInstance)
+                .extracting(TransactionRecord::id)
+                .containsExactlyInAnyOrderElementsOf(inbound);
+
+        Assertions.assertThat(second.getTransactions())
+                .extracting(TransactionRecord::date)
+                .containsOnly(second.getTransactions().iterator().next().date());
+    }
+
+    @Test
+    void shouldTestARejectedTransferCascadesToItsRecipient() {
+        var first = Account.createAccount();
+        var second = Account.createAccount();
+        var third = Account.createAccount();
+
+        second.bankDeposit(BigDecimal.valueOf(5));
+
+        var accepted = TransferNetting.settle(List.of(
+                new TransferNetting.Transfer(first, second, BigDecimal.valueOf(20)),
+                new TransferNetting.Transfer(second, third, BigDecimal.valueOf(20)),
+                new TransferNetting.Transfer(second, third, BigDecimal.valueOf(5))
+        ));
+
+        //Without the incoming transfer, the second account can only afford its first transfer out
+        Assertions.assertThat(accepted.stream().toArray())
+                .containsExactly(2);
+
+        Assertions.assertThat(List.of(first.getBalance(), second.getBalance(), third.getBalance()))
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.valueOf(5));
+    }
+
+    @Test
+    void shouldTestHoldsAreNotSpentByNetting() {
+        var first = Account.createAccount();
+        var second = Account.createAccount();
+
+        first.bankDeposit(BigDecimal.valueOf(100));
+        first.reserve(BigDecimal.valueOf(60), LocalDateTime.now().plusMinutes(5));
+
+        var accepted = TransferNetting.settle(List.of(
+                new TransferNetting.Transfer(first, second, BigDecimal.valueOf(30)),
+                new TransferNetting.Transfer(first, second, BigDecimal.valueOf(30))
+        ));
+
+        Assertions.assertThat(accepted.stream().toArray())
+                .containsExactly(0);
+
+        Assertions.assertThat(first.getAvailableBalance())
+                .isEqualByComparingTo(BigDecimal.TEN);
+    }
+
+    @Test
+    void shouldTestInvalidTransfers() {
+        var account = Account.createAccount();
+
+        Assertions.assertThatThrownBy(() -> new TransferNetting.Transfer(account, account, BigDecimal.TEN))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Assertions.assertThatThrownBy(() -> new TransferNetting.Transfer(account, Account.createAccount(), BigDecimal.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldTestNettingAlongsideSingleTransfersConservesMoney() throws Exception {
+        var accounts = List.of(Account.createAccount(), Account.createAccount(), Account.createAccount(), Account.createAccount());
+
+        accounts.forEach(account -> account.bankDeposit(BigDecimal.valueOf(1_000)));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int thread = 0; thread < 4; thread++) {
+                final int offset = thread;
+
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        var from = accounts.get((i + offset) % accounts.size());
+                        var to = accounts.get((i + offset + 1) % accounts.size());
+
+                        if (offset % 2 == 0) {
+                            TransferNetting.settle(List.of(new TransferNetting.Transfer(from, to, BigDecimal.ONE),
+                                    new TransferNetting.Transfer(to, from, BigDecimal.TEN)));
+                        } else {
+                            from.transferTo(BigDecimal.ONE, to);
+                        }
+                    }
+                }));
+            }
+
+            for (final Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertThat(BalanceSheet.of(accounts).total())
+                .isEqualByComparingTo(BigDecimal.valueOf(4_000));
+    }
+}
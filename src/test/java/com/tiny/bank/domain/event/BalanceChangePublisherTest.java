@@ -0,0 +1,68 @@
+package com.tiny.bank.domain.event;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.account.RecordMode;
+import com.tiny.bank.domain.account.RecordObserver;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+class BalanceChangePublisherTest {
+
+    private EventBus eventBus;
+    private AccountFactory accounts;
+    private final BlockingQueue<LedgerEvent> events = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        eventBus = new EventBus(1024);
+        eventBus.subscribe((sequence, event, endOfBatch) -> events.add(event));
+        accounts = new AccountFactory(RecordMode.SYNCHRONOUS, new BalanceChangePublisher(eventBus), RecordObserver.NONE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventBus.close();
+    }
+
+    @Test
+    void shouldTestEveryBalanceChangeOfEveryAccountIsPublishedInOrder() throws Exception {
+        var sender = accounts.createAccount(UUID.randomUUID(), Set.of(), BigDecimal.TEN);
+        var recipient = accounts.createAccount();
+
+        sender.transferTo(BigDecimal.ONE, recipient);
+        sender.bankWithdrawal(BigDecimal.ONE);
+
+        var published = new ArrayList<LedgerEvent>();
+
+        for (int i = 0; i < 3; i++) {
+            published.add(events.poll(5, TimeUnit.SECONDS));
+        }
+
+        Assertions.assertThat(published)
+                .map(BalanceChanged.class::cast)
+                .extracting(BalanceChanged::accountId, BalanceChanged::balance)
+                .containsExactly(
+                        Assertions.tuple(sender.getAccountId(), BigDecimal.valueOf(9)),
+                        Assertions.tuple(recipient.getAccountId(), BigDecimal.ONE),
+                        Assertions.tuple(sender.getAccountId(), BigDecimal.valueOf(8)));
+    }
+
+    @Test
+    void shouldTestAccountsOfOtherFactoriesAreNotPublished() throws Exception {
+        Account.createAccount().bankDeposit(BigDecimal.ONE);
+
+        Assertions.assertThat(events.poll(100, TimeUnit.MILLISECONDS))
+                .isNull();
+    }
+}
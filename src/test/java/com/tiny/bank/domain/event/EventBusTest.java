@@ -0,0 +1,241 @@
+package com.tiny.bank.domain.event;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+class EventBusTest {
+
+    private EventBus victim;
+
+    @BeforeEach
+    void setUp() {
+        victim = new EventBus(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        victim.close();
+    }
+
+    @Test
+    void shouldTestEventsAreDeliveredInOrderWithTheirSequence() throws Exception {
+        var subscriber = new CollectingSubscriber();
+
+        victim.subscribe(subscriber);
+
+        var first = balanceChanged(BigDecimal.ONE);
+        var second = balanceChanged(BigDecimal.TEN);
+
+        Assertions.assertThat(victim.publish(first))
+                .isZero();
+        Assertions.assertThat(victim.publish(second))
+                .isOne();
+
+        Assertions.assertThat(subscriber.take(2))
+                .containsExactly(new Delivery(0, first), new Delivery(1, second));
+    }
+
+    @Test
+    void shouldTestSubscribersOnlySeeEventsPublishedAfterSubscribing() throws Exception {
+        victim.publish(balanceChanged(BigDecimal.ONE));
+
+        var subscriber = new CollectingSubscriber();
+
+        victim.subscribe(subscriber);
+
+        var event = balanceChanged(BigDecimal.TEN);
+
+        victim.publish(event);
+
+        Assertions.assertThat(subscriber.take(1))
+                .containsExactly(new Delivery(1, event));
+    }
+
+    @Test
+    void shouldTestSubscribersResumeFromAKeptSequence() throws Exception {
+        var events = new ArrayList<LedgerEvent>();
+
+        for (int i = 0; i < 4; i++) {
+            events.add(balanceChanged(BigDecimal.valueOf(i)));
+            victim.publish(events.get(i));
+        }
+
+        var subscriber = new CollectingSubscriber();
+
+        victim.subscribe(subscriber, 2);
+
+        Assertions.assertThat(subscriber.take(2))
+                .containsExactly(new Delivery(2, events.get(2)), new Delivery(3, events.get(3)));
+    }
+
+    @Test
+    void shouldTestLappedSubscribersAreToldHowManyEventsTheyMissed() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            victim.publish(balanceChanged(BigDecimal.valueOf(i)));
+        }
+
+        var subscriber = new CollectingSubscriber();
+
+        victim.subscribe(subscriber, 0);
+
+        var deliveries = subscriber.take(16);
+
+        Assertions.assertThat(subscriber.missed)
+                .containsExactly(4L);
+
+        Assertions.assertThat(deliveries)
+                .extracting(Delivery::sequence)
+                .containsExactlyElementsOf(LongStream.range(4, 20).boxed().toList());
+    }
+
+    @Test
+    void shouldTestTheLastEventAvailableEndsTheBatch() throws Exception {
+        var endOfBatch = new LinkedBlockingQueue<Boolean>();
+
+        for (int i = 0; i < 3; i++) {
+            victim.publish(balanceChanged(BigDecimal.valueOf(i)));
+        }
+
+        victim.subscribe((sequence, event, end) -> endOfBatch.add(end), 0);
+
+        var flags = new ArrayList<Boolean>();
+
+        for (int i = 0; i < 3; i++) {
+            flags.add(endOfBatch.poll(5, TimeUnit.SECONDS));
+        }
+
+        Assertions.assertThat(flags)
+                .containsExactly(false, false, true);
+    }
+
+    @Test
+    void shouldTestAFailingSubscriberEndsItsSubscriptionAndIsClosed() throws Exception {
+        var closed = new CountDownLatch(1);
+        var subscription = victim.subscribe(new EventSubscriber() {
+
+            @Override
+            public void onEvent(final long sequence, final LedgerEvent event, final boolean endOfBatch) {
+                throw new IllegalStateException("failed");
+            }
+
+            @Override
+            public void onClose() {
+                closed.countDown();
+            }
+        });
+
+        victim.publish(balanceChanged(BigDecimal.ONE));
+
+        Assertions.assertThat(closed.await(5, TimeUnit.SECONDS))
+                .isTrue();
+
+        subscription.close();
+
+        Assertions.assertThat(subscription.isActive())
+                .isFalse();
+    }
+
+    @Test
+    void shouldTestClosedSubscriptionsStopDelivering() throws Exception {
+        var subscriber = new CollectingSubscriber();
+        var subscription = victim.subscribe(subscriber);
+
+        subscription.close();
+        victim.publish(balanceChanged(BigDecimal.ONE));
+
+        Assertions.assertThat(subscriber.deliveries.poll(100, TimeUnit.MILLISECONDS))
+                .isNull();
+    }
+
+    @Test
+    void shouldTestConcurrentPublishersDeliverEveryEventOnce() throws Exception {
+        var bus = new EventBus(1 << 16);
+        var subscriber = new CollectingSubscriber();
+        var publishers = 4;
+        var events = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(publishers);
+
+        try (bus) {
+            bus.subscribe(subscriber);
+
+            for (int i = 0; i < publishers; i++) {
+                executor.execute(() -> {
+                    for (int j = 0; j < events; j++) {
+                        bus.publish(balanceChanged(BigDecimal.valueOf(j)));
+                    }
+                });
+            }
+
+            Assertions.assertThat(subscriber.take(publishers * events))
+                    .extracting(Delivery::sequence)
+                    .doesNotHaveDuplicates()
+                    .isSorted()
+                    .hasSize(publishers * events);
+
+            Assertions.assertThat(subscriber.missed)
+                    .isEmpty();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldTestCapacityMustBeAPowerOfTwo() {
+        Assertions.assertThatThrownBy(() -> new EventBus(12))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static BalanceChanged balanceChanged(final BigDecimal balance) {
+        return new BalanceChanged(UUID.randomUUID(), balance, Instant.now());
+    }
+
+    private record Delivery(long sequence, LedgerEvent event) {
+    }
+
+    private static final class CollectingSubscriber implements EventSubscriber {
+
+        private final BlockingQueue<Delivery> deliveries = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Long> missed = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onEvent(final long sequence, final LedgerEvent event, final boolean endOfBatch) {
+            deliveries.add(new Delivery(sequence, event));
+        }
+
+        @Override
+        public void onMissed(final long count) {
+            missed.add(count);
+        }
+
+        private List<Delivery> take(final int count) throws InterruptedException {
+            var taken = new ArrayList<Delivery>();
+
+            for (int i = 0; i < count; i++) {
+                var delivery = deliveries.poll(5, TimeUnit.SECONDS);
+
+                Assertions.assertThat(delivery)
+                        .as("delivery %d of %d", i, count)
+                        .isNotNull();
+
+                taken.add(delivery);
+            }
+
+            return taken;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.tiny.bank.domain.event;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.account.BalanceObserver;
+import com.tiny.bank.domain.account.RecordMode;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionType;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+class TransactionRecordPublisherTest {
+
+    private EventBus eventBus;
+    private AccountFactory accounts;
+    private final BlockingQueue<LedgerEvent> events = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        eventBus = new EventBus(1024);
+        eventBus.subscribe((sequence, event, endOfBatch) -> events.add(event));
+        accounts = new AccountFactory(RecordMode.SYNCHRONOUS, BalanceObserver.NONE, new TransactionRecordPublisher(eventBus));
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventBus.close();
+    }
+
+    @Test
+    void shouldTestEveryNewRecordIsPublished() throws Exception {
+        var sender = accounts.createAccount(UUID.randomUUID(), Set.of(), BigDecimal.TEN);
+        var recipient = accounts.createAccount();
+
+        sender.transferTo(BigDecimal.ONE, recipient);
+
+        var published = new ArrayList<TransactionRecorded>();
+
+        for (int i = 0; i < 2; i++) {
+            published.add((TransactionRecorded) events.poll(5, TimeUnit.SECONDS));
+        }
+
+        var outbound = sender.getTransactions().iterator().next();
+
+        Assertions.assertThat(published)
+                .extracting(TransactionRecorded::accountId, TransactionRecorded::direction, TransactionRecorded::balanceAfterTransaction,
+                        TransactionRecorded::counterpartyAccountId)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple(sender.getAccountId(), TransactionType.OUTBOUND, BigDecimal.valueOf(9), recipient.getAccountId()),
+                        Assertions.tuple(recipient.getAccountId(), TransactionType.INBOUND, BigDecimal.ONE, sender.getAccountId()));
+
+        Assertions.assertThat(published)
+                .extracting(TransactionRecorded::transactionId)
+                .containsOnly(outbound.id());
+    }
+
+    @Test
+    void shouldTestRestoredRecordsAreNotPublished() throws Exception {
+        var source = Account.createAccount();
+
+        source.bankDeposit(BigDecimal.ONE);
+
+        accounts.createAccount().restoreTransactions(new ArrayList<TransactionRecord>(source.getTransactions()));
+
+        Assertions.assertThat(events.poll(100, TimeUnit.MILLISECONDS))
+                .isNull();
+    }
+}
@@ -0,0 +1,53 @@
+package com.tiny.bank.domain.usecase;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class GradientConcurrencyLimiterTest {
+
+    @Test
+    void shouldTestTheExcessIsRejected() {
+        var victim = new GradientConcurrencyLimiter(2, 1, 10);
+
+        Assertions.assertThat(victim.tryAcquire()).isTrue();
+        Assertions.assertThat(victim.tryAcquire()).isTrue();
+        Assertions.assertThat(victim.tryAcquire()).isFalse();
+
+        victim.release(1_000);
+
+        Assertions.assertThat(victim.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldTestTheLimitFollowsTheLatency() {
+        var victim = new GradientConcurrencyLimiter(10, 1, 100);
+
+        //Saturated at a steady latency, the limit grows
+        saturate(victim, 200, 1_000);
+
+        final int grown = victim.getLimit();
+
+        Assertions.assertThat(grown)
+                .isGreaterThan(10);
+
+        //Latency explodes once operations queue on hot accounts, the limit shrinks
+        saturate(victim, 50, 20_000);
+
+        Assertions.assertThat(victim.getLimit())
+                .isLessThan(grown / 2);
+    }
+
+    private static void saturate(final GradientConcurrencyLimiter victim, final int rounds, final long latencyNanos) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+
+            while (victim.tryAcquire()) {
+                admitted++;
+            }
+
+            for (int i = 0; i < admitted; i++) {
+                victim.release(latencyNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.tiny.bank.domain.usecase;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class TimingWheelTest {
+
+    @Test
+    void shouldTestTasksAreReturnedWhenDue() {
+        var victim = new TimingWheel<Long>(1_000);
+
+        victim.add(1_001, 1_001L);
+        victim.add(1_064, 1_064L);
+        victim.add(5_000, 5_000L);
+        victim.add(1_000_000, 1_000_000L);
+
+        Assertions.assertThat(victim.advance(1_000))
+                .isEmpty();
+
+        Assertions.assertThat(victim.advance(1_001))
+                .containsExactly(1_001L);
+
+        Assertions.assertThat(victim.advance(4_999))
+                .containsExactly(1_064L);
+
+        Assertions.assertThat(victim.advance(5_000))
+                .containsExactly(5_000L);
+
+        Assertions.assertThat(victim.advance(999_999))
+                .isEmpty();
+
+        Assertions.assertThat(victim.advance(1_000_000))
+                .containsExactly(1_000_000L);
+
+        Assertions.assertThat(victim.size())
+                .isZero();
+    }
+
+    @Test
+    void shouldTestPastTasksAreDueOnTheNextAdvance() {
+        var victim = new TimingWheel<String>(100);
+
+        victim.add(50, "past");
+        victim.add(100, "now");
+
+        Assertions.assertThat(victim.advance(100))
+                .containsExactly("past", "now");
+    }
+
+    @Test
+    void shouldTestRandomTasksAreNeverEarlyNorLate() {
+        var random = new Random(42);
+        var victim = new TimingWheel<Long>(0);
+        var ticks = new ArrayList<Long>();
+
+        for (int i = 0; i < 10_000; i++) {
+            final long tick = 1 + random.nextLong(1L << 20);
+
+            ticks.add(tick);
+            victim.add(tick, tick);
+        }
+
+        long now = 0;
+        final List<Long> returned = new ArrayList<>();
+
+        while (now < 1L << 20) {
+            final long previous = now;
+            now += 1 + random.nextInt(5_000);
+
+            final long current = now;
+
+            Assertions.assertThat(victim.advance(now))
+                    .allSatisfy(tick -> Assertions.assertThat(tick).isGreaterThan(previous).isLessThanOrEqualTo(current))
+                    .satisfies(returned::addAll);
+        }
+
+        Assertions.assertThat(returned)
+                .containsExactlyInAnyOrderElementsOf(ticks);
+    }
+}
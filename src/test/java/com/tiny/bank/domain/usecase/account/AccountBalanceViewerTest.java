@@ -1,6 +1,7 @@
 package com.tiny.bank.domain.usecase.account;
 
 import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountBalance;
 import com.tiny.bank.domain.exception.UserNotAvailableException;
 import com.tiny.bank.domain.user.State;
 import com.tiny.bank.domain.user.User;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Optional;
 import java.util.Set;
@@ -81,4 +83,27 @@ class AccountBalanceViewerTest {
                 .isInstanceOf(UserNotAvailableException.class);
     }
 
+    @Test
+    void shouldTestTheViewBalanceSheetIfUserPresent() {
+        var account = Account.createAccountWithInitialBalance(BigDecimal.TEN);
+        var secondAccount = Account.createAccount();
+        var user = new User(UUID.randomUUID(), "name", "ccNumber", LocalDate.now(), Set.of(account, secondAccount), State.ACTIVE);
+
+        when(repositoryMock.getUser("ccNumber")).thenReturn(Optional.of(user));
+
+        var result = victim.viewBalanceSheet(user.ccNumber());
+
+        Assertions.assertThat(result.balances())
+                .containsExactlyInAnyOrder(new AccountBalance(account.getAccountId(), BigDecimal.TEN),
+                        new AccountBalance(secondAccount.getAccountId(), BigDecimal.ZERO));
+    }
+
+    @Test
+    void shouldTestTheViewBalanceSheetIfUserNotPresent() {
+        when(repositoryMock.getUser(anyString())).thenReturn(Optional.empty());
+
+        Assertions.assertThatThrownBy(() -> victim.viewBalanceSheet("ccNumber"))
+                .isInstanceOf(UserNotAvailableException.class);
+    }
+
 }
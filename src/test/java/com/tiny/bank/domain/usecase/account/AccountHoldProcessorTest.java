@@ -0,0 +1,87 @@
+package com.tiny.bank.domain.usecase.account;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.exception.UserInactiveException;
+import com.tiny.bank.domain.exception.UserNotAvailableException;
+import com.tiny.bank.domain.user.State;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.repository.UserRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class AccountHoldProcessorTest {
+
+    @Mock
+    private UserRepository repositoryMock;
+    private AccountHoldProcessor victim;
+
+    private final Account account = Account.createAccount();
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+
+        account.bankDeposit(BigDecimal.valueOf(100));
+
+        victim = new AccountHoldProcessor(repositoryMock, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shouldTestExpiredHoldsAreReleased() {
+        var user = new User(UUID.randomUUID(), "name", "ccNumber", LocalDate.now(), Set.of(account), State.ACTIVE);
+
+        when(repositoryMock.getUser("ccNumber")).thenReturn(Optional.of(user));
+
+        var expiring = victim.reserve("ccNumber", account.getAccountId(), BigDecimal.valueOf(30), Duration.ofMinutes(5));
+        var captured = victim.reserve("ccNumber", account.getAccountId(), BigDecimal.valueOf(20), Duration.ofMinutes(5));
+
+        victim.capture("ccNumber", account.getAccountId(), captured.id(), null);
+
+        Assertions.assertThat(victim.releaseExpired(LocalDateTime.now().plusMinutes(4)))
+                .isZero();
+
+        Assertions.assertThat(account.getAvailableBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(50));
+
+        Assertions.assertThat(victim.releaseExpired(expiring.expiresAt().plusSeconds(1)))
+                .isEqualTo(1);
+
+        Assertions.assertThat(account.getAvailableBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(80));
+
+        Assertions.assertThat(account.getHolds())
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestAReservationIfUserInactive() {
+        var user = new User(UUID.randomUUID(), "name", "ccNumber", LocalDate.now(), Set.of(account), State.INACTIVE);
+
+        when(repositoryMock.getUser("ccNumber")).thenReturn(Optional.of(user));
+
+        Assertions.assertThatThrownBy(() -> victim.reserve("ccNumber", account.getAccountId(), BigDecimal.TEN, Duration.ofMinutes(5)))
+                .isInstanceOf(UserInactiveException.class);
+    }
+
+    @Test
+    void shouldTestAReservationIfUserNotPresent() {
+        when(repositoryMock.getUser(anyString())).thenReturn(Optional.empty());
+
+        Assertions.assertThatThrownBy(() -> victim.reserve("ccNumber", UUID.randomUUID(), BigDecimal.TEN, Duration.ofMinutes(5)))
+                .isInstanceOf(UserNotAvailableException.class);
+    }
+}
@@ -2,6 +2,8 @@ package com.tiny.bank.domain.usecase.transaction;
 
 import com.tiny.bank.domain.account.Account;
 import com.tiny.bank.domain.exception.UserNotAvailableException;
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionArchive;
 import com.tiny.bank.domain.user.State;
 import com.tiny.bank.domain.user.User;
 import com.tiny.bank.repository.UserRepository;
@@ -10,12 +12,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
 
@@ -70,7 +79,7 @@ class TransactionHistoryViewerTest {
                 .isNotNull();
 
         Assertions.assertThat(result)
-                .isEqualTo(Set.of(Set.of()));
+                .isEqualTo(List.of(Set.of(), Set.of()));
     }
 
     @Test
@@ -81,4 +90,49 @@ class TransactionHistoryViewerTest {
                 .isInstanceOf(UserNotAvailableException.class);
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldTestTheViewMergesArchivedTransactions() {
+        var account = Account.createAccount();
+        var user = new User(UUID.randomUUID(), "name", "ccNumber", LocalDate.now(), Set.of(account), State.ACTIVE);
+        var archive = mock(TransactionArchive.class);
+
+        account.bankDeposit(BigDecimal.TEN);
+
+        var archived = InboundTransactionRecord.createPersonalInboundTransaction(BigDecimal.ONE, BigDecimal.ONE, account.getAccountId());
+
+        when(repositoryMock.getUser("ccNumber")).thenReturn(Optional.of(user));
+        when(archive.read(eq(account.getAccountId()), any())).thenReturn(Set.of(archived));
+
+        var result = new TransactionHistoryViewer(repositoryMock, archive).view(user.ccNumber(), account.getAccountId());
+
+        Assertions.assertThat(result)
+                .hasSize(2)
+                .contains(archived)
+                .containsAll(account.getTransactions());
+    }
+
+    @Test
+    void shouldTestTheViewOfADateRange() {
+        var account = Account.createAccount();
+        var user = new User(UUID.randomUUID(), "name", "ccNumber", LocalDate.now(), Set.of(account), State.ACTIVE);
+        var archive = mock(TransactionArchive.class);
+        var now = LocalDateTime.now();
+
+        account.bankDeposit(BigDecimal.TEN);
+
+        var archived = InboundTransactionRecord.createPersonalInboundTransaction(UUID.randomUUID(), BigDecimal.ONE, BigDecimal.ONE,
+                now.minusDays(1), account.getAccountId());
+
+        when(repositoryMock.getUser("ccNumber")).thenReturn(Optional.of(user));
+        when(archive.read(eq(account.getAccountId()), eq(now.minusDays(2)), isNull(), any())).thenReturn(Set.of(archived));
+
+        var result = new TransactionHistoryViewer(repositoryMock, archive).viewRange(user.ccNumber(), account.getAccountId(),
+                now.minusDays(2), null);
+
+        Assertions.assertThat(result)
+                .hasSize(2)
+                .startsWith(archived)
+                .containsAll(account.getTransactions());
+    }
+
+}
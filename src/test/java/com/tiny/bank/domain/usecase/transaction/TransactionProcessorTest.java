@@ -1,9 +1,17 @@
 package com.tiny.bank.domain.usecase.transaction;
 
 import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.exception.OperationRejectedException;
+import com.tiny.bank.domain.exception.OverloadedException;
 import com.tiny.bank.domain.exception.UserNotAvailableException;
 import com.tiny.bank.domain.transaction.Transaction;
+import com.tiny.bank.domain.transaction.TransactionType;
+import com.tiny.bank.domain.usecase.GradientConcurrencyLimiter;
+import com.tiny.bank.domain.usecase.OperationCheck;
+import com.tiny.bank.domain.usecase.OperationStatus;
 import com.tiny.bank.domain.user.User;
+import com.tiny.bank.domain.velocity.VelocityCheck;
+import com.tiny.bank.domain.velocity.VelocityRule;
 import com.tiny.bank.repository.UserRepository;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,10 +19,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
@@ -122,4 +134,161 @@ class TransactionProcessorTest {
         verify(senderMock, never()).transferBetweenAccounts(BigDecimal.TEN, transactionMock.providerAccountId(), transactionMock.recipientAccountId());
     }
 
+    @Test
+    void shouldTestABatchOfTransactions() {
+        var failing = new Transaction(BigDecimal.TEN, "unknownId", UUID.randomUUID(), "receiverId", UUID.randomUUID());
+        var succeeding = new Transaction(BigDecimal.TEN, "senderId", UUID.randomUUID(), "receiverId", UUID.randomUUID());
+
+        when(repositoryMock.getUser("unknownId")).thenReturn(Optional.empty());
+        when(repositoryMock.getUser("senderId")).thenReturn(Optional.of(senderMock));
+        when(repositoryMock.getUser("receiverId")).thenReturn(Optional.of(receiverMock));
+
+        when(senderMock.findAccount(succeeding.providerAccountId())).thenReturn(senderAccountMock);
+        when(receiverMock.findAccount(succeeding.recipientAccountId())).thenReturn(receiverAccountMock);
+
+        var statuses = victim.processAll(List.of(failing, succeeding, succeeding));
+
+        Assertions.assertThat(statuses)
+                .extracting(OperationStatus::isSuccessful)
+                .containsExactly(false, true, true);
+
+        verify(senderAccountMock, times(2)).transferTo(BigDecimal.TEN, receiverAccountMock);
+        verify(repositoryMock, times(1)).getUser("receiverId");
+    }
+
+    @Test
+    void shouldTestANettedBatchOfTransactions() {
+        var senderAccount = Account.createAccount();
+        var receiverAccount = Account.createAccount();
+
+        senderAccount.bankDeposit(BigDecimal.valueOf(100));
+
+        when(repositoryMock.getUser("unknownId")).thenReturn(Optional.empty());
+        when(repositoryMock.getUser("senderId")).thenReturn(Optional.of(senderMock));
+        when(repositoryMock.getUser("receiverId")).thenReturn(Optional.of(receiverMock));
+
+        when(senderMock.findAccount(senderAccount.getAccountId())).thenReturn(senderAccount);
+        when(receiverMock.findAccount(receiverAccount.getAccountId())).thenReturn(receiverAccount);
+
+        var statuses = victim.processNetted(List.of(
+                new Transaction(BigDecimal.valueOf(80), "senderId", senderAccount.getAccountId(), "receiverId", receiverAccount.getAccountId()),
+                new Transaction(BigDecimal.TEN, "unknownId", UUID.randomUUID(), "receiverId", receiverAccount.getAccountId()),
+                new Transaction(BigDecimal.valueOf(50), "receiverId", receiverAccount.getAccountId(), "senderId", senderAccount.getAccountId()),
+                new Transaction(BigDecimal.valueOf(60), "senderId", senderAccount.getAccountId(), "receiverId", receiverAccount.getAccountId()),
+                new Transaction(BigDecimal.valueOf(20), "senderId", senderAccount.getAccountId(), "receiverId", receiverAccount.getAccountId())
+        ));
+
+        //Spending what it receives in the window, the sender only overdraws with the last transfer
+        Assertions.assertThat(statuses)
+                .extracting(OperationStatus::isSuccessful)
+                .containsExactly(true, false, true, true, false);
+
+        Assertions.assertThat(senderAccount.getBalance())
+                .isEqualByComparingTo(BigDecimal.TEN);
+
+        Assertions.assertThat(receiverAccount.getBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(90));
+
+        Assertions.assertThat(receiverAccount.getTransactions())
+                .hasSize(3);
+    }
+
+    @Test
+    void shouldTestATransactionRejectedByTheOperationCheck() {
+        var transaction = new Transaction(BigDecimal.TEN, "senderId", UUID.randomUUID(), "receiverId", UUID.randomUUID());
+        var operationCheck = new VelocityCheck(List.of(new VelocityRule.MaxOperations(TransactionType.OUTBOUND, 1)),
+                Duration.ofHours(1), 60, Clock.systemUTC());
+
+        victim = new TransactionProcessor(repositoryMock, operationCheck);
+
+        when(repositoryMock.getUser("senderId")).thenReturn(Optional.of(senderMock));
+        when(repositoryMock.getUser("receiverId")).thenReturn(Optional.of(receiverMock));
+
+        when(senderMock.findAccount(transaction.providerAccountId())).thenReturn(senderAccountMock);
+        when(receiverMock.findAccount(transaction.recipientAccountId())).thenReturn(receiverAccountMock);
+
+        victim.process(transaction);
+
+        Assertions.assertThatThrownBy(() -> victim.process(transaction))
+                .isInstanceOf(OperationRejectedException.class);
+
+        verify(senderAccountMock, times(1)).transferTo(BigDecimal.TEN, receiverAccountMock);
+    }
+
+    @Test
+    void shouldTestAFailedTransactionDoesNotCountTowardsTheOperationCheck() {
+        var senderAccount = Account.createAccountWithInitialBalance(BigDecimal.valueOf(100));
+        var receiverAccount = Account.createAccount();
+        var operationCheck = new VelocityCheck(List.of(new VelocityRule.MaxOperations(TransactionType.OUTBOUND, 1)),
+                Duration.ofHours(1), 60, Clock.systemUTC());
+
+        victim = new TransactionProcessor(repositoryMock, operationCheck);
+
+        when(repositoryMock.getUser("senderId")).thenReturn(Optional.of(senderMock));
+        when(repositoryMock.getUser("receiverId")).thenReturn(Optional.of(receiverMock));
+
+        when(senderMock.findAccount(senderAccount.getAccountId())).thenReturn(senderAccount);
+        when(receiverMock.findAccount(receiverAccount.getAccountId())).thenReturn(receiverAccount);
+
+        var overdraft = new Transaction(BigDecimal.valueOf(1_000), "senderId", senderAccount.getAccountId(), "receiverId", receiverAccount.getAccountId());
+        var transfer = new Transaction(BigDecimal.TEN, "senderId", senderAccount.getAccountId(), "receiverId", receiverAccount.getAccountId());
+
+        Assertions.assertThatThrownBy(() -> victim.process(overdraft))
+                .isNotInstanceOf(OperationRejectedException.class);
+
+        victim.process(transfer);
+
+        Assertions.assertThat(senderAccount.getBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(90));
+    }
+
+    @Test
+    void shouldTestANettedBatchCannotCrossAnOperationCountLimit() {
+        var senderAccount = Account.createAccountWithInitialBalance(BigDecimal.valueOf(100));
+        var receiverAccount = Account.createAccount();
+        var operationCheck = new VelocityCheck(List.of(new VelocityRule.MaxOperations(TransactionType.OUTBOUND, 2)),
+                Duration.ofHours(1), 60, Clock.systemUTC());
+
+        victim = new TransactionProcessor(repositoryMock, operationCheck);
+
+        when(repositoryMock.getUser("senderId")).thenReturn(Optional.of(senderMock));
+        when(repositoryMock.getUser("receiverId")).thenReturn(Optional.of(receiverMock));
+
+        when(senderMock.findAccount(senderAccount.getAccountId())).thenReturn(senderAccount);
+        when(receiverMock.findAccount(receiverAccount.getAccountId())).thenReturn(receiverAccount);
+
+        var transfer = new Transaction(BigDecimal.TEN, "senderId", senderAccount.getAccountId(), "receiverId", receiverAccount.getAccountId());
+        var overdraft = new Transaction(BigDecimal.valueOf(1_000), "senderId", senderAccount.getAccountId(), "receiverId", receiverAccount.getAccountId());
+
+        //Rejected by the netting, the overdraft does not count beyond its batch
+        Assertions.assertThat(victim.processNetted(List.of(overdraft)))
+                .extracting(OperationStatus::isSuccessful)
+                .containsExactly(false);
+
+        Assertions.assertThat(victim.processNetted(List.of(transfer, transfer, transfer)))
+                .extracting(OperationStatus::isSuccessful)
+                .containsExactly(true, true, false);
+
+        Assertions.assertThat(senderAccount.getBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(80));
+
+        Assertions.assertThatThrownBy(() -> victim.process(transfer))
+                .isInstanceOf(OperationRejectedException.class);
+    }
+
+    @Test
+    void shouldTestATransactionRejectedByTheConcurrencyLimit() {
+        var transaction = new Transaction(BigDecimal.TEN, "senderId", UUID.randomUUID(), "receiverId", UUID.randomUUID());
+        var concurrencyLimiter = new GradientConcurrencyLimiter(1, 1, 1);
+
+        victim = new TransactionProcessor(repositoryMock, OperationCheck.NONE, concurrencyLimiter);
+
+        concurrencyLimiter.tryAcquire();
+
+        Assertions.assertThatThrownBy(() -> victim.process(transaction))
+                .isInstanceOf(OverloadedException.class);
+
+        verify(repositoryMock, never()).getUser("senderId");
+    }
+
 }
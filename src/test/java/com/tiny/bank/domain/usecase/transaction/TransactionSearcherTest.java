@@ -0,0 +1,113 @@
+package com.tiny.bank.domain.usecase.transaction;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.exception.UserNotAvailableException;
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionArchive;
+import com.tiny.bank.domain.transaction.TransactionSearchCriteria;
+import com.tiny.bank.domain.user.State;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.repository.UserRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class TransactionSearcherTest {
+
+    @Mock
+    private UserRepository repositoryMock;
+    @Mock
+    private TransactionArchive archiveMock;
+
+    private TransactionSearcher victim;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+
+        victim = new TransactionSearcher(repositoryMock, archiveMock);
+    }
+
+    @Test
+    void shouldTestTheSearchAcrossAccountsAndArchive() {
+        var account = Account.createAccount();
+        var secondAccount = Account.createAccount();
+        var user = new User(UUID.randomUUID(), "name", "ccNumber", LocalDate.now(), Set.of(account, secondAccount), State.ACTIVE);
+
+        account.bankDeposit(BigDecimal.TEN);
+        account.bankDeposit(BigDecimal.ONE);
+        secondAccount.bankDeposit(BigDecimal.valueOf(20));
+
+        var archived = InboundTransactionRecord.createPersonalInboundTransaction(BigDecimal.valueOf(15), BigDecimal.valueOf(15), account.getAccountId());
+        var archivedOutOfRange = InboundTransactionRecord.createPersonalInboundTransaction(BigDecimal.valueOf(2), BigDecimal.valueOf(2), account.getAccountId());
+
+        when(repositoryMock.getUser("ccNumber")).thenReturn(Optional.of(user));
+        when(archiveMock.read(eq(account.getAccountId()), isNull(), isNull(), any())).thenReturn(Set.of(archived, archivedOutOfRange));
+        when(archiveMock.read(eq(secondAccount.getAccountId()), isNull(), isNull(), any())).thenReturn(Set.of());
+
+        var result = victim.search("ccNumber", new TransactionSearchCriteria(null, BigDecimal.valueOf(5), null, null, null));
+
+        Assertions.assertThat(result)
+                .extracting("amount")
+                .containsExactlyInAnyOrder(BigDecimal.TEN, BigDecimal.valueOf(20), BigDecimal.valueOf(15));
+    }
+
+    @Test
+    void shouldTestArchivedCounterpartiesAreLookedUpOncePerSearch() {
+        var account = Account.createAccount();
+        var secondAccount = Account.createAccount();
+        var user = new User(UUID.randomUUID(), "name", "ccNumber", LocalDate.now(), Set.of(account, secondAccount), State.ACTIVE);
+        var counterparty = UUID.randomUUID();
+        var closed = UUID.randomUUID();
+
+        when(repositoryMock.getUser("ccNumber")).thenReturn(Optional.of(user));
+        when(repositoryMock.findAccount(counterparty)).thenReturn(Optional.of(Account.createAccount()));
+        when(repositoryMock.findAccount(closed)).thenReturn(Optional.empty());
+        when(archiveMock.read(any(), isNull(), isNull(), any())).thenAnswer(invocation -> {
+            Function<UUID, Account> counterparties = invocation.getArgument(3);
+
+            for (int i = 0; i < 3; i++) {
+                counterparties.apply(counterparty);
+                counterparties.apply(closed);
+            }
+
+            return Set.of();
+        });
+
+        victim.search("ccNumber", new TransactionSearchCriteria(null, null, null, null, null));
+
+        verify(repositoryMock, times(1)).findAccount(counterparty);
+        verify(repositoryMock, times(1)).findAccount(closed);
+    }
+
+    @Test
+    void shouldTestTheSearchIfUserNotPresent() {
+        when(repositoryMock.getUser(anyString())).thenReturn(Optional.empty());
+
+        Assertions.assertThatThrownBy(() -> victim.search("ccNumber", new TransactionSearchCriteria(null, null, null, null, null)))
+                .isInstanceOf(UserNotAvailableException.class);
+    }
+
+    @Test
+    void shouldTestTheSearchFailsWithInvertedRange() {
+        Assertions.assertThatThrownBy(() -> new TransactionSearchCriteria(null, BigDecimal.TEN, BigDecimal.ONE, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,127 @@
+package com.tiny.bank.domain.usecase.transaction;
+
+import com.tiny.bank.domain.transaction.Transaction;
+import com.tiny.bank.domain.usecase.OperationStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class TransferSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private final Transaction transaction = new Transaction(BigDecimal.TEN, "sender", UUID.randomUUID(), "recipient", UUID.randomUUID());
+
+    @Mock
+    private TransactionProcessor processorMock;
+
+    private TransferScheduler victim;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+
+        when(processorMock.processNetted(anyList()))
+                .thenAnswer(invocation -> invocation.<List<Transaction>>getArgument(0).stream().map(ignored -> OperationStatus.success()).toList());
+
+        victim = new TransferScheduler(processorMock, Duration.ofSeconds(1), 2);
+    }
+
+    @Test
+    void shouldTestAFutureDatedTransfer() {
+        var scheduled = victim.schedule(transaction, NOW.plusMinutes(5), null);
+
+        Assertions.assertThat(victim.runDue(NOW.plusMinutes(4)))
+                .isEqualTo(new ScheduledTransferSummary(0, 0));
+
+        Assertions.assertThat(victim.runDue(NOW.plusMinutes(5)))
+                .isEqualTo(new ScheduledTransferSummary(1, 0));
+
+        Assertions.assertThat(victim.find(scheduled.id()))
+                .isEmpty();
+
+        verify(processorMock).processNetted(List.of(transaction));
+    }
+
+    @Test
+    void shouldTestAStandingOrder() {
+        var scheduled = victim.schedule(transaction, NOW.plusDays(1), Period.ofMonths(1));
+
+        Assertions.assertThat(victim.runDue(NOW.plusDays(1)).executed())
+                .isEqualTo(1);
+
+        Assertions.assertThat(victim.runDue(NOW.plusDays(2)).executed())
+                .isZero();
+
+        Assertions.assertThat(victim.find(scheduled.id()))
+                .get()
+                .extracting(next -> next.executeAt())
+                .isEqualTo(NOW.plusDays(1).plusMonths(1));
+
+        Assertions.assertThat(victim.runDue(NOW.plusDays(1).plusMonths(1)).executed())
+                .isEqualTo(1);
+
+        Assertions.assertThat(victim.cancel(scheduled.id()))
+                .isTrue();
+
+        Assertions.assertThat(victim.runDue(NOW.plusDays(1).plusMonths(2)).executed())
+                .isZero();
+
+        verify(processorMock, times(2)).processNetted(List.of(transaction));
+    }
+
+    @Test
+    void shouldTestDueTransfersAreProcessedInBatches() {
+        when(processorMock.processNetted(anyList()))
+                .thenReturn(List.of(OperationStatus.success(), OperationStatus.failure("Insufficient funds")))
+                .thenReturn(List.of(OperationStatus.success()));
+
+        for (int i = 0; i < 3; i++) {
+            victim.schedule(transaction, NOW.plusMinutes(1), null);
+        }
+
+        Assertions.assertThat(victim.runDue(NOW.plusMinutes(1)))
+                .isEqualTo(new ScheduledTransferSummary(2, 1));
+
+        verify(processorMock, times(2)).processNetted(anyList());
+    }
+
+    @Test
+    void shouldTestACancelledTransferIsNotExecuted() {
+        var scheduled = victim.schedule(transaction, NOW.plusMinutes(1), null);
+
+        Assertions.assertThat(victim.cancel(scheduled.id()))
+                .isTrue();
+
+        Assertions.assertThat(victim.cancel(scheduled.id()))
+                .isFalse();
+
+        victim.runDue(NOW.plusMinutes(1));
+
+        verify(processorMock, never()).processNetted(anyList());
+    }
+
+    @Test
+    void shouldTestAnInvalidScheduleFails() {
+        Assertions.assertThatThrownBy(() -> victim.schedule(transaction, NOW, Period.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Assertions.assertThatThrownBy(() -> victim.schedule(new Transaction(BigDecimal.ZERO, "sender", UUID.randomUUID(), "recipient", UUID.randomUUID()), NOW, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,6 +1,7 @@
 package com.tiny.bank.domain.usecase.user;
 
 import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.exception.OperationRejectedException;
 import com.tiny.bank.domain.usecase.OperationStatus;
 import com.tiny.bank.domain.user.User;
 import com.tiny.bank.repository.UserRepository;
@@ -75,4 +76,20 @@ class UserWithdrawalProcessorTest {
         verify(userMock, never()).withdraw(any(), any());
     }
 
+    @Test
+    void shouldTestTheWithdrawalIfRejectedByTheOperationCheck() {
+        var accountId = UUID.randomUUID();
+
+        victim = new UserWithdrawalProcessor(repositoryMock, operation -> {
+            throw new OperationRejectedException("rejected");
+        });
+
+        when(repositoryMock.getUser(userMock.ccNumber())).thenReturn(Optional.of(userMock));
+
+        Assertions.assertThat(victim.process(userMock.ccNumber(), accountId, BigDecimal.TEN))
+                .isEqualTo(OperationStatus.failure("rejected"));
+
+        verify(userMock, never()).withdraw(any(), any());
+    }
+
 }
@@ -0,0 +1,108 @@
+package com.tiny.bank.domain.velocity;
+
+import com.tiny.bank.domain.transaction.TransactionType;
+import com.tiny.bank.domain.usecase.AccountOperation;
+import com.tiny.bank.domain.usecase.OperationCheck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost the velocity check adds to every operation, with every built-in rule enabled.
+ *
+ * <p>
+ * {@code none} is the disabled check, {@code reserve} checks and records a transfer out of an active account, as an
+ * executed transfer does, and {@code reserveAndCancel} also takes it back, as a failed transfer does. Single threaded,
+ * the score is the latency added to one operation.
+ * </p>
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=VelocityCheckBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(1)
+public class VelocityCheckBenchmark {
+
+    private static final int ACCOUNTS = 1024;
+
+    @State(Scope.Benchmark)
+    public static class CheckState {
+
+        private final OperationCheck velocityCheck = new VelocityCheck(List.of(
+                new VelocityRule.MaxOperations(TransactionType.OUTBOUND, Long.MAX_VALUE),
+                VelocityRule.MaxAmount.of(TransactionType.OUTBOUND, BigDecimal.valueOf(Long.MAX_VALUE / 1000)),
+                new VelocityRule.MaxOperations(TransactionType.INBOUND, Long.MAX_VALUE),
+                VelocityRule.MaxAmount.of(TransactionType.INBOUND, BigDecimal.valueOf(Long.MAX_VALUE / 1000)),
+                new VelocityRule.NewCounterparties(Long.MAX_VALUE)
+        ), Duration.ofHours(1), 60, Clock.systemUTC());
+
+        private final AccountOperation[] operations = new AccountOperation[ACCOUNTS];
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            for (int i = 0; i < ACCOUNTS; i++) {
+                operations[i] = new AccountOperation(UUID.randomUUID(), TransactionType.OUTBOUND, BigDecimal.TEN, UUID.randomUUID());
+
+                velocityCheck.reserve(operations[i]);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private int next;
+
+        private AccountOperation next(final CheckState state) {
+            return state.operations[next++ & (ACCOUNTS - 1)];
+        }
+    }
+
+    @Benchmark
+    public AccountOperation none(final CheckState state, final ThreadState thread) {
+        final AccountOperation operation = thread.next(state);
+
+        OperationCheck.NONE.reserve(operation);
+
+        return operation;
+    }
+
+    @Benchmark
+    public AccountOperation reserve(final CheckState state, final ThreadState thread) {
+        final AccountOperation operation = thread.next(state);
+
+        state.velocityCheck.reserve(operation);
+
+        return operation;
+    }
+
+    @Benchmark
+    public AccountOperation reserveAndCancel(final CheckState state, final ThreadState thread) {
+        final AccountOperation operation = thread.next(state);
+
+        state.velocityCheck.reserve(operation).cancel();
+
+        return operation;
+    }
+}
@@ -0,0 +1,200 @@
+package com.tiny.bank.domain.velocity;
+
+import com.tiny.bank.domain.exception.OperationRejectedException;
+import com.tiny.bank.domain.transaction.Transaction;
+import com.tiny.bank.domain.transaction.TransactionType;
+import com.tiny.bank.domain.usecase.AccountOperation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class VelocityCheckTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final UUID accountId = UUID.randomUUID();
+
+    @Test
+    void shouldTestTheOperationCountSlidesWithTheWindow() {
+        var victim = new VelocityCheck(List.of(new VelocityRule.MaxOperations(TransactionType.OUTBOUND, 2)),
+                Duration.ofMinutes(10), 10, clock);
+
+        var withdrawal = AccountOperation.withdrawal(accountId, BigDecimal.TEN);
+
+        victim.reserve(withdrawal);
+
+        clock.advance(Duration.ofMinutes(5));
+
+        victim.reserve(withdrawal);
+
+        Assertions.assertThatThrownBy(() -> victim.reserve(withdrawal))
+                .isInstanceOf(OperationRejectedException.class);
+
+        //Deposits are not limited by an outbound rule
+        victim.reserve(AccountOperation.deposit(accountId, BigDecimal.TEN));
+
+        clock.advance(Duration.ofMinutes(5));
+
+        victim.reserve(withdrawal);
+    }
+
+    @Test
+    void shouldTestTheAmountLimit() {
+        var victim = new VelocityCheck(List.of(VelocityRule.MaxAmount.of(TransactionType.INBOUND, BigDecimal.valueOf(100))),
+                Duration.ofHours(1), 60, clock);
+
+        var deposit = AccountOperation.deposit(accountId, BigDecimal.valueOf(60));
+
+        victim.reserve(deposit);
+
+        Assertions.assertThatThrownBy(() -> victim.reserve(AccountOperation.deposit(accountId, new BigDecimal("40.001"))))
+                .isInstanceOf(OperationRejectedException.class);
+
+        victim.reserve(AccountOperation.deposit(accountId, BigDecimal.valueOf(40)));
+    }
+
+    @Test
+    void shouldTestTheNewCounterpartyLimit() {
+        var victim = new VelocityCheck(List.of(new VelocityRule.NewCounterparties(1)), Duration.ofHours(1), 60, clock);
+
+        var known = AccountOperation.transferOut(new Transaction(BigDecimal.ONE, "sender", accountId, "recipient", UUID.randomUUID()));
+        var unknown = AccountOperation.transferOut(new Transaction(BigDecimal.ONE, "sender", accountId, "recipient", UUID.randomUUID()));
+
+        victim.reserve(known);
+        victim.reserve(known);
+
+        Assertions.assertThatThrownBy(() -> victim.reserve(unknown))
+                .isInstanceOf(OperationRejectedException.class);
+
+        clock.advance(Duration.ofHours(1));
+
+        victim.reserve(unknown);
+    }
+
+    @Test
+    void shouldTestCounterpartiesAreOnlyKnownWithinTheWindow() {
+        var victim = new VelocityCheck(List.of(new VelocityRule.NewCounterparties(1)), Duration.ofHours(1), 60, clock);
+
+        var first = AccountOperation.transferOut(new Transaction(BigDecimal.ONE, "sender", accountId, "recipient", UUID.randomUUID()));
+        var second = AccountOperation.transferOut(new Transaction(BigDecimal.ONE, "sender", accountId, "recipient", UUID.randomUUID()));
+
+        victim.reserve(first);
+
+        clock.advance(Duration.ofHours(1));
+
+        victim.reserve(second);
+
+        //Last transferred to before the window, the first counterparty is new again
+        Assertions.assertThatThrownBy(() -> victim.reserve(first))
+                .isInstanceOf(OperationRejectedException.class);
+    }
+
+    @Test
+    void shouldTestIdleActivitiesAreEvicted() {
+        var victim = new VelocityCheck(List.of(new VelocityRule.MaxOperations(TransactionType.OUTBOUND, 1)),
+                Duration.ofHours(1), 60, clock);
+        var otherAccountId = UUID.randomUUID();
+
+        victim.reserve(AccountOperation.withdrawal(accountId, BigDecimal.TEN));
+
+        clock.advance(Duration.ofMinutes(30));
+
+        victim.reserve(AccountOperation.withdrawal(otherAccountId, BigDecimal.TEN));
+
+        Assertions.assertThat(victim.evictIdle())
+                .isZero();
+
+        clock.advance(Duration.ofMinutes(30));
+
+        Assertions.assertThat(victim.evictIdle())
+                .isEqualTo(1);
+
+        //The evicted account starts over, the other one is still counted
+        victim.reserve(AccountOperation.withdrawal(accountId, BigDecimal.TEN));
+
+        Assertions.assertThatThrownBy(() -> victim.reserve(AccountOperation.withdrawal(otherAccountId, BigDecimal.TEN)))
+                .isInstanceOf(OperationRejectedException.class);
+    }
+
+    @Test
+    void shouldTestReservationsCountUntilCancelled() {
+        var victim = new VelocityCheck(List.of(new VelocityRule.MaxOperations(TransactionType.OUTBOUND, 1),
+                new VelocityRule.NewCounterparties(1)), Duration.ofHours(1), 60, clock);
+
+        var transfer = AccountOperation.transferOut(new Transaction(BigDecimal.ONE, "sender", accountId, "recipient", UUID.randomUUID()));
+        var reservation = victim.reserve(transfer);
+
+        Assertions.assertThatThrownBy(() -> victim.reserve(transfer))
+                .isInstanceOf(OperationRejectedException.class);
+
+        reservation.cancel();
+
+        //Neither the operation nor its counterparty are known anymore
+        victim.reserve(AccountOperation.transferOut(new Transaction(BigDecimal.ONE, "sender", accountId, "recipient", UUID.randomUUID())));
+    }
+
+    @Test
+    void shouldTestConcurrentOperationsNeverOvershootALimit() throws Exception {
+        var victim = new VelocityCheck(List.of(new VelocityRule.MaxOperations(TransactionType.INBOUND, 10_000)),
+                Duration.ofHours(1), 60, clock);
+        var accepted = new AtomicInteger();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            for (int thread = 0; thread < 4; thread++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        try {
+                            victim.reserve(AccountOperation.deposit(accountId, BigDecimal.ONE));
+                            accepted.incrementAndGet();
+                        } catch (OperationRejectedException e) {
+                            //Expected once the limit is reached
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        Assertions.assertThat(accepted.get())
+                .isEqualTo(10_000);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(final Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
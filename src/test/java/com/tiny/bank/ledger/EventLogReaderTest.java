@@ -0,0 +1,81 @@
+package com.tiny.bank.ledger;
+
+import com.tiny.bank.domain.event.AccountCreated;
+import com.tiny.bank.domain.event.BalanceChanged;
+import com.tiny.bank.domain.event.LedgerEvent;
+import com.tiny.bank.domain.event.TransactionRecorded;
+import com.tiny.bank.domain.event.UserCreated;
+import com.tiny.bank.domain.event.UserDeactivated;
+import com.tiny.bank.domain.transaction.TransactionType;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+class EventLogReaderTest {
+
+    private static final Instant TIME = Instant.parse("2024-01-31T10:15:30Z");
+
+    @Test
+    void shouldTestWrittenEntriesAreReadBack() throws Exception {
+        var accountId = UUID.randomUUID();
+        var events = List.<LedgerEvent>of(
+                new UserCreated("ccNumber", UUID.randomUUID(), "Zoë", LocalDate.of(1990, 1, 31), TIME),
+                new AccountCreated("ccNumber", accountId, new BigDecimal("10.50"), TIME),
+                new BalanceChanged(accountId, new BigDecimal("40.0"), TIME),
+                new TransactionRecorded(accountId, UUID.randomUUID(), TransactionType.OUTBOUND, new BigDecimal("2.5"),
+                        new BigDecimal("40.0"), LocalDateTime.of(2024, 1, 31, 10, 15, 30, 123_000_000), "description",
+                        UUID.randomUUID(), TIME),
+                new TransactionRecorded(accountId, UUID.randomUUID(), TransactionType.INBOUND, BigDecimal.ONE,
+                        BigDecimal.TEN, LocalDateTime.of(2024, 1, 31, 10, 15, 30), "deposit", null, TIME),
+                new UserDeactivated("ccNumber", TIME));
+        var output = new ByteArrayOutputStream();
+
+        try (var writer = new EventLogWriter(output)) {
+            writer.writeEvent(events.get(0));
+
+            for (int i = 1; i < events.size(); i++) {
+                writer.writeEvent(i, events.get(i));
+            }
+
+            writer.writeMissed(3);
+        }
+
+        var entries = output.toString(StandardCharsets.UTF_8).lines()
+                .map(EventLogReader::read)
+                .toList();
+
+        Assertions.assertThat(entries)
+                .hasSize(events.size() + 1);
+
+        Assertions.assertThat(entries.getFirst())
+                .isEqualTo(new EventLogEntry(EventLogEntry.NO_SEQUENCE, events.getFirst(), 0));
+
+        //Amounts keep their scale
+        for (int i = 1; i < events.size(); i++) {
+            Assertions.assertThat(entries.get(i))
+                    .isEqualTo(new EventLogEntry(i, events.get(i), 0));
+        }
+
+        Assertions.assertThat(entries.getLast())
+                .satisfies(entry -> Assertions.assertThat(entry.isMissed()).isTrue())
+                .extracting(EventLogEntry::missed)
+                .isEqualTo(3L);
+    }
+
+    @Test
+    void shouldTestMalformedEntriesAreRejected() {
+        Assertions.assertThatThrownBy(() -> EventLogReader.read("{\"type\":\"unknown\",\"time\":\"2024-01-31T10:15:30Z\"}"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Assertions.assertThatThrownBy(() -> EventLogReader.read("not json"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,167 @@
+package com.tiny.bank.ledger;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.HistoryRetention;
+import com.tiny.bank.domain.user.State;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.repository.ConcurrentMapUserRepository;
+import com.tiny.bank.repository.UserRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+class LedgerExporterTest {
+
+    @TempDir
+    private Path directory;
+
+    private UserRepository repository;
+
+    private Account senderAccount;
+    private Account recipientAccount;
+
+    private LedgerExporter victim;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ConcurrentMapUserRepository();
+
+        senderAccount = Account.createAccountWithInitialBalance(BigDecimal.valueOf(150.0));
+        recipientAccount = Account.createAccount();
+
+        repository.addUser(new User(UUID.randomUUID(), "sender", "sender", LocalDate.of(2001, 12, 10), Set.of(senderAccount), State.ACTIVE));
+        repository.addUser(new User(UUID.randomUUID(), "recipient", "recipient", LocalDate.of(1990, 1, 1), Set.of(recipientAccount), State.INACTIVE));
+
+        senderAccount.bankDeposit(BigDecimal.TEN);
+        senderAccount.transferTo(BigDecimal.valueOf(40), recipientAccount);
+
+        victim = new LedgerExporter(repository, 3);
+    }
+
+    @Test
+    void shouldTestPartitionedExport() throws IOException {
+        var result = victim.export(directory);
+
+        Assertions.assertThat(result.files())
+                .hasSize(3)
+                .allSatisfy(file -> Assertions.assertThat(Path.of(file)).exists());
+
+        Assertions.assertThat(result)
+                .extracting(LedgerExportSummary::users, LedgerExportSummary::accounts, LedgerExportSummary::transactions)
+                .containsExactly(2L, 2L, 3L);
+
+        long lines = 0;
+
+        for (final String file : result.files()) {
+            lines += decompress(Files.newInputStream(Path.of(file))).lines().count();
+        }
+
+        Assertions.assertThat(lines)
+                .isEqualTo(7);
+    }
+
+    @Test
+    void shouldTestExportCanBeImported() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        var result = victim.export(out);
+
+        Assertions.assertThat(result.files())
+                .isEmpty();
+
+        final Path file = Files.writeString(directory.resolve("ledger.ndjson"),
+                decompress(new ByteArrayInputStream(out.toByteArray())));
+
+        final UserRepository imported = new ConcurrentMapUserRepository();
+
+        var summary = new LedgerImporter(imported).importLedger(file, LedgerFormat.NDJSON);
+
+        Assertions.assertThat(summary)
+                .isEqualTo(new LedgerImportSummary(2, 2, 3));
+
+        final User recipient = imported.getUser("recipient").orElseThrow();
+
+        Assertions.assertThat(recipient.state())
+                .isEqualTo(State.INACTIVE);
+
+        Assertions.assertThat(recipient.findAccount(recipientAccount.getAccountId()).getBalance())
+                .isEqualTo(BigDecimal.valueOf(40));
+
+        Assertions.assertThat(imported.getUser("sender").orElseThrow().findAccount(senderAccount.getAccountId()).getTransactions())
+                .containsExactlyInAnyOrderElementsOf(senderAccount.getTransactions());
+    }
+
+    @Test
+    void shouldTestArchivedTransactionsAreExported() throws IOException {
+        final LedgerSegmentArchive archive = new LedgerSegmentArchive(directory.resolve("archive"), 4);
+        final var history = senderAccount.getTransactions();
+
+        senderAccount.archiveHistory(new HistoryRetention(0, null), archive, LocalDateTime.now().plusSeconds(1));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        var result = new LedgerExporter(repository, archive, 1).export(out);
+
+        Assertions.assertThat(senderAccount.getTransactions())
+                .isEmpty();
+
+        Assertions.assertThat(result.transactions())
+                .isEqualTo(3);
+
+        final Path file = Files.writeString(directory.resolve("ledger.ndjson"),
+                decompress(new ByteArrayInputStream(out.toByteArray())));
+        final UserRepository imported = new ConcurrentMapUserRepository();
+
+        new LedgerImporter(imported).importLedger(file, LedgerFormat.NDJSON);
+
+        Assertions.assertThat(imported.getUser("sender").orElseThrow().findAccount(senderAccount.getAccountId()).getTransactions())
+                .containsExactlyInAnyOrderElementsOf(history);
+    }
+
+    @Test
+    void shouldTestExportFailsWithoutPartitions() {
+        Assertions.assertThatThrownBy(() -> new LedgerExporter(repository, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldTestStreamedExportIsNotClosed() {
+        final boolean[] closed = {false};
+        final OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        victim.export(out);
+
+        Assertions.assertThat(closed[0])
+                .isFalse();
+    }
+
+    private static String decompress(final InputStream compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(compressed)) {
+            return new String(in.readAllBytes());
+        }
+    }
+}
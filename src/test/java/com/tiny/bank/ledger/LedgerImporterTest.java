@@ -0,0 +1,245 @@
+package com.tiny.bank.ledger;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.exception.UserAlreadyExistsException;
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.OutboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.user.State;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.repository.ConcurrentMapUserRepository;
+import com.tiny.bank.repository.UserRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+class LedgerImporterTest {
+
+    private static final UUID USER_ID = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+    private static final UUID FIRST_ACCOUNT_ID = UUID.fromString("7c9e6679-7425-40de-944b-e07fc1f90ae7");
+    private static final UUID SECOND_ACCOUNT_ID = UUID.fromString("b8a0d4e2-4f1c-4e0b-9b6e-2f5d7c3a9e11");
+    private static final UUID TRANSACTION_ID = UUID.fromString("3d813cbb-47fb-32ba-91df-831e1593ac29");
+
+    @TempDir
+    private Path directory;
+
+    private UserRepository repository;
+
+    private LedgerImporter victim;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ConcurrentMapUserRepository();
+        victim = new LedgerImporter(repository);
+    }
+
+    @Test
+    void shouldTestCsvLedgerImport() throws IOException {
+        final Path file = write("ledger.csv", """
+                # type,ccNumber,uuid,name,birthdate,state
+                user,14958775,%s,"Moreira, Rui",2001-12-10,ACTIVE
+                account,14958775,%s,140.0
+                account,14958775,%s,10
+                transaction,%s,%s,OUTBOUND,10,140.0,2024-01-15T10:30:00.123,%s,"Rent ""January""\"
+                transaction,%s,%s,INBOUND,10,10,2024-01-15T10:30:00.123,%s,Rent
+                """.formatted(USER_ID, FIRST_ACCOUNT_ID, SECOND_ACCOUNT_ID,
+                FIRST_ACCOUNT_ID, TRANSACTION_ID, SECOND_ACCOUNT_ID,
+                SECOND_ACCOUNT_ID, TRANSACTION_ID, FIRST_ACCOUNT_ID));
+
+        var result = victim.importLedger(file, LedgerFormat.CSV);
+
+        Assertions.assertThat(result)
+                .isEqualTo(new LedgerImportSummary(1, 2, 2));
+
+        final User user = repository.getUser("14958775").orElseThrow();
+
+        Assertions.assertThat(user.uuid())
+                .isEqualTo(USER_ID);
+
+        Assertions.assertThat(user.name())
+                .isEqualTo("Moreira, Rui");
+
+        Assertions.assertThat(user.birthdate())
+                .isEqualTo(LocalDate.of(2001, 12, 10));
+
+        final Account first = user.findAccount(FIRST_ACCOUNT_ID);
+        final Account second = user.findAccount(SECOND_ACCOUNT_ID);
+
+        Assertions.assertThat(first.getBalance())
+                .isEqualTo(new BigDecimal("140.0"));
+
+        Assertions.assertThat(first.getTransactions())
+                .singleElement()
+                .isInstanceOf(OutboundTransactionRecord.class)
+                .satisfies(record -> {
+                    Assertions.assertThat(record.id()).isEqualTo(TRANSACTION_ID);
+                    Assertions.assertThat(record.amount()).isEqualTo(BigDecimal.TEN);
+                    Assertions.assertThat(record.date()).isEqualTo(LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_000_000));
+                    Assertions.assertThat(record.description()).isEqualTo("Rent \"January\"");
+                    Assertions.assertThat(((OutboundTransactionRecord) record).recipient()).isSameAs(second);
+                });
+
+        Assertions.assertThat(second.getTransactions())
+                .singleElement()
+                .isInstanceOf(InboundTransactionRecord.class)
+                .extracting(record -> ((InboundTransactionRecord) record).provider())
+                .isSameAs(first);
+    }
+
+    @Test
+    void shouldTestNdjsonLedgerImport() throws IOException {
+        final Path file = write("ledger.ndjson", """
+                {"type":"user","ccNumber":"14958775","name":"Rui \\"Moreira\\" \\u00e9","birthdate":"2001-12-10","state":"INACTIVE","extra":true}
+
+                {"type": "account", "ccNumber": "14958775", "accountId": "%s", "balance": 150.5}
+                {"type":"transaction","accountId":"%s","id":"%s","direction":"INBOUND","amount":"150.5","balanceAfterTransaction":150.5,"date":"2024-01-15T10:30","counterpartyAccountId":null,"description":"Bank personal deposit"}
+                """.formatted(FIRST_ACCOUNT_ID, FIRST_ACCOUNT_ID, TRANSACTION_ID));
+
+        var result = victim.importLedger(file, LedgerFormat.NDJSON);
+
+        Assertions.assertThat(result)
+                .isEqualTo(new LedgerImportSummary(1, 1, 1));
+
+        final User user = repository.getUser("14958775").orElseThrow();
+
+        Assertions.assertThat(user.name())
+                .isEqualTo("Rui \"Moreira\" é");
+
+        Assertions.assertThat(user.state())
+                .isEqualTo(State.INACTIVE);
+
+        final Account account = user.findAccount(FIRST_ACCOUNT_ID);
+
+        Assertions.assertThat(account.getBalance())
+                .isEqualTo(new BigDecimal("150.5"));
+
+        Assertions.assertThat(account.getTransactions())
+                .singleElement()
+                .extracting(TransactionRecord::date, TransactionRecord::balanceAfterTransaction)
+                .containsExactly(LocalDateTime.of(2024, 1, 15, 10, 30), new BigDecimal("150.5"));
+    }
+
+    @Test
+    void shouldTestImportAcrossSeveralMappingWindows() throws IOException {
+        final StringBuilder content = new StringBuilder();
+
+        for (int i = 0; i < 50; i++) {
+            content.append("user,cc-").append(i).append(",,name ").append(i).append(",2001-12-10,\r\n");
+            content.append("account,cc-").append(i).append(',').append(UUID.randomUUID()).append(",1.5\r\n");
+        }
+
+        final Path file = write("ledger.csv", content.toString());
+
+        var result = new LedgerImporter(repository, AccountFactory.DEFAULT, 128).importLedger(file, LedgerFormat.CSV);
+
+        Assertions.assertThat(result)
+                .isEqualTo(new LedgerImportSummary(50, 50, 0));
+
+        Assertions.assertThat(repository.getUser("cc-49").orElseThrow().accounts())
+                .singleElement()
+                .extracting(Account::getBalance)
+                .isEqualTo(new BigDecimal("1.5"));
+    }
+
+    @Test
+    void shouldTestImportFailsOnMalformedLine() throws IOException {
+        final Path file = write("ledger.csv", """
+                user,14958775,,name,2001-12-10,ACTIVE
+                account,14958775,not-a-uuid,10
+                """);
+
+        Assertions.assertThatThrownBy(() -> victim.importLedger(file, LedgerFormat.CSV))
+                .isInstanceOf(LedgerFormatException.class)
+                .hasMessageContaining("line=2");
+
+        Assertions.assertThat(repository.getUser("14958775"))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestImportFailsOnTransactionForUnknownAccount() throws IOException {
+        final Path file = write("ledger.csv", """
+                transaction,%s,%s,INBOUND,10,10,2024-01-15T10:30:00,,deposit
+                """.formatted(FIRST_ACCOUNT_ID, TRANSACTION_ID));
+
+        Assertions.assertThatThrownBy(() -> victim.importLedger(file, LedgerFormat.CSV))
+                .isInstanceOf(LedgerFormatException.class)
+                .hasMessageContaining("unknown account");
+    }
+
+    @Test
+    void shouldTestImportFailsIfUserAlreadyExists() throws IOException {
+        repository.addUser(User.createUser("name", "14958775", LocalDate.now()));
+
+        final Path file = write("ledger.csv", "user,14958775,,name,2001-12-10,ACTIVE\n");
+
+        Assertions.assertThatThrownBy(() -> victim.importLedger(file, LedgerFormat.CSV))
+                .isInstanceOf(UserAlreadyExistsException.class);
+    }
+
+    @Test
+    void shouldTestImportPublishesNothingIfAnyUserAlreadyExists() throws IOException {
+        repository.addUser(User.createUser("name", "14958776", LocalDate.now()));
+
+        final Path file = write("ledger.csv", """
+                user,14958775,,name,2001-12-10,ACTIVE
+                user,14958776,,name,2001-12-10,ACTIVE
+                """);
+
+        Assertions.assertThatThrownBy(() -> victim.importLedger(file, LedgerFormat.CSV))
+                .isInstanceOf(UserAlreadyExistsException.class);
+
+        Assertions.assertThat(repository.getUser("14958775"))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestImportFailsIfAccountAlreadyExists() throws IOException {
+        repository.addUser(new User(USER_ID, "name", "14958776", LocalDate.now(),
+                Set.of(new Account(FIRST_ACCOUNT_ID, Set.of(), BigDecimal.ONE)), State.ACTIVE));
+
+        final Path file = write("ledger.csv", """
+                user,14958775,,name,2001-12-10,ACTIVE
+                account,14958775,%s,10
+                """.formatted(FIRST_ACCOUNT_ID));
+
+        Assertions.assertThatThrownBy(() -> victim.importLedger(file, LedgerFormat.CSV))
+                .isInstanceOf(LedgerFormatException.class)
+                .hasMessageContaining("line=2")
+                .hasMessageContaining("already exists");
+
+        Assertions.assertThat(repository.getUser("14958775"))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestImportFailsOnNegativeBalance() throws IOException {
+        final Path file = write("ledger.csv", """
+                user,14958775,,name,2001-12-10,ACTIVE
+                account,14958775,%s,-10
+                """.formatted(FIRST_ACCOUNT_ID));
+
+        Assertions.assertThatThrownBy(() -> victim.importLedger(file, LedgerFormat.CSV))
+                .isInstanceOf(LedgerFormatException.class)
+                .hasMessageContaining("line=2")
+                .hasMessageContaining("negative balance");
+
+        Assertions.assertThat(repository.getUser("14958775"))
+                .isEmpty();
+    }
+
+    private Path write(final String fileName, final String content) throws IOException {
+        return Files.writeString(directory.resolve(fileName), content);
+    }
+}
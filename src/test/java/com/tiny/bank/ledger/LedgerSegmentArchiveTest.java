@@ -0,0 +1,129 @@
+package com.tiny.bank.ledger;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.OutboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+class LedgerSegmentArchiveTest {
+
+    @TempDir
+    private Path directory;
+
+    private Account sender;
+    private Account recipient;
+
+    private LedgerSegmentArchive victim;
+
+    @BeforeEach
+    void setUp() {
+        sender = Account.createAccountWithInitialBalance(BigDecimal.valueOf(100));
+        recipient = Account.createAccount();
+
+        victim = new LedgerSegmentArchive(directory, 2);
+    }
+
+    @Test
+    void shouldTestArchivedRecordsCanBeRead() {
+        sender.bankWithdrawal(BigDecimal.ONE);
+        sender.transferTo(BigDecimal.TEN, recipient);
+
+        victim.append(sender.getAccountId(), sender.getTransactions());
+
+        var result = victim.read(sender.getAccountId(), Map.of(recipient.getAccountId(), recipient)::get);
+
+        Assertions.assertThat(result)
+                .containsExactlyInAnyOrderElementsOf(sender.getTransactions());
+
+        Assertions.assertThat(result)
+                .filteredOn(record -> ((OutboundTransactionRecord) record).recipient() != null)
+                .singleElement()
+                .extracting(record -> ((OutboundTransactionRecord) record).recipient())
+                .isSameAs(recipient);
+    }
+
+    @Test
+    void shouldTestSegmentsAreCompacted() throws IOException {
+        final List<TransactionRecord> archived = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            final Account account = Account.createAccount();
+            account.bankDeposit(BigDecimal.valueOf(i + 1));
+
+            archived.addAll(account.getTransactions());
+            victim.append(sender.getAccountId(), account.getTransactions());
+        }
+
+        try (Stream<Path> segments = Files.list(directory.resolve(sender.getAccountId().toString()))) {
+            Assertions.assertThat(segments.toList())
+                    .hasSizeLessThanOrEqualTo(2);
+        }
+
+        Assertions.assertThat(victim.read(sender.getAccountId(), id -> null))
+                .containsExactlyInAnyOrderElementsOf(archived);
+    }
+
+    @Test
+    void shouldTestARangedReadSkipsSegmentsOutsideTheRange() throws IOException {
+        var now = LocalDateTime.now();
+        var old = InboundTransactionRecord.createPersonalInboundTransaction(UUID.randomUUID(), BigDecimal.ONE, BigDecimal.ONE,
+                now.minusDays(10), sender.getAccountId());
+        var recent = InboundTransactionRecord.createPersonalInboundTransaction(UUID.randomUUID(), BigDecimal.TEN, BigDecimal.valueOf(11),
+                now.minusDays(1), sender.getAccountId());
+
+        victim = new LedgerSegmentArchive(directory, 10);
+        victim.append(sender.getAccountId(), List.of(old));
+        victim.append(sender.getAccountId(), List.of(recent));
+
+        //An unreadable segment proves the old one is never opened by a read after it
+        try (Stream<Path> segments = Files.list(directory.resolve(sender.getAccountId().toString()))) {
+            Files.write(segments.sorted().findFirst().orElseThrow(), new byte[]{1, 2, 3});
+        }
+
+        Assertions.assertThat(victim.read(sender.getAccountId(), now.minusDays(2), null, id -> null))
+                .containsExactly(recent);
+
+        Assertions.assertThat(victim.read(sender.getAccountId(), now.minusDays(2), now.minusDays(1).minusSeconds(1), id -> null))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestCompactedSegmentsKeepTheirRange() {
+        var now = LocalDateTime.now();
+        var old = InboundTransactionRecord.createPersonalInboundTransaction(UUID.randomUUID(), BigDecimal.ONE, BigDecimal.ONE,
+                now.minusDays(10), sender.getAccountId());
+        var recent = InboundTransactionRecord.createPersonalInboundTransaction(UUID.randomUUID(), BigDecimal.TEN, BigDecimal.valueOf(11),
+                now.minusDays(1), sender.getAccountId());
+
+        victim = new LedgerSegmentArchive(directory, 1);
+        victim.append(sender.getAccountId(), List.of(old));
+        victim.append(sender.getAccountId(), List.of(recent));
+
+        Assertions.assertThat(victim.read(sender.getAccountId(), null, now.minusDays(5), id -> null))
+                .containsExactly(old);
+
+        Assertions.assertThat(victim.read(sender.getAccountId(), now.minusDays(5), null, id -> null))
+                .containsExactly(recent);
+    }
+
+    @Test
+    void shouldTestReadOfAccountWithoutArchive() {
+        Assertions.assertThat(victim.read(UUID.randomUUID(), id -> null))
+                .isEmpty();
+    }
+}
@@ -0,0 +1,73 @@
+package com.tiny.bank.ledger;
+
+import com.tiny.bank.domain.event.BalanceChanged;
+import com.tiny.bank.domain.event.UserCreated;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+class RotatingEventLogTest {
+
+    private static final Instant TIME = Instant.parse("2024-01-31T10:15:30Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldTestEventsAreWrittenAsNdjson() throws Exception {
+        var accountId = UUID.fromString("6d1e4f2a-6b2c-4f57-9a3e-0c6f2f4b8e11");
+        var userId = UUID.fromString("0b7d2c1e-3f4a-4b5c-8d6e-7f8091a2b3c4");
+
+        try (var victim = new RotatingEventLog(directory, 1024 * 1024, 2)) {
+            victim.onEvent(0, new UserCreated("ccNumber", userId, "Zoë", LocalDate.of(1990, 1, 31), TIME), false);
+            victim.onMissed(3);
+            victim.onEvent(4, new BalanceChanged(accountId, new BigDecimal("1E+2"), TIME), true);
+        }
+
+        Assertions.assertThat(RotatingEventLog.files(directory))
+                .hasSize(1);
+
+        Assertions.assertThat(Files.readAllLines(RotatingEventLog.files(directory).get(0)))
+                .containsExactly(
+                        "{\"sequence\":0,\"type\":\"user-created\",\"time\":\"2024-01-31T10:15:30Z\",\"ccNumber\":\"ccNumber\","
+                                + "\"userId\":\"0b7d2c1e-3f4a-4b5c-8d6e-7f8091a2b3c4\",\"name\":\"Zoë\",\"birthdate\":\"1990-01-31\"}",
+                        "{\"type\":\"missed\",\"count\":3}",
+                        "{\"sequence\":4,\"type\":\"balance-changed\",\"time\":\"2024-01-31T10:15:30Z\","
+                                + "\"accountId\":\"6d1e4f2a-6b2c-4f57-9a3e-0c6f2f4b8e11\",\"balance\":100}");
+    }
+
+    @Test
+    void shouldTestFilesAreRotatedAndTheOldestDeleted() throws Exception {
+        try (var victim = new RotatingEventLog(directory, 1, 2)) {
+            for (int i = 0; i < 5; i++) {
+                victim.onEvent(i, new BalanceChanged(UUID.randomUUID(), BigDecimal.valueOf(i), TIME), true);
+            }
+        }
+
+        Assertions.assertThat(RotatingEventLog.files(directory))
+                .extracting(file -> file.getFileName().toString())
+                .containsExactly("events-00000000000000000003.ndjson", "events-00000000000000000004.ndjson");
+    }
+
+    @Test
+    void shouldTestReopenedLogsStartANewFile() throws Exception {
+        try (var victim = new RotatingEventLog(directory, 1024, 8)) {
+            victim.onEvent(0, new BalanceChanged(UUID.randomUUID(), BigDecimal.ONE, TIME), true);
+        }
+
+        try (var victim = new RotatingEventLog(directory, 1024, 8)) {
+            victim.onEvent(0, new BalanceChanged(UUID.randomUUID(), BigDecimal.TEN, TIME), true);
+        }
+
+        Assertions.assertThat(RotatingEventLog.files(directory))
+                .extracting(file -> file.getFileName().toString())
+                .containsExactly("events-00000000000000000000.ndjson", "events-00000000000000000001.ndjson");
+    }
+}
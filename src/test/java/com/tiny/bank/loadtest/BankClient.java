@@ -0,0 +1,123 @@
+package com.tiny.bank.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Sends the requests of the load test over HTTP, the way any other client of the API would.
+ */
+final class BankClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private final URI baseUri;
+
+    BankClient(final URI baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * An account of the load test population.
+     */
+    record BankAccount(String userId, String accountId) {
+    }
+
+    /**
+     * Creates a user with a single account holding the given amount.
+     */
+    BankAccount createFundedAccount(final String userId, final double amount) throws IOException, InterruptedException {
+        expectOk(createUser(userId), "create user " + userId);
+
+        final HttpResponse<String> account = expectOk(createAccount(userId), "create account of " + userId);
+        final String accountId = MAPPER.readTree(account.body())
+                .get("accounts")
+                .elements()
+                .next()
+                .get("accountId")
+                .asText();
+
+        expectOk(deposit(new BankAccount(userId, accountId), amount), "deposit into " + accountId);
+
+        return new BankAccount(userId, accountId);
+    }
+
+    HttpResponse<String> createUser(final String userId) throws IOException, InterruptedException {
+        return post("/users", Map.of("name", "Load test " + userId,
+                "ccNumber", userId,
+                "birthdate", LocalDate.of(1990, 1, 1).toString()));
+    }
+
+    HttpResponse<String> createAccount(final String userId) throws IOException, InterruptedException {
+        return post("/users/" + userId + "/accounts", null);
+    }
+
+    HttpResponse<String> deposit(final BankAccount account, final double amount) throws IOException, InterruptedException {
+        return post(accountPath(account) + "/deposit?amount=" + amount, null);
+    }
+
+    HttpResponse<String> withdraw(final BankAccount account, final double amount) throws IOException, InterruptedException {
+        return post(accountPath(account) + "/withdraw?amount=" + amount, null);
+    }
+
+    HttpResponse<String> transfer(final BankAccount sender, final BankAccount recipient, final double amount) throws IOException, InterruptedException {
+        return post("/transaction", Map.of("senderId", sender.userId(),
+                "senderAccountId", sender.accountId(),
+                "recipientId", recipient.userId(),
+                "recipientAccountId", recipient.accountId(),
+                "amount", amount));
+    }
+
+    /**
+     * Reads the last minute of history, the whole history of a popular account grows with the length of the run.
+     */
+    HttpResponse<String> history(final BankAccount account) throws IOException, InterruptedException {
+        final LocalDateTime from = LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+
+        return get(accountPath(account) + "/transactions?from=" + from);
+    }
+
+    HttpResponse<String> balance(final BankAccount account) throws IOException, InterruptedException {
+        return get(accountPath(account) + "/balance");
+    }
+
+    private static String accountPath(final BankAccount account) {
+        return "/users/" + account.userId() + "/accounts/" + account.accountId();
+    }
+
+    private HttpResponse<String> post(final String path, final Object body) throws IOException, InterruptedException {
+        final HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body));
+
+        return client.send(HttpRequest.newBuilder(baseUri.resolve(path))
+                        .header("Content-Type", "application/json")
+                        .POST(publisher)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(final String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(baseUri.resolve(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> expectOk(final HttpResponse<String> response, final String operation) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Failed to " + operation + ": " + response.statusCode() + " " + response.body());
+        }
+
+        return response;
+    }
+}
@@ -0,0 +1,56 @@
+package com.tiny.bank.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Latency percentiles and throughput of a load test run.
+ *
+ * @param duration  the measured period.
+ * @param latencies the latencies of every operation sent, in nanoseconds.
+ * @param errors    the number of responses of every operation that were not successful.
+ */
+record LoadReport(Duration duration, Map<Operation, Histogram> latencies, Map<Operation, Long> errors) {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * @return the requests completed per second, successful or not.
+     */
+    double throughput() {
+        final long requests = latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+
+        return requests / (duration.toNanos() / 1_000_000_000.0);
+    }
+
+    void print(final PrintStream out) {
+        final Histogram total = new Histogram(3);
+
+        out.printf("%-15s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        latencies.forEach((operation, histogram) -> {
+            total.add(histogram);
+            printRow(out, operation.name().toLowerCase(Locale.ROOT), histogram, errors.getOrDefault(operation, 0L));
+        });
+
+        printRow(out, "total", total, errors.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    private void printRow(final PrintStream out, final String name, final Histogram histogram, final long errorCount) {
+        out.printf("%-15s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                histogram.getTotalCount(),
+                errorCount,
+                histogram.getTotalCount() / (duration.toNanos() / 1_000_000_000.0),
+                histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                histogram.getMaxValue() / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,251 @@
+package com.tiny.bank.loadtest;
+
+import com.tiny.bank.TinyBankApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the application in-process and drives it over HTTP with a mix of banking traffic, then reports the latency
+ * percentiles and throughput of every {@link Operation}.
+ *
+ * <p>
+ * Accounts are picked following a Zipfian distribution, so a few accounts take most of the traffic and contend on
+ * their locks as popular merchant accounts would. Every worker draws its operations from its own seeded random source,
+ * so two runs with the same options send the same sequence of requests.
+ * </p>
+ *
+ * <p>
+ * Without a {@code rate}, workers send requests back to back and latencies only cover the requests that were sent. With
+ * a {@code rate}, every request has an intended start time and its latency is measured from that time, so a stalled
+ * server is charged for the requests it delayed rather than hiding them (coordinated omission).
+ * </p>
+ *
+ * <p>
+ * Run with {@code mvn -Pload-test test-compile exec:exec -Dload-test.args="duration=PT30S threads=8"}. Arguments
+ * starting with {@code --} are application properties, for instance {@code --tiny-bank.velocity.max-withdrawals=10}.
+ * The run exits with status 1 when its throughput is below {@code minThroughput}.
+ * </p>
+ */
+public final class LoadTest {
+
+    private static final long HIGHEST_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * Application logs would compete with the application for the disk.
+     */
+    private static final Map<String, String> APPLICATION_DEFAULTS = Map.of(
+            "server.port", "0",
+            "spring.main.banner-mode", "off",
+            "logging.level.com.tiny.bank", "WARN");
+
+    private final LoadTestOptions options;
+    private final BankClient client;
+    private final ZipfianGenerator popularity;
+    private final AtomicLong createdUsers = new AtomicLong();
+
+    private List<BankClient.BankAccount> accounts;
+
+    LoadTest(final LoadTestOptions options, final URI baseUri) {
+        this.options = options;
+        this.client = new BankClient(baseUri);
+        this.popularity = new ZipfianGenerator(options.users(), options.theta());
+    }
+
+    public static void main(final String... args) throws Exception {
+        final LoadTestOptions options = LoadTestOptions.parse(args);
+        final boolean passed;
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(TinyBankApplication.class, applicationArgs(options))) {
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final LoadReport report = new LoadTest(options, URI.create("http://localhost:" + port)).run();
+
+            report.print(System.out);
+            passed = report.throughput() >= options.minThroughput();
+
+            if (!passed) {
+                System.out.printf("FAILED: throughput %.1f req/s is below the minimum of %.1f req/s%n",
+                        report.throughput(), options.minThroughput());
+            }
+        }
+
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static String[] applicationArgs(final LoadTestOptions options) {
+        final Map<String, String> args = new LinkedHashMap<>(APPLICATION_DEFAULTS);
+
+        //A property given twice on the command line is bound as a list, so explicit properties replace the defaults
+        for (final String arg : options.springArgs()) {
+            final int separator = arg.indexOf('=');
+
+            args.put(arg.substring(2, separator < 0 ? arg.length() : separator), separator < 0 ? "" : arg.substring(separator + 1));
+        }
+
+        return args.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Creates the accounts, warms the application up and measures it.
+     *
+     * @return the {@link LoadReport} of the measured period.
+     */
+    LoadReport run() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+
+        try {
+            accounts = createAccounts(executor);
+
+            final long warmupStart = System.nanoTime();
+            final long measureStart = warmupStart + options.warmup().toNanos();
+            final long measureEnd = measureStart + options.duration().toNanos();
+            final List<Future<Worker>> workers = new ArrayList<>();
+
+            for (int i = 0; i < options.threads(); i++) {
+                final Worker worker = new Worker(new Random(options.seed() + i), warmupStart, measureStart, measureEnd);
+
+                workers.add(executor.submit(() -> {
+                    worker.run();
+                    return worker;
+                }));
+            }
+
+            final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+            final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+
+            for (final Future<Worker> future : workers) {
+                final Worker worker = future.get();
+
+                worker.latencies.forEach((operation, histogram) ->
+                        latencies.computeIfAbsent(operation, ignored -> newHistogram()).add(histogram));
+                worker.errors.forEach((operation, count) -> errors.merge(operation, count, Long::sum));
+            }
+
+            return new LoadReport(options.duration(), latencies, errors);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<BankClient.BankAccount> createAccounts(final ExecutorService executor) throws Exception {
+        final List<Future<BankClient.BankAccount>> futures = new ArrayList<>(options.users());
+
+        for (int i = 0; i < options.users(); i++) {
+            final String userId = "LT" + i;
+
+            futures.add(executor.submit(() -> client.createFundedAccount(userId, options.initialDeposit())));
+        }
+
+        final List<BankClient.BankAccount> created = new ArrayList<>(futures.size());
+
+        for (final Future<BankClient.BankAccount> future : futures) {
+            created.add(future.get());
+        }
+
+        return List.copyOf(created);
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(HIGHEST_LATENCY_NANOS, 3);
+    }
+
+    private final class Worker {
+
+        private final Random random;
+        private final long warmupStart;
+        private final long measureStart;
+        private final long measureEnd;
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+
+        private Worker(final Random random, final long warmupStart, final long measureStart, final long measureEnd) {
+            this.random = random;
+            this.warmupStart = warmupStart;
+            this.measureStart = measureStart;
+            this.measureEnd = measureEnd;
+        }
+
+        private void run() throws Exception {
+            final long interval = options.rate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(options.threads()) / options.rate()) : 0;
+            //Workers are staggered over the first interval rather than all sending at once
+            long intended = warmupStart + (interval == 0 ? 0 : random.nextLong(interval));
+
+            while (true) {
+                if (interval > 0) {
+                    LockSupport.parkNanos(intended - System.nanoTime());
+                }
+
+                final long start = interval > 0 ? intended : System.nanoTime();
+
+                if (start >= measureEnd) {
+                    return;
+                }
+
+                final Operation operation = options.mix().next(random);
+                final HttpResponse<String> response = send(operation);
+                final long end = System.nanoTime();
+
+                if (start >= measureStart) {
+                    latencies.computeIfAbsent(operation, ignored -> newHistogram())
+                            .recordValue(Math.min(end - start, HIGHEST_LATENCY_NANOS));
+
+                    if (response.statusCode() / 100 != 2) {
+                        errors.merge(operation, 1L, Long::sum);
+                    }
+                }
+
+                intended += interval;
+            }
+        }
+
+        private HttpResponse<String> send(final Operation operation) throws Exception {
+            return switch (operation) {
+                case CREATE_USER -> client.createUser("LTN" + createdUsers.incrementAndGet());
+                case CREATE_ACCOUNT -> client.createAccount(account().userId());
+                case DEPOSIT -> client.deposit(account(), amount(100));
+                case WITHDRAW -> client.withdraw(account(), amount(50));
+                case TRANSFER -> {
+                    final int sender = popularity.next(random);
+                    int recipient = popularity.next(random);
+
+                    while (recipient == sender) {
+                        recipient = random.nextInt(accounts.size());
+                    }
+
+                    yield client.transfer(accounts.get(sender), accounts.get(recipient), amount(50));
+                }
+                case HISTORY -> client.history(account());
+                case BALANCE -> client.balance(account());
+            };
+        }
+
+        private BankClient.BankAccount account() {
+            return accounts.get(popularity.next(random));
+        }
+
+        /**
+         * Whole cents between 0.01 and the given bound.
+         */
+        private double amount(final int bound) {
+            return (1 + random.nextInt(bound * 100 - 1)) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.tiny.bank.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of a load test run, parsed from {@code key=value} arguments.
+ *
+ * @param users          the users created, each with one funded account, before the run.
+ * @param initialDeposit the amount deposited into every account before the run.
+ * @param threads        the number of workers sending requests.
+ * @param warmup         how long requests are sent before measuring.
+ * @param duration       how long requests are measured.
+ * @param rate           the total requests per second, {@code 0} for workers sending back to back.
+ * @param mix            the weight of every {@link Operation}.
+ * @param theta          the Zipfian skew of account popularity.
+ * @param seed           the seed of the request sequences, the same seed sends the same sequence.
+ * @param minThroughput  the throughput, in requests per second, below which the run fails, {@code 0} to never fail.
+ * @param springArgs     the {@code --} arguments handed over to the application.
+ */
+record LoadTestOptions(int users,
+                       double initialDeposit,
+                       int threads,
+                       Duration warmup,
+                       Duration duration,
+                       double rate,
+                       TrafficMix mix,
+                       double theta,
+                       long seed,
+                       double minThroughput,
+                       List<String> springArgs) {
+
+    private static final Set<String> KEYS = Set.of("users", "initialDeposit", "threads", "warmup", "duration", "rate",
+            "mix", "theta", "seed", "minThroughput");
+
+    LoadTestOptions {
+        if (users < 2) {
+            throw new IllegalArgumentException("users should be at least 2, transfers need two accounts");
+        }
+
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads should be greater than 0");
+        }
+
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("duration should be positive");
+        }
+
+        if (warmup.isNegative()) {
+            throw new IllegalArgumentException("warmup shouldn't be negative");
+        }
+
+        if (rate < 0) {
+            throw new IllegalArgumentException("rate shouldn't be negative");
+        }
+    }
+
+    static LoadTestOptions parse(final String... args) {
+        final Map<String, String> values = new HashMap<>();
+        final List<String> springArgs = new ArrayList<>();
+
+        for (final String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+                continue;
+            }
+
+            final int separator = arg.indexOf('=');
+
+            if (separator < 0 || !KEYS.contains(arg.substring(0, separator))) {
+                throw new IllegalArgumentException("Unknown argument " + arg + ", expected one of " + KEYS);
+            }
+
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                Double.parseDouble(values.getOrDefault("initialDeposit", "1000000")),
+                Integer.parseInt(values.getOrDefault("threads", "8")),
+                Duration.parse(values.getOrDefault("warmup", "PT10S")),
+                Duration.parse(values.getOrDefault("duration", "PT30S")),
+                Double.parseDouble(values.getOrDefault("rate", "0")),
+                TrafficMix.parse(values.getOrDefault("mix", TrafficMix.DEFAULT)),
+                Double.parseDouble(values.getOrDefault("theta", "0.99")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Double.parseDouble(values.getOrDefault("minThroughput", "0")),
+                List.copyOf(springArgs));
+    }
+}
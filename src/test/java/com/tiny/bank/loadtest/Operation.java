@@ -0,0 +1,14 @@
+package com.tiny.bank.loadtest;
+
+/**
+ * The requests a load test worker sends.
+ */
+enum Operation {
+    CREATE_USER,
+    CREATE_ACCOUNT,
+    DEPOSIT,
+    WITHDRAW,
+    TRANSFER,
+    HISTORY,
+    BALANCE
+}
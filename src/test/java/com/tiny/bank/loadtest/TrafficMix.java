@@ -0,0 +1,75 @@
+package com.tiny.bank.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted choice of the next {@link Operation}.
+ */
+final class TrafficMix {
+
+    /**
+     * Mostly reads and transfers, with a trickle of onboarding.
+     */
+    static final String DEFAULT = "create_user:1,create_account:1,deposit:15,withdraw:10,transfer:40,history:23,balance:10";
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private TrafficMix(final Map<Operation, Integer> weights) {
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The traffic mix should have a positive weight");
+        }
+
+        this.operations = weights.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+
+        int total = 0;
+
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Parses a mix such as {@code transfer:3,history:1}, operations left out are never sent.
+     *
+     * @param mix the weight of every operation.
+     * @return the {@link TrafficMix}.
+     */
+    static TrafficMix parse(final String mix) {
+        final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+
+        for (final String entry : mix.split(",")) {
+            final String[] parts = entry.trim().split(":");
+
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid traffic mix entry: " + entry);
+            }
+
+            final int weight = Integer.parseInt(parts[1].trim());
+
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+
+            //Zero weights are left out, the weighted choice relies on strictly increasing cumulative weights
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+
+        return new TrafficMix(weights);
+    }
+
+    Operation next(final Random random) {
+        final int drawn = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        final int index = Arrays.binarySearch(cumulativeWeights, drawn + 1);
+
+        return operations[index >= 0 ? index : -index - 1];
+    }
+}
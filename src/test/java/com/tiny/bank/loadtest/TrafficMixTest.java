@@ -0,0 +1,36 @@
+package com.tiny.bank.loadtest;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Random;
+
+class TrafficMixTest {
+
+    @Test
+    void shouldTestOperationsAreDrawnByWeight() {
+        var victim = TrafficMix.parse("transfer:3, history:1, deposit:0");
+        var random = new Random(42);
+        var counts = new EnumMap<Operation, Integer>(Operation.class);
+
+        for (int i = 0; i < 40_000; i++) {
+            counts.merge(victim.next(random), 1, Integer::sum);
+        }
+
+        Assertions.assertThat(counts)
+                .containsOnlyKeys(Operation.TRANSFER, Operation.HISTORY);
+
+        Assertions.assertThat(counts.get(Operation.TRANSFER))
+                .isBetween(29_000, 31_000);
+    }
+
+    @Test
+    void shouldTestInvalidMixes() {
+        Assertions.assertThatThrownBy(() -> TrafficMix.parse("transfer:0"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Assertions.assertThatThrownBy(() -> TrafficMix.parse("refund:1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,71 @@
+package com.tiny.bank.loadtest;
+
+import java.util.Random;
+
+/**
+ * Draws item indexes following a Zipfian distribution, index 0 being the most popular.
+ *
+ * <p>
+ * Uses the rejection-free method of Gray et al., "Quickly Generating Billion-Record Synthetic Databases", also used by
+ * YCSB: the zeta constants are computed once, then every draw costs a single {@link Math#pow}.
+ * </p>
+ */
+final class ZipfianGenerator {
+
+    private final int items;
+    private final double theta;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+    private final double secondItemThreshold;
+
+    /**
+     * @param items the number of items.
+     * @param theta the skew, in {@code [0, 1)}, a higher skew concentrates more draws on the first items.
+     */
+    ZipfianGenerator(final int items, final double theta) {
+        if (items < 1) {
+            throw new IllegalArgumentException("items should be greater than 0");
+        }
+
+        if (theta < 0 || theta >= 1) {
+            throw new IllegalArgumentException("theta should be within [0, 1)");
+        }
+
+        this.items = items;
+        this.theta = theta;
+        this.zetaN = zeta(items, theta);
+        this.alpha = 1 / (1 - theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+        this.secondItemThreshold = 1 + Math.pow(0.5, theta);
+    }
+
+    /**
+     * @param random the random source of the calling thread.
+     * @return an item index, within {@code [0, items)}.
+     */
+    int next(final Random random) {
+        final double u = random.nextDouble();
+        final double uz = u * zetaN;
+
+        if (uz < 1) {
+            return 0;
+        }
+
+        if (uz < secondItemThreshold) {
+            return Math.min(1, items - 1);
+        }
+
+        return Math.min((int) (items * Math.pow(eta * u - eta + 1, alpha)), items - 1);
+    }
+
+    private static double zeta(final int items, final double theta) {
+        double sum = 0;
+
+        for (int i = 1; i <= items; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,46 @@
+package com.tiny.bank.loadtest;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+class ZipfianGeneratorTest {
+
+    @Test
+    void shouldTestDrawsAreSkewedTowardsTheFirstItems() {
+        var victim = new ZipfianGenerator(1_000, 0.99);
+        var random = new Random(42);
+        var counts = new int[1_000];
+
+        for (int i = 0; i < 100_000; i++) {
+            counts[victim.next(random)]++;
+        }
+
+        Assertions.assertThat(counts[0])
+                .isGreaterThan(counts[1])
+                .isGreaterThan(counts[10] * 5);
+
+        //With theta close to 1 the first 10 of 1000 items take roughly 40% of the draws
+        Assertions.assertThat(Arrays.stream(counts, 0, 10).sum())
+                .isBetween(35_000, 45_000);
+    }
+
+    @Test
+    void shouldTestDrawsStayWithinTheItems() {
+        var victim = new ZipfianGenerator(3, 0.5);
+        var random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertThat(victim.next(random))
+                    .isBetween(0, 2);
+        }
+    }
+
+    @Test
+    void shouldTestInvalidSkew() {
+        Assertions.assertThatThrownBy(() -> new ZipfianGenerator(10, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
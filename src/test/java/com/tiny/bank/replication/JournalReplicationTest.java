@@ -0,0 +1,314 @@
+package com.tiny.bank.replication;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.account.RecordMode;
+import com.tiny.bank.domain.event.BalanceChangePublisher;
+import com.tiny.bank.domain.event.EventBus;
+import com.tiny.bank.domain.event.TransactionRecordPublisher;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.repository.ConcurrentMapUserRepository;
+import com.tiny.bank.repository.EventPublishingUserRepository;
+import com.tiny.bank.repository.UserRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replicates a primary repository to a replica one over a socket, in a single process.
+ */
+class JournalReplicationTest {
+
+    @TempDir
+    Path directory;
+
+    private Path socket;
+    private EventBus eventBus;
+    private AccountFactory primaryAccounts;
+    private UserRepository primary;
+    private JournalServer server;
+    private UserRepository replicaRepository;
+    private JournalReplica victim;
+
+    @BeforeEach
+    void setUp() {
+        socket = directory.resolve("journal.sock");
+        eventBus = new EventBus(1024);
+        primaryAccounts = new AccountFactory(RecordMode.SYNCHRONOUS, new BalanceChangePublisher(eventBus),
+                new TransactionRecordPublisher(eventBus));
+        primary = new EventPublishingUserRepository(new ConcurrentMapUserRepository(), eventBus);
+        server = new JournalServer(socket, eventBus, primary).start();
+        //Account lookups scan the whole repository, the replica must not rely on them
+        replicaRepository = new ConcurrentMapUserRepository() {
+
+            @Override
+            public Optional<Account> findAccount(final UUID accountId) {
+                throw new UnsupportedOperationException("findAccount");
+            }
+        };
+        victim = new JournalReplica(socket, replicaRepository, Duration.ofMillis(20));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        victim.close();
+        server.close();
+        eventBus.close();
+    }
+
+    @Test
+    void shouldTestTheReplicaStartsFromASnapshot() throws Exception {
+        var user = addUserWithAccounts("first", 2);
+        var accounts = List.copyOf(user.accounts());
+
+        user.deposit(accounts.get(0).getAccountId(), BigDecimal.valueOf(100));
+        user.transferBetweenAccounts(BigDecimal.valueOf(30), accounts.get(0).getAccountId(), accounts.get(1).getAccountId());
+        addUserWithAccounts("second", 1);
+        primary.updateUser("second", User::deactivateUser);
+
+        victim.start();
+
+        awaitReplicated();
+    }
+
+    @Test
+    void shouldTestLiveChangesAreReplicated() throws Exception {
+        victim.start();
+        awaitPosition();
+
+        var user = addUserWithAccounts("first", 1);
+        var accountId = user.accounts().iterator().next().getAccountId();
+
+        user.deposit(accountId, BigDecimal.valueOf(100));
+        user.withdraw(accountId, new BigDecimal("12.5"));
+        primary.updateUser("first", existing -> User.createAccount(existing, primaryAccounts));
+        primary.updateUser("first", User::deactivateUser);
+
+        awaitReplicated();
+
+        Assertions.assertThat(replicaRepository.getUser("first"))
+                .get()
+                .extracting(replicated -> replicated.findAccount(accountId).getBalance())
+                .isEqualTo(new BigDecimal("87.5"));
+    }
+
+    @Test
+    void shouldTestTheReplicaResynchronizesWithARestartedPrimary() throws Exception {
+        var user = addUserWithAccounts("first", 1);
+        var accountId = user.accounts().iterator().next().getAccountId();
+
+        victim.start();
+        user.deposit(accountId, BigDecimal.TEN);
+        awaitReplicated();
+
+        server.close();
+        user.deposit(accountId, BigDecimal.ONE);
+        addUserWithAccounts("second", 1);
+
+        server = new JournalServer(socket, eventBus, primary).start();
+
+        awaitReplicated();
+    }
+
+    @Test
+    void shouldTestAReplicaResumesWithinTheEventsKeptByThePrimary() throws Exception {
+        var user = addUserWithAccounts("first", 1);
+        var accountId = user.accounts().iterator().next().getAccountId();
+        String[] snapshot;
+
+        try (var connection = connect(JournalProtocol.SNAPSHOT)) {
+            snapshot = connection.readSnapshot();
+        }
+
+        user.deposit(accountId, BigDecimal.ONE);
+
+        try (var connection = connect(String.join(" ", JournalProtocol.RESUME, snapshot[1], snapshot[2]))) {
+            Assertions.assertThat(connection.readLine())
+                    .isEqualTo(String.join(" ", JournalProtocol.RESUME, snapshot[1], snapshot[2]));
+
+            Assertions.assertThat(connection.readLine())
+                    .startsWith("{\"sequence\":" + snapshot[2] + ",");
+        }
+
+        try (var connection = connect(String.join(" ", JournalProtocol.RESUME, UUID.randomUUID().toString(), snapshot[2]))) {
+            Assertions.assertThat(connection.readLine())
+                    .startsWith(JournalProtocol.SNAPSHOT + " " + server.epoch() + " ");
+        }
+    }
+
+    @Test
+    void shouldTestEventsPublishedDuringASnapshotAreKept() throws Exception {
+        var user = addUserWithAccounts("first", 1);
+        var accountId = user.accounts().iterator().next().getAccountId();
+
+        //Enough for the snapshot to fill the socket buffers while the replica does not read
+        for (int i = 0; i < 20_000; i++) {
+            addUserWithAccounts("user-" + i, 1);
+        }
+
+        try (var connection = connect(JournalProtocol.SNAPSHOT)) {
+            var sequence = Long.parseLong(connection.readLine().split(" ")[2]);
+
+            //Well beyond the capacity of the bus, in bursts the subscriber keeps up with
+            for (int i = 0; i < 10; i++) {
+                for (int j = 0; j < 250; j++) {
+                    user.deposit(accountId, BigDecimal.ONE);
+                }
+
+                Thread.sleep(20);
+            }
+
+            var last = eventBus.nextSequence() - 1;
+            String line;
+
+            do {
+                line = connection.readLine();
+            } while (!JournalProtocol.EVENTS.equals(line));
+
+            while (sequence <= last) {
+                Assertions.assertThat(connection.readLine())
+                        .startsWith("{\"sequence\":" + sequence++ + ",");
+            }
+        }
+    }
+
+    @Test
+    void shouldTestAReplicaLappedByThePrimaryIsDisconnected() throws Exception {
+        var user = addUserWithAccounts("first", 1);
+        var accountId = user.accounts().iterator().next().getAccountId();
+
+        try (var connection = connect(JournalProtocol.SNAPSHOT)) {
+            connection.readSnapshot();
+
+            //Not reading fills the socket buffers, until the bus laps the events the primary still has to send
+            for (int i = 0; i < 20_000; i++) {
+                user.deposit(accountId, BigDecimal.ONE);
+            }
+
+            var lines = 0L;
+
+            while (connection.readLine() != null) {
+                lines++;
+            }
+
+            Assertions.assertThat(lines)
+                    .isLessThan(40_000);
+        }
+    }
+
+    private User addUserWithAccounts(final String ccNumber, final int accounts) {
+        var user = User.createUser(ccNumber, ccNumber, LocalDate.of(1990, 1, 31));
+
+        for (int i = 0; i < accounts; i++) {
+            user = User.createAccount(user, primaryAccounts);
+        }
+
+        primary.addUser(user);
+        return user;
+    }
+
+    private Connection connect(final String request) throws IOException {
+        var channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+
+        channel.connect(UnixDomainSocketAddress.of(socket));
+        Channels.newOutputStream(channel).write((request + '\n').getBytes(StandardCharsets.UTF_8));
+
+        return new Connection(channel, new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8)));
+    }
+
+    private void awaitPosition() throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (victim.position() < 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertThat(victim.position())
+                .isNotNegative();
+    }
+
+    private void awaitReplicated() throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (!state(replicaRepository).equals(state(primary)) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertThat(state(replicaRepository))
+                .isEqualTo(state(primary));
+    }
+
+    /**
+     * @return every user and account of a repository, with balances and histories, in a comparable form.
+     */
+    private static Map<String, String> state(final UserRepository repository) {
+        var state = new TreeMap<String, String>();
+
+        for (var user : repository.getUsers()) {
+            state.put(user.ccNumber(), String.join(",", user.uuid().toString(), user.name(), user.birthdate().toString(),
+                    String.valueOf(user.isUserDeactivated())));
+
+            for (var account : user.accounts()) {
+                state.put(account.getAccountId().toString(), String.join(",", user.ccNumber(),
+                        account.getBalance().toString(),
+                        account.getTransactions().stream().map(JournalReplicationTest::describe).toList().toString()));
+            }
+        }
+
+        return state;
+    }
+
+    private static String describe(final TransactionRecord record) {
+        return String.join("/", record.id().toString(), record.getClass().getSimpleName(),
+                record.balanceAfterTransaction().toString(), record.date().toString(),
+                String.valueOf(record.counterpartyAccountId()), record.description());
+    }
+
+    private record Connection(SocketChannel channel, BufferedReader reader) implements AutoCloseable {
+
+        private String readLine() throws IOException {
+            return reader.readLine();
+        }
+
+        /**
+         * @return the parts of the snapshot response, once the snapshot was read.
+         */
+        private String[] readSnapshot() throws IOException {
+            var response = readLine().split(" ");
+            String line;
+
+            do {
+                line = readLine();
+            } while (line != null && !JournalProtocol.EVENTS.equals(line));
+
+            return response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.user.User;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs the {@link UserRepositoryTest} contract against the cache, and the cases specific to it.
+ */
+class CachedUserRepositoryTest extends UserRepositoryTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicInteger accountLookups = new AtomicInteger();
+
+    private UserRepository delegate;
+
+    @BeforeEach
+    @Override
+    void setUp() {
+        delegate = new ConcurrentMapUserRepository() {
+
+            @Override
+            public Optional<User> getUser(final String id) {
+                loads.incrementAndGet();
+                return super.getUser(id);
+            }
+
+            @Override
+            public Optional<Account> findAccount(final UUID accountId) {
+                accountLookups.incrementAndGet();
+                return super.findAccount(accountId);
+            }
+        };
+
+        victim = new CachedUserRepository(delegate, 100);
+    }
+
+    @Test
+    void shouldTestFrequentlyUsedUsersSurviveAScan() {
+        for (int i = 0; i < 90; i++) {
+            delegate.addUser(User.createUser("name", "hot" + i, LocalDate.now()));
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            delegate.addUser(User.createUser("name", "cold" + i, LocalDate.now()));
+        }
+
+        for (int round = 0; round < 6; round++) {
+            for (int i = 0; i < 90; i++) {
+                victim.getUser("hot" + i);
+            }
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            victim.getUser("cold" + i);
+        }
+
+        loads.set(0);
+
+        for (int i = 0; i < 90; i++) {
+            Assertions.assertThat(victim.getUser("hot" + i))
+                    .isPresent();
+        }
+
+        Assertions.assertThat(loads)
+                .hasValue(0);
+
+        Assertions.assertThat(((CachedUserRepository) victim).size())
+                .isEqualTo(100);
+    }
+
+    @Test
+    void shouldTestUsersWithPendingHoldsAreNeverEvicted() {
+        victim = new CachedUserRepository(delegate, 1);
+
+        var user = User.createAccount(User.createUser("name", "ccNumber", LocalDate.now()));
+        var account = user.accounts().iterator().next();
+
+        victim.addUser(user);
+        account.bankDeposit(BigDecimal.TEN);
+        account.reserve(BigDecimal.ONE, LocalDateTime.now().plusMinutes(5));
+
+        for (int i = 0; i < 10; i++) {
+            victim.addUser(User.createUser("name", "other" + i, LocalDate.now()));
+            victim.getUser("other" + i);
+            victim.getUser("other" + i);
+        }
+
+        loads.set(0);
+
+        Assertions.assertThat(victim.getUser("ccNumber"))
+                .contains(user);
+
+        Assertions.assertThat(loads)
+                .hasValue(0);
+    }
+
+    @Test
+    void shouldTestPinnedUsersAreNotScannedOnEveryEviction() {
+        var checks = new AtomicInteger();
+
+        victim = new CachedUserRepository(delegate, 100, user -> {
+            checks.incrementAndGet();
+            return user.ccNumber().startsWith("pinned");
+        });
+
+        for (int i = 0; i < 50; i++) {
+            victim.addUser(User.createUser("name", "pinned" + i, LocalDate.now()));
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            victim.addUser(User.createUser("name", "other" + i, LocalDate.now()));
+        }
+
+        Assertions.assertThat(checks)
+                .hasValueLessThan(5 * 1_050);
+
+        loads.set(0);
+
+        for (int i = 0; i < 50; i++) {
+            victim.getUser("pinned" + i);
+        }
+
+        Assertions.assertThat(loads)
+                .hasValue(0);
+
+        Assertions.assertThat(((CachedUserRepository) victim).size())
+                .isEqualTo(150);
+    }
+
+    @Test
+    void shouldTestConcurrentLookupsAndWritesKeepTheCacheBounded() throws InterruptedException {
+        for (int i = 0; i < 1_000; i++) {
+            delegate.addUser(User.createUser("name", "ccNumber" + i, LocalDate.now()));
+        }
+
+        var threads = new ArrayList<Thread>();
+        var missing = new AtomicInteger();
+
+        for (int t = 0; t < 4; t++) {
+            final int seed = t;
+
+            threads.add(Thread.ofPlatform().start(() -> {
+                var random = new Random(seed);
+
+                for (int i = 0; i < 20_000; i++) {
+                    var ccNumber = "ccNumber" + random.nextInt(1_000);
+
+                    if (i % 10 == 0) {
+                        victim.updateUser(ccNumber, Function.identity());
+                    } else if (victim.getUser(ccNumber).isEmpty()) {
+                        missing.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertThat(missing)
+                .hasValue(0);
+
+        Assertions.assertThat(((CachedUserRepository) victim).size())
+                .isEqualTo(100);
+    }
+
+    @Test
+    void shouldTestAccountsOfCachedUsersAreFoundInTheCache() {
+        victim.addUser(User.createUser("name", "ccNumber", LocalDate.now()));
+
+        var account = victim.updateUser("ccNumber", User::createAccount).orElseThrow().accounts().iterator().next();
+
+        Assertions.assertThat(victim.findAccount(account.getAccountId()))
+                .get()
+                .isSameAs(account);
+
+        Assertions.assertThat(victim.findAccount(UUID.randomUUID()))
+                .isEmpty();
+
+        Assertions.assertThat(accountLookups)
+                .hasValue(1);
+    }
+
+    @Test
+    void shouldTestWritesGoThroughAndReplaceTheCachedUser() {
+        victim.addUser(User.createUser("name", "ccNumber", LocalDate.now()));
+
+        var updated = victim.updateUser("ccNumber", User::deactivateUser);
+
+        Assertions.assertThat(delegate.getUser("ccNumber"))
+                .isEqualTo(updated);
+
+        Assertions.assertThat(victim.getUser("ccNumber"))
+                .isEqualTo(updated);
+    }
+
+    @Test
+    void shouldTestMissesAreCached() {
+        delegate.addUser(User.createUser("name", "ccNumber", LocalDate.now()));
+
+        victim.getUser("ccNumber");
+        victim.getUser("ccNumber");
+
+        Assertions.assertThat(loads)
+                .hasValue(1);
+    }
+}
@@ -0,0 +1,107 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.event.AccountCreated;
+import com.tiny.bank.domain.event.EventBus;
+import com.tiny.bank.domain.event.LedgerEvent;
+import com.tiny.bank.domain.event.UserCreated;
+import com.tiny.bank.domain.event.UserDeactivated;
+import com.tiny.bank.domain.user.User;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the {@link UserRepositoryTest} contract through the publishing repository, and checks what it publishes.
+ */
+class EventPublishingUserRepositoryTest extends UserRepositoryTest {
+
+    private EventBus eventBus;
+    private final BlockingQueue<LedgerEvent> events = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    @Override
+    void setUp() {
+        eventBus = new EventBus(1024);
+        eventBus.subscribe((sequence, event, endOfBatch) -> events.add(event));
+        victim = new EventPublishingUserRepository(new ConcurrentMapUserRepository(), eventBus);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventBus.close();
+    }
+
+    @Test
+    void shouldTestAddedUsersArePublishedWithTheirAccounts() throws Exception {
+        var user = User.createAccount(User.createUser("name", "ccNumber", LocalDate.of(1990, 1, 31)));
+        var account = user.accounts().iterator().next();
+
+        victim.addUser(user);
+        victim.addUser(user);
+
+        var published = take(2);
+
+        Assertions.assertThat(published.get(0))
+                .isInstanceOfSatisfying(UserCreated.class, created -> Assertions.assertThat(created)
+                        .extracting(UserCreated::ccNumber, UserCreated::userId, UserCreated::name, UserCreated::birthdate)
+                        .containsExactly("ccNumber", user.uuid(), "name", LocalDate.of(1990, 1, 31)));
+
+        Assertions.assertThat(published.get(1))
+                .isInstanceOfSatisfying(AccountCreated.class, created -> Assertions.assertThat(created)
+                        .extracting(AccountCreated::ccNumber, AccountCreated::accountId, AccountCreated::balance)
+                        .containsExactly("ccNumber", account.getAccountId(), BigDecimal.ZERO));
+
+        Assertions.assertThat(events.poll(100, TimeUnit.MILLISECONDS))
+                .as("the duplicate is not published")
+                .isNull();
+    }
+
+    @Test
+    void shouldTestUpdatesPublishNewAccountsAndDeactivations() throws Exception {
+        victim.addUser(User.createUser("name", "ccNumber", LocalDate.now()));
+
+        var account = victim.updateUser("ccNumber", User::createAccount).orElseThrow().accounts().iterator().next();
+
+        victim.updateUser("ccNumber", User::deactivateUser);
+        victim.updateUser("ccNumber", User::deactivateUser);
+        victim.updateUser("missing", User::deactivateUser);
+
+        var published = take(3);
+
+        Assertions.assertThat(published.get(1))
+                .isInstanceOfSatisfying(AccountCreated.class, created -> Assertions.assertThat(created.accountId())
+                        .isEqualTo(account.getAccountId()));
+
+        Assertions.assertThat(published.get(2))
+                .isInstanceOfSatisfying(UserDeactivated.class, deactivated -> Assertions.assertThat(deactivated.ccNumber())
+                        .isEqualTo("ccNumber"));
+
+        Assertions.assertThat(events.poll(100, TimeUnit.MILLISECONDS))
+                .as("deactivating an inactive user is not published")
+                .isNull();
+    }
+
+    private List<LedgerEvent> take(final int count) throws InterruptedException {
+        var taken = new ArrayList<LedgerEvent>();
+
+        for (int i = 0; i < count; i++) {
+            var event = events.poll(5, TimeUnit.SECONDS);
+
+            Assertions.assertThat(event)
+                    .isNotNull();
+
+            taken.add(event);
+        }
+
+        return taken;
+    }
+}
@@ -0,0 +1,51 @@
+package com.tiny.bank.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FrequencySketchTest {
+
+    @Test
+    void shouldTestFrequenciesAreCountedUpToFifteen() {
+        var victim = new FrequencySketch(1_000);
+
+        for (int i = 0; i < 5; i++) {
+            victim.increment("frequent");
+        }
+
+        victim.increment("rare");
+
+        for (int i = 0; i < 20; i++) {
+            victim.increment("saturated");
+        }
+
+        Assertions.assertThat(victim.frequency("frequent"))
+                .isEqualTo(5);
+
+        Assertions.assertThat(victim.frequency("rare"))
+                .isOne();
+
+        Assertions.assertThat(victim.frequency("unknown"))
+                .isZero();
+
+        Assertions.assertThat(victim.frequency("saturated"))
+                .isEqualTo(15);
+    }
+
+    @Test
+    void shouldTestFrequenciesAreHalvedOnceTheSampleIsFull() {
+        var victim = new FrequencySketch(10);
+
+        for (int i = 0; i < 8; i++) {
+            victim.increment("key");
+        }
+
+        //The sample holds ten accesses per entry
+        for (int i = 0; victim.frequency("key") == 8 && i < 100; i++) {
+            victim.increment("other" + i);
+        }
+
+        Assertions.assertThat(victim.frequency("key"))
+                .isEqualTo(4);
+    }
+}
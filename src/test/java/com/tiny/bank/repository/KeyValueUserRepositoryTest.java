@@ -0,0 +1,152 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.HistoryRetention;
+import com.tiny.bank.domain.transaction.TransactionArchive;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import com.tiny.bank.domain.user.State;
+import com.tiny.bank.domain.user.User;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the {@link UserRepositoryTest} contract against the key-value store, and the cases specific to it.
+ */
+class KeyValueUserRepositoryTest extends UserRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    @Override
+    void setUp() {
+        file = directory.resolve("users.mv");
+        victim = new KeyValueUserRepository(file);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ((KeyValueUserRepository) victim).close();
+    }
+
+    @Test
+    void shouldTestAccountsAreHandedOutAsASingleInstance() {
+        victim.addUser(User.createUser("name", "ccNumber", LocalDate.now()));
+
+        var account = victim.updateUser("ccNumber", User::createAccount).orElseThrow().accounts().iterator().next();
+
+        Assertions.assertThat(victim.getUser("ccNumber").orElseThrow().accounts())
+                .singleElement()
+                .isSameAs(account);
+
+        Assertions.assertThat(victim.findAccount(account.getAccountId()))
+                .get()
+                .isSameAs(account);
+    }
+
+    @Test
+    void shouldTestUsersAndBalancesAreRestored() {
+        var user = User.createAccount(User.createUser("name", "ccNumber", LocalDate.of(1990, 1, 31)));
+        var account = user.accounts().iterator().next();
+
+        victim.addUser(user);
+        victim.addUser(User.createUser("name", "secondCcNumber", LocalDate.now()));
+        victim.updateUser("secondCcNumber", User::deactivateUser);
+
+        account.bankDeposit(new BigDecimal("100.50"));
+        account.bankWithdrawal(new BigDecimal("0.25"));
+
+        ((KeyValueUserRepository) victim).close();
+        victim = new KeyValueUserRepository(file);
+
+        var restored = victim.getUser("ccNumber").orElseThrow();
+
+        Assertions.assertThat(restored)
+                .isEqualTo(user);
+
+        Assertions.assertThat(restored.accounts())
+                .extracting(Account::getBalance)
+                .containsExactly(new BigDecimal("100.25"));
+
+        Assertions.assertThat(victim.getUser("secondCcNumber"))
+                .get()
+                .extracting(User::state)
+                .isEqualTo(State.INACTIVE);
+
+        Assertions.assertThat(victim.findAccount(account.getAccountId()))
+                .get()
+                .extracting(Account::getBalance)
+                .isEqualTo(new BigDecimal("100.25"));
+    }
+
+    @Test
+    void shouldTestHotHistoriesSurviveTheCollectionOfUnreferencedAccounts() throws InterruptedException {
+        var accountId = createAccountWithDeposit();
+
+        collectGarbage();
+
+        Assertions.assertThat(victim.findAccount(accountId).orElseThrow().getTransactions())
+                .singleElement()
+                .extracting(TransactionRecord::amount)
+                .isEqualTo(BigDecimal.TEN);
+    }
+
+    @Test
+    void shouldTestAccountsAreReleasedOnceTheirHistoryIsArchived() throws InterruptedException {
+        var accountId = createAccountWithDeposit();
+        var probe = archiveHistory(accountId);
+
+        for (int attempt = 0; attempt < 10 && probe.get() != null; attempt++) {
+            collectGarbage();
+        }
+
+        Assertions.assertThat(probe.get())
+                .isNull();
+
+        Assertions.assertThat(victim.findAccount(accountId).orElseThrow().getBalance())
+                .isEqualByComparingTo(BigDecimal.TEN);
+    }
+
+    private UUID createAccountWithDeposit() {
+        victim.addUser(User.createUser("name", "ccNumber", LocalDate.now()));
+
+        var account = victim.updateUser("ccNumber", User::createAccount).orElseThrow().accounts().iterator().next();
+
+        account.bankDeposit(BigDecimal.TEN);
+
+        return account.getAccountId();
+    }
+
+    /**
+     * Archives the history of the account and looks it up again, which lets the repository release it.
+     */
+    private WeakReference<Account> archiveHistory(final UUID accountId) {
+        var account = victim.findAccount(accountId).orElseThrow();
+
+        account.archiveHistory(new HistoryRetention(0, null), mock(TransactionArchive.class), LocalDateTime.now().plusSeconds(1));
+        victim.findAccount(accountId);
+
+        return new WeakReference<>(account);
+    }
+
+    private static void collectGarbage() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.user.State;
+import com.tiny.bank.domain.user.User;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Runs the {@link UserRepositoryTest} contract against the memory-mapped table, and the cases specific to it.
+ */
+class MappedUserRepositoryTest extends UserRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    @Override
+    void setUp() {
+        file = directory.resolve("balances.tbl");
+        victim = new MappedUserRepository(file);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ((MappedUserRepository) victim).close();
+    }
+
+    @Test
+    void shouldTestUsersAndBalancesAreRestored() throws Exception {
+        var user = User.createUser("Zoë", "ccNumber", LocalDate.of(1990, 1, 31));
+
+        victim.addUser(user);
+        victim.updateUser("ccNumber", User::createAccount);
+        victim.updateUser("ccNumber", User::createAccount);
+
+        var accounts = victim.getUser("ccNumber").orElseThrow().accounts().stream().toList();
+
+        accounts.get(0).bankDeposit(new BigDecimal("100.50"));
+        accounts.get(0).transferTo(new BigDecimal("0.25"), accounts.get(1));
+
+        var restored = reopen().getUser("ccNumber").orElseThrow();
+
+        Assertions.assertThat(restored)
+                .extracting(User::uuid, User::name, User::birthdate, User::state)
+                .containsExactly(user.uuid(), "Zoë", LocalDate.of(1990, 1, 31), State.ACTIVE);
+
+        Assertions.assertThat(restored.accounts())
+                .containsExactlyInAnyOrderElementsOf(accounts);
+
+        Assertions.assertThat(restored.findAccount(accounts.get(0).getAccountId()).getBalance())
+                .isEqualTo(new BigDecimal("100.25"));
+
+        Assertions.assertThat(restored.findAccount(accounts.get(1).getAccountId()).getBalance())
+                .isEqualTo(new BigDecimal("0.25"));
+    }
+
+    @Test
+    void shouldTestRestoredAccountsKeepWritingTheirBalance() throws Exception {
+        victim.addUser(User.createAccount(User.createUser("name", "ccNumber", LocalDate.now())));
+
+        var account = reopen().getUser("ccNumber").orElseThrow().accounts().iterator().next();
+
+        account.bankDeposit(BigDecimal.TEN);
+        account.bankWithdrawal(BigDecimal.ONE);
+
+        Assertions.assertThat(reopen().getUser("ccNumber").orElseThrow().accounts())
+                .extracting(Account::getBalance)
+                .containsExactly(BigDecimal.valueOf(9));
+    }
+
+    @Test
+    void shouldTestDeactivationAndUsersWithoutAccountsAreRestored() throws Exception {
+        victim.addUser(User.createUser("name", "ccNumber", LocalDate.now()));
+        victim.addUser(User.createUser("name", "secondCcNumber", LocalDate.now()));
+        victim.updateUser("ccNumber", User::deactivateUser);
+
+        var restored = reopen();
+
+        Assertions.assertThat(restored.getUser("ccNumber"))
+                .get()
+                .extracting(User::state, User::accounts)
+                .containsExactly(State.INACTIVE, Set.of());
+
+        Assertions.assertThat(restored.getUser("secondCcNumber"))
+                .get()
+                .extracting(User::state)
+                .isEqualTo(State.ACTIVE);
+    }
+
+    @Test
+    void shouldTestFirstAccountTakesTheSlotOfTheUser() throws Exception {
+        victim.addUser(User.createUser("name", "ccNumber", LocalDate.now()));
+
+        var account = victim.updateUser("ccNumber", User::createAccount).orElseThrow().accounts().iterator().next();
+
+        try (var table = new MappedBalanceTable(file)) {
+            Assertions.assertThat(table.size())
+                    .isOne();
+
+            Assertions.assertThat(table.read(0).accountId())
+                    .isEqualTo(account.getAccountId());
+        }
+    }
+
+    @Test
+    void shouldTestUsersNotFittingASlotAreRejected() {
+        var user = User.createUser("n".repeat(MappedBalanceTable.MAX_NAME_BYTES + 1), "ccNumber", LocalDate.now());
+
+        Assertions.assertThatThrownBy(() -> victim.addUser(user))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Assertions.assertThat(victim.getUser("ccNumber"))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestOtherFilesAreNotOpened() throws Exception {
+        var other = directory.resolve("other.tbl");
+
+        Files.write(other, new byte[MappedBalanceTable.SLOT_SIZE]);
+        Files.write(other, "not a balance table".getBytes(), StandardOpenOption.WRITE);
+
+        Assertions.assertThatThrownBy(() -> new MappedBalanceTable(other))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * Closes the repository and opens the file again, as a restarted process would.
+     */
+    private UserRepository reopen() throws Exception {
+        ((MappedUserRepository) victim).close();
+        victim = new MappedUserRepository(file);
+        return victim;
+    }
+}
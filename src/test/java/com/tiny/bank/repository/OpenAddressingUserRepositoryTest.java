@@ -0,0 +1,95 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.user.User;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@link UserRepositoryTest} contract against the open-addressing table, and the cases specific to it.
+ */
+class OpenAddressingUserRepositoryTest extends UserRepositoryTest {
+
+    @BeforeEach
+    @Override
+    void setUp() {
+        victim = new OpenAddressingUserRepository();
+    }
+
+    @Test
+    void shouldTestCollidingKeysAreToldApart() {
+        //"Aa" and "BB" share their String hash code
+        var first = User.createUser("name", "Aa", LocalDate.now());
+        var second = User.createUser("name", "BB", LocalDate.now());
+
+        victim.addUser(first);
+        victim.addUser(second);
+
+        Assertions.assertThat(victim.getUser("Aa"))
+                .contains(first);
+
+        Assertions.assertThat(victim.getUser("BB"))
+                .contains(second);
+
+        Assertions.assertThat(victim.getUser("C#"))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldTestUsersAreFoundWhileTheTableGrows() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final AtomicInteger added = new AtomicInteger();
+
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    victim.addUser(User.createUser("name", "cc" + i, LocalDate.now()));
+                    added.incrementAndGet();
+                }
+            });
+
+            Future<?> reader = executor.submit(() -> {
+                var random = new Random(42);
+
+                while (!writer.isDone()) {
+                    var count = added.get();
+
+                    //A user added before the lookup is never missed, whatever resize happened since
+                    if (count > 0) {
+                        Assertions.assertThat(victim.getUser("cc" + random.nextInt(count)))
+                                .isPresent();
+                    }
+                }
+            });
+
+            writer.get(30, TimeUnit.SECONDS);
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertThat(victim.getUsers())
+                .hasSize(50_000);
+
+        final List<String> missing = new ArrayList<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            if (victim.getUser("cc" + i).isEmpty()) {
+                missing.add("cc" + i);
+            }
+        }
+
+        Assertions.assertThat(missing)
+                .isEmpty();
+    }
+}
@@ -0,0 +1,45 @@
+package com.tiny.bank.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+class ReadBufferTest {
+
+    @Test
+    void shouldTestElementsAreDrainedInOrderUntilTheStripeIsFull() {
+        var victim = new ReadBuffer<Integer>();
+
+        for (int i = 0; i < 16; i++) {
+            Assertions.assertThat(victim.offer(i))
+                    .isTrue();
+        }
+
+        Assertions.assertThat(victim.offer(16))
+                .isFalse();
+
+        var drained = new ArrayList<Integer>();
+
+        victim.drain(drained::add);
+
+        Assertions.assertThat(drained)
+                .hasSize(16)
+                .isSorted()
+                .startsWith(0);
+
+        Assertions.assertThat(victim.offer(16))
+                .isTrue();
+    }
+
+    @Test
+    void shouldTestDrainingAnEmptyBufferDoesNothing() {
+        var victim = new ReadBuffer<Integer>();
+        var drained = new ArrayList<Integer>();
+
+        victim.drain(drained::add);
+
+        Assertions.assertThat(drained)
+                .isEmpty();
+    }
+}
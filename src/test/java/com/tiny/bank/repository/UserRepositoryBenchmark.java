@@ -0,0 +1,106 @@
+package com.tiny.bank.repository;
+
+import com.tiny.bank.domain.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares user lookups by credit card number in the {@link ConcurrentMapUserRepository} map and in the
+ * {@link OpenAddressingUserRepository} table.
+ *
+ * <p>
+ * Keys are looked up at random, so most lookups miss the CPU caches as they would with a large user base. The heap
+ * taken by the index alone, users excluded, is printed once per fork as bytes per user.
+ * </p>
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=UserRepositoryBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Xms4g"})
+@Threads(1)
+public class UserRepositoryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class RepositoryState {
+
+        @Param({"concurrentMap", "openAddressing"})
+        private String backend;
+
+        @Param({"10000000"})
+        private int users;
+
+        private String[] hits;
+        private String[] misses;
+        private UserRepository repository;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            final LocalDate birthdate = LocalDate.of(1990, 1, 1);
+
+            hits = new String[users];
+            misses = new String[users];
+
+            //Distinct copies of every key, a lookup never compares a key against itself
+            for (int i = 0; i < users; i++) {
+                hits[i] = String.valueOf(10_000_000_000L + i);
+                misses[i] = String.valueOf(20_000_000_000L + i);
+            }
+
+            final User[] created = new User[users];
+
+            for (int i = 0; i < users; i++) {
+                created[i] = User.createUser("name", String.valueOf(10_000_000_000L + i), birthdate);
+            }
+
+            final long before = usedHeap();
+
+            repository = "openAddressing".equals(backend) ? new OpenAddressingUserRepository() : new ConcurrentMapUserRepository();
+
+            for (final User user : created) {
+                repository.addUser(user);
+            }
+
+            System.out.printf("%n%s index: %.1f bytes per user%n", backend, (double) (usedHeap() - before) / users);
+        }
+
+        private static long usedHeap() {
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+            }
+
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+    }
+
+    @Benchmark
+    public Optional<User> hit(final RepositoryState state) {
+        return state.repository.getUser(state.hits[ThreadLocalRandom.current().nextInt(state.users)]);
+    }
+
+    @Benchmark
+    public Optional<User> miss(final RepositoryState state) {
+        return state.repository.getUser(state.misses[ThreadLocalRandom.current().nextInt(state.users)]);
+    }
+}
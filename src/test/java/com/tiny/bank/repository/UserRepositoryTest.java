@@ -9,11 +9,11 @@ import java.time.LocalDate;
 
 class UserRepositoryTest {
 
-    private UserRepository victim;
+    UserRepository victim;
 
     @BeforeEach
     void setUp() {
-        victim = new UserRepository();
+        victim = new ConcurrentMapUserRepository();
     }
 
     @Test
@@ -81,4 +81,21 @@ class UserRepositoryTest {
                 .isEqualTo(User.deactivateUser(user));
     }
 
+    @Test
+    void shouldTestUsersRetrieval() {
+        var user = User.createUser("name", "ccNumber", LocalDate.now());
+        var secondUser = User.createUser("name", "secondCcNumber", LocalDate.now());
+
+        victim.addUser(user);
+        victim.addUser(secondUser);
+
+        var result = victim.getUsers();
+
+        Assertions.assertThat(result)
+                .containsExactlyInAnyOrder(user, secondUser);
+
+        Assertions.assertThatThrownBy(() -> result.remove(user))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
 }
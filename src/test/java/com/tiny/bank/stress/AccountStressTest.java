@@ -0,0 +1,209 @@
+package com.tiny.bank.stress;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountFactory;
+import com.tiny.bank.domain.account.AccountBalance;
+import com.tiny.bank.domain.account.BalanceObserver;
+import com.tiny.bank.domain.account.BalanceSheet;
+import com.tiny.bank.domain.account.Hold;
+import com.tiny.bank.domain.account.RecordMode;
+import com.tiny.bank.domain.account.RecordObserver;
+import com.tiny.bank.domain.account.TransferNetting;
+import com.tiny.bank.domain.exception.InsufficientFundsException;
+import com.tiny.bank.domain.transaction.InboundTransactionRecord;
+import com.tiny.bank.domain.transaction.TransactionRecord;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Tag("stress")
+class AccountStressTest {
+
+    private static final int THREADS = 8;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(100);
+
+    private Runnable restoreLogs;
+
+    @BeforeEach
+    void setUp() {
+        restoreLogs = StressRun.muteLogs();
+    }
+
+    @AfterEach
+    void tearDown() {
+        restoreLogs.run();
+    }
+
+    @ParameterizedTest
+    @EnumSource(RecordMode.class)
+    void shouldTestConcurrentTransfersConserveMoney(final RecordMode recordMode) throws Exception {
+        var accounts = accounts(recordMode);
+        var total = INITIAL_BALANCE.multiply(BigDecimal.valueOf(accounts.size()));
+
+        var steps = StressRun.run(THREADS, random -> {
+            var sender = accounts.get(random.nextInt(accounts.size()));
+            var recipient = accounts.get(random.nextInt(accounts.size()));
+
+            if (sender.equals(recipient)) {
+                return;
+            }
+
+            if (random.nextInt(8) == 0) {
+                TransferNetting.settle(List.of(new TransferNetting.Transfer(sender, recipient, amount(random)),
+                        new TransferNetting.Transfer(recipient, sender, amount(random))));
+            } else {
+                try {
+                    sender.transferTo(amount(random), recipient);
+                } catch (InsufficientFundsException e) {
+                    //Expected, balances are kept low so that transfers race for the last funds
+                }
+            }
+        }, random -> {
+            //Every balance sheet is a single point in time, a transfer is either fully in it or not at all
+            var sheet = BalanceSheet.of(accounts);
+
+            Assertions.assertThat(sheet.total())
+                    .isEqualByComparingTo(total);
+
+            assertNotOverdrawn(sheet);
+        });
+
+        Assertions.assertThat(steps)
+                .isPositive();
+
+        Assertions.assertThat(BalanceSheet.of(accounts).total())
+                .isEqualByComparingTo(total);
+
+        assertReconciled(accounts);
+    }
+
+    @ParameterizedTest
+    @EnumSource(RecordMode.class)
+    void shouldTestConcurrentOperationsReconcileWithTheMoneyMovedInAndOut(final RecordMode recordMode) throws Exception {
+        var accounts = accounts(recordMode);
+        var movedCents = new AtomicLong();
+
+        StressRun.run(THREADS, random -> {
+            var account = accounts.get(random.nextInt(accounts.size()));
+            var amount = amount(random);
+
+            try {
+                switch (random.nextInt(5)) {
+                    case 0 -> {
+                        account.bankDeposit(amount);
+                        movedCents.addAndGet(cents(amount));
+                    }
+                    case 1 -> {
+                        account.bankWithdrawal(amount);
+                        movedCents.addAndGet(-cents(amount));
+                    }
+                    case 2 -> {
+                        final Hold hold = account.reserve(amount, LocalDateTime.now().plusMinutes(5));
+
+                        if (random.nextBoolean()) {
+                            account.capture(hold.id(), amount);
+                            movedCents.addAndGet(-cents(amount));
+                        } else {
+                            account.release(hold.id());
+                        }
+                    }
+                    default -> {
+                        var recipient = accounts.get(random.nextInt(accounts.size()));
+
+                        if (!recipient.equals(account)) {
+                            account.transferTo(amount, recipient);
+                        }
+                    }
+                }
+            } catch (InsufficientFundsException e) {
+                //Expected, nothing moved
+            }
+        }, random -> {
+            var sheet = BalanceSheet.of(accounts);
+
+            assertNotOverdrawn(sheet);
+
+            var account = accounts.get(random.nextInt(accounts.size()));
+
+            Assertions.assertThat(account.getAvailableBalance())
+                    .isNotNegative();
+        });
+
+        var expected = INITIAL_BALANCE.multiply(BigDecimal.valueOf(accounts.size()))
+                .add(BigDecimal.valueOf(movedCents.get(), 2));
+
+        Assertions.assertThat(BalanceSheet.of(accounts).total())
+                .isEqualByComparingTo(expected);
+
+        accounts.forEach(account -> Assertions.assertThat(account.getHolds()).isEmpty());
+
+        assertReconciled(accounts);
+    }
+
+    /**
+     * Half of the accounts share their hash code with another account, so transfers between them fall back to the
+     * account id to order their locks.
+     */
+    private static List<Account> accounts(final RecordMode recordMode) {
+        var factory = new AccountFactory(recordMode, BalanceObserver.NONE, RecordObserver.NONE);
+        var accounts = new ArrayList<Account>();
+        var random = new Random();
+
+        for (int i = 0; i < 4; i++) {
+            var high = random.nextLong();
+            var low = random.nextLong();
+
+            //UUID hash codes are the XOR of both halves, swapping them keeps the hash code
+            accounts.add(factory.createAccount(new UUID(high, low), Set.of(), INITIAL_BALANCE));
+            accounts.add(factory.createAccount(new UUID(low, high), Set.of(), INITIAL_BALANCE));
+            accounts.add(factory.createAccount(UUID.randomUUID(), Set.of(), INITIAL_BALANCE));
+            accounts.add(factory.createAccount(UUID.randomUUID(), Set.of(), INITIAL_BALANCE));
+        }
+
+        return List.copyOf(accounts);
+    }
+
+    private static BigDecimal amount(final Random random) {
+        return BigDecimal.valueOf(1 + random.nextInt(6_000), 2);
+    }
+
+    private static long cents(final BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    private static void assertNotOverdrawn(final BalanceSheet sheet) {
+        Assertions.assertThat(sheet.balances())
+                .extracting(AccountBalance::balance)
+                .allMatch(balance -> balance.signum() >= 0);
+    }
+
+    /**
+     * The history of every account adds up to its balance, so no completed operation is missing from it.
+     */
+    private static void assertReconciled(final List<Account> accounts) {
+        for (final Account account : accounts) {
+            var recorded = account.getTransactions().stream()
+                    .map(record -> record instanceof InboundTransactionRecord ? record.amount() : record.amount().negate())
+                    .reduce(INITIAL_BALANCE, BigDecimal::add);
+
+            Assertions.assertThat(recorded)
+                    .isEqualByComparingTo(account.getBalance());
+
+            Assertions.assertThat(account.getTransactions())
+                    .extracting(TransactionRecord::balanceAfterTransaction)
+                    .allMatch(balance -> balance.signum() >= 0);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.tiny.bank.stress;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the steps of a stress test from several threads at once for {@code stress.duration} (one second by default,
+ * e.g. {@code mvn test -Dtest='*StressTest' -Dstress.duration=PT5M} for a longer run).
+ *
+ * <p>
+ * Every worker repeats its step, with its own random source seeded from {@code stress.seed}, until the duration is
+ * over. A worker still running {@link #DEADLOCK_BUDGET} past the end is considered stuck: the run fails with the stack
+ * of every stuck worker, which shows the locks each one is waiting on. Account write locks are not owned by a thread,
+ * so a deadlock on them is only found this way.
+ * </p>
+ */
+final class StressRun {
+
+    static final Duration DURATION = Duration.parse(System.getProperty("stress.duration", "PT1S"));
+
+    private static final Duration DEADLOCK_BUDGET = Duration.ofSeconds(30);
+    private static final long SEED = Long.getLong("stress.seed", System.nanoTime());
+
+    private StressRun() {
+    }
+
+    /**
+     * Turns the application logs off, rejected operations log an error each and would flood the test output.
+     *
+     * @return restores the previous level.
+     */
+    static Runnable muteLogs() {
+        final Logger logger = (Logger) LoggerFactory.getLogger("com.tiny.bank");
+        final Level level = logger.getLevel();
+
+        logger.setLevel(Level.OFF);
+
+        return () -> logger.setLevel(level);
+    }
+
+    /**
+     * A step of a stress test, failing by throwing.
+     */
+    @FunctionalInterface
+    interface Step {
+
+        void run(Random random) throws Exception;
+    }
+
+    /**
+     * Runs the workers alongside an observer, repeating the observer step until every worker is done.
+     *
+     * @param threads  the number of workers.
+     * @param worker   the step of every worker.
+     * @param observer the step checking invariants while the workers run.
+     * @return the number of worker steps run.
+     */
+    static long run(final int threads, final Step worker, final Step observer) throws InterruptedException {
+        final long end = System.nanoTime() + DURATION.toNanos();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        final LongAdder steps = new LongAdder();
+        final List<Thread> workers = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            final Random random = new Random(SEED + i);
+
+            workers.add(Thread.ofPlatform().name("stress-worker-" + i).start(() -> {
+                try {
+                    start.await();
+
+                    while (System.nanoTime() < end && failures.isEmpty()) {
+                        worker.run(random);
+                        steps.increment();
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    done.countDown();
+                }
+            }));
+        }
+
+        final Thread observing = Thread.ofPlatform().name("stress-observer").start(() -> {
+            final Random random = new Random(SEED - 1);
+
+            try {
+                start.await();
+
+                while (done.getCount() > 0 && failures.isEmpty()) {
+                    observer.run(random);
+                }
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+
+        workers.add(observing);
+        start.countDown();
+
+        if (!done.await(DURATION.plus(DEADLOCK_BUDGET).toMillis(), TimeUnit.MILLISECONDS)) {
+            final StringBuilder dump = new StringBuilder();
+
+            for (final Thread thread : workers) {
+                if (thread.isAlive()) {
+                    dump.append(System.lineSeparator()).append(thread.getName());
+
+                    for (final StackTraceElement element : thread.getStackTrace()) {
+                        dump.append(System.lineSeparator()).append("\tat ").append(element);
+                    }
+
+                    thread.interrupt();
+                }
+            }
+
+            throw new AssertionError("Workers still running " + DEADLOCK_BUDGET + " after the run, seed=" + SEED + dump);
+        }
+
+        observing.join();
+
+        if (!failures.isEmpty()) {
+            final AssertionError error = new AssertionError("Stress run failed, seed=" + SEED, failures.peek());
+
+            failures.stream().skip(1).forEach(error::addSuppressed);
+            throw error;
+        }
+
+        return steps.sum();
+    }
+}
@@ -0,0 +1,116 @@
+package com.tiny.bank.stress;
+
+import com.tiny.bank.domain.account.Account;
+import com.tiny.bank.domain.account.AccountBalance;
+import com.tiny.bank.domain.account.BalanceSheet;
+import com.tiny.bank.domain.exception.InsufficientFundsException;
+import com.tiny.bank.domain.exception.OverloadedException;
+import com.tiny.bank.domain.transaction.Transaction;
+import com.tiny.bank.domain.usecase.GradientConcurrencyLimiter;
+import com.tiny.bank.domain.usecase.OperationCheck;
+import com.tiny.bank.domain.usecase.transaction.TransactionProcessor;
+import com.tiny.bank.domain.user.User;
+import com.tiny.bank.repository.ConcurrentMapUserRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@Tag("stress")
+class TransactionProcessorStressTest {
+
+    private static final int THREADS = 8;
+    private static final int USERS = 6;
+    private static final int ACCOUNTS_PER_USER = 3;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(100);
+
+    private Runnable restoreLogs;
+
+    @BeforeEach
+    void setUp() {
+        restoreLogs = StressRun.muteLogs();
+    }
+
+    @AfterEach
+    void tearDown() {
+        restoreLogs.run();
+    }
+
+    @Test
+    void shouldTestRandomTransferGraphsConserveMoney() throws Exception {
+        var repository = new ConcurrentMapUserRepository();
+        var owners = new ArrayList<User>();
+        var accounts = new ArrayList<Account>();
+
+        for (int i = 0; i < USERS; i++) {
+            var user = User.createUser("Stress " + i, "STRESS" + i, LocalDate.of(1990, 1, 1));
+
+            for (int j = 0; j < ACCOUNTS_PER_USER; j++) {
+                user = User.createAccount(user);
+            }
+
+            repository.addUser(user);
+
+            for (final Account account : user.accounts()) {
+                account.bankDeposit(INITIAL_BALANCE);
+                owners.add(user);
+                accounts.add(account);
+            }
+        }
+
+        var total = INITIAL_BALANCE.multiply(BigDecimal.valueOf(accounts.size()));
+        var victim = new TransactionProcessor(repository, OperationCheck.NONE, new GradientConcurrencyLimiter(4, 1, 16));
+
+        StressRun.run(THREADS, random -> {
+            if (random.nextInt(8) == 0) {
+                var batch = new ArrayList<Transaction>();
+
+                for (int i = 0; i < 4; i++) {
+                    batch.add(transaction(random, owners, accounts));
+                }
+
+                victim.processNetted(batch);
+                return;
+            }
+
+            try {
+                victim.process(transaction(random, owners, accounts));
+            } catch (InsufficientFundsException | OverloadedException e) {
+                //Expected, nothing moved
+            }
+        }, random -> {
+            var sheet = BalanceSheet.of(accounts);
+
+            Assertions.assertThat(sheet.total())
+                    .isEqualByComparingTo(total);
+
+            Assertions.assertThat(sheet.balances())
+                    .extracting(AccountBalance::balance)
+                    .allMatch(balance -> balance.signum() >= 0);
+        });
+
+        Assertions.assertThat(BalanceSheet.of(accounts).total())
+                .isEqualByComparingTo(total);
+    }
+
+    /**
+     * A transfer between two distinct accounts, of the same user or not, large enough to regularly overdraw.
+     */
+    private static Transaction transaction(final Random random, final List<User> owners, final List<Account> accounts) {
+        final int sender = random.nextInt(accounts.size());
+        final int recipient = (sender + 1 + random.nextInt(accounts.size() - 1)) % accounts.size();
+
+        return new Transaction(BigDecimal.valueOf(1 + random.nextInt(6_000), 2),
+                owners.get(sender).ccNumber(),
+                accounts.get(sender).getAccountId(),
+                owners.get(recipient).ccNumber(),
+                accounts.get(recipient).getAccountId());
+    }
+}